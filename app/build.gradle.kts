@@ -38,6 +38,18 @@ android {
         viewBinding = true
         buildConfig = true
     }
+
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+            all {
+                // Forward -Dload.* so load tests can be tuned from the command line
+                System.getProperties().stringPropertyNames()
+                    .filter { name -> name.startsWith("load.") }
+                    .forEach { name -> it.systemProperty(name, System.getProperty(name)) }
+            }
+        }
+    }
 }
 
 dependencies {
@@ -65,6 +77,8 @@ dependencies {
 
     // Glide for image loading
     implementation(libs.glide)
+    implementation(libs.glide.okhttp3)
+    implementation(libs.glide.recyclerview)
     annotationProcessor(libs.glide.compiler)
 
     // Syntax Highlighting (JitPack - using master snapshot)
@@ -80,6 +94,9 @@ dependencies {
 
     // Testing
     testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
+    testImplementation(libs.robolectric)
+    testImplementation(libs.arch.core.testing)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
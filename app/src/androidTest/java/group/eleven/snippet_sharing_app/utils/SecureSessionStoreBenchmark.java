@@ -0,0 +1,148 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.security.crypto.EncryptedSharedPreferences;
+import androidx.security.crypto.MasterKey;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Session path timings on a device, where the Keystore is real: {@link SecureSessionStore}
+ * against plain SharedPreferences and EncryptedSharedPreferences. Medians go to logcat
+ * under {@value #TAG}. The only hard check is that the store's reads beat
+ * EncryptedSharedPreferences, which decrypts on every read.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SecureSessionStoreBenchmark {
+
+    private static final String TAG = "SessionStoreBench";
+    private static final String PLAIN_PREFS = "bench_plain";
+    private static final String ENCRYPTED_PREFS = "bench_encrypted";
+    private static final int OPEN_RUNS = 5;
+    private static final int WRITE_RUNS = 50;
+    private static final int READ_RUNS = 1000;
+
+    private Context context;
+    private String token;
+    private String userJson;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        token = repeat('t', 64);
+        userJson = "{\"id\":\"7\",\"username\":\"octocat\",\"bio\":\"" + repeat('b', 400) + "\"}";
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteSharedPreferences(PLAIN_PREFS);
+        context.deleteSharedPreferences(ENCRYPTED_PREFS);
+    }
+
+    @Test
+    public void compareSessionStores() throws Exception {
+        MasterKey masterKey = new MasterKey.Builder(context)
+                .setKeyScheme(MasterKey.KeyScheme.AES256_GCM)
+                .build();
+
+        long[] plainOpen = new long[OPEN_RUNS];
+        long[] encryptedOpen = new long[OPEN_RUNS];
+        long[] secureOpen = new long[OPEN_RUNS];
+        SharedPreferences plain = null;
+        SharedPreferences encrypted = null;
+        SecureSessionStore secure = null;
+        for (int i = 0; i < OPEN_RUNS; i++) {
+            long start = System.nanoTime();
+            plain = context.getSharedPreferences(PLAIN_PREFS, Context.MODE_PRIVATE);
+            plainOpen[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            encrypted = EncryptedSharedPreferences.create(context, ENCRYPTED_PREFS, masterKey,
+                    EncryptedSharedPreferences.PrefKeyEncryptionScheme.AES256_SIV,
+                    EncryptedSharedPreferences.PrefValueEncryptionScheme.AES256_GCM);
+            encryptedOpen[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            secure = new SecureSessionStore(context);
+            secureOpen[i] = System.nanoTime() - start;
+        }
+        assertTrue("Keystore should be usable on a device", secure.isPersistent());
+
+        long[] plainWrite = new long[WRITE_RUNS];
+        long[] encryptedWrite = new long[WRITE_RUNS];
+        long[] secureWrite = new long[WRITE_RUNS];
+        for (int i = 0; i < WRITE_RUNS; i++) {
+            // A login: token and user in one transaction, a new token each time
+            String value = token + i;
+            long start = System.nanoTime();
+            plain.edit().putString("auth_token", value).putString("user", userJson).commit();
+            plainWrite[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            encrypted.edit().putString("auth_token", value).putString("user", userJson).commit();
+            encryptedWrite[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            secure.edit().putString("auth_token", value).putString("user", userJson).commit();
+            secureWrite[i] = System.nanoTime() - start;
+        }
+
+        long[] plainRead = new long[READ_RUNS];
+        long[] encryptedRead = new long[READ_RUNS];
+        long[] secureRead = new long[READ_RUNS];
+        String expected = token + (WRITE_RUNS - 1);
+        for (int i = 0; i < READ_RUNS; i++) {
+            // Every API call reads the token for its auth header
+            long start = System.nanoTime();
+            assertEquals(expected, plain.getString("auth_token", null));
+            plainRead[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals(expected, encrypted.getString("auth_token", null));
+            encryptedRead[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            assertEquals(expected, secure.getString("auth_token", null));
+            secureRead[i] = System.nanoTime() - start;
+        }
+
+        report("open", plainOpen, encryptedOpen, secureOpen);
+        report("login write", plainWrite, encryptedWrite, secureWrite);
+        report("token read", plainRead, encryptedRead, secureRead);
+        secure.edit().clear().commit();
+
+        assertTrue("Secure store reads should beat EncryptedSharedPreferences",
+                median(secureRead) < median(encryptedRead));
+    }
+
+    private static void report(String what, long[] plain, long[] encrypted, long[] secure) {
+        Log.i(TAG, what + " median (us): plain=" + median(plain) / 1000.0
+                + " encrypted=" + median(encrypted) / 1000.0
+                + " secure=" + median(secure) / 1000.0);
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
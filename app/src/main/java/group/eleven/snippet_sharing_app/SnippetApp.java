@@ -2,9 +2,24 @@ package group.eleven.snippet_sharing_app;
 
 import android.app.Application;
 import android.content.SharedPreferences;
+import android.os.StrictMode;
 import android.util.Log;
 import android.widget.Toast;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.data.cache.CacheBudget;
+import group.eleven.snippet_sharing_app.data.cache.CacheDirFiles;
+import group.eleven.snippet_sharing_app.data.cache.FeedSnapshotStore;
+import group.eleven.snippet_sharing_app.data.upload.ResumableUploader;
+import group.eleven.snippet_sharing_app.startup.AppStartup;
+import group.eleven.snippet_sharing_app.startup.Initializer;
+import group.eleven.snippet_sharing_app.ui.home.CardViewPool;
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+import group.eleven.snippet_sharing_app.utils.SessionManager;
+import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
 import group.eleven.snippet_sharing_app.utils.ThemeManager;
 
 import java.io.File;
@@ -22,8 +37,9 @@ public class SnippetApp extends Application {
         super.onCreate();
         Log.d(TAG, "Application onCreate");
 
-        // Apply saved theme preference on app startup
-        ThemeManager.getInstance(this).applyTheme();
+        AppStartup startup = AppStartup.getInstance();
+        registerInitializers(startup);
+        startup.start(this);
 
         // --- START COMMENTED OUT: GLOBAL EXCEPTION HANDLER AND SESSION DATA CLEARING ---
         // // Save the default handler
@@ -67,6 +83,69 @@ public class SnippetApp extends Application {
         Log.d(TAG, "Application initialized successfully");
     }
 
+    /**
+     * Only what the first frame cannot do without is critical. The session store and the
+     * API client are warmed in the background so the first screen's requests do not build
+     * them on the main thread; everything else waits for the first idle moment.
+     */
+    private void registerInitializers(AppStartup startup) {
+        if (BuildConfig.DEBUG) {
+            startup.register(new Initializer("strict-mode", Initializer.Phase.CRITICAL,
+                    context -> enableStrictMode()));
+        }
+        // Night mode must be set before the first activity inflates
+        startup.register(new Initializer("theme", Initializer.Phase.CRITICAL,
+                context -> ThemeManager.getInstance(context).applyTheme()));
+
+        // Unwraps the Keystore key and decrypts the session
+        startup.register(new Initializer("session", Initializer.Phase.BACKGROUND,
+                SessionManager::new));
+        startup.register(new Initializer("api-client", Initializer.Phase.BACKGROUND,
+                ApiClient::getApiService, "session"));
+        startup.register(new Initializer("glide", Initializer.Phase.BACKGROUND,
+                Glide::get, "api-client"));
+        // Compiles the highlighter's patterns before the first feed is mapped
+        startup.register(new Initializer("highlighter", Initializer.Phase.BACKGROUND,
+                context -> SyntaxHighlighter.tokenize("int x = 0;")));
+
+        startup.register(new Initializer("caches", Initializer.Phase.IDLE,
+                context -> registerCaches()));
+        // Only a user who uploads something needs the uploader and its saved sessions
+        startup.register(new Initializer("uploads", Initializer.Phase.ON_DEMAND,
+                context -> ResumableUploader.getInstance(context).pruneExpiredSessions(), "api-client"));
+    }
+
+    /**
+     * Put the app's caches under one memory and disk budget and trim any overshoot left
+     * from the last run. Glide registers its own caches when it starts.
+     */
+    private void registerCaches() {
+        CacheBudget budget = CacheBudget.getInstance(this);
+        budget.register(CardViewPool.getInstance());
+        budget.register(FeedSnapshotStore.getInstance(this).asManagedCache());
+        budget.register(new CacheDirFiles(this, DiskCache.Factory.DEFAULT_DISK_CACHE_DIR));
+        budget.enforce();
+    }
+
+    /**
+     * Log disk and network work on the main thread in debug builds. Such work belongs on
+     * {@link AppExecutors#io()} or {@link AppExecutors#diskWriter()}.
+     */
+    private void enableStrictMode() {
+        StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .detectCustomSlowCalls()
+                .penaltyLog()
+                .build());
+        StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                .detectLeakedClosableObjects()
+                .detectActivityLeaks()
+                .penaltyLog()
+                .build());
+    }
+
     /**
      * Clear old session data that might cause issues
      */
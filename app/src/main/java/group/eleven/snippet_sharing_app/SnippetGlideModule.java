@@ -0,0 +1,292 @@
+package group.eleven.snippet_sharing_app;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.disklrucache.DiskLruCache;
+import com.bumptech.glide.integration.okhttp3.OkHttpUrlLoader;
+import com.bumptech.glide.load.Key;
+import com.bumptech.glide.load.engine.Resource;
+import com.bumptech.glide.load.engine.cache.DiskCache;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.engine.cache.SafeKeyGenerator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.data.cache.CacheBudget;
+import group.eleven.snippet_sharing_app.data.cache.ManagedCache;
+
+/**
+ * Glide configuration: images load through the app's OkHttp stack (shared connections,
+ * storage auth, network quality metrics). The memory cache is sized from device RAM and the
+ * disk cache from the {@link CacheBudget} disk budget; both are registered with the budget.
+ */
+@GlideModule
+public final class SnippetGlideModule extends AppGlideModule {
+
+    private static final String TAG = "SnippetGlideModule";
+    private static final long LOW_RAM_BYTES = 2L * 1024 * 1024 * 1024;
+    // Images may fill most of the disk budget; the rest is for the offline feed and temp files
+    private static final int DISK_CACHE_BUDGET_PERCENT = 70;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        boolean lowRam = activityManager.isLowRamDevice() || memoryInfo.totalMem < LOW_RAM_BYTES;
+
+        // Avatars are small; a screen or two of memory cache is plenty on low-RAM devices
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(lowRam ? 1 : 2)
+                .setBitmapPoolScreens(lowRam ? 1 : 3)
+                .build();
+        builder.setMemorySizeCalculator(calculator);
+        BudgetedMemoryCache memoryCache = new BudgetedMemoryCache(calculator.getMemoryCacheSize());
+        builder.setMemoryCache(memoryCache);
+
+        CacheBudget budget = CacheBudget.getInstance(context);
+        long diskCacheSize = budget.getDiskBudget() * DISK_CACHE_BUDGET_PERCENT / 100;
+        BudgetedDiskCache diskCache = new BudgetedDiskCache(context, budget, diskCacheSize);
+        builder.setDiskCache(diskCache);
+
+        budget.register(memoryCache);
+        budget.register(diskCache);
+        Log.d(TAG, "Glide caches: memory=" + calculator.getMemoryCacheSize()
+                + " pool=" + calculator.getBitmapPoolSize() + " disk=" + diskCacheSize + " lowRam=" + lowRam);
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.replace(GlideUrl.class, InputStream.class,
+                new OkHttpUrlLoader.Factory(ApiClient.getImageClient(context)));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    /**
+     * Glide's LRU memory cache of decoded images, stamped on every hit so the budget can
+     * tell how recently it was used
+     */
+    private static final class BudgetedMemoryCache extends LruResourceCache implements ManagedCache {
+        private volatile long lastUsedAt;
+
+        BudgetedMemoryCache(long size) {
+            super(size);
+        }
+
+        @Nullable
+        @Override
+        public synchronized Resource<?> put(@NonNull Key key, @Nullable Resource<?> item) {
+            lastUsedAt = System.currentTimeMillis();
+            return super.put(key, item);
+        }
+
+        @Nullable
+        @Override
+        public synchronized Resource<?> remove(@NonNull Key key) {
+            // Glide takes resources out of the cache while they are in use
+            lastUsedAt = System.currentTimeMillis();
+            return super.remove(key);
+        }
+
+        @Override
+        public String getName() {
+            return "Images (memory)";
+        }
+
+        @Override
+        public Kind getKind() {
+            return Kind.MEMORY;
+        }
+
+        @Override
+        public int getPriority() {
+            return CacheBudget.PRIORITY_NORMAL;
+        }
+
+        @Override
+        public long estimateSizeBytes() {
+            return getCurrentSize();
+        }
+
+        @Override
+        public long getLastUsedAt() {
+            return lastUsedAt;
+        }
+
+        @Override
+        public synchronized void trimToSize(long maxBytes) {
+            super.trimToSize(maxBytes);
+        }
+
+        @Override
+        public void clear() {
+            clearMemory();
+        }
+    }
+
+    /**
+     * Glide's disk cache, built here rather than by Glide's own factory so the budget can
+     * shrink it. The same {@link DiskLruCache} Glide uses keeps it under its size limit,
+     * evicting the least recently read or written images first, and a budget trim evicts
+     * the same way. Glide calls it from its disk threads, the budget from the disk writer;
+     * the underlying cache is synchronized.
+     */
+    private static final class BudgetedDiskCache implements DiskCache, DiskCache.Factory, ManagedCache {
+        // Same as Glide's own disk cache, so the existing directory is reused
+        private static final int APP_VERSION = 1;
+        private static final int VALUE_COUNT = 1;
+
+        private final Context context;
+        private final CacheBudget budget;
+        private final SafeKeyGenerator safeKeyGenerator = new SafeKeyGenerator();
+        private final long maxSize;
+        private DiskLruCache diskLruCache;
+
+        BudgetedDiskCache(Context context, CacheBudget budget, long maxSize) {
+            this.context = context.getApplicationContext();
+            this.budget = budget;
+            this.maxSize = maxSize;
+        }
+
+        private File dir() {
+            return new File(context.getCacheDir(), DiskCache.Factory.DEFAULT_DISK_CACHE_DIR);
+        }
+
+        private synchronized DiskLruCache cache() throws IOException {
+            if (diskLruCache == null || diskLruCache.isClosed()) {
+                diskLruCache = DiskLruCache.open(dir(), APP_VERSION, VALUE_COUNT, maxSize);
+            }
+            return diskLruCache;
+        }
+
+        @Nullable
+        @Override
+        public DiskCache build() {
+            return this;
+        }
+
+        @Nullable
+        @Override
+        public File get(Key key) {
+            try {
+                DiskLruCache.Value value = cache().get(safeKeyGenerator.getSafeKey(key));
+                return value != null ? value.getFile(0) : null;
+            } catch (IOException e) {
+                Log.w(TAG, "Image disk cache read failed", e);
+                return null;
+            }
+        }
+
+        @Override
+        public void put(Key key, Writer writer) {
+            String safeKey = safeKeyGenerator.getSafeKey(key);
+            try {
+                DiskLruCache cache = cache();
+                if (cache.get(safeKey) != null) {
+                    return;
+                }
+                // Null while another thread writes the same image; its copy will do
+                DiskLruCache.Editor editor = cache.edit(safeKey);
+                if (editor == null) {
+                    return;
+                }
+                try {
+                    if (writer.write(editor.getFile(0))) {
+                        editor.commit();
+                        budget.onDiskWrite();
+                    }
+                } finally {
+                    editor.abortUnlessCommitted();
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Image disk cache write failed", e);
+            }
+        }
+
+        @Override
+        public void delete(Key key) {
+            try {
+                cache().remove(safeKeyGenerator.getSafeKey(key));
+            } catch (IOException e) {
+                Log.w(TAG, "Image disk cache delete failed", e);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "Images (disk)";
+        }
+
+        @Override
+        public Kind getKind() {
+            return Kind.DISK;
+        }
+
+        @Override
+        public int getPriority() {
+            return CacheBudget.PRIORITY_NORMAL;
+        }
+
+        @Override
+        public long estimateSizeBytes() {
+            try {
+                return cache().size();
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+        @Override
+        public long getLastUsedAt() {
+            // Every read and write is appended to the journal
+            return new File(dir(), "journal").lastModified();
+        }
+
+        @Override
+        public synchronized void trimToSize(long maxBytes) {
+            try {
+                DiskLruCache cache = cache();
+                if (cache.size() <= maxBytes) {
+                    return;
+                }
+                // flush() evicts down to the lowered limit on this thread; the normal limit
+                // then applies again and the budget re-checks after later writes
+                cache.setMaxSize(maxBytes);
+                cache.flush();
+                cache.setMaxSize(maxSize);
+            } catch (IOException e) {
+                Log.w(TAG, "Image disk cache trim failed", e);
+            }
+        }
+
+        @Override
+        public synchronized void clear() {
+            try {
+                cache().delete();
+            } catch (IOException e) {
+                Log.w(TAG, "Image disk cache clear failed", e);
+            } finally {
+                diskLruCache = null;
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package group.eleven.snippet_sharing_app.api;
 
 import android.content.Context;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
@@ -11,6 +13,8 @@ import group.eleven.snippet_sharing_app.utils.SessionManager;
 
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Authenticator;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -21,8 +25,11 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * Singleton class for Retrofit API client configuration
  */
 public class ApiClient {
-    private static final String BASE_URL = BuildConfig.API_BASE_URL;
+    private static volatile String baseUrl = BuildConfig.API_BASE_URL;
     private static final String STORAGE_BASE_URL = BuildConfig.STORAGE_BASE_URL;
+    private static final RateLimitInterceptor rateLimiter = new RateLimitInterceptor();
+    private static OkHttpClient okHttpClient = null;
+    private static OkHttpClient imageClient = null;
     private static Retrofit retrofit = null;
     private static ApiService apiService = null;
 
@@ -32,20 +39,39 @@ public class ApiClient {
 
     public static synchronized Retrofit getClient(Context context) {
         if (retrofit == null) {
-            // Logging interceptor for debugging
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
+            // Debug builds only. Streamed bodies are logged without their content: the body
+            // logger would buffer the whole body in memory just to print or skip it.
+            HttpLoggingInterceptor bodyLogger = new HttpLoggingInterceptor();
+            bodyLogger.setLevel(BuildConfig.DEBUG ? HttpLoggingInterceptor.Level.BODY : HttpLoggingInterceptor.Level.NONE);
+            HttpLoggingInterceptor headerLogger = new HttpLoggingInterceptor();
+            headerLogger.setLevel(BuildConfig.DEBUG ? HttpLoggingInterceptor.Level.HEADERS : HttpLoggingInterceptor.Level.NONE);
 
             // Session manager for token
             SessionManager sessionManager = new SessionManager(context);
 
             // OkHttp client with interceptors
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(loggingInterceptor)
+            okHttpClient = new OkHttpClient.Builder()
+                    // Backoff retries for idempotent calls, behind a per-host circuit breaker
+                    .addInterceptor(new RetryInterceptor())
+                    // Throttle every attempt, before it takes a dispatcher slot
+                    .addInterceptor(rateLimiter)
+                    // Schedule attempts by priority class instead of the dispatcher's FIFO queue
+                    .dispatcher(PriorityDispatcher.createPassThroughDispatcher())
+                    .addInterceptor(new PriorityDispatcher())
+                    // List calls ask for card fields and code previews only
+                    .addInterceptor(new FieldProjectionInterceptor())
+                    // Page sizes and timeouts follow the measured network quality
+                    .eventListenerFactory(NetworkQualityEstimator.getInstance().eventListenerFactory())
+                    .addInterceptor(NetworkQualityEstimator.getInstance().adaptiveInterceptor())
+                    // Gzip large snippet bodies; falls back to plain on 415
+                    .addInterceptor(new GzipRequestInterceptor())
+                    .addInterceptor(chain -> hasStreamedBody(chain.request())
+                            ? headerLogger.intercept(chain)
+                            : bodyLogger.intercept(chain))
                     .addInterceptor(chain -> {
                         Request original = chain.request();
                         Request.Builder requestBuilder = original.newBuilder()
-                                .header("Accept", "application/json")
+                                .header("Accept", MessagePackConverterFactory.ACCEPT_HEADER)
                                 .header("Content-Type", "application/json");
 
                         // Add auth token if available
@@ -56,6 +82,9 @@ public class ApiClient {
 
                         return chain.proceed(requestBuilder.build());
                     })
+                    // Refresh expired tokens in place instead of rebuilding the client
+                    .authenticator(new TokenAuthenticator(context, sessionManager))
+                    // Defaults; adaptiveInterceptor overrides these per call
                     .connectTimeout(30, TimeUnit.SECONDS)
                     .readTimeout(30, TimeUnit.SECONDS)
                     .writeTimeout(30, TimeUnit.SECONDS)
@@ -66,14 +95,39 @@ public class ApiClient {
                     .create();
 
             retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .client(client)
+                    .baseUrl(baseUrl)
+                    .client(okHttpClient)
+                    // Compact binary responses when the server offers them, JSON otherwise
+                    .addConverterFactory(MessagePackConverterFactory.create(gson))
+                    // Large request bodies are written straight to the connection
+                    .addConverterFactory(StreamingJsonConverterFactory.create(gson))
                     .addConverterFactory(GsonConverterFactory.create(gson))
                     .build();
         }
         return retrofit;
     }
 
+    /**
+     * True for bodies written straight to the connection, plain or gzipped
+     */
+    private static boolean hasStreamedBody(Request request) {
+        return request.body() instanceof StreamingJsonConverterFactory.StreamingJsonBody
+                || request.header("Content-Encoding") != null;
+    }
+
+    /**
+     * Point the client at another API server, e.g. the replay server in JVM tests. Clients
+     * built so far are dropped and rebuilt against the new URL on next use.
+     */
+    @VisibleForTesting
+    public static synchronized void setBaseUrlForTesting(String url) {
+        baseUrl = url;
+        okHttpClient = null;
+        imageClient = null;
+        retrofit = null;
+        apiService = null;
+    }
+
     public static synchronized ApiService getApiService(Context context) {
         if (apiService == null) {
             apiService = getClient(context).create(ApiService.class);
@@ -82,11 +136,55 @@ public class ApiClient {
     }
 
     /**
-     * Reset the client (useful when token changes)
+     * Client for image loading (Glide). It shares the API client's connection pool, dispatcher
+     * and network quality listener, but skips the JSON, throttling and retry interceptors.
+     * The auth header is only sent to the API/storage host, never to third-party avatar hosts.
+     */
+    public static synchronized OkHttpClient getImageClient(Context context) {
+        if (imageClient == null) {
+            getClient(context);
+            SessionManager sessionManager = new SessionManager(context);
+            String apiHost = HttpUrl.get(baseUrl).host();
+            OkHttpClient.Builder builder = okHttpClient.newBuilder();
+            builder.interceptors().clear();
+            imageClient = builder
+                    .authenticator(Authenticator.NONE)
+                    .addInterceptor(chain -> {
+                        Request request = chain.request();
+                        String token = sessionManager.getAuthToken();
+                        if (token != null && !token.isEmpty() && apiHost.equals(request.url().host())) {
+                            request = request.newBuilder().header("Authorization", "Bearer " + token).build();
+                        }
+                        return chain.proceed(request);
+                    })
+                    .build();
+        }
+        return imageClient;
+    }
+
+    /**
+     * Shared rate limiter, exposed for throttle metrics
+     */
+    public static RateLimitInterceptor getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Circuit breaker for the API host. Observe its state to fall back to cached data
+     * while the backend is unhealthy.
+     */
+    public static CircuitBreaker getCircuitBreaker() {
+        return CircuitBreaker.forHost(HttpUrl.get(baseUrl).host());
+    }
+
+    /**
+     * Cancel in-flight calls made for the previous session (e.g. on logout).
+     * The token is read per request, so the client and its connection pool are kept.
      */
     public static synchronized void resetClient() {
-        retrofit = null;
-        apiService = null;
+        if (okHttpClient != null) {
+            okHttpClient.dispatcher().cancelAll();
+        }
     }
 
     /**
@@ -21,6 +21,7 @@ import group.eleven.snippet_sharing_app.data.model.TeamMember;
 import group.eleven.snippet_sharing_app.data.model.TeamInvitation;
 import group.eleven.snippet_sharing_app.data.model.TeamSnippet;
 import group.eleven.snippet_sharing_app.data.model.TeamsResponse;
+import group.eleven.snippet_sharing_app.data.model.UploadSession;
 
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
@@ -28,6 +29,7 @@ import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Multipart;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
@@ -36,12 +38,14 @@ import retrofit2.http.PartMap;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
 import retrofit2.http.QueryMap;
+import retrofit2.http.Tag;
 
 import java.util.List;
 import java.util.Map;
 
 /**
- * Retrofit API Service interface for all API endpoints
+ * Retrofit API Service interface for all API endpoints.
+ * Methods without {@link Priority} run as VISIBLE (reads) or USER_BLOCKING (writes).
  */
 public interface ApiService {
 
@@ -77,6 +81,15 @@ public interface ApiService {
     @POST("auth/logout-all")
     Call<MessageResponse> logoutAll();
 
+    /**
+     * Exchange the current (expired) token for a fresh one. Pass
+     * {@link PriorityDispatcher.Ungated#INSTANCE}: the refresh runs while the call that got
+     * the 401 still holds a dispatcher slot.
+     */
+    @Priority(RequestPriority.USER_BLOCKING)
+    @POST("auth/refresh")
+    Call<AuthResponse> refreshToken(@Tag PriorityDispatcher.Ungated ungated);
+
     // ==================== Password Reset ====================
 
     /**
@@ -281,18 +294,23 @@ public interface ApiService {
     /**
      * Get activity statistics for the authenticated user (snippets count, views, etc.)
      */
+    @Priority(RequestPriority.PREFETCH)
     @GET("feed/stats")
     Call<ApiResponse<DashboardStats>> getDashboardStats();
 
     /**
      * Get personalized activity feed (from followed users)
      */
+    @ListProjection
+    @Paginated
     @GET("feed")
     Call<ApiResponse<List<FeedActivity>>> getActivityFeed(@QueryMap Map<String, String> params);
 
     /**
      * Get public activity feed (trending/recent)
      */
+    @ListProjection
+    @Paginated
     @GET("feed/public")
     Call<ApiResponse<List<FeedActivity>>> getPublicFeed(@QueryMap Map<String, String> params);
 
@@ -307,30 +325,37 @@ public interface ApiService {
     /**
      * Get public/trending snippets
      */
+    @ListProjection(fields = ListProjection.SNIPPET_CARD_FIELDS)
+    @Paginated
     @GET("snippets/public")
     Call<ApiResponse<List<Snippet>>> getPublicSnippets(@QueryMap Map<String, String> params);
 
     /**
      * Get trending snippets
      */
+    @ListProjection(fields = ListProjection.SNIPPET_CARD_FIELDS)
+    @Paginated
     @GET("snippets/trending")
     Call<ApiResponse<List<Snippet>>> getTrendingSnippets(@QueryMap Map<String, String> params);
 
     /**
      * Create a new snippet
      */
+    @CompressBody
     @POST("snippets")
     Call<ApiResponse<Snippet>> createSnippet(@Body Map<String, Object> snippetData);
 
     /**
      * Get single snippet by slug
      */
+    @Priority(RequestPriority.USER_BLOCKING)
     @GET("snippets/{slug}")
     Call<ApiResponse<Snippet>> getSnippetBySlug(@Path("slug") String slug);
 
     /**
      * Update a snippet
      */
+    @CompressBody
     @PUT("snippets/{id}")
     Call<ApiResponse<Snippet>> updateSnippet(@Path("id") String id, @Body Map<String, Object> snippetData);
 
@@ -343,14 +368,15 @@ public interface ApiService {
     // ==================== Languages ====================
 
     /**
-     * Get all programming languages
+     * Get all programming languages. Pass the last ETag to get 304 if nothing changed.
      */
     @GET("languages")
-    Call<ApiResponse<List<Language>>> getLanguages();
+    Call<ApiResponse<List<Language>>> getLanguages(@Header("If-None-Match") String etag);
 
     /**
      * Get popular programming languages
      */
+    @Priority(RequestPriority.PREFETCH)
     @GET("languages/popular")
     Call<ApiResponse<List<Language>>> getPopularLanguages();
 
@@ -363,6 +389,7 @@ public interface ApiService {
     /**
      * Get snippets by language
      */
+    @Paginated
     @GET("languages/{slug}/snippets")
     Call<ApiResponse<List<Snippet>>> getSnippetsByLanguage(@Path("slug") String slug, @QueryMap Map<String, String> params);
 
@@ -389,6 +416,7 @@ public interface ApiService {
     /**
      * Get snippets by category
      */
+    @Paginated
     @GET("categories/{slug}/snippets")
     Call<ApiResponse<List<Snippet>>> getSnippetsByCategory(@Path("slug") String slug, @QueryMap Map<String, String> params);
 
@@ -403,6 +431,7 @@ public interface ApiService {
     /**
      * Get popular tags
      */
+    @Priority(RequestPriority.PREFETCH)
     @GET("tags/popular")
     Call<ApiResponse<List<Tag>>> getPopularTags();
 
@@ -423,6 +452,8 @@ public interface ApiService {
     /**
      * Search snippets only
      */
+    @ListProjection(fields = ListProjection.SNIPPET_CARD_FIELDS)
+    @Paginated
     @GET("search/snippets")
     Call<ApiResponse<List<Snippet>>> searchSnippets(@Query("q") String query, @QueryMap Map<String, String> params);
 
@@ -435,6 +466,7 @@ public interface ApiService {
     /**
      * Autocomplete search suggestions
      */
+    @Priority(RequestPriority.VISIBLE)
     @GET("search/autocomplete")
     Call<ApiResponse<List<String>>> searchAutocomplete(@Query("q") String query);
 
@@ -449,6 +481,7 @@ public interface ApiService {
     /**
      * Get unread notification count
      */
+    @Priority(RequestPriority.BACKGROUND)
     @GET("notifications/unread-count")
     Call<ApiResponse<Integer>> getUnreadNotificationCount();
 
@@ -585,6 +618,7 @@ public interface ApiService {
     /**
      * Check if following a user
      */
+    @Priority(RequestPriority.BACKGROUND)
     @GET("users/{username}/is-following")
     Call<ApiResponse<Boolean>> isFollowingUser(@Path("username") String username);
 
@@ -657,4 +691,36 @@ public interface ApiService {
      */
     @DELETE("collections/{collectionId}/snippets/{snippetId}")
     Call<MessageResponse> removeSnippetFromCollection(@Path("collectionId") String collectionId, @Path("snippetId") String snippetId);
-}
\ No newline at end of file
+
+    // ==================== Chunked Uploads ====================
+
+    /**
+     * Start a resumable upload session
+     */
+    @POST("uploads")
+    Call<ApiResponse<UploadSession>> createUpload(@Body Map<String, Object> uploadData);
+
+    /**
+     * Get an upload session, including the chunks the server already has
+     */
+    @GET("uploads/{id}")
+    @Priority(RequestPriority.USER_BLOCKING)
+    Call<ApiResponse<UploadSession>> getUpload(@Path("id") String uploadId);
+
+    /**
+     * Upload one chunk of an upload session
+     */
+    @PUT("uploads/{id}/chunks/{index}")
+    Call<ApiResponse<UploadSession>> uploadChunk(
+            @Path("id") String uploadId,
+            @Path("index") int index,
+            @Header("Content-Range") String contentRange,
+            @Body RequestBody chunk
+    );
+
+    /**
+     * Finish an upload session once every chunk is on the server
+     */
+    @POST("uploads/{id}/complete")
+    Call<ApiResponse<UploadSession>> completeUpload(@Path("id") String uploadId);
+}
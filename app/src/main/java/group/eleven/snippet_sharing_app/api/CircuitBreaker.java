@@ -0,0 +1,153 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.VisibleForTesting;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-host circuit breaker.
+ *
+ * After {@link #FAILURE_THRESHOLD} consecutive failures the circuit opens and calls fail
+ * fast with {@link CircuitOpenException}. Once the cooldown passes the circuit goes half-open
+ * and lets a single probe through: success closes it, failure reopens it with a longer
+ * cooldown. The state is published as LiveData so screens can switch to cached data.
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long BASE_COOLDOWN_MS = 10_000;
+    private static final long MAX_COOLDOWN_MS = 120_000;
+
+    private static final Map<String, CircuitBreaker> breakers = new HashMap<>();
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Thrown instead of making a call while the circuit is open
+     */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(String host) {
+            super("Server " + host + " is unavailable, try again shortly");
+        }
+    }
+
+    private final String host;
+    private final MutableLiveData<State> stateLiveData = new MutableLiveData<>(State.CLOSED);
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long cooldownMs = BASE_COOLDOWN_MS;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private CircuitBreaker(String host) {
+        this.host = host;
+    }
+
+    public static synchronized CircuitBreaker forHost(String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        if (breaker == null) {
+            breaker = new CircuitBreaker(host);
+            breakers.put(host, breaker);
+        }
+        return breaker;
+    }
+
+    /**
+     * Close every host's circuit and forget its failures, e.g. between tests sharing the
+     * client. Breakers are reset in place so observers of {@link #getState} stay attached.
+     */
+    @VisibleForTesting
+    public static synchronized void resetAll() {
+        for (CircuitBreaker breaker : breakers.values()) {
+            breaker.reset();
+        }
+    }
+
+    private synchronized void reset() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        cooldownMs = BASE_COOLDOWN_MS;
+        openedAt = 0;
+        if (state != State.CLOSED) {
+            setState(State.CLOSED);
+        }
+    }
+
+    public LiveData<State> getState() {
+        return stateLiveData;
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN;
+    }
+
+    /**
+     * Ask for permission to make a call
+     * @throws CircuitOpenException if the circuit is open or a half-open probe is already running
+     */
+    public synchronized void acquire() throws CircuitOpenException {
+        if (state == State.OPEN) {
+            if (SystemClock.elapsedRealtime() - openedAt < cooldownMs) {
+                throw new CircuitOpenException(host);
+            }
+            setState(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                throw new CircuitOpenException(host);
+            }
+            probeInFlight = true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        cooldownMs = BASE_COOLDOWN_MS;
+        if (state != State.CLOSED) {
+            Log.i(TAG, host + " recovered, closing circuit");
+            setState(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+            cooldownMs = Math.min(MAX_COOLDOWN_MS, cooldownMs * 2);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open();
+        }
+    }
+
+    /**
+     * Release a half-open probe that ended without a verdict (e.g. it was cancelled)
+     */
+    public synchronized void release() {
+        probeInFlight = false;
+    }
+
+    private void open() {
+        openedAt = SystemClock.elapsedRealtime();
+        Log.w(TAG, host + " unhealthy, opening circuit for " + cooldownMs + "ms");
+        setState(State.OPEN);
+    }
+
+    private void setState(State newState) {
+        state = newState;
+        stateLiveData.postValue(newState);
+    }
+}
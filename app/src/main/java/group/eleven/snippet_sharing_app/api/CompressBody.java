@@ -0,0 +1,18 @@
+package group.eleven.snippet_sharing_app.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link ApiService} method whose JSON body may be large (e.g. snippet code).
+ * The body is serialized straight to the connection and gzipped above a size threshold;
+ * see {@link StreamingJsonConverterFactory} and {@link GzipRequestInterceptor}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CompressBody {
+}
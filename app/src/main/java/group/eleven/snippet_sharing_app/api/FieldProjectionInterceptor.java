@@ -0,0 +1,46 @@
+package group.eleven.snippet_sharing_app.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Adds sparse fieldset parameters to list calls annotated with {@link ListProjection}.
+ * The preview length follows the current network quality. Parameters the caller already
+ * set are left alone. Servers that ignore them still return full code, which
+ * Snippet.trimToPreview cuts down on the client.
+ */
+public class FieldProjectionInterceptor implements Interceptor {
+
+    public static final String PARAM_FIELDS = "fields";
+    public static final String PARAM_PREVIEW_LINES = "preview_lines";
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        ListProjection projection = invocation != null
+                ? invocation.method().getAnnotation(ListProjection.class)
+                : null;
+        if (projection == null) {
+            return chain.proceed(request);
+        }
+
+        HttpUrl.Builder url = request.url().newBuilder();
+        if (!projection.fields().isEmpty() && request.url().queryParameter(PARAM_FIELDS) == null) {
+            url.setQueryParameter(PARAM_FIELDS, projection.fields());
+        }
+        if (request.url().queryParameter(PARAM_PREVIEW_LINES) == null) {
+            url.setQueryParameter(PARAM_PREVIEW_LINES,
+                    String.valueOf(NetworkQualityEstimator.getInstance().getPreviewLines()));
+        }
+        return chain.proceed(request.newBuilder().url(url.build()).build());
+    }
+}
@@ -0,0 +1,85 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * Gzips large streaming JSON bodies and sets Content-Encoding.
+ *
+ * Only {@link StreamingJsonConverterFactory.StreamingJsonBody} bodies over
+ * {@link #MIN_COMPRESS_SIZE} are compressed; code compresses well but small bodies are not
+ * worth the CPU. If the server answers 415 the request is resent uncompressed and gzip is
+ * turned off for that host for the rest of the session.
+ */
+public class GzipRequestInterceptor implements Interceptor {
+
+    private static final String TAG = "GzipRequestInterceptor";
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+    private static final long MIN_COMPRESS_SIZE = 4 * 1024;
+
+    private final Set<String> unsupportedHosts = Collections.synchronizedSet(new HashSet<>());
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (!(body instanceof StreamingJsonConverterFactory.StreamingJsonBody)
+                || ((StreamingJsonConverterFactory.StreamingJsonBody<?>) body).getEstimatedSize() < MIN_COMPRESS_SIZE
+                || request.header("Content-Encoding") != null
+                || unsupportedHosts.contains(request.url().host())) {
+            return chain.proceed(request);
+        }
+
+        Request compressed = request.newBuilder()
+                .header("Content-Encoding", "gzip")
+                .method(request.method(), gzip(body))
+                .build();
+        Response response = chain.proceed(compressed);
+        if (response.code() != HTTP_UNSUPPORTED_MEDIA_TYPE) {
+            return response;
+        }
+
+        Log.w(TAG, request.url().host() + " rejected gzip body, sending uncompressed");
+        unsupportedHosts.add(request.url().host());
+        response.close();
+        return chain.proceed(request);
+    }
+
+    private static RequestBody gzip(RequestBody body) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                // Unknown until written; sent chunked
+                return -1;
+            }
+
+            @Override
+            public void writeTo(@NonNull BufferedSink sink) throws IOException {
+                BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
+                body.writeTo(gzipSink);
+                gzipSink.close();
+            }
+        };
+    }
+}
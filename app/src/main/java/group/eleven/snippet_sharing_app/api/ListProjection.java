@@ -0,0 +1,32 @@
+package group.eleven.snippet_sharing_app.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link ApiService} list method whose items only need a code preview.
+ * {@link FieldProjectionInterceptor} adds {@code fields} (when given) and
+ * {@code preview_lines} to the request so the server can leave out full code.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ListProjection {
+
+    /**
+     * Fields needed to build a snippet card. The API has no separate preview field, so
+     * {@code code} stays in the list: every projected call also sends {@code preview_lines},
+     * and the server cuts {@code code} down to that many lines. Without it cards would have
+     * no code at all.
+     */
+    String SNIPPET_CARD_FIELDS = "id,slug,title,description,code,privacy,language,tags,user,"
+            + "favorite_count,comment_count,is_favorited,created_at,updated_at";
+
+    /**
+     * Comma separated field list, or empty to only limit the code preview
+     */
+    String fields() default "";
+}
@@ -0,0 +1,20 @@
+package group.eleven.snippet_sharing_app.api;
+
+import java.io.InterruptedIOException;
+
+/**
+ * A call that failed on the device before it was sent, e.g. it waited too long for a
+ * dispatcher slot or a rate limiter token, or was cancelled while waiting. The server never
+ * saw it, so it says nothing about the host's health and is not worth retrying.
+ */
+public class LocalCallException extends InterruptedIOException {
+
+    public LocalCallException(String message) {
+        super(message);
+    }
+
+    public LocalCallException(String message, Throwable cause) {
+        super(message);
+        initCause(cause);
+    }
+}
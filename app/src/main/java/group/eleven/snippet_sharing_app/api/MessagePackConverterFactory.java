@@ -0,0 +1,280 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Response converter for MessagePack payloads.
+ *
+ * ApiClient advertises {@link #ACCEPT_HEADER}; a server that supports it drops the repeated
+ * JSON keys and quoting from feed payloads. MessagePack bodies are decoded into a Gson tree
+ * and mapped through the same type adapters as JSON, so the data.model classes, their
+ * {@code @SerializedName} fields and custom deserializers work unchanged. Any other content
+ * type is handed to the next converter (Gson). Request bodies are always sent as JSON.
+ */
+public final class MessagePackConverterFactory extends Converter.Factory {
+
+    public static final String MEDIA_TYPE = "application/msgpack";
+    public static final String ACCEPT_HEADER = MEDIA_TYPE + ", application/x-msgpack;q=0.9, application/json;q=0.8";
+
+    private final Gson gson;
+
+    private MessagePackConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static MessagePackConverterFactory create(Gson gson) {
+        return new MessagePackConverterFactory(gson);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type, @NonNull Annotation[] annotations,
+                                                            @NonNull Retrofit retrofit) {
+        Converter<ResponseBody, ?> fallback = retrofit.nextResponseBodyConverter(this, type, annotations);
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+        return new MessagePackResponseConverter<>(adapter, fallback);
+    }
+
+    /**
+     * Decode an error body (Retrofit's errorBody(), which skips the converters) by its
+     * Content-Type: MessagePack through the same tree as success bodies, anything else as
+     * JSON. Returns null for an empty body. Closes body.
+     */
+    @Nullable
+    public static <T> T decodeErrorBody(Gson gson, ResponseBody body, Class<T> type) throws IOException {
+        try {
+            if (isMessagePack(body.contentType())) {
+                byte[] bytes = body.bytes();
+                return bytes.length > 0 ? gson.fromJson(new Reader(bytes).readValue(), type) : null;
+            }
+            return gson.fromJson(body.charStream(), type);
+        } finally {
+            body.close();
+        }
+    }
+
+    static boolean isMessagePack(MediaType contentType) {
+        return contentType != null
+                && ("msgpack".equals(contentType.subtype()) || "x-msgpack".equals(contentType.subtype()));
+    }
+
+    private static final class MessagePackResponseConverter<T> implements Converter<ResponseBody, Object> {
+        private final TypeAdapter<T> adapter;
+        private final Converter<ResponseBody, ?> fallback;
+
+        MessagePackResponseConverter(TypeAdapter<T> adapter, Converter<ResponseBody, ?> fallback) {
+            this.adapter = adapter;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object convert(@NonNull ResponseBody body) throws IOException {
+            if (!isMessagePack(body.contentType())) {
+                return fallback.convert(body);
+            }
+            try {
+                JsonElement tree = new Reader(body.bytes()).readValue();
+                return adapter.fromJsonTree(tree);
+            } finally {
+                body.close();
+            }
+        }
+    }
+
+    /**
+     * Minimal MessagePack decoder producing a Gson tree. Extension types (including
+     * timestamps) have no JSON equivalent the models expect and decode as null.
+     */
+    static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        JsonElement readValue() throws IOException {
+            int b = readUByte();
+            if (b <= 0x7f) {
+                return new JsonPrimitive(b);
+            }
+            if (b >= 0xe0) {
+                return new JsonPrimitive((byte) b);
+            }
+            if ((b & 0xf0) == 0x80) {
+                return readMap(b & 0x0f);
+            }
+            if ((b & 0xf0) == 0x90) {
+                return readArray(b & 0x0f);
+            }
+            if ((b & 0xe0) == 0xa0) {
+                return new JsonPrimitive(readString(b & 0x1f));
+            }
+            switch (b) {
+                case 0xc0:
+                    return JsonNull.INSTANCE;
+                case 0xc2:
+                    return new JsonPrimitive(false);
+                case 0xc3:
+                    return new JsonPrimitive(true);
+                case 0xc4:
+                    return readBinary(readUByte());
+                case 0xc5:
+                    return readBinary(readUShort());
+                case 0xc6:
+                    return readBinary(readLength32());
+                case 0xc7:
+                    return skipExt(readUByte());
+                case 0xc8:
+                    return skipExt(readUShort());
+                case 0xc9:
+                    return skipExt(readLength32());
+                case 0xca:
+                    return new JsonPrimitive(Float.intBitsToFloat(readInt()));
+                case 0xcb:
+                    return new JsonPrimitive(Double.longBitsToDouble(readLong()));
+                case 0xcc:
+                    return new JsonPrimitive(readUByte());
+                case 0xcd:
+                    return new JsonPrimitive(readUShort());
+                case 0xce:
+                    return new JsonPrimitive(readInt() & 0xffffffffL);
+                case 0xcf: {
+                    long value = readLong();
+                    return new JsonPrimitive(value >= 0 ? value
+                            : new BigInteger(Long.toUnsignedString(value)));
+                }
+                case 0xd0:
+                    return new JsonPrimitive((byte) readUByte());
+                case 0xd1:
+                    return new JsonPrimitive((short) readUShort());
+                case 0xd2:
+                    return new JsonPrimitive(readInt());
+                case 0xd3:
+                    return new JsonPrimitive(readLong());
+                case 0xd4:
+                    return skipExt(1);
+                case 0xd5:
+                    return skipExt(2);
+                case 0xd6:
+                    return skipExt(4);
+                case 0xd7:
+                    return skipExt(8);
+                case 0xd8:
+                    return skipExt(16);
+                case 0xd9:
+                    return new JsonPrimitive(readString(readUByte()));
+                case 0xda:
+                    return new JsonPrimitive(readString(readUShort()));
+                case 0xdb:
+                    return new JsonPrimitive(readString(readLength32()));
+                case 0xdc:
+                    return readArray(readUShort());
+                case 0xdd:
+                    return readArray(readLength32());
+                case 0xde:
+                    return readMap(readUShort());
+                case 0xdf:
+                    return readMap(readLength32());
+                default:
+                    throw new IOException("Invalid MessagePack type 0x" + Integer.toHexString(b) + " at " + (pos - 1));
+            }
+        }
+
+        private JsonArray readArray(int size) throws IOException {
+            // Every element takes at least a byte; check before sizing anything from the header
+            require(size);
+            JsonArray array = new JsonArray(size);
+            for (int i = 0; i < size; i++) {
+                array.add(readValue());
+            }
+            return array;
+        }
+
+        private JsonObject readMap(int size) throws IOException {
+            require(size);
+            JsonObject object = new JsonObject();
+            for (int i = 0; i < size; i++) {
+                JsonElement key = readValue();
+                JsonElement value = readValue();
+                object.add(key.isJsonPrimitive() ? key.getAsString() : key.toString(), value);
+            }
+            return object;
+        }
+
+        private String readString(int length) throws IOException {
+            require(length);
+            String value = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private JsonElement readBinary(int length) throws IOException {
+            require(length);
+            String encoded = Base64.encodeToString(data, pos, length, Base64.NO_WRAP);
+            pos += length;
+            return new JsonPrimitive(encoded);
+        }
+
+        private JsonElement skipExt(int length) throws IOException {
+            // Type byte, then payload
+            require(length + 1);
+            pos += length + 1;
+            return JsonNull.INSTANCE;
+        }
+
+        private int readUByte() throws IOException {
+            require(1);
+            return data[pos++] & 0xff;
+        }
+
+        private int readUShort() throws IOException {
+            return (readUByte() << 8) | readUByte();
+        }
+
+        private int readInt() throws IOException {
+            return (readUShort() << 16) | readUShort();
+        }
+
+        private long readLong() throws IOException {
+            return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+        }
+
+        private int readLength32() throws IOException {
+            int length = readInt();
+            if (length < 0) {
+                throw new IOException("MessagePack length too large");
+            }
+            return length;
+        }
+
+        private void require(int count) throws IOException {
+            // Compared against what is left so a huge count cannot overflow pos + count
+            if (count < 0 || count > data.length - pos) {
+                throw new IOException("Truncated MessagePack body");
+            }
+        }
+    }
+}
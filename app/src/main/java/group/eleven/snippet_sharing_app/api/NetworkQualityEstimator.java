@@ -0,0 +1,275 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Estimates round-trip time and downstream bandwidth from OkHttp event timings and maps
+ * them to a coarse {@link Quality}. The quality drives adaptive page sizes, preview length,
+ * avatar resolution and per-call timeouts, so slow links get smaller, faster pages instead
+ * of long blank screens.
+ */
+public final class NetworkQualityEstimator {
+
+    private static final String TAG = "NetworkQuality";
+
+    // Weight of a new sample in the moving averages
+    private static final double EWMA_ALPHA = 0.25;
+    // Bodies smaller than this are dominated by latency and say little about bandwidth
+    private static final long MIN_THROUGHPUT_SAMPLE_BYTES = 4 * 1024;
+
+    // Lists remembered at once; a list scrolled past this many newer ones starts over
+    private static final int MAX_PAGE_SESSIONS = 32;
+
+    private static final String PARAM_PAGE = "page";
+    private static final String PARAM_PER_PAGE = "per_page";
+
+    private static final NetworkQualityEstimator instance = new NetworkQualityEstimator();
+
+    public enum Quality {
+        // pageScale, previewLines, avatarScale, connect timeout (s), read/write timeout (s)
+        POOR(0.5f, 4, 0.5f, 20, 45),
+        MODERATE(0.75f, 6, 0.75f, 15, 30),
+        GOOD(1f, 8, 1f, 10, 20),
+        EXCELLENT(1f, 8, 1f, 10, 15);
+
+        final float pageScale;
+        final int previewLines;
+        final float avatarScale;
+        final int connectTimeoutSeconds;
+        final int readTimeoutSeconds;
+
+        Quality(float pageScale, int previewLines, float avatarScale,
+                int connectTimeoutSeconds, int readTimeoutSeconds) {
+            this.pageScale = pageScale;
+            this.previewLines = previewLines;
+            this.avatarScale = avatarScale;
+            this.connectTimeoutSeconds = connectTimeoutSeconds;
+            this.readTimeoutSeconds = readTimeoutSeconds;
+        }
+    }
+
+    // Adapted per_page of each list in progress, by session key, least recently used first
+    private final Map<String, Integer> pageSizes = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_PAGE_SESSIONS;
+        }
+    };
+
+    private double rttMs = -1;
+    private double bandwidthKbps = -1;
+    private Quality quality = Quality.GOOD;
+
+    private NetworkQualityEstimator() {
+    }
+
+    public static NetworkQualityEstimator getInstance() {
+        return instance;
+    }
+
+    public synchronized Quality getQuality() {
+        return quality;
+    }
+
+    public synchronized double getRttMs() {
+        return rttMs;
+    }
+
+    public synchronized double getBandwidthKbps() {
+        return bandwidthKbps;
+    }
+
+    /**
+     * Scale a list page size to the current link quality
+     */
+    public int adaptPageSize(int perPage) {
+        return Math.max(5, Math.round(perPage * getQuality().pageScale));
+    }
+
+    /**
+     * Number of code lines to request for list previews
+     */
+    public int getPreviewLines() {
+        return getQuality().previewLines;
+    }
+
+    /**
+     * Multiplier for avatar decode size (e.g. Glide sizeMultiplier)
+     */
+    public float getAvatarScale() {
+        return getQuality().avatarScale;
+    }
+
+    /**
+     * Listener factory to install on the OkHttpClient
+     */
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new TimingListener();
+    }
+
+    /**
+     * Interceptor that applies quality-based timeouts to each call and scales per_page on
+     * {@link Paginated} list calls to the link. The size is chosen when a list starts (no
+     * page, or page 1) and reused for every later page of the same list, so page offsets
+     * neither skip nor repeat items when the link changes mid-scroll.
+     */
+    public Interceptor adaptiveInterceptor() {
+        return chain -> {
+            Quality current = getQuality();
+            Request request = adaptPagination(chain.request());
+            return chain
+                    .withConnectTimeout(current.connectTimeoutSeconds, TimeUnit.SECONDS)
+                    .withReadTimeout(current.readTimeoutSeconds, TimeUnit.SECONDS)
+                    .withWriteTimeout(current.readTimeoutSeconds, TimeUnit.SECONDS)
+                    .proceed(request);
+        };
+    }
+
+    private Request adaptPagination(Request request) {
+        String perPage = request.url().queryParameter(PARAM_PER_PAGE);
+        Invocation invocation = request.tag(Invocation.class);
+        if (perPage == null || invocation == null
+                || invocation.method().getAnnotation(Paginated.class) == null) {
+            return request;
+        }
+        String page = request.url().queryParameter(PARAM_PAGE);
+        String session = sessionKey(request.url());
+        Integer size;
+        if (page == null || "1".equals(page)) {
+            try {
+                size = adaptPageSize(Integer.parseInt(perPage));
+            } catch (NumberFormatException e) {
+                // Leave unexpected values alone
+                return request;
+            }
+            synchronized (pageSizes) {
+                pageSizes.put(session, size);
+            }
+        } else {
+            synchronized (pageSizes) {
+                size = pageSizes.get(session);
+            }
+            if (size == null) {
+                // The first page was loaded before this process; keep the caller's size
+                return request;
+            }
+        }
+        HttpUrl url = request.url().newBuilder()
+                .setQueryParameter(PARAM_PER_PAGE, String.valueOf(size))
+                .build();
+        return request.newBuilder().url(url).build();
+    }
+
+    /**
+     * Identifies a list across its pages: the URL as the caller built it, minus the page
+     * number and the preview length, which follows the link quality page to page.
+     */
+    private static String sessionKey(HttpUrl url) {
+        return url.newBuilder()
+                .removeAllQueryParameters(PARAM_PAGE)
+                .removeAllQueryParameters(FieldProjectionInterceptor.PARAM_PREVIEW_LINES)
+                .build()
+                .toString();
+    }
+
+    /**
+     * Forget measurements and list sessions
+     */
+    @VisibleForTesting
+    public synchronized void reset() {
+        rttMs = -1;
+        bandwidthKbps = -1;
+        quality = Quality.GOOD;
+        synchronized (pageSizes) {
+            pageSizes.clear();
+        }
+    }
+
+    synchronized void addRttSample(long millis) {
+        rttMs = rttMs < 0 ? millis : rttMs + EWMA_ALPHA * (millis - rttMs);
+        updateQuality();
+    }
+
+    synchronized void addThroughputSample(long bytes, long millis) {
+        double kbps = bytes * 8.0 / Math.max(1, millis);
+        bandwidthKbps = bandwidthKbps < 0 ? kbps : bandwidthKbps + EWMA_ALPHA * (kbps - bandwidthKbps);
+        updateQuality();
+    }
+
+    private void updateQuality() {
+        Quality estimated;
+        if (rttMs > 1000 || (bandwidthKbps >= 0 && bandwidthKbps < 150)) {
+            estimated = Quality.POOR;
+        } else if (rttMs > 400 || (bandwidthKbps >= 0 && bandwidthKbps < 550)) {
+            estimated = Quality.MODERATE;
+        } else if (rttMs > 150 || (bandwidthKbps >= 0 && bandwidthKbps < 2000)) {
+            estimated = Quality.GOOD;
+        } else {
+            estimated = Quality.EXCELLENT;
+        }
+        if (estimated != quality) {
+            Log.d(TAG, "Network quality " + quality + " -> " + estimated
+                    + " (rtt=" + Math.round(rttMs) + "ms, bw=" + Math.round(bandwidthKbps) + "kbps)");
+            quality = estimated;
+        }
+    }
+
+    /**
+     * Per-call listener. Events for one call arrive sequentially, so no locking is needed here.
+     */
+    private final class TimingListener extends EventListener {
+        private long requestSentAt;
+        private long headersReceivedAt;
+
+        @Override
+        public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+            requestSentAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void requestBodyEnd(@NonNull Call call, long byteCount) {
+            requestSentAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void responseHeadersStart(@NonNull Call call) {
+            headersReceivedAt = SystemClock.elapsedRealtime();
+            if (requestSentAt > 0) {
+                // Time to first byte approximates the HTTP round trip
+                addRttSample(headersReceivedAt - requestSentAt);
+            }
+        }
+
+        @Override
+        public void responseBodyEnd(@NonNull Call call, long byteCount) {
+            if (headersReceivedAt > 0 && byteCount >= MIN_THROUGHPUT_SAMPLE_BYTES) {
+                addThroughputSample(byteCount, SystemClock.elapsedRealtime() - headersReceivedAt);
+            }
+        }
+
+        @Override
+        public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+            // A timeout is the strongest signal of a poor link
+            if (ioe instanceof SocketTimeoutException) {
+                addRttSample(getQuality().readTimeoutSeconds * 1000L);
+            }
+        }
+    }
+}
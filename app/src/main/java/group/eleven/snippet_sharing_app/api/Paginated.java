@@ -0,0 +1,18 @@
+package group.eleven.snippet_sharing_app.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@link ApiService} list method that is read page by page, such as a feed.
+ * Only these calls get a network-adapted {@code per_page}; lists meant to arrive whole
+ * (followers, comments, notifications) keep the size the caller asked for.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Paginated {
+}
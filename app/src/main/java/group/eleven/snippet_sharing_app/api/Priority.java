@@ -0,0 +1,18 @@
+package group.eleven.snippet_sharing_app.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Scheduling priority for an {@link ApiService} method.
+ * Unannotated reads default to VISIBLE and writes to USER_BLOCKING.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+    RequestPriority value();
+}
@@ -0,0 +1,189 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Priority scheduler for API calls.
+ *
+ * OkHttp's {@link Dispatcher} runs queued calls in FIFO order, so a prefetch enqueued first
+ * delays the call for the screen the user is looking at. ApiClient opens the dispatcher wide
+ * and this interceptor does the scheduling instead: calls wait here until a slot is free and
+ * no higher-priority call is waiting, with per-class concurrency limits. When a user-blocking
+ * call arrives while all slots are busy, queued prefetch and background calls are cancelled.
+ * Calls tagged {@link Ungated} skip the queue, and a call that cannot get a slot within
+ * {@link #MAX_QUEUE_WAIT_MS} fails with a {@link LocalCallException}.
+ */
+public class PriorityDispatcher implements Interceptor {
+
+    private static final String TAG = "PriorityDispatcher";
+    private static final int MAX_CONCURRENT_CALLS = 6;
+    private static final long WAIT_SLICE_MS = 250;
+    // Same as the default read timeout; a call queued longer than this is not coming back
+    private static final long MAX_QUEUE_WAIT_MS = 30_000;
+
+    /**
+     * Request tag for calls made on behalf of a call that already holds a slot, such as the
+     * token refresh run from {@link TokenAuthenticator}. Waiting for a second slot there
+     * deadlocks once every slot is held by a call waiting on the refresh.
+     */
+    public static final class Ungated {
+        public static final Ungated INSTANCE = new Ungated();
+
+        private Ungated() {
+        }
+    }
+
+    private final Object lock = new Object();
+    private final TreeSet<Waiter> waiting = new TreeSet<>();
+    private final Map<RequestPriority, Integer> runningPerClass = new EnumMap<>(RequestPriority.class);
+    private int running;
+    private long sequence;
+
+    public PriorityDispatcher() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            runningPerClass.put(priority, 0);
+        }
+    }
+
+    /**
+     * OkHttp dispatcher that does not hold calls back, leaving scheduling to this interceptor
+     */
+    public static Dispatcher createPassThroughDispatcher() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(64);
+        dispatcher.setMaxRequestsPerHost(64);
+        return dispatcher;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        if (chain.request().tag(Ungated.class) != null) {
+            return chain.proceed(chain.request());
+        }
+        RequestPriority priority = RequestPriority.of(chain.request());
+        Waiter waiter = awaitSlot(priority, chain.call());
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            synchronized (lock) {
+                running--;
+                runningPerClass.put(waiter.priority, runningPerClass.get(waiter.priority) - 1);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private Waiter awaitSlot(RequestPriority priority, Call call) throws IOException {
+        List<Call> preempted = new ArrayList<>();
+        Waiter waiter;
+        synchronized (lock) {
+            waiter = new Waiter(priority, sequence++, call);
+            if (priority == RequestPriority.USER_BLOCKING && running >= MAX_CONCURRENT_CALLS) {
+                preemptLowPriority(preempted);
+            }
+            waiting.add(waiter);
+            long deadline = SystemClock.elapsedRealtime() + MAX_QUEUE_WAIT_MS;
+            try {
+                while (!canStart(waiter)) {
+                    if (call.isCanceled()) {
+                        waiting.remove(waiter);
+                        lock.notifyAll();
+                        throw new LocalCallException("Canceled while queued");
+                    }
+                    long remaining = deadline - SystemClock.elapsedRealtime();
+                    if (remaining <= 0) {
+                        waiting.remove(waiter);
+                        lock.notifyAll();
+                        throw new LocalCallException("No dispatcher slot within " + MAX_QUEUE_WAIT_MS + "ms");
+                    }
+                    lock.wait(Math.min(WAIT_SLICE_MS, remaining));
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(waiter);
+                lock.notifyAll();
+                Thread.currentThread().interrupt();
+                throw new LocalCallException("Interrupted while queued", e);
+            }
+            waiting.remove(waiter);
+            running++;
+            runningPerClass.put(priority, runningPerClass.get(priority) + 1);
+        }
+
+        // Cancel outside the lock; cancelled waiters wake up and leave the queue themselves
+        for (Call victim : preempted) {
+            victim.cancel();
+        }
+        return waiter;
+    }
+
+    /**
+     * A waiter may start when a global slot and a slot in its class are free, and every
+     * waiter ahead of it in priority order is blocked by its own class limit.
+     */
+    private boolean canStart(Waiter waiter) {
+        if (running >= MAX_CONCURRENT_CALLS) {
+            return false;
+        }
+        for (Waiter ahead : waiting) {
+            boolean classHasRoom = runningPerClass.get(ahead.priority) < ahead.priority.concurrencyLimit;
+            if (ahead == waiter) {
+                return classHasRoom;
+            }
+            if (classHasRoom) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void preemptLowPriority(List<Call> preempted) {
+        Iterator<Waiter> iterator = waiting.iterator();
+        while (iterator.hasNext()) {
+            Waiter queued = iterator.next();
+            if (queued.priority.isLow()) {
+                preempted.add(queued.call);
+            }
+        }
+        if (!preempted.isEmpty()) {
+            Log.d(TAG, "Cancelling " + preempted.size() + " queued low-priority calls for a user-blocking call");
+        }
+    }
+
+    /**
+     * Queued call ordered by priority, then arrival
+     */
+    private static final class Waiter implements Comparable<Waiter> {
+        final RequestPriority priority;
+        final long sequence;
+        final Call call;
+
+        Waiter(RequestPriority priority, long sequence, Call call) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
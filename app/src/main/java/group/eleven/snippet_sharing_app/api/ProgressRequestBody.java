@@ -0,0 +1,75 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * File request body that streams from disk in segments and reports upload progress on
+ * the main thread. Writes into an in-memory {@link Buffer} (the logging interceptor
+ * copying the body) are not network progress and are not reported.
+ */
+public class ProgressRequestBody extends RequestBody {
+
+    private static final long SEGMENT_SIZE = 8 * 1024;
+    // Avoid flooding the main thread with one callback per segment
+    private static final int MIN_PERCENT_STEP = 2;
+
+    public interface Listener {
+        void onProgress(long bytesWritten, long totalBytes);
+    }
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private final File file;
+    private final MediaType contentType;
+    private final Listener listener;
+
+    public ProgressRequestBody(File file, MediaType contentType, Listener listener) {
+        this.file = file;
+        this.contentType = contentType;
+        this.listener = listener;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.length();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        long total = contentLength();
+        boolean report = listener != null && !(sink instanceof Buffer);
+        long written = 0;
+        int lastPercent = -1;
+        try (Source source = Okio.source(file)) {
+            long read;
+            while ((read = source.read(sink.getBuffer(), SEGMENT_SIZE)) != -1) {
+                sink.emit();
+                written += read;
+                int percent = total > 0 ? (int) (written * 100 / total) : 0;
+                if (report && (percent - lastPercent >= MIN_PERCENT_STEP || written == total)) {
+                    lastPercent = percent;
+                    long progress = written;
+                    mainHandler.post(() -> listener.onProgress(progress, total));
+                }
+            }
+        }
+    }
+}
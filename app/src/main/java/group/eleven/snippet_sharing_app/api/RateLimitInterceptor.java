@@ -0,0 +1,273 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Client-side rate limiter for all API calls.
+ *
+ * Each endpoint group has its own token bucket, so a burst of search-as-you-type calls
+ * cannot starve feed loads or mutations. When the server answers 429 the group is paused
+ * for the Retry-After period. Calls queue for a token: low-priority ones (autocomplete,
+ * PREFETCH and BACKGROUND {@link Priority} classes, or any call sent with
+ * {@link #HEADER_PRIORITY}: low) for up to {@link #MAX_WAIT_LOW_MS}, others for up to
+ * {@link #MAX_WAIT_NORMAL_MS}. A call still without a token after that is sent anyway and
+ * the server's own 429 and Retry-After decide, so the app never invents a 429. A cancelled
+ * call stops waiting at once.
+ *
+ * It sits after {@link RetryInterceptor}, so every attempt takes a token, and before
+ * {@link PriorityDispatcher}, so a waiting call does not hold a dispatcher slot.
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    private static final String TAG = "RateLimitInterceptor";
+
+    /**
+     * Request header that marks a call as low priority. Stripped before sending.
+     */
+    public static final String HEADER_PRIORITY = "X-Client-Priority";
+    public static final String PRIORITY_LOW = "low";
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final long MAX_WAIT_NORMAL_MS = 2_000;
+    private static final long MAX_WAIT_LOW_MS = 30_000;
+    private static final long DEFAULT_RETRY_AFTER_MS = 5_000;
+    // Waits are sliced so a cancelled call notices within this long
+    private static final long WAIT_SLICE_MS = 100;
+
+    /**
+     * Endpoint groups with separate buckets
+     */
+    public enum Group {
+        SEARCH(5, 2.0),
+        FEED(10, 4.0),
+        MUTATION(10, 2.0),
+        DEFAULT(30, 10.0);
+
+        final int capacity;
+        final double refillPerSecond;
+
+        Group(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    /**
+     * Throttle counters for one group
+     */
+    public static class Metrics {
+        public final AtomicLong allowed = new AtomicLong();
+        public final AtomicLong delayed = new AtomicLong();
+        public final AtomicLong delayMillis = new AtomicLong();
+        // Waited as long as allowed and were sent without a token
+        public final AtomicLong overdue = new AtomicLong();
+        public final AtomicLong serverThrottled = new AtomicLong();
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "allowed=" + allowed + " delayed=" + delayed + " delayMs=" + delayMillis
+                    + " overdue=" + overdue + " server429=" + serverThrottled;
+        }
+    }
+
+    private final Map<Group, TokenBucket> buckets = new EnumMap<>(Group.class);
+    private final Map<Group, Metrics> metrics = new EnumMap<>(Group.class);
+
+    public RateLimitInterceptor() {
+        reset();
+    }
+
+    /**
+     * Full buckets, no pauses and zeroed metrics, e.g. between tests sharing the client
+     */
+    @VisibleForTesting
+    public synchronized void reset() {
+        for (Group group : Group.values()) {
+            buckets.put(group, new TokenBucket(group.capacity, group.refillPerSecond));
+            metrics.put(group, new Metrics());
+        }
+    }
+
+    public synchronized Metrics getMetrics(Group group) {
+        return metrics.get(group);
+    }
+
+    private synchronized TokenBucket bucket(Group group) {
+        return buckets.get(group);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request original = chain.request();
+        boolean lowPriority = isLowPriority(original);
+        Request request = original.newBuilder().removeHeader(HEADER_PRIORITY).build();
+
+        Group group = groupFor(request);
+        TokenBucket bucket = bucket(group);
+        Metrics groupMetrics = getMetrics(group);
+        long maxWait = lowPriority ? MAX_WAIT_LOW_MS : MAX_WAIT_NORMAL_MS;
+
+        if (!acquire(chain, bucket, groupMetrics, maxWait)) {
+            groupMetrics.overdue.incrementAndGet();
+            Log.w(TAG, "No " + group + " token after " + maxWait + "ms, sending "
+                    + request.url().encodedPath() + " anyway");
+        }
+
+        Response response = chain.proceed(request);
+        if (response.code() != HTTP_TOO_MANY_REQUESTS) {
+            return response;
+        }
+
+        groupMetrics.serverThrottled.incrementAndGet();
+        long retryAfter = parseRetryAfter(response);
+        bucket.pauseFor(retryAfter);
+        Log.w(TAG, "Server throttled " + group + ", pausing for " + retryAfter + "ms");
+
+        // Idempotent calls that can afford to wait are retried once after the pause
+        if ("GET".equals(request.method()) && retryAfter <= maxWait
+                && acquire(chain, bucket, groupMetrics, maxWait)) {
+            response.close();
+            return chain.proceed(request);
+        }
+        return response;
+    }
+
+    /**
+     * Take a token, waiting up to maxWaitMs for one. Returns false if none came in time.
+     */
+    private static boolean acquire(Chain chain, TokenBucket bucket, Metrics groupMetrics, long maxWaitMs)
+            throws IOException {
+        long wait = bucket.tryAcquire();
+        if (wait == 0) {
+            groupMetrics.allowed.incrementAndGet();
+            return true;
+        }
+
+        long start = SystemClock.elapsedRealtime();
+        long deadline = start + maxWaitMs;
+        try {
+            while (wait > 0) {
+                long remaining = deadline - SystemClock.elapsedRealtime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                Thread.sleep(Math.min(Math.min(wait, remaining), WAIT_SLICE_MS));
+                if (chain.call().isCanceled()) {
+                    throw new LocalCallException("Canceled while waiting for rate limiter");
+                }
+                wait = bucket.tryAcquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LocalCallException("Interrupted while waiting for rate limiter", e);
+        }
+
+        groupMetrics.delayed.incrementAndGet();
+        groupMetrics.delayMillis.addAndGet(SystemClock.elapsedRealtime() - start);
+        return true;
+    }
+
+    static Group groupFor(Request request) {
+        if (!"GET".equals(request.method())) {
+            return Group.MUTATION;
+        }
+        String path = request.url().encodedPath();
+        if (path.contains("/search") || path.contains("/tags/search")) {
+            return Group.SEARCH;
+        }
+        if (path.contains("/feed") || path.contains("/notifications")
+                || path.endsWith("/snippets/public") || path.endsWith("/snippets/trending")) {
+            return Group.FEED;
+        }
+        return Group.DEFAULT;
+    }
+
+    private static boolean isLowPriority(Request request) {
+        if (PRIORITY_LOW.equals(request.header(HEADER_PRIORITY))) {
+            return true;
+        }
+        String path = request.url().encodedPath();
+        return path.endsWith("/search/autocomplete") || RequestPriority.of(request).isLow();
+    }
+
+    private static long parseRetryAfter(Response response) {
+        String value = response.header("Retry-After");
+        if (value == null) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not seconds, try an HTTP date
+        }
+        Date date = response.headers().getDate("Retry-After");
+        if (date != null) {
+            return Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+        return DEFAULT_RETRY_AFTER_MS;
+    }
+
+    /**
+     * Token bucket with an optional pause imposed by the server
+     */
+    static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefill;
+        private long pausedUntil;
+
+        TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerSecond / 1000.0;
+            this.tokens = capacity;
+            this.lastRefill = SystemClock.elapsedRealtime();
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise how long to wait before trying again
+         */
+        synchronized long tryAcquire() {
+            long now = SystemClock.elapsedRealtime();
+            if (now < pausedUntil) {
+                return pausedUntil - now;
+            }
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerMs);
+        }
+
+        synchronized void pauseFor(long millis) {
+            long now = SystemClock.elapsedRealtime();
+            pausedUntil = Math.max(pausedUntil, now + millis);
+            tokens = 0;
+            lastRefill = pausedUntil;
+        }
+
+        private void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package group.eleven.snippet_sharing_app.api;
+
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Scheduling classes for API calls, highest first
+ */
+public enum RequestPriority {
+    /** The user is waiting on this call (submit, open a snippet) */
+    USER_BLOCKING(6),
+    /** Content for the screen currently on display */
+    VISIBLE(4),
+    /** Data the user will probably need next */
+    PREFETCH(2),
+    /** Counters and refreshes nobody is looking at yet */
+    BACKGROUND(1);
+
+    /**
+     * Maximum calls of this class running at once
+     */
+    final int concurrencyLimit;
+
+    RequestPriority(int concurrencyLimit) {
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    public boolean isLow() {
+        return this == PREFETCH || this == BACKGROUND;
+    }
+
+    /**
+     * Resolve a request's priority from its {@link Priority} annotation, or the default:
+     * mutations are user-blocking, reads are visible.
+     */
+    public static RequestPriority of(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            Priority priority = invocation.method().getAnnotation(Priority.class);
+            if (priority != null) {
+                return priority.value();
+            }
+        }
+        return "GET".equals(request.method()) ? VISIBLE : USER_BLOCKING;
+    }
+}
@@ -0,0 +1,131 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Retries idempotent GETs on transient failures and guards each host with a circuit breaker.
+ *
+ * Backoff is exponential with full jitter (a random delay between 0 and the exponential cap),
+ * so clients that failed together do not retry together. Retries draw from a shared budget
+ * that only refills as normal calls are made, which keeps retries to a small fraction of
+ * traffic during an outage instead of multiplying the load.
+ */
+public class RetryInterceptor implements Interceptor {
+
+    private static final String TAG = "RetryInterceptor";
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BASE_DELAY_MS = 300;
+    private static final long MAX_DELAY_MS = 4_000;
+
+    // Each call earns 0.1 retry; at most 10 retries can be banked
+    private static final double BUDGET_PER_CALL = 0.1;
+    private static final double MAX_BUDGET = 10;
+
+    private double retryBudget = MAX_BUDGET;
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        CircuitBreaker breaker = CircuitBreaker.forHost(request.url().host());
+        boolean idempotent = "GET".equals(request.method());
+        depositBudget();
+
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            breaker.acquire();
+
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (LocalCallException e) {
+                // Queued or throttled on the device; the server never saw this attempt
+                breaker.release();
+                throw e;
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    breaker.release();
+                    throw e;
+                }
+                breaker.onFailure();
+                if (!shouldRetry(idempotent, attempt, breaker)) {
+                    throw e;
+                }
+                Log.d(TAG, "Retrying " + request.url().encodedPath() + " after " + e.getClass().getSimpleName());
+                backoff(chain, attempt);
+                continue;
+            }
+
+            int code = response.code();
+            if (!isTransientServerError(code)) {
+                if (isHealthy(code)) {
+                    breaker.onSuccess();
+                } else if (code >= 500) {
+                    // A 500 is not worth retrying but still says the host is unwell
+                    breaker.onFailure();
+                } else {
+                    // 4xx and the like are about the request, not the host's health
+                    breaker.release();
+                }
+                return response;
+            }
+
+            breaker.onFailure();
+            if (!shouldRetry(idempotent, attempt, breaker)) {
+                return response;
+            }
+            Log.d(TAG, "Retrying " + request.url().encodedPath() + " after HTTP " + response.code());
+            response.close();
+            backoff(chain, attempt);
+        }
+    }
+
+    private boolean shouldRetry(boolean idempotent, int attempt, CircuitBreaker breaker) {
+        return idempotent && attempt < MAX_ATTEMPTS && !breaker.isOpen() && withdrawBudget();
+    }
+
+    private static boolean isHealthy(int code) {
+        return (code >= 200 && code < 300) || code == 304;
+    }
+
+    private static boolean isTransientServerError(int code) {
+        return code == 502 || code == 503 || code == 504;
+    }
+
+    private static void backoff(Chain chain, int attempt) throws IOException {
+        long cap = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << (attempt - 1));
+        long delay = ThreadLocalRandom.current().nextLong(cap + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Canceled during retry backoff", e);
+        }
+        if (chain.call().isCanceled()) {
+            throw new IOException("Canceled");
+        }
+    }
+
+    private synchronized void depositBudget() {
+        retryBudget = Math.min(MAX_BUDGET, retryBudget + BUDGET_PER_CALL);
+    }
+
+    private synchronized boolean withdrawBudget() {
+        if (retryBudget < 1) {
+            Log.w(TAG, "Retry budget exhausted, not retrying");
+            return false;
+        }
+        retryBudget -= 1;
+        return true;
+    }
+}
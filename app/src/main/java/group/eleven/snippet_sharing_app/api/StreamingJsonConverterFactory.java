@@ -0,0 +1,128 @@
+package group.eleven.snippet_sharing_app.api;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Request converter for methods annotated with {@link CompressBody}.
+ *
+ * Gson's own converter serializes the whole body into memory before sending. This one
+ * returns a {@link StreamingJsonBody} that writes JSON directly to the sink, so a large
+ * paste is never copied into an intermediate buffer. Other methods fall through to Gson.
+ */
+public final class StreamingJsonConverterFactory extends Converter.Factory {
+
+    static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+
+    private final Gson gson;
+
+    private StreamingJsonConverterFactory(Gson gson) {
+        this.gson = gson;
+    }
+
+    public static StreamingJsonConverterFactory create(Gson gson) {
+        return new StreamingJsonConverterFactory(gson);
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(@NonNull Type type,
+                                                          @NonNull Annotation[] parameterAnnotations,
+                                                          @NonNull Annotation[] methodAnnotations,
+                                                          @NonNull Retrofit retrofit) {
+        if (!isAnnotated(methodAnnotations)) {
+            return null;
+        }
+        TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(type));
+        return value -> new StreamingJsonBody<>(gson, adapter, value);
+    }
+
+    private static boolean isAnnotated(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof CompressBody) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * JSON body written on demand. It can be written more than once, which lets
+     * {@link GzipRequestInterceptor} resend it uncompressed.
+     */
+    public static final class StreamingJsonBody<T> extends RequestBody {
+        private final Gson gson;
+        private final TypeAdapter<T> adapter;
+        private final T value;
+        private final long estimatedSize;
+
+        @SuppressWarnings("unchecked")
+        StreamingJsonBody(Gson gson, TypeAdapter<?> adapter, Object value) {
+            this.gson = gson;
+            this.adapter = (TypeAdapter<T>) adapter;
+            this.value = (T) value;
+            this.estimatedSize = estimateSize(value, 0);
+        }
+
+        /**
+         * Approximate serialized size in characters, from the strings in the body
+         */
+        public long getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            // Not closed: that would close the sink, which OkHttp owns
+            Writer writer = new OutputStreamWriter(sink.outputStream(), StandardCharsets.UTF_8);
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            adapter.write(jsonWriter, value);
+            jsonWriter.flush();
+        }
+
+        private static long estimateSize(Object value, int depth) {
+            if (value instanceof CharSequence) {
+                return ((CharSequence) value).length() + 2;
+            }
+            if (depth > 3) {
+                return 16;
+            }
+            long size = 2;
+            if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    size += String.valueOf(entry.getKey()).length() + 4 + estimateSize(entry.getValue(), depth + 1);
+                }
+            } else if (value instanceof Collection) {
+                for (Object item : (Collection<?>) value) {
+                    size += 1 + estimateSize(item, depth + 1);
+                }
+            } else {
+                size += 16;
+            }
+            return size;
+        }
+    }
+}
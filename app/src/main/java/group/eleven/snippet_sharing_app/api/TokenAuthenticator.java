@@ -0,0 +1,127 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import group.eleven.snippet_sharing_app.data.model.AuthResponse;
+import group.eleven.snippet_sharing_app.utils.SessionManager;
+
+import java.io.IOException;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * OkHttp authenticator that refreshes an expired token when a request gets a 401.
+ *
+ * Refreshes are single-flight: the first 401 performs the refresh while every other
+ * request that fails with the same stale token waits on the lock, then retries once
+ * with the token the first request obtained. The shared OkHttpClient is never rebuilt,
+ * so warm connections in its pool survive token changes.
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String TAG = "TokenAuthenticator";
+    private static final String HEADER_AUTHORIZATION = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String REFRESH_PATH = "auth/refresh";
+    private static final String LOGIN_PATH = "auth/login";
+
+    private final Context context;
+    private final SessionManager sessionManager;
+    private final Object refreshLock = new Object();
+
+    // Stale token whose refresh already failed; later 401s carrying it give up immediately
+    private String failedToken;
+
+    public TokenAuthenticator(Context context, SessionManager sessionManager) {
+        this.context = context.getApplicationContext();
+        this.sessionManager = sessionManager;
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, @NonNull Response response) throws IOException {
+        Request request = response.request();
+        String path = request.url().encodedPath();
+        if (path.endsWith(REFRESH_PATH) || path.endsWith(LOGIN_PATH)) {
+            return null;
+        }
+
+        String staleToken = tokenFrom(request);
+        if (staleToken == null) {
+            // Request was anonymous, refreshing would not help
+            return null;
+        }
+        if (response.priorResponse() != null) {
+            // Already retried once with a refreshed token
+            return null;
+        }
+
+        synchronized (refreshLock) {
+            String currentToken = sessionManager.getAuthToken();
+            if (currentToken == null || currentToken.isEmpty()) {
+                // Logged out while this request was in flight
+                return null;
+            }
+            if (!currentToken.equals(staleToken)) {
+                // Another request refreshed while we were waiting
+                return withToken(request, currentToken);
+            }
+            if (staleToken.equals(failedToken)) {
+                return null;
+            }
+
+            String freshToken = refresh();
+            if (freshToken == null) {
+                failedToken = staleToken;
+                return null;
+            }
+            sessionManager.updateAuthToken(freshToken);
+            return withToken(request, freshToken);
+        }
+    }
+
+    /**
+     * Call the refresh endpoint synchronously on the current network thread
+     */
+    @Nullable
+    private String refresh() {
+        try {
+            retrofit2.Response<AuthResponse> refreshResponse =
+                    ApiClient.getApiService(context).refreshToken(PriorityDispatcher.Ungated.INSTANCE).execute();
+            AuthResponse body = refreshResponse.body();
+            if (refreshResponse.isSuccessful() && body != null && body.isSuccess()) {
+                String token = body.getToken();
+                if (token != null && !token.isEmpty()) {
+                    Log.d(TAG, "Token refreshed");
+                    return token;
+                }
+            }
+            Log.w(TAG, "Token refresh rejected: HTTP " + refreshResponse.code());
+        } catch (IOException e) {
+            Log.w(TAG, "Token refresh failed", e);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String tokenFrom(Request request) {
+        String header = request.header(HEADER_AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length());
+    }
+
+    private static Request withToken(Request request, String token) {
+        return request.newBuilder()
+                .header(HEADER_AUTHORIZATION, BEARER_PREFIX + token)
+                .build();
+    }
+}
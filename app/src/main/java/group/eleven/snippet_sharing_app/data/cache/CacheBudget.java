@@ -0,0 +1,267 @@
+package group.eleven.snippet_sharing_app.data.cache;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+
+/**
+ * Coordinates every cache in the app against one memory budget and one disk budget.
+ *
+ * Caches register once with a size estimator and a priority. When a budget is exceeded,
+ * caches are trimmed in eviction order: lowest priority first, and among equal priorities
+ * the least recently used first; each cache evicts its own least recently used entries.
+ * Memory pressure from the system ({@link #onTrimMemory}) sheds the lower priorities first
+ * and only reaches the higher ones as pressure rises.
+ *
+ * Both budgets are enforced once at startup. Disk caches grow as the app runs, so the disk
+ * budget is enforced again shortly after writes are reported through {@link #onDiskWrite}.
+ *
+ * Memory caches are handled on the main thread and disk caches on the disk writer, see
+ * {@link ManagedCache}.
+ */
+public final class CacheBudget implements ComponentCallbacks2 {
+
+    private static final String TAG = "CacheBudget";
+
+    // Rebuilt for free
+    public static final int PRIORITY_DISPOSABLE = 0;
+    // Cheap to rebuild or refetch, e.g. temp files and pre-inflated views
+    public static final int PRIORITY_LOW = 1;
+    // Refetched at a visible cost, e.g. decoded images
+    public static final int PRIORITY_NORMAL = 2;
+    // Needed to show anything offline, e.g. the feed snapshot
+    public static final int PRIORITY_HIGH = 3;
+
+    private static final long DISK_BUDGET_SMALL = 96L * 1024 * 1024;
+    private static final long DISK_BUDGET_LARGE = 256L * 1024 * 1024;
+    // A burst of writes costs one pass over the disk caches
+    private static final long DISK_CHECK_DELAY_MS = 30_000;
+
+    private static final ExecutorService diskExecutor = AppExecutors.getInstance().diskWriter();
+    private static final Executor mainExecutor = AppExecutors.getInstance().main();
+
+    private static CacheBudget instance;
+
+    private final List<ManagedCache> caches = new CopyOnWriteArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean diskCheckScheduled = new AtomicBoolean();
+    private final long memoryBudget;
+    private final long diskBudget;
+
+    public interface BreakdownCallback {
+        void onBreakdown(List<Usage> usages);
+    }
+
+    /**
+     * Size of one cache at the time of the breakdown
+     */
+    public static final class Usage {
+        private final String name;
+        private final ManagedCache.Kind kind;
+        private final int priority;
+        private final long bytes;
+
+        Usage(String name, ManagedCache.Kind kind, int priority, long bytes) {
+            this.name = name;
+            this.kind = kind;
+            this.priority = priority;
+            this.bytes = bytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ManagedCache.Kind getKind() {
+            return kind;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    private CacheBudget(Context context) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        // A quarter of the heap the system gives us, across every memory cache
+        memoryBudget = activityManager.getMemoryClass() * 1024L * 1024L / 4;
+        diskBudget = activityManager.isLowRamDevice() ? DISK_BUDGET_SMALL : DISK_BUDGET_LARGE;
+        context.registerComponentCallbacks(this);
+    }
+
+    public static synchronized CacheBudget getInstance(Context context) {
+        if (instance == null) {
+            instance = new CacheBudget(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public void register(ManagedCache cache) {
+        caches.add(cache);
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public long getDiskBudget() {
+        return diskBudget;
+    }
+
+    /**
+     * Bring disk caches under budget on the disk thread and memory caches on the main thread
+     */
+    public void enforce() {
+        mainExecutor.execute(() -> enforce(ManagedCache.Kind.MEMORY, memoryBudget));
+        diskExecutor.execute(() -> enforce(ManagedCache.Kind.DISK, diskBudget));
+    }
+
+    /**
+     * Report that a cache wrote to disk. The disk budget is enforced
+     * {@link #DISK_CHECK_DELAY_MS} later, once per burst of writes. Any thread.
+     */
+    public void onDiskWrite() {
+        if (diskCheckScheduled.compareAndSet(false, true)) {
+            mainHandler.postDelayed(() -> diskExecutor.execute(() -> {
+                diskCheckScheduled.set(false);
+                enforce(ManagedCache.Kind.DISK, diskBudget);
+            }), DISK_CHECK_DELAY_MS);
+        }
+    }
+
+    /**
+     * Measure every cache, disk caches on the disk thread, and deliver the sizes on the
+     * main thread, largest first
+     */
+    public void computeBreakdown(BreakdownCallback callback) {
+        mainExecutor.execute(() -> {
+            List<Usage> usages = new ArrayList<>();
+            for (ManagedCache cache : caches(ManagedCache.Kind.MEMORY)) {
+                usages.add(usage(cache));
+            }
+            diskExecutor.execute(() -> {
+                for (ManagedCache cache : caches(ManagedCache.Kind.DISK)) {
+                    usages.add(usage(cache));
+                }
+                Collections.sort(usages, (a, b) -> Long.compare(b.bytes, a.bytes));
+                List<Usage> result = Collections.unmodifiableList(usages);
+                mainExecutor.execute(() -> callback.onBreakdown(result));
+            });
+        });
+    }
+
+    /**
+     * Empty every registered cache, then run onDone on the main thread
+     */
+    public void clearAll(Runnable onDone) {
+        mainExecutor.execute(() -> {
+            for (ManagedCache cache : caches(ManagedCache.Kind.MEMORY)) {
+                cache.clear();
+            }
+            diskExecutor.execute(() -> {
+                for (ManagedCache cache : caches(ManagedCache.Kind.DISK)) {
+                    cache.clear();
+                }
+                mainExecutor.execute(onDone);
+            });
+        });
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= TRIM_MEMORY_COMPLETE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            // About to be killed, or the foreground is struggling: drop everything
+            shedMemory(PRIORITY_HIGH + 1, PRIORITY_HIGH + 1);
+        } else if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_LOW) {
+            shedMemory(PRIORITY_NORMAL, PRIORITY_NORMAL);
+        } else if (level >= TRIM_MEMORY_UI_HIDDEN || level == TRIM_MEMORY_RUNNING_MODERATE) {
+            shedMemory(PRIORITY_LOW, PRIORITY_LOW);
+        } else {
+            return;
+        }
+        Log.d(TAG, "Trimmed memory caches for level " + level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        // Caches that depend on configuration check it themselves
+    }
+
+    /**
+     * Clear memory caches below clearBelow and halve those at halve
+     */
+    private void shedMemory(int clearBelow, int halve) {
+        for (ManagedCache cache : caches(ManagedCache.Kind.MEMORY)) {
+            if (cache.getPriority() < clearBelow) {
+                cache.clear();
+            } else if (cache.getPriority() == halve) {
+                cache.trimToSize(cache.estimateSizeBytes() / 2);
+            }
+        }
+    }
+
+    private void enforce(ManagedCache.Kind kind, long budget) {
+        List<ManagedCache> ordered = caches(kind);
+        long[] sizes = new long[ordered.size()];
+        long total = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            sizes[i] = ordered.get(i).estimateSizeBytes();
+            total += sizes[i];
+        }
+        if (total <= budget) {
+            return;
+        }
+        long over = total - budget;
+        Log.d(TAG, kind + " caches use " + total + " bytes, " + over + " over budget");
+        for (int i = 0; i < ordered.size() && over > 0; i++) {
+            ManagedCache cache = ordered.get(i);
+            cache.trimToSize(Math.max(0, sizes[i] - over));
+            over -= sizes[i] - cache.estimateSizeBytes();
+        }
+    }
+
+    /**
+     * Caches of one kind in eviction order
+     */
+    private List<ManagedCache> caches(ManagedCache.Kind kind) {
+        List<ManagedCache> result = new ArrayList<>();
+        for (ManagedCache cache : caches) {
+            if (cache.getKind() == kind) {
+                result.add(cache);
+            }
+        }
+        Collections.sort(result, Comparator.comparingInt(ManagedCache::getPriority)
+                .thenComparingLong(ManagedCache::getLastUsedAt));
+        return result;
+    }
+
+    private static Usage usage(ManagedCache cache) {
+        return new Usage(cache.getName(), cache.getKind(), cache.getPriority(), cache.estimateSizeBytes());
+    }
+}
@@ -0,0 +1,110 @@
+package group.eleven.snippet_sharing_app.data.cache;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loose files in the cache directories that no other cache owns, such as compressed avatar
+ * uploads. Directories managed by their own {@link ManagedCache} are skipped, so they are
+ * measured and evicted once. Evicts oldest-modified files first.
+ */
+public final class CacheDirFiles implements ManagedCache {
+
+    private final Context context;
+    private final Set<String> ownedDirs;
+
+    /**
+     * @param ownedDirs names of top-level cache directories that belong to other caches
+     */
+    public CacheDirFiles(Context context, String... ownedDirs) {
+        this.context = context.getApplicationContext();
+        this.ownedDirs = new HashSet<>(Arrays.asList(ownedDirs));
+    }
+
+    @Override
+    public String getName() {
+        return "Temporary files";
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.DISK;
+    }
+
+    @Override
+    public int getPriority() {
+        return CacheBudget.PRIORITY_LOW;
+    }
+
+    @Override
+    public long estimateSizeBytes() {
+        long size = 0;
+        for (File file : files()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    @Override
+    public long getLastUsedAt() {
+        long newest = 0;
+        for (File file : files()) {
+            newest = Math.max(newest, file.lastModified());
+        }
+        return newest;
+    }
+
+    @Override
+    public void trimToSize(long maxBytes) {
+        List<File> files = files();
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+        Collections.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.size() && size > maxBytes; i++) {
+            File file = files.get(i);
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        trimToSize(0);
+    }
+
+    private List<File> files() {
+        // Resolved here rather than up front: the lookups touch the disk
+        List<File> files = new ArrayList<>();
+        collect(context.getCacheDir(), true, files);
+        collect(context.getExternalCacheDir(), true, files);
+        return files;
+    }
+
+    private void collect(@Nullable File dir, boolean topLevel, List<File> out) {
+        File[] children = dir != null ? dir.listFiles() : null;
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isFile()) {
+                out.add(child);
+            } else if (!topLevel || !ownedDirs.contains(child.getName())) {
+                collect(child, false, out);
+            }
+        }
+    }
+}
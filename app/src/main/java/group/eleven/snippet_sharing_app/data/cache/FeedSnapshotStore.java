@@ -0,0 +1,329 @@
+package group.eleven.snippet_sharing_app.data.cache;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+
+/**
+ * On-disk snapshot of the last rendered home feed page.
+ *
+ * Lets HomeActivity show the previous feed on the first frame of a cold start and then
+ * revalidate in the background. Cards are written in a compact binary format together
+ * with their highlight tokens, so restoring a snapshot needs no JSON or regex work.
+ * The file is the app's offline copy of the feed, so it is the last thing
+ * {@link CacheBudget} evicts.
+ */
+public class FeedSnapshotStore {
+
+    private static final String TAG = "FeedSnapshotStore";
+    private static final String FILE_NAME = "feed_snapshot.bin";
+    private static final int FORMAT_VERSION = 3;
+
+    // The shared single disk thread keeps reads and writes to the file ordered
+    private static final ExecutorService diskExecutor = AppExecutors.getInstance().diskWriter();
+    private static final Executor mainExecutor = AppExecutors.getInstance().main();
+
+    private static FeedSnapshotStore instance;
+
+    private final AtomicFile file;
+    private final ManagedCache managedCache = new SnapshotCache();
+
+    public interface LoadCallback {
+        /**
+         * Called on the main thread. Snapshot is null if none exists for this user.
+         */
+        void onLoaded(@Nullable Snapshot snapshot);
+    }
+
+    /**
+     * A restored feed page and when it was saved
+     */
+    public static class Snapshot {
+        public final List<SnippetCard> cards;
+        public final long savedAt;
+
+        Snapshot(List<SnippetCard> cards, long savedAt) {
+            this.cards = cards;
+            this.savedAt = savedAt;
+        }
+
+        public boolean isFresh(long ttlMillis) {
+            return System.currentTimeMillis() - savedAt < ttlMillis;
+        }
+    }
+
+    private FeedSnapshotStore(Context context) {
+        this.file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    public static synchronized FeedSnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new FeedSnapshotStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Read the snapshot off the main thread and deliver it on the main thread
+     */
+    public void load(String userId, LoadCallback callback) {
+        diskExecutor.execute(() -> {
+            Snapshot snapshot = read(userId);
+            mainExecutor.execute(() -> callback.onLoaded(snapshot));
+        });
+    }
+
+    /**
+     * Save a feed page. Cards are copied and highlighted on the disk thread.
+     */
+    public void save(String userId, List<SnippetCard> cards) {
+        List<SnippetCard> copy = new ArrayList<>(cards);
+        long savedAt = System.currentTimeMillis();
+        diskExecutor.execute(() -> write(userId, copy, savedAt));
+    }
+
+    /**
+     * Delete the snapshot (e.g. on logout)
+     */
+    public void clear() {
+        diskExecutor.execute(file::delete);
+    }
+
+    /**
+     * The snapshot file as seen by {@link CacheBudget}
+     */
+    public ManagedCache asManagedCache() {
+        return managedCache;
+    }
+
+    /**
+     * Budget view of the single snapshot file. Called on the disk thread, like every
+     * other access to the file.
+     */
+    private final class SnapshotCache implements ManagedCache {
+        @Override
+        public String getName() {
+            return "Offline feed";
+        }
+
+        @Override
+        public Kind getKind() {
+            return Kind.DISK;
+        }
+
+        @Override
+        public int getPriority() {
+            return CacheBudget.PRIORITY_HIGH;
+        }
+
+        @Override
+        public long estimateSizeBytes() {
+            return file.getBaseFile().length();
+        }
+
+        @Override
+        public long getLastUsedAt() {
+            return file.getBaseFile().lastModified();
+        }
+
+        @Override
+        public void trimToSize(long maxBytes) {
+            // One page of cards; it is either kept whole or dropped
+            if (estimateSizeBytes() > maxBytes) {
+                file.delete();
+            }
+        }
+
+        @Override
+        public void clear() {
+            file.delete();
+        }
+    }
+
+    @Nullable
+    private Snapshot read(String userId) {
+        if (!file.getBaseFile().exists()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(file.openRead()))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String owner = readString(in);
+            if (owner == null || !owner.equals(userId)) {
+                return null;
+            }
+            long savedAt = in.readLong();
+            int count = readCount(in, 1);
+            List<SnippetCard> cards = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                cards.add(readCard(in));
+            }
+            return new Snapshot(Collections.unmodifiableList(cards), savedAt);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Discarding unreadable feed snapshot", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void write(String userId, List<SnippetCard> cards, long savedAt) {
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, userId);
+            out.writeLong(savedAt);
+            out.writeInt(cards.size());
+            for (SnippetCard card : cards) {
+                writeCard(out, card);
+            }
+            out.flush();
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write feed snapshot", e);
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+
+    private static void writeCard(DataOutputStream out, SnippetCard card) throws IOException {
+        writeString(out, card.getId());
+        writeString(out, card.getSlug());
+        writeString(out, card.getTitle());
+        writeString(out, card.getDescription());
+        writeString(out, card.getLanguageBadge());
+        writeString(out, card.getUpdatedTime());
+        out.writeLong(card.getUpdatedAtMillis());
+        writeString(out, card.getCodePreview());
+        String[] tags = card.getTags();
+        out.writeInt(tags != null ? tags.length : -1);
+        if (tags != null) {
+            for (String tag : tags) {
+                writeString(out, tag);
+            }
+        }
+        out.writeInt(card.getLanguageColor());
+        writeString(out, card.getAuthorName());
+        writeString(out, card.getAuthorAvatar());
+        writeString(out, card.getAuthorUsername());
+        out.writeInt(card.getLikesCount());
+        out.writeInt(card.getCommentsCount());
+        out.writeBoolean(card.isLiked());
+        writeString(out, card.getVisibility());
+
+        int[] tokens = card.getHighlightTokens();
+        if (tokens == null) {
+            tokens = SyntaxHighlighter.tokenize(card.getCodePreview());
+        }
+        out.writeInt(tokens.length);
+        for (int value : tokens) {
+            out.writeInt(value);
+        }
+    }
+
+    private static SnippetCard readCard(DataInputStream in) throws IOException {
+        String id = readString(in);
+        String slug = readString(in);
+        String title = readString(in);
+        String description = readString(in);
+        String languageBadge = readString(in);
+        String updatedTime = readString(in);
+        long updatedAtMillis = in.readLong();
+        String codePreview = readString(in);
+        int tagCount = in.readInt();
+        String[] tags = null;
+        if (tagCount >= 0) {
+            checkRemaining(in, tagCount, Integer.BYTES);
+            tags = new String[tagCount];
+            for (int i = 0; i < tagCount; i++) {
+                tags[i] = readString(in);
+            }
+        }
+        int languageColor = in.readInt();
+        String authorName = readString(in);
+        String authorAvatar = readString(in);
+        String authorUsername = readString(in);
+        int likesCount = in.readInt();
+        int commentsCount = in.readInt();
+        boolean isLiked = in.readBoolean();
+        String visibility = readString(in);
+
+        int[] tokens = new int[readCount(in, Integer.BYTES)];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = in.readInt();
+        }
+
+        return new SnippetCard(id, slug, title, description, languageBadge, updatedTime, updatedAtMillis,
+                codePreview, tags, languageColor, authorName, authorAvatar, authorUsername,
+                likesCount, commentsCount, isLiked, visibility, tokens);
+    }
+
+    /**
+     * Read a count of items at least bytesPerItem long each, checked like {@link #checkRemaining}
+     */
+    private static int readCount(DataInputStream in, int bytesPerItem) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupt feed snapshot: negative count " + count);
+        }
+        checkRemaining(in, count, bytesPerItem);
+        return count;
+    }
+
+    /**
+     * Fail as a corrupt snapshot when a length read from the file is more than the rest of the
+     * file could hold, instead of allocating an array of that size first. available() is the
+     * bytes left to read, since the stream is a local file.
+     */
+    private static void checkRemaining(DataInputStream in, int count, int bytesPerItem) throws IOException {
+        if ((long) count * bytesPerItem > in.available()) {
+            throw new IOException("Corrupt feed snapshot: length " + count + " past the end of the file");
+        }
+    }
+
+    // writeUTF is limited to 64KB, so strings are length-prefixed UTF-8 with -1 for null
+    private static void writeString(DataOutputStream out, @Nullable String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        checkRemaining(in, length, 1);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,315 @@
+package group.eleven.snippet_sharing_app.data.cache;
+
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import group.eleven.snippet_sharing_app.data.model.Language;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
+
+/**
+ * Process-wide language metadata: display name, badge, parsed color and file extension.
+ *
+ * Starts from a bundled snapshot of common languages so lookups work before the first
+ * network call (or without one), and is refreshed whenever GET /languages succeeds. Slugs,
+ * names and aliases ("js", "golang", "c++") all resolve to the same entry. Each raw key is
+ * normalized once and memoized, so lookups from bind paths are a single hash probe.
+ */
+public final class LanguageRegistry {
+
+    public static final String DEFAULT_COLOR_HEX = "#6B7280";
+    public static final int DEFAULT_COLOR = 0xFF6B7280;
+
+    // slug, display name, badge, color, file extension, aliases
+    private static final String[][] BUNDLED = {
+            {"javascript", "JavaScript", "JS", "#F7DF1E", "js", "js,node,nodejs"},
+            {"typescript", "TypeScript", "TS", "#3178C6", "ts", "ts"},
+            {"python", "Python", "Py", "#3776AB", "py", "py,python3"},
+            {"java", "Java", "Java", "#ED8B00", "java", ""},
+            {"kotlin", "Kotlin", "Kt", "#7F52FF", "kt", "kt"},
+            {"swift", "Swift", "Sw", "#FA7343", "swift", ""},
+            {"go", "Go", "Go", "#00ADD8", "go", "golang"},
+            {"rust", "Rust", "Rs", "#DEA584", "rs", "rs"},
+            {"ruby", "Ruby", "Rb", "#CC342D", "rb", "rb"},
+            {"php", "PHP", "PHP", "#777BB4", "php", ""},
+            {"c", "C", "C", "#A8B9CC", "c", ""},
+            {"cpp", "C++", "C++", "#00599C", "cpp", "c++"},
+            {"csharp", "C#", "C#", "#239120", "cs", "c#,cs"},
+            {"html", "HTML", "HTML", "#E34F26", "html", "htm,html/css"},
+            {"css", "CSS", "CSS", "#1572B6", "css", "scss"},
+            {"sql", "SQL", "SQL", "#4479A1", "sql", ""},
+            {"shell", "Shell", "Sh", "#4EAA25", "sh", "bash,sh,zsh"},
+            {"dart", "Dart", "Dart", "#0175C2", "dart", ""},
+            {"react", "React", "Rct", "#61DAFB", "jsx", "jsx"},
+            {"vue", "Vue", "Vue", "#41B883", "vue", ""}
+    };
+
+    private static final LanguageRegistry instance = new LanguageRegistry();
+
+    /**
+     * Resolved metadata for one language
+     */
+    public static final class Entry {
+        private final String slug;
+        private final String displayName;
+        private final String badge;
+        private final String colorHex;
+        private final int color;
+        private final String extension;
+
+        Entry(String slug, String displayName, String badge, String colorHex, String extension) {
+            this.slug = slug;
+            this.displayName = displayName;
+            this.badge = badge;
+            this.colorHex = colorHex;
+            this.color = ColorCache.parse(colorHex, DEFAULT_COLOR);
+            this.extension = extension;
+        }
+
+        public String getSlug() {
+            return slug;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Short label (up to four characters) for language badges
+         */
+        public String getBadge() {
+            return badge;
+        }
+
+        public String getColorHex() {
+            return colorHex;
+        }
+
+        public int getColor() {
+            return color;
+        }
+
+        /**
+         * File extension without the leading dot
+         */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Entries and lookup memo, replaced together on refresh so readers never mix the two
+     */
+    private static final class State {
+        final Map<String, Entry> byKey;
+        final List<Entry> entries;
+        final Map<String, Entry> resolved = new ConcurrentHashMap<>();
+
+        State(Map<String, Entry> byKey, List<Entry> entries) {
+            this.byKey = byKey;
+            this.entries = entries;
+        }
+    }
+
+    private volatile State state;
+    // Last list from GET /languages; null until the first successful fetch
+    private volatile List<Language> languages;
+    // Validator and elapsedRealtime of the last fetch or revalidation of that list
+    private volatile String languagesEtag;
+    private volatile long languagesCheckedAt;
+
+    private LanguageRegistry() {
+        state = bundledState();
+    }
+
+    private static State bundledState() {
+        Map<String, Entry> byKey = new HashMap<>();
+        List<Entry> entries = new ArrayList<>();
+        for (String[] row : BUNDLED) {
+            Entry entry = new Entry(row[0], row[1], row[2], row[3], row[4]);
+            entries.add(entry);
+            register(byKey, entry, row[1]);
+            for (String alias : row[5].split(",")) {
+                if (!alias.isEmpty()) {
+                    byKey.put(alias, entry);
+                }
+            }
+        }
+        return new State(byKey, Collections.unmodifiableList(entries));
+    }
+
+    public static LanguageRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Entry for a slug, name or alias. Unknown languages get an entry derived from the
+     * key with the default color, so callers never have to handle null.
+     */
+    public Entry resolve(@Nullable String key) {
+        if (key == null) {
+            key = "";
+        }
+        State current = state;
+        Entry entry = current.resolved.get(key);
+        if (entry == null) {
+            String normalized = normalize(key);
+            entry = current.byKey.get(normalized);
+            if (entry == null) {
+                entry = derive(key.trim(), normalized);
+            }
+            current.resolved.put(key, entry);
+        }
+        return entry;
+    }
+
+    public int colorFor(@Nullable String key) {
+        return resolve(key).getColor();
+    }
+
+    public String badgeFor(@Nullable String key) {
+        return resolve(key).getBadge();
+    }
+
+    /**
+     * Known languages, in bundled order followed by any the server added
+     */
+    public List<Entry> getEntries() {
+        return state.entries;
+    }
+
+    /**
+     * Languages from the last successful GET /languages, or null if not fetched yet
+     */
+    @Nullable
+    public List<Language> getLanguages() {
+        return languages;
+    }
+
+    /**
+     * ETag of the fetched list, to revalidate it with If-None-Match
+     */
+    @Nullable
+    public String getLanguagesEtag() {
+        return languagesEtag;
+    }
+
+    /**
+     * Whether the fetched list was last checked against the server more than maxAgeMs ago
+     */
+    public boolean isLanguagesStale(long maxAgeMs) {
+        return languages != null && SystemClock.elapsedRealtime() - languagesCheckedAt > maxAgeMs;
+    }
+
+    /**
+     * The server confirmed the fetched list is current (304 Not Modified)
+     */
+    public void markLanguagesRevalidated() {
+        languagesCheckedAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Merge a fresh GET /languages result. Server colors and display names replace the
+     * bundled ones; bundled badges and aliases are kept.
+     */
+    public synchronized void update(List<Language> fetched, @Nullable String etag) {
+        if (fetched == null) {
+            return;
+        }
+        State current = state;
+        Map<String, Entry> byKey = new HashMap<>(current.byKey);
+        List<Entry> entries = new ArrayList<>(current.entries);
+        for (Language language : fetched) {
+            String slug = language.getSlug();
+            if (slug == null || slug.isEmpty()) {
+                continue;
+            }
+            Entry known = byKey.get(normalize(slug));
+            String displayName = language.getDisplayName() != null ? language.getDisplayName()
+                    : known != null ? known.getDisplayName() : slug;
+            String badge = known != null ? known.getBadge() : deriveBadge(displayName);
+            String colorHex = language.getColor() != null ? language.getColor()
+                    : known != null ? known.getColorHex() : DEFAULT_COLOR_HEX;
+            String extension = firstExtension(language.getFileExtensions(),
+                    known != null ? known.getExtension() : "txt");
+
+            Entry entry = new Entry(slug, displayName, badge, colorHex, extension);
+            int index = entries.indexOf(known);
+            if (index >= 0) {
+                entries.set(index, entry);
+            } else {
+                entries.add(entry);
+            }
+            // Re-point every key of the old entry (aliases included) at the new one
+            if (known != null) {
+                for (Map.Entry<String, Entry> mapping : byKey.entrySet()) {
+                    if (mapping.getValue() == known) {
+                        mapping.setValue(entry);
+                    }
+                }
+            }
+            register(byKey, entry, displayName);
+            if (language.getName() != null) {
+                byKey.put(normalize(language.getName()), entry);
+            }
+        }
+        languages = Collections.unmodifiableList(new ArrayList<>(fetched));
+        languagesEtag = etag;
+        languagesCheckedAt = SystemClock.elapsedRealtime();
+        state = new State(byKey, Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * Back to the bundled snapshot, as in a new process
+     */
+    @VisibleForTesting
+    public synchronized void reset() {
+        languages = null;
+        languagesEtag = null;
+        languagesCheckedAt = 0;
+        state = bundledState();
+    }
+
+    private static void register(Map<String, Entry> byKey, Entry entry, String name) {
+        byKey.put(normalize(entry.getSlug()), entry);
+        byKey.put(normalize(name), entry);
+    }
+
+    private static Entry derive(String name, String normalized) {
+        if (name.isEmpty()) {
+            return new Entry("", "Unknown", "??", DEFAULT_COLOR_HEX, "txt");
+        }
+        return new Entry(normalized, name, deriveBadge(name), DEFAULT_COLOR_HEX, "txt");
+    }
+
+    private static String deriveBadge(String name) {
+        if (name.length() <= 4) {
+            return name;
+        }
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1, 2);
+    }
+
+    private static String firstExtension(String[] extensions, String fallback) {
+        if (extensions == null || extensions.length == 0 || extensions[0] == null) {
+            return fallback;
+        }
+        String extension = extensions[0].trim();
+        if (extension.startsWith(".")) {
+            extension = extension.substring(1);
+        }
+        return extension.isEmpty() ? fallback : extension;
+    }
+
+    private static String normalize(String key) {
+        return key.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package group.eleven.snippet_sharing_app.data.cache;
+
+/**
+ * A cache whose size is coordinated by {@link CacheBudget}.
+ *
+ * Memory caches are sized, trimmed and cleared on the main thread; disk caches on the
+ * disk writer thread, so implementations need no locking of their own for the budget.
+ */
+public interface ManagedCache {
+
+    enum Kind {
+        MEMORY,
+        DISK
+    }
+
+    /**
+     * Name shown in the settings breakdown
+     */
+    String getName();
+
+    Kind getKind();
+
+    /**
+     * One of the {@code CacheBudget.PRIORITY_*} constants; lower priorities are shed first
+     */
+    int getPriority();
+
+    /**
+     * Current size in bytes. May read the disk for {@link Kind#DISK} caches.
+     */
+    long estimateSizeBytes();
+
+    /**
+     * {@link System#currentTimeMillis()} of the last read or write, or 0 if unknown.
+     * Breaks ties between caches of the same priority, least recently used first.
+     */
+    long getLastUsedAt();
+
+    /**
+     * Evict least recently used entries until the cache holds at most maxBytes
+     */
+    void trimToSize(long maxBytes);
+
+    void clear();
+}
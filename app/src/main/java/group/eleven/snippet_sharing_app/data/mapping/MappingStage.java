@@ -0,0 +1,172 @@
+package group.eleven.snippet_sharing_app.data.mapping;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+import group.eleven.snippet_sharing_app.data.model.Snippet;
+import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+
+/**
+ * Converts API models to UI models off the main thread.
+ *
+ * Retrofit callbacks hand the raw list to {@link #mapList}; the conversion (preview
+ * extraction, color and badge lookup, timestamp parsing, truncation, highlight tokens)
+ * runs on the shared compute executor and the finished, unmodifiable list comes back to the
+ * main thread in a single post. Queue wait, mapping and delivery time are recorded per
+ * stage and can be read with {@link #getTimings()}.
+ */
+public final class MappingStage {
+
+    private static final String TAG = "MappingStage";
+
+    private static final ExecutorService computeExecutor = AppExecutors.getInstance().compute();
+    private static final Executor mainExecutor = AppExecutors.getInstance().main();
+
+    private static final Map<Stage, Timing> timings = new EnumMap<>(Stage.class);
+
+    /**
+     * Conversions that go through the stage, timed separately
+     */
+    public enum Stage {
+        SNIPPET_CARDS,
+        ACTIVITY_FEED,
+        NOTIFICATIONS,
+        SEARCH_RESULTS
+    }
+
+    public interface Callback<T> {
+        void onMapped(List<T> results);
+    }
+
+    /**
+     * Latest and cumulative timings for one stage, in microseconds
+     */
+    public static final class Timing {
+        private final int runs;
+        private final int lastItems;
+        private final long lastQueueUs;
+        private final long lastMapUs;
+        private final long lastDeliverUs;
+        private final long totalMapUs;
+
+        Timing(int runs, int lastItems, long lastQueueUs, long lastMapUs, long lastDeliverUs, long totalMapUs) {
+            this.runs = runs;
+            this.lastItems = lastItems;
+            this.lastQueueUs = lastQueueUs;
+            this.lastMapUs = lastMapUs;
+            this.lastDeliverUs = lastDeliverUs;
+            this.totalMapUs = totalMapUs;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getLastItems() {
+            return lastItems;
+        }
+
+        /**
+         * Time the last batch waited for a mapping thread
+         */
+        public long getLastQueueUs() {
+            return lastQueueUs;
+        }
+
+        /**
+         * Time spent converting the last batch
+         */
+        public long getLastMapUs() {
+            return lastMapUs;
+        }
+
+        /**
+         * Time from the last batch being ready to the main thread picking it up
+         */
+        public long getLastDeliverUs() {
+            return lastDeliverUs;
+        }
+
+        public long getAverageMapUs() {
+            return runs == 0 ? 0 : totalMapUs / runs;
+        }
+    }
+
+    private MappingStage() {
+        // Utility class
+    }
+
+    /**
+     * Map inputs on the compute pool and deliver the result on the main thread.
+     * A null input list maps to an empty list.
+     */
+    public static <I, O> void mapList(Stage stage, List<I> inputs, Function<I, O> mapper, Callback<O> callback) {
+        long queuedAt = SystemClock.elapsedRealtimeNanos();
+        computeExecutor.execute(() -> {
+            long startedAt = SystemClock.elapsedRealtimeNanos();
+            List<O> mapped;
+            try {
+                mapped = new ArrayList<>(inputs != null ? inputs.size() : 0);
+                if (inputs != null) {
+                    for (I input : inputs) {
+                        mapped.add(mapper.apply(input));
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A mapping bug should fail as loudly as it did on the main thread
+                mainExecutor.execute(() -> {
+                    throw e;
+                });
+                return;
+            }
+            List<O> results = Collections.unmodifiableList(mapped);
+            long mappedAt = SystemClock.elapsedRealtimeNanos();
+            mainExecutor.execute(() -> {
+                long deliveredAt = SystemClock.elapsedRealtimeNanos();
+                record(stage, results.size(), startedAt - queuedAt, mappedAt - startedAt, deliveredAt - mappedAt);
+                callback.onMapped(results);
+            });
+        });
+    }
+
+    /**
+     * Timings of every stage that has run at least once
+     */
+    public static Map<Stage, Timing> getTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new EnumMap<>(timings));
+        }
+    }
+
+    /**
+     * Snippet to feed card. The card builds its display strings and highlight tokens as it
+     * is constructed, so that work happens here rather than on first bind.
+     */
+    public static SnippetCard toSnippetCard(Snippet snippet) {
+        return snippet.toSnippetCard();
+    }
+
+    private static void record(Stage stage, int items, long queueNs, long mapNs, long deliverNs) {
+        long queueUs = queueNs / 1000;
+        long mapUs = mapNs / 1000;
+        long deliverUs = deliverNs / 1000;
+        synchronized (timings) {
+            Timing previous = timings.get(stage);
+            int runs = previous != null ? previous.runs + 1 : 1;
+            long totalMapUs = (previous != null ? previous.totalMapUs : 0) + mapUs;
+            timings.put(stage, new Timing(runs, items, queueUs, mapUs, deliverUs, totalMapUs));
+        }
+        Log.d(TAG, stage + ": " + items + " items, queued " + queueUs + "us, mapped in "
+                + mapUs + "us, delivered in " + deliverUs + "us");
+    }
+}
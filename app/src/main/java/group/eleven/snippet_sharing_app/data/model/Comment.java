@@ -2,11 +2,10 @@ package group.eleven.snippet_sharing_app.data.model;
 
 import com.google.gson.annotations.SerializedName;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
-import java.util.TimeZone;
+
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
 
 /**
  * Model class for snippet comments
@@ -34,6 +33,10 @@ public class Comment {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // createdAt as parsed by getCreatedAtMillis; reparsed when the string changes
+    private transient String parsedCreatedAt;
+    private transient long createdAtMillis;
+
     @SerializedName("likes_count")
     private int likesCount;
 
@@ -153,6 +156,20 @@ public class Comment {
         return likesCount + " likes";
     }
 
+    /**
+     * created_at as epoch millis, or Iso8601.INVALID. Parsed once per value.
+     */
+    public long getCreatedAtMillis() {
+        if (createdAt == null) {
+            return Iso8601.INVALID;
+        }
+        if (parsedCreatedAt != createdAt) {
+            createdAtMillis = Iso8601.parse(createdAt);
+            parsedCreatedAt = createdAt;
+        }
+        return createdAtMillis;
+    }
+
     /**
      * Format the created_at timestamp to a human-readable time ago format
      */
@@ -160,54 +177,11 @@ public class Comment {
         if (createdAt == null || createdAt.isEmpty()) {
             return "";
         }
-
-        try {
-            // Parse ISO 8601 format: 2026-02-20T07:52:12.000000Z
-            SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
-            isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-
-            // Handle both with and without microseconds
-            String dateStr = createdAt;
-            if (dateStr.contains(".")) {
-                dateStr = dateStr.substring(0, dateStr.indexOf('.'));
-            }
-            if (dateStr.endsWith("Z")) {
-                dateStr = dateStr.substring(0, dateStr.length() - 1);
-            }
-
-            Date date = isoFormat.parse(dateStr);
-            if (date == null) return createdAt;
-
-            long diffMs = System.currentTimeMillis() - date.getTime();
-            long diffSeconds = diffMs / 1000;
-            long diffMinutes = diffSeconds / 60;
-            long diffHours = diffMinutes / 60;
-            long diffDays = diffHours / 24;
-            long diffWeeks = diffDays / 7;
-            long diffMonths = diffDays / 30;
-            long diffYears = diffDays / 365;
-
-            if (diffSeconds < 60) {
-                return "Just now";
-            } else if (diffMinutes < 60) {
-                return diffMinutes + (diffMinutes == 1 ? " min ago" : " mins ago");
-            } else if (diffHours < 24) {
-                return diffHours + (diffHours == 1 ? " hour ago" : " hours ago");
-            } else if (diffDays < 7) {
-                return diffDays + (diffDays == 1 ? " day ago" : " days ago");
-            } else if (diffWeeks < 4) {
-                return diffWeeks + (diffWeeks == 1 ? " week ago" : " weeks ago");
-            } else if (diffMonths < 12) {
-                return diffMonths + (diffMonths == 1 ? " month ago" : " months ago");
-            } else {
-                return diffYears + (diffYears == 1 ? " year ago" : " years ago");
-            }
-        } catch (Exception e) {
-            // Return simplified date if parsing fails
-            if (createdAt.length() >= 10) {
-                return createdAt.substring(0, 10);
-            }
-            return createdAt;
+        long millis = getCreatedAtMillis();
+        if (millis != Iso8601.INVALID) {
+            return RelativeTime.DEFAULT.format(millis);
         }
+        // Return simplified date if parsing fails
+        return createdAt.length() >= 10 ? createdAt.substring(0, 10) : createdAt;
     }
 }
@@ -3,6 +3,8 @@ package group.eleven.snippet_sharing_app.data.model;
 import com.google.gson.annotations.SerializedName;
 
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
 
 /**
  * Model for activity feed items from /feed API
@@ -234,29 +236,8 @@ public class FeedActivity {
      */
     public String getFormattedTime() {
         if (createdAt == null) return "";
-
-        try {
-            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", java.util.Locale.US);
-            sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-            java.util.Date date = sdf.parse(createdAt);
-
-            if (date != null) {
-                long diff = System.currentTimeMillis() - date.getTime();
-                long minutes = diff / (1000 * 60);
-                long hours = diff / (1000 * 60 * 60);
-                long days = diff / (1000 * 60 * 60 * 24);
-
-                if (minutes < 1) return "Just now";
-                if (minutes < 60) return minutes + " min ago";
-                if (hours < 24) return hours + "h ago";
-                if (days < 7) return days + "d ago";
-                return days / 7 + "w ago";
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return createdAt;
+        long millis = Iso8601.parse(createdAt);
+        return millis != Iso8601.INVALID ? RelativeTime.DEFAULT.format(millis) : createdAt;
     }
 
     /**
@@ -2,6 +2,8 @@ package group.eleven.snippet_sharing_app.data.model;
 
 import com.google.gson.annotations.SerializedName;
 
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+
 /**
  * Notification model
  * Matches backend Notification model
@@ -52,6 +54,10 @@ public class Notification {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // createdAt as parsed by getCreatedAtMillis; reparsed when the string changes
+    private transient String parsedCreatedAt;
+    private transient long createdAtMillis;
+
     /**
      * Nested actor model for notification
      */
@@ -146,6 +152,20 @@ public class Notification {
         return updatedAt;
     }
 
+    /**
+     * created_at as epoch millis, or Iso8601.INVALID. Parsed once per value.
+     */
+    public long getCreatedAtMillis() {
+        if (createdAt == null) {
+            return Iso8601.INVALID;
+        }
+        if (parsedCreatedAt != createdAt) {
+            createdAtMillis = Iso8601.parse(createdAt);
+            parsedCreatedAt = createdAt;
+        }
+        return createdAtMillis;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
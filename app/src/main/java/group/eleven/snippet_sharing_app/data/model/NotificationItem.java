@@ -1,5 +1,8 @@
 package group.eleven.snippet_sharing_app.data.model;
 
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
+
 /**
  * Model class for notification items
  */
@@ -17,6 +20,8 @@ public class NotificationItem {
     private String title;
     private String message;
     private String timestamp;
+    // When set, the timestamp label is derived from it so it stays current
+    private long createdAtMillis = Iso8601.INVALID;
     private boolean isRead;
     private String actorName;
     private String actorAvatar;
@@ -39,7 +44,10 @@ public class NotificationItem {
     public String getType() { return type; }
     public String getTitle() { return title; }
     public String getMessage() { return message; }
-    public String getTimestamp() { return timestamp; }
+    public String getTimestamp() {
+        return createdAtMillis != Iso8601.INVALID ? RelativeTime.DEFAULT.format(createdAtMillis) : timestamp;
+    }
+    public long getCreatedAtMillis() { return createdAtMillis; }
     public boolean isRead() { return isRead; }
     public String getActorName() { return actorName; }
     public String getActorAvatar() { return actorAvatar; }
@@ -48,6 +56,7 @@ public class NotificationItem {
 
     // Setters
     public void setRead(boolean read) { isRead = read; }
+    public void setCreatedAtMillis(long createdAtMillis) { this.createdAtMillis = createdAtMillis; }
     public void setActorAvatar(String actorAvatar) { this.actorAvatar = actorAvatar; }
     public void setTargetId(String targetId) { this.targetId = targetId; }
     public void setTargetName(String targetName) { this.targetName = targetName; }
@@ -10,11 +10,21 @@ import com.google.gson.annotations.SerializedName;
 import java.lang.reflect.Type;
 import java.util.List;
 
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
+
 /**
  * Model for snippet data from /snippets API
  */
 public class Snippet {
 
+    /**
+     * Code lines shown on list cards
+     */
+    public static final int PREVIEW_LINES = 8;
+
     @SerializedName("id")
     private String id;
 
@@ -71,6 +81,9 @@ public class Snippet {
     @SerializedName("language")
     private SnippetLanguage language;
 
+    // Set when list code was cut down on the client; fetch by slug for the full code
+    private transient boolean codeTrimmed;
+
     // Nested class for language (handles object format)
     public static class SnippetLanguage {
         @SerializedName("id")
@@ -134,6 +147,11 @@ public class Snippet {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // Epoch millis of the timestamps above, parsed once on first use
+    private transient boolean timestampsParsed;
+    private transient long createdAtMillis;
+    private transient long updatedAtMillis;
+
     @SerializedName("category")
     private SnippetCategory category;
 
@@ -226,6 +244,7 @@ public class Snippet {
     public String getSlug() { return slug; }
     public String getDescription() { return description; }
     public String getCode() { return code; }
+    public boolean isCodeTrimmed() { return codeTrimmed; }
     public String getPrivacy() { return privacy; }
     public int getViewCount() { return viewCount; }
     public int getFavoriteCount() { return favoriteCount; }
@@ -237,6 +256,30 @@ public class Snippet {
     public boolean isFeatured() { return isFeatured; }
     public String getCreatedAt() { return createdAt; }
     public String getUpdatedAt() { return updatedAt; }
+
+    /**
+     * created_at as epoch millis, or Iso8601.INVALID
+     */
+    public long getCreatedAtMillis() {
+        parseTimestamps();
+        return createdAtMillis;
+    }
+
+    /**
+     * updated_at as epoch millis, or Iso8601.INVALID
+     */
+    public long getUpdatedAtMillis() {
+        parseTimestamps();
+        return updatedAtMillis;
+    }
+
+    private void parseTimestamps() {
+        if (!timestampsParsed) {
+            createdAtMillis = Iso8601.parse(createdAt);
+            updatedAtMillis = Iso8601.parse(updatedAt);
+            timestampsParsed = true;
+        }
+    }
     public SnippetLanguage getLanguage() { return language; }
     public String getLanguageString() {
         return language != null ? language.getSlug() : null;
@@ -262,49 +305,17 @@ public class Snippet {
      * Get language color for badge based on language name
      */
     public int getLanguageColor() {
-        // Use color from API if available
-        if (language != null && language.getColor() != null) {
-            try {
-                return android.graphics.Color.parseColor(language.getColor());
-            } catch (Exception ignored) {}
-        }
-
         String slug = language != null ? language.getSlug() : null;
-        if (slug == null) return android.graphics.Color.parseColor("#6B7280");
-
-        // Fallback: common language colors
-        switch (slug.toLowerCase()) {
-            case "javascript": case "js": return android.graphics.Color.parseColor("#F7DF1E");
-            case "python": case "py": return android.graphics.Color.parseColor("#3776AB");
-            case "java": return android.graphics.Color.parseColor("#ED8B00");
-            case "typescript": case "ts": return android.graphics.Color.parseColor("#3178C6");
-            case "php": return android.graphics.Color.parseColor("#777BB4");
-            case "ruby": case "rb": return android.graphics.Color.parseColor("#CC342D");
-            case "go": case "golang": return android.graphics.Color.parseColor("#00ADD8");
-            case "rust": case "rs": return android.graphics.Color.parseColor("#DEA584");
-            case "swift": return android.graphics.Color.parseColor("#FA7343");
-            case "kotlin": case "kt": return android.graphics.Color.parseColor("#7F52FF");
-            case "c": return android.graphics.Color.parseColor("#A8B9CC");
-            case "cpp": case "c++": return android.graphics.Color.parseColor("#00599C");
-            case "csharp": case "c#": return android.graphics.Color.parseColor("#239120");
-            case "html": return android.graphics.Color.parseColor("#E34F26");
-            case "css": return android.graphics.Color.parseColor("#1572B6");
-            case "sql": return android.graphics.Color.parseColor("#4479A1");
-            case "shell": case "bash": return android.graphics.Color.parseColor("#4EAA25");
-            default: return android.graphics.Color.parseColor("#6B7280");
-        }
+        int fallback = LanguageRegistry.getInstance().colorFor(slug);
+        // Use color from API if available
+        return ColorCache.parse(language != null ? language.getColor() : null, fallback);
     }
 
     /**
-     * Get language badge text (first 2-3 chars)
+     * Get language badge text (up to 4 chars)
      */
     public String getLanguageBadge() {
-        String name = language != null ? language.getSlug() : null;
-        if (name != null && !name.isEmpty()) {
-            if (name.length() <= 3) return name.toUpperCase();
-            return name.substring(0, 2).toUpperCase();
-        }
-        return "??";
+        return LanguageRegistry.getInstance().badgeFor(language != null ? language.getSlug() : null);
     }
 
     /**
@@ -314,15 +325,44 @@ public class Snippet {
         if (code == null || code.isEmpty()) {
             return "// No code preview";
         }
-        String[] lines = code.split("\n");
-        StringBuilder preview = new StringBuilder();
-        for (int i = 0; i < Math.min(8, lines.length); i++) {
-            preview.append(lines[i]);
-            if (i < Math.min(8, lines.length) - 1) {
-                preview.append("\n");
+        return firstLines(code, PREVIEW_LINES);
+    }
+
+    /**
+     * Drop everything past the preview from list items. List endpoints are asked for
+     * previews only (see ListProjection); this covers servers that ignore the request.
+     */
+    public void trimToPreview() {
+        if (code == null) {
+            return;
+        }
+        String preview = firstLines(code, PREVIEW_LINES);
+        if (preview.length() < code.length()) {
+            code = preview;
+            codeTrimmed = true;
+        }
+    }
+
+    public static void trimToPreview(List<Snippet> snippets) {
+        if (snippets != null) {
+            for (Snippet snippet : snippets) {
+                snippet.trimToPreview();
+            }
+        }
+    }
+
+    /**
+     * First maxLines lines of text, without splitting the whole string
+     */
+    private static String firstLines(String text, int maxLines) {
+        int end = -1;
+        for (int i = 0; i < maxLines; i++) {
+            end = text.indexOf('\n', end + 1);
+            if (end < 0) {
+                return text;
             }
         }
-        return preview.toString();
+        return text.substring(0, end);
     }
 
     /**
@@ -344,29 +384,8 @@ public class Snippet {
      */
     public String getFormattedUpdateTime() {
         if (updatedAt == null) return "";
-
-        try {
-            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", java.util.Locale.US);
-            sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-            java.util.Date date = sdf.parse(updatedAt);
-
-            if (date != null) {
-                long diff = System.currentTimeMillis() - date.getTime();
-                long minutes = diff / (1000 * 60);
-                long hours = diff / (1000 * 60 * 60);
-                long days = diff / (1000 * 60 * 60 * 24);
-
-                if (minutes < 1) return "Updated just now";
-                if (minutes < 60) return "Updated " + minutes + " min ago";
-                if (hours < 24) return "Updated " + hours + "h ago";
-                if (days < 7) return "Updated " + days + "d ago";
-                return "Updated " + days / 7 + "w ago";
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        return "Updated recently";
+        long millis = getUpdatedAtMillis();
+        return millis != Iso8601.INVALID ? RelativeTime.UPDATED.format(millis) : "Updated recently";
     }
 
     /**
@@ -383,10 +402,12 @@ public class Snippet {
 
         return new SnippetCard(
                 id,
+                slug,
                 title,
                 description,
                 getLanguageName(),
                 getFormattedUpdateTime(),
+                getUpdatedAtMillis(),
                 getCodePreview(),
                 getTagNames(),
                 getLanguageColor(),
@@ -396,7 +417,8 @@ public class Snippet {
                 favoriteCount,
                 commentCount,
                 isFavorited,
-                privacy != null ? privacy : "public"
+                privacy != null ? privacy : "public",
+                null
         );
     }
 }
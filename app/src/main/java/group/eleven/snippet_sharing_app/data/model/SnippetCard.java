@@ -1,51 +1,86 @@
 package group.eleven.snippet_sharing_app.data.model;
 
+import android.text.SpannedString;
+
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
+import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+
 /**
- * Model class for snippet cards with author info for social feed
+ * Model class for snippet cards with author info for social feed.
+ *
+ * Cards are immutable: display strings and highlight tokens are built in the constructor,
+ * on the mapping stage, and a like or a new comment count produces a new card through the
+ * with* methods. The adapter swaps the new card into its list, so a card handed to a cache,
+ * a snapshot or a DiffUtil pass never changes underneath it. The only state filled in later
+ * is the highlighted preview, which depends on the theme at bind time.
  */
-public class SnippetCard {
-    private String id;
-    private String title;
-    private String description;
-    private String languageBadge;
-    private String updatedTime;
-    private String codePreview;
-    private String[] tags;
-    private int languageColor;
+public final class SnippetCard {
+    private final String id;
+    private final String slug;
+    private final String title;
+    private final String description;
+    private final String languageBadge;
+    private final String updatedTime;
+    // When set, updatedTime is re-derived from it so the label stays current
+    private final long updatedAtMillis;
+    private final String codePreview;
+    private final String[] tags;
+    private final int languageColor;
 
     // Author info for social feed
-    private String authorName;
-    private String authorAvatar;
-    private String authorUsername;
+    private final String authorName;
+    private final String authorAvatar;
+    private final String authorUsername;
 
     // Social stats
-    private int likesCount;
-    private int commentsCount;
-    private boolean isLiked;
-    private String visibility; // "public", "private", "team"
+    private final int likesCount;
+    private final int commentsCount;
+    private final boolean isLiked;
+    private final String visibility; // "public", "private", "team"
+
+    // Syntax highlight tokens for codePreview (see SyntaxHighlighter.tokenize)
+    private final int[] highlightTokens;
+
+    // Display strings derived once and reused every time the card is rebound
+    private final String displayAuthorName;
+    private final String formattedLikes;
+    private final String formattedComments;
+    private final String[] displayTags;
+    private final String codeFilename;
+
+    // Built on first bind for the current theme; main thread only
+    private SpannedString highlightedPreview;
+    private int highlightedPalette;
 
     // Legacy constructor for backwards compatibility
     public SnippetCard(String title, String languageBadge, String updatedTime,
                       String codePreview, String[] tags, int languageColor) {
-        this.title = title;
-        this.languageBadge = languageBadge;
-        this.updatedTime = updatedTime;
-        this.codePreview = codePreview;
-        this.tags = tags;
-        this.languageColor = languageColor;
-        this.visibility = "public";
+        this(null, null, title, null, languageBadge, updatedTime, Iso8601.INVALID, codePreview, tags,
+                languageColor, null, null, null, 0, 0, false, "public", null);
     }
 
-    // Full constructor with social data
-    public SnippetCard(String id, String title, String description, String languageBadge,
-                      String updatedTime, String codePreview, String[] tags, int languageColor,
-                      String authorName, String authorAvatar, String authorUsername,
-                      int likesCount, int commentsCount, boolean isLiked, String visibility) {
+    /**
+     * Full constructor with social data. Pass highlightTokens when they are already known
+     * (e.g. from a snapshot); otherwise the preview is tokenized here.
+     */
+    public SnippetCard(String id, String slug, String title, String description, String languageBadge,
+                      String updatedTime, long updatedAtMillis, String codePreview, String[] tags,
+                      int languageColor, String authorName, String authorAvatar, String authorUsername,
+                      int likesCount, int commentsCount, boolean isLiked, String visibility,
+                      @Nullable int[] highlightTokens) {
         this.id = id;
+        this.slug = slug;
         this.title = title;
         this.description = description;
         this.languageBadge = languageBadge;
         this.updatedTime = updatedTime;
+        this.updatedAtMillis = updatedAtMillis;
         this.codePreview = codePreview;
         this.tags = tags;
         this.languageColor = languageColor;
@@ -56,12 +91,79 @@ public class SnippetCard {
         this.commentsCount = commentsCount;
         this.isLiked = isLiked;
         this.visibility = visibility;
+        this.highlightTokens = highlightTokens != null || codePreview == null || codePreview.isEmpty()
+                ? highlightTokens
+                : SyntaxHighlighter.tokenize(codePreview);
+
+        this.displayAuthorName = displayAuthorName(authorName, authorUsername);
+        this.formattedLikes = formatLikes(likesCount);
+        this.formattedComments = formatComments(commentsCount);
+        this.displayTags = displayTags(tags);
+        this.codeFilename = codeFilename(title, languageBadge);
+    }
+
+    /**
+     * Copy of source with new social state; everything else, derived strings included, is shared
+     */
+    private SnippetCard(SnippetCard source, boolean isLiked, int likesCount, int commentsCount) {
+        this.id = source.id;
+        this.slug = source.slug;
+        this.title = source.title;
+        this.description = source.description;
+        this.languageBadge = source.languageBadge;
+        this.updatedTime = source.updatedTime;
+        this.updatedAtMillis = source.updatedAtMillis;
+        this.codePreview = source.codePreview;
+        this.tags = source.tags;
+        this.languageColor = source.languageColor;
+        this.authorName = source.authorName;
+        this.authorAvatar = source.authorAvatar;
+        this.authorUsername = source.authorUsername;
+        this.likesCount = likesCount;
+        this.commentsCount = commentsCount;
+        this.isLiked = isLiked;
+        this.visibility = source.visibility;
+        this.highlightTokens = source.highlightTokens;
+
+        this.displayAuthorName = source.displayAuthorName;
+        this.formattedLikes = likesCount == source.likesCount ? source.formattedLikes : formatLikes(likesCount);
+        this.formattedComments = commentsCount == source.commentsCount
+                ? source.formattedComments : formatComments(commentsCount);
+        this.displayTags = source.displayTags;
+        this.codeFilename = source.codeFilename;
+        this.highlightedPreview = source.highlightedPreview;
+        this.highlightedPalette = source.highlightedPalette;
+    }
+
+    /**
+     * This card liked or unliked, likes count unchanged (e.g. saved to favorites)
+     */
+    public SnippetCard withLiked(boolean liked) {
+        return new SnippetCard(this, liked, likesCount, commentsCount);
+    }
+
+    /**
+     * This card liked or unliked with the new likes count
+     */
+    public SnippetCard withLike(boolean liked, int likesCount) {
+        return new SnippetCard(this, liked, likesCount, commentsCount);
+    }
+
+    public SnippetCard withCommentsCount(int commentsCount) {
+        return new SnippetCard(this, isLiked, likesCount, commentsCount);
     }
 
     public String getId() {
         return id;
     }
 
+    /**
+     * Slug for fetching the full snippet; cards only carry a code preview
+     */
+    public String getSlug() {
+        return slug;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -75,7 +177,11 @@ public class SnippetCard {
     }
 
     public String getUpdatedTime() {
-        return updatedTime;
+        return updatedAtMillis != Iso8601.INVALID ? RelativeTime.UPDATED.format(updatedAtMillis) : updatedTime;
+    }
+
+    public long getUpdatedAtMillis() {
+        return updatedAtMillis;
     }
 
     public String getCodePreview() {
@@ -114,40 +220,121 @@ public class SnippetCard {
         return isLiked;
     }
 
-    public void setLiked(boolean liked) {
-        isLiked = liked;
+    public String getVisibility() {
+        return visibility != null ? visibility : "public";
     }
 
-    public void setLikesCount(int likesCount) {
-        this.likesCount = likesCount;
+    public int[] getHighlightTokens() {
+        return highlightTokens;
     }
 
-    public void setCommentsCount(int commentsCount) {
-        this.commentsCount = commentsCount;
+    /**
+     * Highlighted code preview, built once per theme and reused on rebind.
+     * Null when there is no preview.
+     */
+    public CharSequence getHighlightedPreview(SyntaxHighlighter highlighter) {
+        if (codePreview == null || codePreview.isEmpty()) {
+            return null;
+        }
+        int palette = highlighter.getPaletteId();
+        if (highlightedPreview == null || highlightedPalette != palette) {
+            highlightedPreview = highlighter.highlightImmutable(codePreview, highlightTokens);
+            highlightedPalette = palette;
+        }
+        return highlightedPreview;
     }
 
-    public String getVisibility() {
-        return visibility != null ? visibility : "public";
+    /**
+     * File name shown in the code header, from the title and language
+     */
+    public String getCodeFilename() {
+        return codeFilename;
     }
 
     // Helper methods
+    public String getDisplayAuthorName() {
+        return displayAuthorName;
+    }
+
+    /**
+     * Tag at index formatted as "#tag", or null if there is no such tag
+     */
+    public String getDisplayTag(int index) {
+        return displayTags != null && index < displayTags.length ? displayTags[index] : null;
+    }
+
     public String getFormattedLikes() {
+        return formattedLikes;
+    }
+
+    public String getFormattedComments() {
+        return formattedComments;
+    }
+
+    public boolean hasDescription() {
+        return description != null && !description.trim().isEmpty();
+    }
+
+    public boolean hasTags() {
+        return tags != null && tags.length > 0;
+    }
+
+    private static String displayAuthorName(String authorName, String authorUsername) {
+        if (authorName != null && !authorName.isEmpty()) {
+            return authorName;
+        } else if (authorUsername != null && !authorUsername.isEmpty()) {
+            return authorUsername;
+        }
+        return "Anonymous";
+    }
+
+    private static String formatLikes(int likesCount) {
         if (likesCount == 0) return "Be first to like";
         if (likesCount == 1) return "1 like";
         return likesCount + " likes";
     }
 
-    public String getFormattedComments() {
+    private static String formatComments(int commentsCount) {
         if (commentsCount == 0) return "";
         if (commentsCount == 1) return "1 comment";
         return commentsCount + " comments";
     }
 
-    public boolean hasDescription() {
-        return description != null && !description.trim().isEmpty();
+    /**
+     * Tags as "#name", skipping null or empty names (a tag the server returned without one)
+     */
+    private static String[] displayTags(String[] tags) {
+        if (tags == null) {
+            return null;
+        }
+        String[] display = new String[tags.length];
+        int count = 0;
+        for (String tag : tags) {
+            String name = tag != null ? tag.replace("#", "") : "";
+            if (!name.isEmpty()) {
+                display[count++] = "#" + name;
+            }
+        }
+        return count == display.length ? display : Arrays.copyOf(display, count);
     }
 
-    public boolean hasTags() {
-        return tags != null && tags.length > 0;
+    /**
+     * Filename-safe form of the title with the language's extension
+     */
+    private static String codeFilename(String title, String language) {
+        String extension = "." + LanguageRegistry.getInstance().resolve(language).getExtension();
+        if (title == null || title.isEmpty()) {
+            return "snippet" + extension;
+        }
+        String filename = title.toLowerCase()
+                .replaceAll("[^a-z0-9]+", "_")
+                .replaceAll("^_+|_+$", "");
+        if (filename.length() > 20) {
+            filename = filename.substring(0, 20);
+        }
+        if (filename.isEmpty()) {
+            filename = "snippet";
+        }
+        return filename + extension;
     }
 }
@@ -4,6 +4,9 @@ import com.google.gson.annotations.SerializedName;
 
 import java.util.List;
 
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
+
 public class TeamSnippet {
     @SerializedName("id")
     private String id;
@@ -42,6 +45,10 @@ public class TeamSnippet {
     @SerializedName("updated_at")
     private String updatedAt;
 
+    // updatedAt as parsed by getUpdatedAtMillis; reparsed when the string changes
+    private transient String parsedUpdatedAt;
+    private transient long updatedAtMillis;
+
     @SerializedName("view_count")
     private int viewCount;
 
@@ -117,24 +124,20 @@ public class TeamSnippet {
      * Get formatted time ago string
      */
     public String getTimeAgo() {
-        if (updatedAt == null) return "";
-        try {
-            java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat(
-                    "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", java.util.Locale.US);
-            sdf.setTimeZone(java.util.TimeZone.getTimeZone("UTC"));
-            java.util.Date date = sdf.parse(updatedAt);
-            if (date != null) {
-                long diff = System.currentTimeMillis() - date.getTime();
-                long minutes = diff / (1000 * 60);
-                long hours = diff / (1000 * 60 * 60);
-                long days = diff / (1000 * 60 * 60 * 24);
-                if (minutes < 1) return "just now";
-                if (minutes < 60) return minutes + "m ago";
-                if (hours < 24) return hours + "h ago";
-                if (days < 7) return days + "d ago";
-                return days / 7 + "w ago";
-            }
-        } catch (Exception ignored) {}
-        return "";
+        return RelativeTime.DEFAULT.format(getUpdatedAtMillis());
+    }
+
+    /**
+     * updated_at as epoch millis, or Iso8601.INVALID. Parsed once per value.
+     */
+    public long getUpdatedAtMillis() {
+        if (updatedAt == null) {
+            return Iso8601.INVALID;
+        }
+        if (parsedUpdatedAt != updatedAt) {
+            updatedAtMillis = Iso8601.parse(updatedAt);
+            parsedUpdatedAt = updatedAt;
+        }
+        return updatedAtMillis;
     }
 }
@@ -0,0 +1,58 @@
+package group.eleven.snippet_sharing_app.data.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Chunked upload session from /uploads API
+ */
+public class UploadSession {
+    @SerializedName("id")
+    private String id;
+
+    @SerializedName("chunk_size")
+    private int chunkSize;
+
+    @SerializedName("total_chunks")
+    private int totalChunks;
+
+    // Indexes of chunks the server already has
+    @SerializedName("received_chunks")
+    private List<Integer> receivedChunks;
+
+    // Set once the upload is complete; passed instead of the file when saving
+    @SerializedName("upload_token")
+    private String uploadToken;
+
+    @SerializedName("expires_at")
+    private String expiresAt;
+
+    // Default constructor for Gson
+    public UploadSession() {}
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public List<Integer> getReceivedChunks() {
+        return receivedChunks;
+    }
+
+    public String getUploadToken() {
+        return uploadToken;
+    }
+
+    public String getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -7,6 +7,7 @@ import androidx.lifecycle.MutableLiveData;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.api.MessagePackConverterFactory;
 import group.eleven.snippet_sharing_app.data.model.AuthResponse;
 import group.eleven.snippet_sharing_app.data.model.ErrorResponse;
 import group.eleven.snippet_sharing_app.data.model.ForgotPasswordResponse;
@@ -17,6 +18,7 @@ import group.eleven.snippet_sharing_app.data.model.UserResponse;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -498,13 +500,17 @@ public class AuthRepository {
     private String parseError(Response<?> response) {
         try {
             if (response.errorBody() != null) {
-                ErrorResponse errorResponse = gson.fromJson(
-                        response.errorBody().string(),
+                // Error bodies come back in whichever format the server chose for the Accept header
+                ErrorResponse errorResponse = MessagePackConverterFactory.decodeErrorBody(
+                        gson,
+                        response.errorBody(),
                         ErrorResponse.class
                 );
-                return errorResponse.getFirstError();
+                if (errorResponse != null) {
+                    return errorResponse.getFirstError();
+                }
             }
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException e) {
             e.printStackTrace();
         }
         return "An error occurred. Please try again.";
@@ -1,17 +1,28 @@
 package group.eleven.snippet_sharing_app.data.repository;
 
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage.Stage;
 import group.eleven.snippet_sharing_app.data.model.ActivityFeedItem;
 import group.eleven.snippet_sharing_app.data.model.ApiResponse;
 import group.eleven.snippet_sharing_app.data.model.DashboardStats;
@@ -29,12 +40,187 @@ import retrofit2.Response;
  */
 public class DashboardRepository {
 
+    private static final String TAG = "DashboardRepository";
+
     private final ApiService apiService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     public DashboardRepository(Context context) {
         this.apiService = ApiClient.getApiService(context);
     }
 
+    /**
+     * Dashboard sections that can be loaded together, with their deadlines
+     */
+    public enum Section {
+        STATS(4000),
+        RECENT_SNIPPETS(6000),
+        PUBLIC_SNIPPETS(6000);
+
+        final long deadlineMs;
+
+        Section(long deadlineMs) {
+            this.deadlineMs = deadlineMs;
+        }
+    }
+
+    /**
+     * Handle to an in-progress dashboard load. Each section has its own LiveData that
+     * is set as soon as that section arrives, so screens can render progressively.
+     */
+    public static class DashboardLoad {
+        private final MutableLiveData<Resource<DashboardStats>> stats = new MutableLiveData<>();
+        private final MutableLiveData<Resource<List<SnippetCard>>> recentSnippets = new MutableLiveData<>();
+        private final MutableLiveData<Resource<List<SnippetCard>>> publicSnippets = new MutableLiveData<>();
+        private final MutableLiveData<Map<Section, Long>> timings = new MutableLiveData<>();
+
+        private final long startedAt = SystemClock.elapsedRealtime();
+        private final Map<Section, Long> elapsed = new EnumMap<>(Section.class);
+        private final List<Call<?>> calls = new ArrayList<>();
+        private final List<Runnable> timers = new ArrayList<>();
+        private Handler handler;
+        private boolean cancelled;
+
+        public LiveData<Resource<DashboardStats>> getStats() { return stats; }
+        public LiveData<Resource<List<SnippetCard>>> getRecentSnippets() { return recentSnippets; }
+        public LiveData<Resource<List<SnippetCard>>> getPublicSnippets() { return publicSnippets; }
+
+        /**
+         * Milliseconds from load start to each finished section (success, error or timeout)
+         */
+        public LiveData<Map<Section, Long>> getTimings() { return timings; }
+
+        /**
+         * Cancel all outstanding calls and deadlines, e.g. when the screen goes away
+         */
+        public void cancel() {
+            cancelled = true;
+            for (Call<?> call : calls) {
+                call.cancel();
+            }
+            for (Runnable timer : timers) {
+                handler.removeCallbacks(timer);
+            }
+        }
+
+        private void finish(Section section, String outcome) {
+            long ms = SystemClock.elapsedRealtime() - startedAt;
+            elapsed.put(section, ms);
+            timings.setValue(Collections.unmodifiableMap(new EnumMap<>(elapsed)));
+            Log.d(TAG, "Section " + section + " " + outcome + " in " + ms + "ms");
+        }
+    }
+
+    /**
+     * Load the requested dashboard sections concurrently.
+     *
+     * Every section is sent at once and has its own deadline; a section that misses it
+     * is cancelled and reported as an error without holding up the others.
+     */
+    public DashboardLoad loadDashboard(Set<Section> sections, int perPage) {
+        DashboardLoad load = new DashboardLoad();
+        load.handler = mainHandler;
+        EnumSet<Section> requested = EnumSet.copyOf(sections);
+
+        if (requested.contains(Section.STATS)) {
+            load.stats.setValue(Resource.loading(null));
+            enqueueSection(load, Section.STATS, apiService.getDashboardStats(),
+                    (stats, done) -> done.accept(stats), load.stats);
+        }
+
+        if (requested.contains(Section.RECENT_SNIPPETS)) {
+            load.recentSnippets.setValue(Resource.loading(null));
+            Map<String, String> params = new HashMap<>();
+            params.put("per_page", String.valueOf(perPage));
+            params.put("sort_by", "updated_at");
+            params.put("sort_order", "desc");
+            enqueueSection(load, Section.RECENT_SNIPPETS, apiService.getMySnippets(params),
+                    DashboardRepository::mapSnippetCards, load.recentSnippets);
+        }
+
+        if (requested.contains(Section.PUBLIC_SNIPPETS)) {
+            load.publicSnippets.setValue(Resource.loading(null));
+            Map<String, String> params = new HashMap<>();
+            params.put("per_page", String.valueOf(perPage));
+            params.put("sort_by", "created_at");
+            params.put("sort_order", "desc");
+            enqueueSection(load, Section.PUBLIC_SNIPPETS, apiService.getPublicSnippets(params),
+                    DashboardRepository::mapSnippetCards, load.publicSnippets);
+        }
+
+        return load;
+    }
+
+    /**
+     * Converts a section's API data to its UI model and calls done on the main thread
+     */
+    private interface SectionMapper<T, R> {
+        void map(T data, Consumer<R> done);
+    }
+
+    /**
+     * Enqueue one section with its deadline. Callbacks run on the main thread; list
+     * conversion runs on the mapping stage.
+     */
+    private <T, R> void enqueueSection(DashboardLoad load, Section section, Call<ApiResponse<T>> call,
+                                       SectionMapper<T, R> mapper, MutableLiveData<Resource<R>> target) {
+        boolean[] done = new boolean[1];
+        Runnable deadline = () -> {
+            if (done[0] || load.cancelled) return;
+            done[0] = true;
+            call.cancel();
+            target.setValue(Resource.error("Timed out loading " + section.name().toLowerCase(), null));
+            load.finish(section, "timed out");
+        };
+        load.calls.add(call);
+        load.timers.add(deadline);
+        mainHandler.postDelayed(deadline, section.deadlineMs);
+
+        call.enqueue(new Callback<ApiResponse<T>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<T>> call, Response<ApiResponse<T>> response) {
+                if (done[0] || load.cancelled) return;
+                done[0] = true;
+                mainHandler.removeCallbacks(deadline);
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    mapper.map(response.body().getData(), mapped -> {
+                        if (load.cancelled) return;
+                        target.setValue(Resource.success(mapped));
+                        load.finish(section, "loaded");
+                    });
+                } else {
+                    String message = response.body() != null ? response.body().getMessage() : "Failed to load " + section.name().toLowerCase();
+                    target.setValue(Resource.error(message != null ? message : "Failed to load", null));
+                    load.finish(section, "failed");
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<T>> call, Throwable t) {
+                if (done[0] || load.cancelled) return;
+                done[0] = true;
+                mainHandler.removeCallbacks(deadline);
+                target.setValue(Resource.error("Network error: " + t.getMessage(), null));
+                load.finish(section, "failed");
+            }
+        });
+    }
+
+    private static void mapSnippetCards(List<Snippet> snippets, Consumer<List<SnippetCard>> done) {
+        MappingStage.mapList(Stage.SNIPPET_CARDS, snippets, MappingStage::toSnippetCard, done::accept);
+    }
+
+    private static void postSnippetCards(List<Snippet> snippets, MutableLiveData<Resource<List<SnippetCard>>> result) {
+        MappingStage.mapList(Stage.SNIPPET_CARDS, snippets, MappingStage::toSnippetCard,
+                cards -> result.setValue(Resource.success(cards)));
+    }
+
+    private static void postActivityFeedItems(List<FeedActivity> activities,
+                                              MutableLiveData<Resource<List<ActivityFeedItem>>> result) {
+        MappingStage.mapList(Stage.ACTIVITY_FEED, activities, FeedActivity::toActivityFeedItem,
+                items -> result.setValue(Resource.success(items)));
+    }
+
     /**
      * Get dashboard statistics (snippets count, favorites, followers)
      */
@@ -76,16 +262,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<FeedActivity>>> call, Response<ApiResponse<List<FeedActivity>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<FeedActivity> activities = response.body().getData();
-                    List<ActivityFeedItem> items = new ArrayList<>();
-
-                    if (activities != null) {
-                        for (FeedActivity activity : activities) {
-                            items.add(activity.toActivityFeedItem());
-                        }
-                    }
-
-                    result.setValue(Resource.success(items));
+                    postActivityFeedItems(response.body().getData(), result);
                 } else {
                     // If personalized feed fails (e.g., not following anyone), try public feed
                     getPublicFeedFallback(result, perPage);
@@ -110,16 +287,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<FeedActivity>>> call, Response<ApiResponse<List<FeedActivity>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<FeedActivity> activities = response.body().getData();
-                    List<ActivityFeedItem> items = new ArrayList<>();
-
-                    if (activities != null) {
-                        for (FeedActivity activity : activities) {
-                            items.add(activity.toActivityFeedItem());
-                        }
-                    }
-
-                    result.setValue(Resource.success(items));
+                    postActivityFeedItems(response.body().getData(), result);
                 } else {
                     result.setValue(Resource.error("Failed to load activity feed", null));
                 }
@@ -148,16 +316,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Snippet> snippets = response.body().getData();
-                    List<SnippetCard> cards = new ArrayList<>();
-
-                    if (snippets != null) {
-                        for (Snippet snippet : snippets) {
-                            cards.add(snippet.toSnippetCard());
-                        }
-                    }
-
-                    result.setValue(Resource.success(cards));
+                    postSnippetCards(response.body().getData(), result);
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load snippets";
                     result.setValue(Resource.error(message, null));
@@ -189,16 +348,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Snippet> snippets = response.body().getData();
-                    List<SnippetCard> cards = new ArrayList<>();
-
-                    if (snippets != null) {
-                        for (Snippet snippet : snippets) {
-                            cards.add(snippet.toSnippetCard());
-                        }
-                    }
-
-                    result.setValue(Resource.success(cards));
+                    postSnippetCards(response.body().getData(), result);
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load public snippets";
                     result.setValue(Resource.error(message, null));
@@ -228,16 +378,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<FeedActivity>>> call, Response<ApiResponse<List<FeedActivity>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<FeedActivity> activities = response.body().getData();
-                    List<ActivityFeedItem> items = new ArrayList<>();
-
-                    if (activities != null) {
-                        for (FeedActivity activity : activities) {
-                            items.add(activity.toActivityFeedItem());
-                        }
-                    }
-
-                    result.setValue(Resource.success(items));
+                    postActivityFeedItems(response.body().getData(), result);
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load public feed";
                     result.setValue(Resource.error(message, null));
@@ -267,16 +408,7 @@ public class DashboardRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Snippet> snippets = response.body().getData();
-                    List<SnippetCard> cards = new ArrayList<>();
-
-                    if (snippets != null) {
-                        for (Snippet snippet : snippets) {
-                            cards.add(snippet.toSnippetCard());
-                        }
-                    }
-
-                    result.setValue(Resource.success(cards));
+                    postSnippetCards(response.body().getData(), result);
                 } else {
                     result.setValue(Resource.error("Failed to load trending snippets", null));
                 }
@@ -291,6 +423,33 @@ public class DashboardRepository {
         return result;
     }
 
+    /**
+     * Get a single snippet with its full code. List endpoints only return previews,
+     * so screens that need the whole snippet (copy, open) fetch it lazily here.
+     */
+    public LiveData<Resource<Snippet>> getSnippetBySlug(String slug) {
+        MutableLiveData<Resource<Snippet>> result = new MutableLiveData<>();
+        result.setValue(Resource.loading(null));
+
+        apiService.getSnippetBySlug(slug).enqueue(new Callback<ApiResponse<Snippet>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<Snippet>> call, Response<ApiResponse<Snippet>> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    result.setValue(Resource.success(response.body().getData()));
+                } else {
+                    result.setValue(Resource.error("Failed to load snippet", null));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<Snippet>> call, Throwable t) {
+                result.setValue(Resource.error("Network error: " + t.getMessage(), null));
+            }
+        });
+
+        return result;
+    }
+
     /**
      * Toggle like on a snippet (like if not liked, unlike if liked)
      */
@@ -5,13 +5,14 @@ import android.content.Context;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage.Stage;
 import group.eleven.snippet_sharing_app.data.model.ApiResponse;
 import group.eleven.snippet_sharing_app.data.model.MessageResponse;
 import group.eleven.snippet_sharing_app.data.model.Snippet;
@@ -46,16 +47,8 @@ public class FavoritesRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Snippet> snippets = response.body().getData();
-                    List<SnippetCard> cards = new ArrayList<>();
-
-                    if (snippets != null) {
-                        for (Snippet snippet : snippets) {
-                            cards.add(snippet.toSnippetCard());
-                        }
-                    }
-
-                    result.setValue(Resource.success(cards));
+                    MappingStage.mapList(Stage.SNIPPET_CARDS, response.body().getData(), MappingStage::toSnippetCard,
+                            cards -> result.setValue(Resource.success(cards)));
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load favorites";
                     result.setValue(Resource.error(message, null));
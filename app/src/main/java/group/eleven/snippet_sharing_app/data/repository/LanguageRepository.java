@@ -8,9 +8,14 @@ import androidx.lifecycle.MutableLiveData;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage.Stage;
 import group.eleven.snippet_sharing_app.data.model.ApiResponse;
 import group.eleven.snippet_sharing_app.data.model.Language;
 import group.eleven.snippet_sharing_app.data.model.Snippet;
@@ -27,6 +32,12 @@ import java.util.ArrayList;
  */
 public class LanguageRepository {
 
+    // How long the language list is served before it is revalidated
+    static final long LANGUAGES_TTL_MS = TimeUnit.HOURS.toMillis(6);
+
+    // One revalidation in flight at a time, whichever screen asked
+    private static final AtomicBoolean revalidating = new AtomicBoolean();
+
     private final ApiService apiService;
 
     public LanguageRepository(Context context) {
@@ -34,17 +45,31 @@ public class LanguageRepository {
     }
 
     /**
-     * Get all programming languages
+     * Get all programming languages. The list is kept in {@link LanguageRegistry} and served
+     * from memory. Once it is older than {@link #LANGUAGES_TTL_MS} it is still served at once,
+     * and revalidated in the background with its ETag; a changed list is posted as a second
+     * value and merged into the registry.
      */
     public LiveData<Resource<List<Language>>> getLanguages() {
         MutableLiveData<Resource<List<Language>>> result = new MutableLiveData<>();
+        LanguageRegistry registry = LanguageRegistry.getInstance();
+        List<Language> cached = registry.getLanguages();
+        if (cached != null) {
+            result.setValue(Resource.success(new ArrayList<>(cached)));
+            if (registry.isLanguagesStale(LANGUAGES_TTL_MS)) {
+                revalidateLanguages(result);
+            }
+            return result;
+        }
         result.setValue(Resource.loading(null));
 
-        apiService.getLanguages().enqueue(new Callback<ApiResponse<List<Language>>>() {
+        apiService.getLanguages(null).enqueue(new Callback<ApiResponse<List<Language>>>() {
             @Override
             public void onResponse(Call<ApiResponse<List<Language>>> call, Response<ApiResponse<List<Language>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    result.setValue(Resource.success(response.body().getData()));
+                    List<Language> languages = response.body().getData();
+                    registry.update(languages, response.headers().get("ETag"));
+                    result.setValue(Resource.success(languages));
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load languages";
                     result.setValue(Resource.error(message, null));
@@ -60,6 +85,35 @@ public class LanguageRepository {
         return result;
     }
 
+    /**
+     * Ask the server whether the cached list changed. Failures keep the cached list, which
+     * stays stale so the next caller tries again.
+     */
+    private void revalidateLanguages(MutableLiveData<Resource<List<Language>>> result) {
+        if (!revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        LanguageRegistry registry = LanguageRegistry.getInstance();
+        apiService.getLanguages(registry.getLanguagesEtag()).enqueue(new Callback<ApiResponse<List<Language>>>() {
+            @Override
+            public void onResponse(Call<ApiResponse<List<Language>>> call, Response<ApiResponse<List<Language>>> response) {
+                revalidating.set(false);
+                if (response.code() == 304) {
+                    registry.markLanguagesRevalidated();
+                } else if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
+                    List<Language> languages = response.body().getData();
+                    registry.update(languages, response.headers().get("ETag"));
+                    result.setValue(Resource.success(languages));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<ApiResponse<List<Language>>> call, Throwable t) {
+                revalidating.set(false);
+            }
+        });
+    }
+
     /**
      * Get popular programming languages
      */
@@ -127,16 +181,8 @@ public class LanguageRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Snippet> snippets = response.body().getData();
-                    List<SnippetCard> cards = new ArrayList<>();
-
-                    if (snippets != null) {
-                        for (Snippet snippet : snippets) {
-                            cards.add(snippet.toSnippetCard());
-                        }
-                    }
-
-                    result.setValue(Resource.success(cards));
+                    MappingStage.mapList(Stage.SNIPPET_CARDS, response.body().getData(), MappingStage::toSnippetCard,
+                            cards -> result.setValue(Resource.success(cards)));
                 } else {
                     result.setValue(Resource.error("Failed to load snippets", null));
                 }
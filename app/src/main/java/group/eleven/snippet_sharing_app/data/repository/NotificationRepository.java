@@ -5,17 +5,20 @@ import android.content.Context;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage.Stage;
 import group.eleven.snippet_sharing_app.data.model.ApiResponse;
 import group.eleven.snippet_sharing_app.data.model.MessageResponse;
 import group.eleven.snippet_sharing_app.data.model.Notification;
 import group.eleven.snippet_sharing_app.data.model.NotificationItem;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -46,16 +49,9 @@ public class NotificationRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Notification>>> call, Response<ApiResponse<List<Notification>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    List<Notification> notifications = response.body().getData();
-                    List<NotificationItem> items = new ArrayList<>();
-
-                    if (notifications != null) {
-                        for (Notification n : notifications) {
-                            items.add(mapToNotificationItem(n));
-                        }
-                    }
-
-                    result.setValue(Resource.success(items));
+                    MappingStage.mapList(Stage.NOTIFICATIONS, response.body().getData(),
+                            NotificationRepository::mapToNotificationItem,
+                            items -> result.setValue(Resource.success(items)));
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Failed to load notifications";
                     result.setValue(Resource.error(message, null));
@@ -178,7 +174,7 @@ public class NotificationRepository {
     /**
      * Map API Notification model to UI NotificationItem model
      */
-    private NotificationItem mapToNotificationItem(Notification n) {
+    private static NotificationItem mapToNotificationItem(Notification n) {
         String actorName = "User";
         String actorAvatar = null;
 
@@ -194,11 +190,12 @@ public class NotificationRepository {
                 n.getType() != null ? n.getType() : "notification",
                 n.getTitle() != null ? n.getTitle() : "",
                 n.getMessage() != null ? n.getMessage() : "",
-                formatTimestamp(n.getCreatedAt()),
+                formatTimestamp(n),
                 n.isRead(),
                 actorName
         );
 
+        item.setCreatedAtMillis(n.getCreatedAtMillis());
         item.setActorAvatar(actorAvatar);
         item.setTargetId(n.getRelatedResourceId());
         item.setTargetName(n.getRelatedResourceType());
@@ -209,9 +206,9 @@ public class NotificationRepository {
     /**
      * Format timestamp for display
      */
-    private String formatTimestamp(String timestamp) {
-        if (timestamp == null) return "";
-        // Simple format - in production use proper date parsing
-        return "recently";
+    private static String formatTimestamp(Notification n) {
+        if (n.getCreatedAt() == null) return "";
+        long millis = n.getCreatedAtMillis();
+        return millis != Iso8601.INVALID ? RelativeTime.DEFAULT.format(millis) : "recently";
     }
 }
@@ -1,11 +1,14 @@
 package group.eleven.snippet_sharing_app.data.repository;
 
 import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,9 +17,13 @@ import java.util.Map;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.api.MessagePackConverterFactory;
 import group.eleven.snippet_sharing_app.data.model.ErrorResponse;
 import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.model.UserResponse;
+import group.eleven.snippet_sharing_app.data.upload.AvatarUploadPipeline;
+import group.eleven.snippet_sharing_app.data.upload.ResumableUploader;
+import group.eleven.snippet_sharing_app.startup.AppStartup;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
 import okhttp3.MediaType;
@@ -30,16 +37,28 @@ import retrofit2.Response;
  * Repository for profile-related operations
  */
 public class ProfileRepository {
+    private static final String TAG = "ProfileRepository";
+
+    private final Context context;
     private final ApiService apiService;
     private final SessionManager sessionManager;
     private final Gson gson;
+    private final MutableLiveData<Integer> uploadProgress = new MutableLiveData<>();
 
     public ProfileRepository(Context context) {
+        this.context = context.getApplicationContext();
         this.apiService = ApiClient.getApiService(context);
         this.sessionManager = new SessionManager(context);
         this.gson = new Gson();
     }
 
+    /**
+     * Avatar upload progress in percent, updated while updateProfile sends a new avatar
+     */
+    public LiveData<Integer> getUploadProgress() {
+        return uploadProgress;
+    }
+
     /**
      * Update user profile with avatar
      *
@@ -97,30 +116,87 @@ public class ProfileRepository {
             return;
         }
 
-        // Create multipart body for avatar
-        RequestBody avatarBody = RequestBody.create(MediaType.parse("image/*"), avatarFile);
-        MultipartBody.Part avatarPart = MultipartBody.Part.createFormData("avatar", avatarFile.getName(), avatarBody);
-
-        // Create request body map for profile data
-        Map<String, RequestBody> profileData = new HashMap<>();
-        profileData.put("full_name", createPartFromString(fullName));
-        profileData.put("username", createPartFromString(username));
-        profileData.put("bio", createPartFromString(bio != null ? bio : ""));
-        profileData.put("website_url", createPartFromString(websiteUrl != null ? websiteUrl : ""));
-        profileData.put("github_url", createPartFromString(githubUrl != null ? githubUrl : ""));
-        profileData.put("twitter_url", createPartFromString(twitterUrl != null ? twitterUrl : ""));
-        profileData.put("location", createPartFromString(location != null ? location : ""));
-        // Add _method field to simulate PUT request
-        profileData.put("_method", createPartFromString("PUT"));
+        // Downscale and re-encode off the main thread before uploading
+        AvatarUploadPipeline.prepare(context, Uri.fromFile(avatarFile), new AvatarUploadPipeline.Callback() {
+            @Override
+            public void onReady(AvatarUploadPipeline.PreparedAvatar avatar) {
+                Log.d(TAG, "Uploading avatar, saved " + avatar.getBytesSaved() + " bytes");
+
+                // Create request body map for profile data
+                Map<String, RequestBody> profileData = new HashMap<>();
+                profileData.put("full_name", createPartFromString(fullName));
+                profileData.put("username", createPartFromString(username));
+                profileData.put("bio", createPartFromString(bio != null ? bio : ""));
+                profileData.put("website_url", createPartFromString(websiteUrl != null ? websiteUrl : ""));
+                profileData.put("github_url", createPartFromString(githubUrl != null ? githubUrl : ""));
+                profileData.put("twitter_url", createPartFromString(twitterUrl != null ? twitterUrl : ""));
+                profileData.put("location", createPartFromString(location != null ? location : ""));
+                // Add _method field to simulate PUT request
+                profileData.put("_method", createPartFromString("PUT"));
+
+                if (avatar.getUploadBytes() < ResumableUploader.MIN_RESUMABLE_BYTES) {
+                    sendProfileWithAvatar(result, avatar, avatarPart(avatar), profileData);
+                    return;
+                }
+
+                // Large images go up in resumable chunks; the profile update then references the upload
+                AppStartup.getInstance().ensure("uploads");
+                ResumableUploader.getInstance(context).upload(avatar.getFile(), "image/jpeg", new ResumableUploader.Callback() {
+                    @Override
+                    public void onProgress(long bytesSent, long totalBytes) {
+                        uploadProgress.setValue(totalBytes > 0 ? (int) (bytesSent * 100 / totalBytes) : 0);
+                    }
+
+                    @Override
+                    public void onComplete(String uploadToken) {
+                        profileData.put("avatar_upload", createPartFromString(uploadToken));
+                        sendProfileWithAvatar(result, avatar, null, profileData);
+                    }
+
+                    @Override
+                    public void onUnsupported() {
+                        sendProfileWithAvatar(result, avatar, avatarPart(avatar), profileData);
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        avatar.delete();
+                        result.setValue(Resource.error(message));
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String message) {
+                result.setValue(Resource.error(message));
+            }
+        });
+    }
 
+    private MultipartBody.Part avatarPart(AvatarUploadPipeline.PreparedAvatar avatar) {
+        return avatar.toPart("avatar", (written, total) ->
+                uploadProgress.setValue(total > 0 ? (int) (written * 100 / total) : 0));
+    }
+
+    /**
+     * Send the profile update. avatarPart is null when the avatar was uploaded in chunks.
+     */
+    private void sendProfileWithAvatar(
+            MutableLiveData<Resource<UserResponse>> result,
+            AvatarUploadPipeline.PreparedAvatar avatar,
+            MultipartBody.Part avatarPart,
+            Map<String, RequestBody> profileData
+    ) {
         apiService.updateProfileWithAvatar(avatarPart, profileData).enqueue(new Callback<UserResponse>() {
             @Override
             public void onResponse(Call<UserResponse> call, Response<UserResponse> response) {
+                avatar.delete();
                 handleProfileUpdateResponse(result, response);
             }
 
             @Override
             public void onFailure(Call<UserResponse> call, Throwable t) {
+                avatar.delete();
                 t.printStackTrace();
                 result.setValue(Resource.error(getNetworkError(t)));
             }
@@ -237,13 +313,17 @@ public class ProfileRepository {
     private String parseError(Response<?> response) {
         try {
             if (response.errorBody() != null) {
-                ErrorResponse errorResponse = gson.fromJson(
-                        response.errorBody().string(),
+                // Error bodies come back in whichever format the server chose for the Accept header
+                ErrorResponse errorResponse = MessagePackConverterFactory.decodeErrorBody(
+                        gson,
+                        response.errorBody(),
                         ErrorResponse.class
                 );
-                return errorResponse.getFirstError();
+                if (errorResponse != null) {
+                    return errorResponse.getFirstError();
+                }
             }
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException e) {
             e.printStackTrace();
         }
         return "An error occurred. Please try again.";
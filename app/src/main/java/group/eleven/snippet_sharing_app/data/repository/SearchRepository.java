@@ -76,7 +76,10 @@ public class SearchRepository {
             @Override
             public void onResponse(Call<ApiResponse<List<Snippet>>> call, Response<ApiResponse<List<Snippet>>> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    result.setValue(Resource.success(response.body().getData()));
+                    List<Snippet> snippets = response.body().getData();
+                    // Results are kept for the life of the screen; hold previews only
+                    Snippet.trimToPreview(snippets);
+                    result.setValue(Resource.success(snippets));
                 } else {
                     String message = response.body() != null ? response.body().getMessage() : "Search failed";
                     result.setValue(Resource.error(message, null));
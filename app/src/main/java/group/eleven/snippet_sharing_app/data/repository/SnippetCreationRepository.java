@@ -29,35 +29,18 @@ import retrofit2.Response;
 public class SnippetCreationRepository {
 
     private final ApiService apiService;
+    private final LanguageRepository languageRepository;
 
     public SnippetCreationRepository(Context context) {
         this.apiService = ApiClient.getApiService(context);
+        this.languageRepository = new LanguageRepository(context);
     }
 
     /**
-     * Get all programming languages
+     * Get all programming languages (shared with {@link LanguageRepository})
      */
     public LiveData<Resource<List<Language>>> getLanguages() {
-        MutableLiveData<Resource<List<Language>>> result = new MutableLiveData<>();
-        result.setValue(Resource.loading(null));
-
-        apiService.getLanguages().enqueue(new Callback<ApiResponse<List<Language>>>() {
-            @Override
-            public void onResponse(Call<ApiResponse<List<Language>>> call, Response<ApiResponse<List<Language>>> response) {
-                if (response.isSuccessful() && response.body() != null && response.body().isSuccess()) {
-                    result.setValue(Resource.success(response.body().getData()));
-                } else {
-                    result.setValue(Resource.error("Failed to load languages", null));
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ApiResponse<List<Language>>> call, Throwable t) {
-                result.setValue(Resource.error(t.getMessage(), null));
-            }
-        });
-
-        return result;
+        return languageRepository.getLanguages();
     }
 
     /**
@@ -6,21 +6,19 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 
-import android.database.Cursor;
 import android.net.Uri;
-import android.provider.OpenableColumns;
+import android.util.Log;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.api.MessagePackConverterFactory;
 import group.eleven.snippet_sharing_app.data.model.ActivityFeedItem;
 import group.eleven.snippet_sharing_app.data.model.ApiResponse;
 import group.eleven.snippet_sharing_app.data.model.ErrorResponse;
@@ -30,6 +28,9 @@ import group.eleven.snippet_sharing_app.data.model.TeamInvitation;
 import group.eleven.snippet_sharing_app.data.model.TeamMember;
 import group.eleven.snippet_sharing_app.data.model.TeamSnippet;
 import group.eleven.snippet_sharing_app.data.model.TeamsResponse;
+import group.eleven.snippet_sharing_app.data.upload.AvatarUploadPipeline;
+import group.eleven.snippet_sharing_app.data.upload.ResumableUploader;
+import group.eleven.snippet_sharing_app.startup.AppStartup;
 import group.eleven.snippet_sharing_app.utils.SessionManager; // Import SessionManager
 
 import static group.eleven.snippet_sharing_app.data.repository.AuthRepository.Resource; // Explicitly import Resource
@@ -45,9 +46,12 @@ import retrofit2.Response;
  * Repository for team management operations
  */
 public class TeamRepository {
+    private static final String TAG = "TeamRepository";
+
     private final ApiService apiService;
     private final Gson gson;
     private final SessionManager sessionManager; // Add SessionManager
+    private final MutableLiveData<Integer> uploadProgress = new MutableLiveData<>();
 
     public TeamRepository(Context context) {
         this.apiService = ApiClient.getApiService(context);
@@ -116,6 +120,13 @@ public class TeamRepository {
         return result;
     }
 
+    /**
+     * Avatar upload progress in percent, updated while createTeamWithAvatar runs
+     */
+    public LiveData<Integer> getUploadProgress() {
+        return uploadProgress;
+    }
+
     /**
      * Create a new team with avatar.
      */
@@ -124,23 +135,73 @@ public class TeamRepository {
         MutableLiveData<AuthRepository.Resource<Team>> result = new MutableLiveData<>();
         result.setValue(AuthRepository.Resource.loading());
 
-        File avatarFile = uriToFile(context, avatarUri);
-        if (avatarFile == null) {
-            result.setValue(AuthRepository.Resource.error("Failed to process avatar image."));
-            return result;
-        }
+        // Downscale and re-encode off the main thread before uploading
+        AvatarUploadPipeline.prepare(context, avatarUri, new AvatarUploadPipeline.Callback() {
+            @Override
+            public void onReady(AvatarUploadPipeline.PreparedAvatar avatar) {
+                Log.d(TAG, "Uploading team avatar, saved " + avatar.getBytesSaved() + " bytes");
+
+                Map<String, RequestBody> teamData = new HashMap<>();
+                teamData.put("name", createPartFromString(name));
+                teamData.put("description", createPartFromString(description != null ? description : ""));
+                teamData.put("privacy", createPartFromString(privacy));
+
+                if (avatar.getUploadBytes() < ResumableUploader.MIN_RESUMABLE_BYTES) {
+                    sendCreateTeam(result, avatar, avatarPart(avatar), teamData);
+                    return;
+                }
+
+                // Large images go up in resumable chunks; the team is then created with the upload token
+                AppStartup.getInstance().ensure("uploads");
+                ResumableUploader.getInstance(context).upload(avatar.getFile(), "image/jpeg", new ResumableUploader.Callback() {
+                    @Override
+                    public void onProgress(long bytesSent, long totalBytes) {
+                        uploadProgress.setValue(totalBytes > 0 ? (int) (bytesSent * 100 / totalBytes) : 0);
+                    }
+
+                    @Override
+                    public void onComplete(String uploadToken) {
+                        teamData.put("avatar_upload", createPartFromString(uploadToken));
+                        sendCreateTeam(result, avatar, null, teamData);
+                    }
 
-        RequestBody avatarBody = RequestBody.create(MediaType.parse("image/*"), avatarFile);
-        MultipartBody.Part avatarPart = MultipartBody.Part.createFormData("avatar", avatarFile.getName(), avatarBody);
+                    @Override
+                    public void onUnsupported() {
+                        sendCreateTeam(result, avatar, avatarPart(avatar), teamData);
+                    }
 
-        Map<String, RequestBody> teamData = new HashMap<>();
-        teamData.put("name", createPartFromString(name));
-        teamData.put("description", createPartFromString(description != null ? description : ""));
-        teamData.put("privacy", createPartFromString(privacy));
+                    @Override
+                    public void onError(String message) {
+                        avatar.delete();
+                        result.setValue(AuthRepository.Resource.error(message));
+                    }
+                });
+            }
 
+            @Override
+            public void onError(String message) {
+                result.setValue(AuthRepository.Resource.error(message));
+            }
+        });
+        return result;
+    }
+
+    private MultipartBody.Part avatarPart(AvatarUploadPipeline.PreparedAvatar avatar) {
+        return avatar.toPart("avatar", (written, total) ->
+                uploadProgress.setValue(total > 0 ? (int) (written * 100 / total) : 0));
+    }
+
+    /**
+     * Send the create-team request. avatarPart is null when the avatar was uploaded in chunks.
+     */
+    private void sendCreateTeam(MutableLiveData<AuthRepository.Resource<Team>> result,
+                                AvatarUploadPipeline.PreparedAvatar avatar,
+                                MultipartBody.Part avatarPart,
+                                Map<String, RequestBody> teamData) {
         apiService.createTeamWithAvatar(avatarPart, teamData).enqueue(new Callback<ApiResponse<Team>>() {
             @Override
             public void onResponse(Call<ApiResponse<Team>> call, Response<ApiResponse<Team>> response) {
+                avatar.delete();
                 if (response.isSuccessful() && response.body() != null) {
                     ApiResponse<Team> apiResponse = response.body();
                     if (apiResponse.isSuccess()) {
@@ -155,51 +216,16 @@ public class TeamRepository {
 
             @Override
             public void onFailure(Call<ApiResponse<Team>> call, Throwable t) {
+                avatar.delete();
                 result.setValue(AuthRepository.Resource.error(getNetworkError(t)));
             }
         });
-        return result;
     }
 
     private RequestBody createPartFromString(String value) {
         return RequestBody.create(MediaType.parse("text/plain"), value);
     }
 
-    private File uriToFile(Context context, Uri uri) {
-        try {
-            String fileName = getFileName(context, uri);
-            if (fileName == null) fileName = "avatar.jpg";
-            File file = new File(context.getCacheDir(), fileName);
-            InputStream inputStream = context.getContentResolver().openInputStream(uri);
-            if (inputStream == null) return null;
-            FileOutputStream outputStream = new FileOutputStream(file);
-            byte[] buffer = new byte[4096];
-            int bytesRead;
-            while ((bytesRead = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, bytesRead);
-            }
-            outputStream.close();
-            inputStream.close();
-            return file;
-        } catch (IOException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    private String getFileName(Context context, Uri uri) {
-        String name = null;
-        Cursor cursor = context.getContentResolver().query(uri, null, null, null, null);
-        if (cursor != null) {
-            int nameIndex = cursor.getColumnIndex(OpenableColumns.DISPLAY_NAME);
-            if (nameIndex >= 0 && cursor.moveToFirst()) {
-                name = cursor.getString(nameIndex);
-            }
-            cursor.close();
-        }
-        return name;
-    }
-
     /**
      * Get details for a specific team.
      */
@@ -777,13 +803,17 @@ public class TeamRepository {
     private String parseError(Response<?> response) {
         try {
             if (response.errorBody() != null) {
-                ErrorResponse errorResponse = gson.fromJson(
-                        response.errorBody().string(),
+                // Error bodies come back in whichever format the server chose for the Accept header
+                ErrorResponse errorResponse = MessagePackConverterFactory.decodeErrorBody(
+                        gson,
+                        response.errorBody(),
                         ErrorResponse.class
                 );
-                return errorResponse.getFirstError();
+                if (errorResponse != null) {
+                    return errorResponse.getFirstError();
+                }
             }
-        } catch (IOException e) {
+        } catch (IOException | JsonParseException e) {
             e.printStackTrace();
         }
         return "An error occurred. Please try again.";
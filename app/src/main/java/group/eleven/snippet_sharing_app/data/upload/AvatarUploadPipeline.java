@@ -0,0 +1,227 @@
+package group.eleven.snippet_sharing_app.data.upload;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+import android.util.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import group.eleven.snippet_sharing_app.api.ProgressRequestBody;
+import group.eleven.snippet_sharing_app.data.cache.CacheBudget;
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+
+/**
+ * Prepares a picked image for upload as an avatar.
+ *
+ * The image is decoded with a power-of-two sample size so a 12MP photo never has to fit
+ * in memory, scaled to {@link #MAX_AVATAR_SIZE} on its longest side, rotated upright from
+ * its EXIF orientation and re-encoded as JPEG. Work runs on a background thread; the
+ * result is delivered on the main thread and streams from disk with progress callbacks.
+ */
+public final class AvatarUploadPipeline {
+
+    private static final String TAG = "AvatarUploadPipeline";
+
+    // Largest avatar size the server keeps
+    public static final int MAX_AVATAR_SIZE = 512;
+    private static final int JPEG_QUALITY = 85;
+    private static final MediaType MEDIA_TYPE_JPEG = MediaType.get("image/jpeg");
+
+    private static final ExecutorService executor = AppExecutors.getInstance().io();
+    private static final Executor mainExecutor = AppExecutors.getInstance().main();
+
+    public interface Callback {
+        void onReady(PreparedAvatar avatar);
+
+        void onError(String message);
+    }
+
+    /**
+     * Re-encoded avatar file, ready to upload
+     */
+    public static final class PreparedAvatar {
+        private final File file;
+        private final long originalBytes;
+
+        PreparedAvatar(File file, long originalBytes) {
+            this.file = file;
+            this.originalBytes = originalBytes;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Size of the picked image, or -1 if the provider did not report it
+         */
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getUploadBytes() {
+            return file.length();
+        }
+
+        public long getBytesSaved() {
+            return originalBytes > 0 ? Math.max(0, originalBytes - getUploadBytes()) : 0;
+        }
+
+        /**
+         * Multipart part that streams the file with progress callbacks
+         */
+        public MultipartBody.Part toPart(String fieldName, ProgressRequestBody.Listener listener) {
+            return MultipartBody.Part.createFormData(fieldName, file.getName(),
+                    new ProgressRequestBody(file, MEDIA_TYPE_JPEG, listener));
+        }
+
+        /**
+         * Remove the temporary file once the upload has finished
+         */
+        public void delete() {
+            if (file.exists() && !file.delete()) {
+                Log.w(TAG, "Could not delete " + file);
+            }
+        }
+    }
+
+    private AvatarUploadPipeline() {
+        // Utility class
+    }
+
+    public static void prepare(Context context, Uri source, Callback callback) {
+        Context appContext = context.getApplicationContext();
+        executor.execute(() -> {
+            try {
+                PreparedAvatar avatar = process(appContext, source);
+                Log.d(TAG, "Avatar " + avatar.getOriginalBytes() + " -> " + avatar.getUploadBytes()
+                        + " bytes (saved " + avatar.getBytesSaved() + ")");
+                mainExecutor.execute(() -> callback.onReady(avatar));
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Failed to prepare avatar", e);
+                mainExecutor.execute(() -> callback.onError("Failed to process avatar image."));
+            }
+        });
+    }
+
+    private static PreparedAvatar process(Context context, Uri source) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not an image: " + source);
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize(bounds.outWidth, bounds.outHeight, MAX_AVATAR_SIZE);
+        Bitmap bitmap;
+        try (InputStream in = open(resolver, source)) {
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (bitmap == null) {
+            throw new IOException("Could not decode " + source);
+        }
+
+        Bitmap scaled = scaleAndRotate(bitmap, MAX_AVATAR_SIZE, readRotation(resolver, source));
+        if (scaled != bitmap) {
+            bitmap.recycle();
+        }
+
+        File output = new File(context.getCacheDir(), "avatar_upload_" + System.currentTimeMillis() + ".jpg");
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+            if (!scaled.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out)) {
+                throw new IOException("JPEG encoding failed");
+            }
+        } finally {
+            scaled.recycle();
+        }
+        CacheBudget.getInstance(context).onDiskWrite();
+        return new PreparedAvatar(output, querySize(resolver, source));
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+
+    /**
+     * Largest power of two that keeps the decoded image at least maxSize on its longest side
+     */
+    static int sampleSize(int width, int height, int maxSize) {
+        int longest = Math.max(width, height);
+        int sample = 1;
+        while (longest / (sample * 2) >= maxSize) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    private static Bitmap scaleAndRotate(Bitmap bitmap, int maxSize, int rotation) {
+        int longest = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        float scale = longest > maxSize ? (float) maxSize / longest : 1f;
+        if (scale == 1f && rotation == 0) {
+            return bitmap;
+        }
+        Matrix matrix = new Matrix();
+        matrix.postScale(scale, scale);
+        matrix.postRotate(rotation);
+        return Bitmap.createBitmap(bitmap, 0, 0, bitmap.getWidth(), bitmap.getHeight(), matrix, true);
+    }
+
+    private static int readRotation(ContentResolver resolver, Uri uri) {
+        try (InputStream in = open(resolver, uri)) {
+            int orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+            switch (orientation) {
+                case ExifInterface.ORIENTATION_ROTATE_90:
+                    return 90;
+                case ExifInterface.ORIENTATION_ROTATE_180:
+                    return 180;
+                case ExifInterface.ORIENTATION_ROTATE_270:
+                    return 270;
+                default:
+                    return 0;
+            }
+        } catch (IOException e) {
+            // No EXIF data (e.g. PNG); keep as is
+            return 0;
+        }
+    }
+
+    private static long querySize(ContentResolver resolver, Uri uri) {
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme()) && uri.getPath() != null) {
+            return new File(uri.getPath()).length();
+        }
+        try (Cursor cursor = resolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not read size of " + uri, e);
+        }
+        return -1;
+    }
+}
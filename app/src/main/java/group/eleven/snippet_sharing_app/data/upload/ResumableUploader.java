@@ -0,0 +1,363 @@
+package group.eleven.snippet_sharing_app.data.upload;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.api.ApiService;
+import group.eleven.snippet_sharing_app.data.model.ApiResponse;
+import group.eleven.snippet_sharing_app.data.model.UploadSession;
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Response;
+
+/**
+ * Client for the chunked, resumable /uploads protocol.
+ *
+ * A file is split into fixed-size chunks that are sent with bounded parallelism. The
+ * session id is saved against a hash of the file contents, so when an upload drops
+ * (including process death) the same file resumes: the client asks the server which chunks
+ * it already has and only sends the rest. Once every chunk is in, the session is completed
+ * and its upload token is passed to the request that uses the file.
+ */
+public final class ResumableUploader {
+
+    private static final String TAG = "ResumableUploader";
+    private static final String PREFS_NAME = "SnippetAppUploads";
+    private static final String KEY_PREFIX = "session_";
+
+    /**
+     * Files smaller than this are sent as a single multipart request. Sized for avatars,
+     * the only uploads: a 512px JPEG is typically 40-150KB, which takes tens of seconds on
+     * a poor mobile uplink. Anything over two chunks is sent resumably, so a dropped
+     * connection costs one chunk instead of the whole image.
+     */
+    public static final long MIN_RESUMABLE_BYTES = 64 * 1024;
+    private static final int DEFAULT_CHUNK_SIZE = 32 * 1024;
+    private static final int MAX_PARALLEL_CHUNKS = 3;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    // Sessions older than this are assumed expired on the server
+    private static final long SESSION_MAX_AGE_MS = 24 * 60 * 60 * 1000L;
+
+    private static final MediaType MEDIA_TYPE_CHUNK = MediaType.get("application/octet-stream");
+
+    // One upload at a time; its chunks share a small pool. Both block on network calls for
+    // the whole upload, so they stay off the shared io executor.
+    private static final ExecutorService coordinator = Executors.newSingleThreadExecutor();
+    private static final ExecutorService chunkExecutor = Executors.newFixedThreadPool(MAX_PARALLEL_CHUNKS);
+    private static final Executor mainExecutor = AppExecutors.getInstance().main();
+
+    private static ResumableUploader instance;
+
+    public interface Callback {
+        void onProgress(long bytesSent, long totalBytes);
+
+        void onComplete(String uploadToken);
+
+        /**
+         * The server does not offer chunked uploads; send the file the old way
+         */
+        void onUnsupported();
+
+        void onError(String message);
+    }
+
+    private final Context context;
+    private final SharedPreferences prefs;
+
+    @VisibleForTesting
+    ResumableUploader(Context context) {
+        this.context = context;
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    public static synchronized ResumableUploader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ResumableUploader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Forget saved sessions the server has expired by now. A session is dropped when its
+     * file is uploaded again, so one for a file the user gave up on would otherwise stay.
+     */
+    public void pruneExpiredSessions() {
+        SharedPreferences.Editor editor = prefs.edit();
+        int pruned = 0;
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            String[] parts = String.valueOf(entry.getValue()).split("\\|");
+            long createdAt = parts.length > 1 ? parseLong(parts[1]) : 0;
+            if (System.currentTimeMillis() - createdAt > SESSION_MAX_AGE_MS) {
+                editor.remove(entry.getKey());
+                pruned++;
+            }
+        }
+        if (pruned > 0) {
+            editor.apply();
+            Log.d(TAG, "Pruned " + pruned + " expired upload sessions");
+        }
+    }
+
+    /**
+     * Upload a file, resuming an earlier session for the same contents if there is one.
+     * Callbacks run on the main thread.
+     */
+    public void upload(File file, String mimeType, Callback callback) {
+        coordinator.execute(() -> {
+            try {
+                run(file, mimeType, callback);
+            } catch (UnsupportedException e) {
+                mainExecutor.execute(callback::onUnsupported);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Upload of " + file.getName() + " interrupted", e);
+                mainExecutor.execute(() -> callback.onError("Upload interrupted. Try again to resume."));
+            }
+        });
+    }
+
+    private void run(File file, String mimeType, Callback callback) throws IOException {
+        long fileLength = file.length();
+        String key = KEY_PREFIX + contentHash(file);
+
+        UploadSession session = resume(key);
+        if (session == null) {
+            session = create(file, mimeType);
+            prefs.edit().putString(key, session.getId() + "|" + System.currentTimeMillis()).apply();
+        }
+
+        String uploadId = session.getId();
+        int chunkSize = session.getChunkSize() > 0 ? session.getChunkSize() : DEFAULT_CHUNK_SIZE;
+        int totalChunks = (int) ((fileLength + chunkSize - 1) / chunkSize);
+        Set<Integer> received = session.getReceivedChunks() != null
+                ? new HashSet<>(session.getReceivedChunks())
+                : new HashSet<>();
+
+        AtomicLong sent = new AtomicLong();
+        for (int index : received) {
+            sent.addAndGet(chunkLength(index, chunkSize, fileLength));
+        }
+        if (!received.isEmpty()) {
+            Log.d(TAG, "Resuming " + uploadId + " with " + received.size() + "/" + totalChunks + " chunks on server");
+        }
+        postProgress(callback, sent.get(), fileLength);
+
+        List<Future<?>> pending = new ArrayList<>();
+        for (int i = 0; i < totalChunks; i++) {
+            if (received.contains(i)) {
+                continue;
+            }
+            int index = i;
+            pending.add(chunkExecutor.submit(() -> {
+                sendChunk(uploadId, index, file, chunkSize, fileLength);
+                postProgress(callback, sent.addAndGet(chunkLength(index, chunkSize, fileLength)), fileLength);
+                return null;
+            }));
+        }
+        await(pending);
+
+        Response<ApiResponse<UploadSession>> response = api().completeUpload(uploadId).execute();
+        UploadSession completed = dataOrThrow(response, "complete upload");
+        prefs.edit().remove(key).apply();
+        String token = completed.getUploadToken() != null ? completed.getUploadToken() : uploadId;
+        mainExecutor.execute(() -> callback.onComplete(token));
+    }
+
+    /**
+     * Look up a saved session and ask the server which chunks it has
+     */
+    private UploadSession resume(String key) throws IOException {
+        String saved = prefs.getString(key, null);
+        if (saved == null) {
+            return null;
+        }
+        String[] parts = saved.split("\\|");
+        // An unreadable timestamp parses as 0, so the entry counts as expired and is dropped
+        long createdAt = parts.length > 1 ? parseLong(parts[1]) : 0;
+        if (System.currentTimeMillis() - createdAt > SESSION_MAX_AGE_MS) {
+            prefs.edit().remove(key).apply();
+            return null;
+        }
+
+        Response<ApiResponse<UploadSession>> response = api().getUpload(parts[0]).execute();
+        if (response.code() == 404 || response.code() == 410) {
+            // Expired or already used on the server; start over
+            prefs.edit().remove(key).apply();
+            return null;
+        }
+        return dataOrThrow(response, "resume upload");
+    }
+
+    private UploadSession create(File file, String mimeType) throws IOException {
+        Map<String, Object> uploadData = new HashMap<>();
+        uploadData.put("filename", file.getName());
+        uploadData.put("size", file.length());
+        uploadData.put("mime_type", mimeType);
+        uploadData.put("chunk_size", DEFAULT_CHUNK_SIZE);
+
+        Response<ApiResponse<UploadSession>> response = api().createUpload(uploadData).execute();
+        if (response.code() == 404 || response.code() == 405 || response.code() == 501) {
+            throw new UnsupportedException();
+        }
+        return dataOrThrow(response, "create upload");
+    }
+
+    private void sendChunk(String uploadId, int index, File file, int chunkSize, long fileLength) throws IOException {
+        long offset = (long) index * chunkSize;
+        long length = chunkLength(index, chunkSize, fileLength);
+        String range = "bytes " + offset + "-" + (offset + length - 1) + "/" + fileLength;
+
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= MAX_CHUNK_ATTEMPTS; attempt++) {
+            try {
+                Response<ApiResponse<UploadSession>> response = api().uploadChunk(
+                        uploadId, index, range, new ChunkRequestBody(file, offset, length)).execute();
+                if (response.isSuccessful()) {
+                    return;
+                }
+                lastError = new IOException("Chunk " + index + " failed with HTTP " + response.code());
+                // Client errors other than timeouts and throttling will not get better on retry
+                if (response.code() >= 400 && response.code() < 500
+                        && response.code() != 408 && response.code() != 429) {
+                    break;
+                }
+            } catch (IOException e) {
+                lastError = e;
+            }
+        }
+        throw lastError;
+    }
+
+    private static void await(List<Future<?>> pending) throws IOException {
+        IOException failure = null;
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException
+                            ? (IOException) e.getCause()
+                            : new IOException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while uploading", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static <T> T dataOrThrow(Response<ApiResponse<T>> response, String action) throws IOException {
+        if (response.isSuccessful() && response.body() != null && response.body().isSuccess()
+                && response.body().getData() != null) {
+            return response.body().getData();
+        }
+        throw new IOException("Failed to " + action + ": HTTP " + response.code());
+    }
+
+    private ApiService api() {
+        // Looked up per call so a rebuilt client is picked up
+        return ApiClient.getApiService(context);
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long chunkLength(int index, int chunkSize, long fileLength) {
+        return Math.min(chunkSize, fileLength - (long) index * chunkSize);
+    }
+
+    private static void postProgress(Callback callback, long sent, long total) {
+        mainExecutor.execute(() -> callback.onProgress(sent, total));
+    }
+
+    private static String contentHash(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * One chunk of a file, read from disk when sent
+     */
+    private static final class ChunkRequestBody extends RequestBody {
+        private final File file;
+        private final long offset;
+        private final long length;
+
+        ChunkRequestBody(File file, long offset, long length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE_CHUNK;
+        }
+
+        @Override
+        public long contentLength() {
+            return length;
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            try (FileInputStream in = new FileInputStream(file)) {
+                in.getChannel().position(offset);
+                try (Source source = Okio.source(in)) {
+                    sink.write(source, length);
+                }
+            }
+        }
+    }
+
+    private static final class UnsupportedException extends IOException {
+    }
+}
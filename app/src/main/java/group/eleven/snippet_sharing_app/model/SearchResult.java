@@ -1,17 +1,38 @@
 package group.eleven.snippet_sharing_app.model;
 
-public class SearchResult {
-    private String id;
-    private String title;
-    private String subtitle; // e.g., "Security • Middleware"
-    private String language; // e.g., "TS", "Py", "Go"
-    private String languageColor; // e.g., "#3178C6"
-    private String codeSnippet;
-    private String username; // e.g., "@dev_jane"
-    private int stars;
-    private int forks;
-    private boolean isPrivate;
-    private String timestamp;
+import android.text.SpannedString;
+
+import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+
+/**
+ * Search row. Immutable: display strings and highlight tokens are built in the constructor,
+ * which runs on the mapping stage. Only the highlighted code is filled in later, on the main
+ * thread, because it depends on the theme at bind time.
+ */
+public final class SearchResult {
+    private final String id;
+    private final String title;
+    private final String subtitle; // e.g., "Security • Middleware"
+    private final String language; // e.g., "TS", "Py", "Go"
+    private final String languageColor; // e.g., "#3178C6"
+    private final String codeSnippet;
+    private final String username; // e.g., "@dev_jane"
+    private final int stars;
+    private final int forks;
+    private final boolean isPrivate;
+    private final String timestamp;
+
+    // Display strings derived once and reused every time the row is rebound
+    private final String languageInitial;
+    private final String displaySubtitle;
+    private final String userLine;
+    private final String starsText;
+    private final String forksText;
+    private final int[] highlightTokens;
+
+    // Built on first bind for the current theme
+    private SpannedString highlightedCode;
+    private int highlightedPalette;
 
     public SearchResult(String id, String title, String subtitle, String language, String languageColor,
             String codeSnippet, String username, int stars, int forks, boolean isPrivate, String timestamp) {
@@ -26,6 +47,17 @@ public class SearchResult {
         this.forks = forks;
         this.isPrivate = isPrivate;
         this.timestamp = timestamp;
+
+        this.languageInitial = language.substring(0, Math.min(2, language.length())).toUpperCase();
+        this.displaySubtitle = isPrivate && !subtitle.contains("Private")
+                ? subtitle + " • Private 🔒"
+                : subtitle;
+        this.userLine = username + " • " + timestamp;
+        this.starsText = String.valueOf(stars);
+        this.forksText = String.valueOf(forks);
+        this.highlightTokens = codeSnippet != null && !codeSnippet.isEmpty()
+                ? SyntaxHighlighter.tokenize(codeSnippet)
+                : null;
     }
 
     public String getId() {
@@ -71,4 +103,42 @@ public class SearchResult {
     public String getTimestamp() {
         return timestamp;
     }
+
+    public String getLanguageInitial() {
+        return languageInitial;
+    }
+
+    /**
+     * Subtitle with a private marker appended for private snippets
+     */
+    public String getDisplaySubtitle() {
+        return displaySubtitle;
+    }
+
+    public String getUserLine() {
+        return userLine;
+    }
+
+    public String getStarsText() {
+        return starsText;
+    }
+
+    public String getForksText() {
+        return forksText;
+    }
+
+    /**
+     * Highlighted code, built once per theme and reused on rebind. Null when there is no code.
+     */
+    public CharSequence getHighlightedCode(SyntaxHighlighter highlighter) {
+        if (codeSnippet == null || codeSnippet.isEmpty()) {
+            return null;
+        }
+        int palette = highlighter.getPaletteId();
+        if (highlightedCode == null || highlightedPalette != palette) {
+            highlightedCode = highlighter.highlightImmutable(codeSnippet, highlightTokens);
+            highlightedPalette = palette;
+        }
+        return highlightedCode;
+    }
 }
@@ -0,0 +1,345 @@
+package group.eleven.snippet_sharing_app.startup;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import group.eleven.snippet_sharing_app.utils.AppExecutors;
+
+/**
+ * Runs the app's {@link Initializer}s in dependency order, each at most once, and keeps a
+ * timeline of the cold start.
+ *
+ * Critical initializers run in {@link #start}, so they hold up the first frame and should
+ * be few. Background ones are handed to {@link AppExecutors#io()} at the same moment. Idle
+ * ones wait until the first activity has drawn, then run one per main-thread idle pass.
+ * On-demand ones run on first {@link #ensure}. Any caller may ensure an initializer early;
+ * if another thread is already running it, the caller waits for it to finish.
+ *
+ * The timeline covers process start, Application.onCreate, every initializer, the first
+ * frame and the first content a screen reports through {@link #reportFirstContent}. It is
+ * logged and appended to files/perf/startup.log once the first content is shown and the
+ * deferred initializers have finished, or {@link #REPORT_WAIT_MS} after the first content.
+ */
+public final class AppStartup implements Application.ActivityLifecycleCallbacks {
+
+    private static final String TAG = "AppStartup";
+
+    // Idle initializers start anyway if no activity draws this soon, e.g. a background start
+    private static final long IDLE_FALLBACK_MS = 5000;
+    // Longest the report waits for deferred initializers after first content
+    private static final long REPORT_WAIT_MS = 10_000;
+
+    private static final Executor backgroundExecutor = AppExecutors.getInstance().io();
+    private static final Executor diskExecutor = AppExecutors.getInstance().diskWriter();
+
+    private static AppStartup instance;
+
+    private static final class Node {
+        final Initializer initializer;
+        volatile boolean done;
+
+        Node(Initializer initializer) {
+            this.initializer = initializer;
+        }
+    }
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final StartupTimeline timeline = new StartupTimeline();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Deque<Initializer> idleQueue = new ArrayDeque<>();
+    private final Runnable reportTimeout = this::writeReport;
+
+    private Application application;
+    private boolean firstFrameSeen;
+    private boolean idleScheduled;
+    private boolean firstContentSeen;
+    private boolean reportWritten;
+    private int pendingDeferred;
+
+    @VisibleForTesting
+    AppStartup() {
+    }
+
+    public static synchronized AppStartup getInstance() {
+        if (instance == null) {
+            instance = new AppStartup();
+        }
+        return instance;
+    }
+
+    /**
+     * Declare an initializer. All must be registered before {@link #start}.
+     */
+    public void register(Initializer initializer) {
+        if (application != null) {
+            throw new IllegalStateException("Register " + initializer.getName() + " before start()");
+        }
+        if (nodes.put(initializer.getName(), new Node(initializer)) != null) {
+            throw new IllegalStateException("Duplicate initializer " + initializer.getName());
+        }
+    }
+
+    /**
+     * Check the graph, run critical initializers and schedule the rest. Call once, from
+     * Application.onCreate.
+     */
+    public void start(Application application) {
+        this.application = application;
+        timeline.mark("Application.onCreate", null);
+        List<Initializer> ordered = sortByDependencies();
+        application.registerActivityLifecycleCallbacks(this);
+
+        List<Initializer> background = new ArrayList<>();
+        for (Initializer initializer : ordered) {
+            switch (initializer.getPhase()) {
+                case CRITICAL:
+                    ensure(initializer.getName());
+                    break;
+                case BACKGROUND:
+                    background.add(initializer);
+                    break;
+                case IDLE:
+                    idleQueue.add(initializer);
+                    break;
+                default:
+                    break;
+            }
+        }
+        pendingDeferred = background.size() + idleQueue.size();
+
+        if (!background.isEmpty()) {
+            backgroundExecutor.execute(() -> {
+                for (Initializer initializer : background) {
+                    ensure(initializer.getName());
+                    mainHandler.post(this::onDeferredFinished);
+                }
+            });
+        }
+        mainHandler.postDelayed(this::scheduleIdleInitializers, IDLE_FALLBACK_MS);
+    }
+
+    /**
+     * Run the named initializer, and its dependencies, on this thread unless already done
+     */
+    public void ensure(String name) {
+        Node node = nodes.get(name);
+        if (node == null) {
+            throw new IllegalArgumentException("Unknown initializer " + name);
+        }
+        if (node.done) {
+            return;
+        }
+        synchronized (node) {
+            if (node.done) {
+                return;
+            }
+            Initializer initializer = node.initializer;
+            for (String dependency : initializer.getDependencies()) {
+                ensure(dependency);
+            }
+            long startMs = timeline.now();
+            boolean failed = false;
+            try {
+                initializer.run(application);
+            } catch (RuntimeException e) {
+                if (initializer.getPhase() == Initializer.Phase.CRITICAL) {
+                    throw e;
+                }
+                // Deferred setup is best effort; the feature that needs it will retry or degrade
+                failed = true;
+                Log.e(TAG, "Initializer " + name + " failed", e);
+            } finally {
+                timeline.span(name, initializer.getPhase(), startMs, timeline.now() - startMs, failed);
+                node.done = true;
+            }
+        }
+    }
+
+    /**
+     * Run task on the main thread once activity has drawn its first frame and the main
+     * thread is idle, unless the activity is gone by then. For setup the first frame does
+     * not need.
+     */
+    public static void runAfterFirstFrame(Activity activity, Runnable task) {
+        onFirstDraw(activity, () -> Looper.myQueue().addIdleHandler(() -> {
+            if (!activity.isFinishing() && !activity.isDestroyed()) {
+                task.run();
+            }
+            return false;
+        }));
+    }
+
+    /**
+     * Mark the first useful content on screen, such as a restored or loaded feed. Only the
+     * first report in the process counts. Main thread only.
+     */
+    public void reportFirstContent(String what) {
+        if (firstContentSeen || application == null) {
+            return;
+        }
+        firstContentSeen = true;
+        timeline.mark("first content", what);
+        mainHandler.postDelayed(reportTimeout, REPORT_WAIT_MS);
+        maybeWriteReport();
+    }
+
+    private void onFirstFrame(Activity activity) {
+        if (firstFrameSeen) {
+            return;
+        }
+        firstFrameSeen = true;
+        timeline.mark("first frame", activity.getClass().getSimpleName());
+        application.unregisterActivityLifecycleCallbacks(this);
+        scheduleIdleInitializers();
+    }
+
+    private void scheduleIdleInitializers() {
+        if (idleScheduled) {
+            return;
+        }
+        idleScheduled = true;
+        if (idleQueue.isEmpty()) {
+            return;
+        }
+        Looper.getMainLooper().getQueue().addIdleHandler(() -> {
+            Initializer next = idleQueue.poll();
+            if (next != null) {
+                ensure(next.getName());
+                onDeferredFinished();
+            }
+            return !idleQueue.isEmpty();
+        });
+    }
+
+    private void onDeferredFinished() {
+        pendingDeferred--;
+        maybeWriteReport();
+    }
+
+    private void maybeWriteReport() {
+        if (firstContentSeen && pendingDeferred <= 0) {
+            writeReport();
+        }
+    }
+
+    private void writeReport() {
+        if (reportWritten) {
+            return;
+        }
+        reportWritten = true;
+        mainHandler.removeCallbacks(reportTimeout);
+        diskExecutor.execute(() -> timeline.write(application.getFilesDir()));
+    }
+
+    /**
+     * Initializers with every dependency before its dependents. Fails on unknown
+     * dependencies and cycles, which are programming errors.
+     */
+    private List<Initializer> sortByDependencies() {
+        List<Initializer> ordered = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        Set<String> visiting = new HashSet<>();
+        for (String name : nodes.keySet()) {
+            visit(name, null, visited, visiting, ordered);
+        }
+        return ordered;
+    }
+
+    private void visit(String name, @Nullable String dependent, Set<String> visited, Set<String> visiting,
+                       List<Initializer> ordered) {
+        if (visited.contains(name)) {
+            return;
+        }
+        Node node = nodes.get(name);
+        if (node == null) {
+            throw new IllegalStateException(dependent + " depends on unknown initializer " + name);
+        }
+        if (!visiting.add(name)) {
+            throw new IllegalStateException("Initializer dependency cycle through " + name);
+        }
+        for (String dependency : node.initializer.getDependencies()) {
+            visit(dependency, name, visited, visiting, ordered);
+        }
+        visiting.remove(name);
+        visited.add(name);
+        ordered.add(node.initializer);
+    }
+
+    /**
+     * Call action on the main thread right after activity's first draw
+     */
+    private static void onFirstDraw(Activity activity, Runnable action) {
+        View decor = activity.getWindow().getDecorView();
+        Handler handler = new Handler(Looper.getMainLooper());
+        ViewTreeObserver.OnDrawListener listener = new ViewTreeObserver.OnDrawListener() {
+            private boolean fired;
+
+            @Override
+            public void onDraw() {
+                if (fired) {
+                    return;
+                }
+                fired = true;
+                // Listeners cannot be removed while the tree is drawing
+                handler.postAtFrontOfQueue(() -> {
+                    decor.getViewTreeObserver().removeOnDrawListener(this);
+                    action.run();
+                });
+            }
+        };
+        decor.getViewTreeObserver().addOnDrawListener(listener);
+    }
+
+    // The first activity to resume is the one whose first draw counts as the first frame
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+        if (!firstFrameSeen) {
+            onFirstDraw(activity, () -> onFirstFrame(activity));
+        }
+    }
+
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+    }
+
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+    }
+}
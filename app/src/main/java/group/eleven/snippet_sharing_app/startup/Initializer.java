@@ -0,0 +1,64 @@
+package group.eleven.snippet_sharing_app.startup;
+
+import android.content.Context;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One piece of process-wide setup, declared to {@link AppStartup} with the initializers it
+ * needs and when it should run. Dependencies always run first, on the same thread, whatever
+ * their own phase.
+ */
+public final class Initializer {
+
+    /**
+     * When an initializer runs
+     */
+    public enum Phase {
+        /** On the main thread in Application.onCreate, before any activity draws */
+        CRITICAL,
+        /** Started on a background thread at once, in parallel with the first activity */
+        BACKGROUND,
+        /** On the main thread when it first goes idle after the first frame */
+        IDLE,
+        /** Only when something calls {@link AppStartup#ensure} */
+        ON_DEMAND
+    }
+
+    /**
+     * The setup itself. Runs once per process.
+     */
+    public interface Task {
+        void run(Context context);
+    }
+
+    private final String name;
+    private final Phase phase;
+    private final Task task;
+    private final List<String> dependencies;
+
+    public Initializer(String name, Phase phase, Task task, String... dependencies) {
+        this.name = name;
+        this.phase = phase;
+        this.task = task;
+        this.dependencies = Collections.unmodifiableList(Arrays.asList(dependencies));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public List<String> getDependencies() {
+        return dependencies;
+    }
+
+    void run(Context context) {
+        task.run(context);
+    }
+}
@@ -0,0 +1,113 @@
+package group.eleven.snippet_sharing_app.startup;
+
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Events of one cold start, timed from process start, written to files/perf/startup.log.
+ *
+ * <pre>
+ * 2026-10-19 09:12:44 cold start
+ *       0ms  process start
+ *      96ms  Application.onCreate
+ *      97ms  theme                  critical    main      3ms
+ *     103ms  api-client             background  io       41ms
+ *     388ms  first frame            HomeActivity
+ *     431ms  first content          feed snapshot
+ * </pre>
+ */
+final class StartupTimeline {
+
+    private static final String TAG = "StartupTimeline";
+
+    private static final String DIR_NAME = "perf";
+    private static final String FILE_NAME = "startup.log";
+    private static final String BACKUP_NAME = "startup.1.log";
+    private static final long MAX_FILE_BYTES = 64 * 1024;
+
+    private static final class Entry {
+        final long atMs;
+        final String line;
+
+        Entry(long atMs, String line) {
+            this.atMs = atMs;
+            this.line = line;
+        }
+    }
+
+    private final long processStartMs = Process.getStartElapsedRealtime();
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Milliseconds since the process started
+     */
+    long now() {
+        return SystemClock.elapsedRealtime() - processStartMs;
+    }
+
+    void mark(String event, String detail) {
+        add(now(), String.format(Locale.US, "%-22s %s", event, detail != null ? detail : ""));
+    }
+
+    void span(String name, Initializer.Phase phase, long startMs, long durationMs, boolean failed) {
+        String thread = Looper.myLooper() == Looper.getMainLooper() ? "main" : "io";
+        add(startMs, String.format(Locale.US, "%-22s %-11s %-5s %5dms%s",
+                name, phase.name().toLowerCase(Locale.US).replace('_', '-'), thread, durationMs,
+                failed ? " FAILED" : ""));
+    }
+
+    private synchronized void add(long atMs, String line) {
+        entries.add(new Entry(atMs, line));
+    }
+
+    synchronized String format() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        Collections.sort(sorted, Comparator.comparingLong(entry -> entry.atMs));
+        StringBuilder report = new StringBuilder();
+        report.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date()))
+                .append(" cold start\n");
+        report.append(String.format(Locale.US, "%8dms  process start%n", 0));
+        for (Entry entry : sorted) {
+            report.append(String.format(Locale.US, "%8dms  %s%n", entry.atMs, entry.line));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Append the timeline to the log, keeping one older file. Runs on the disk writer thread.
+     */
+    void write(File filesDir) {
+        String report = format();
+        Log.i(TAG, report);
+        File dir = new File(filesDir, DIR_NAME);
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+            return;
+        }
+        File file = new File(dir, FILE_NAME);
+        if (file.length() + report.length() > MAX_FILE_BYTES) {
+            File backup = new File(dir, BACKUP_NAME);
+            backup.delete();
+            file.renameTo(backup);
+        }
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write(report);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write startup timeline", e);
+        }
+    }
+}
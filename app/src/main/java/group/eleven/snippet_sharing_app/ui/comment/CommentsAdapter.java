@@ -25,6 +25,9 @@ import de.hdodenhof.circleimageview.CircleImageView;
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.data.model.Comment;
+import group.eleven.snippet_sharing_app.utils.AvatarLoader;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * Adapter for displaying comments in a list with reply support and collapsible replies
@@ -206,12 +209,14 @@ public class CommentsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
 
     @Override
     public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        long start = System.nanoTime();
         Object item = displayItems.get(position);
         if (holder instanceof CommentViewHolder && item instanceof Comment) {
             ((CommentViewHolder) holder).bind((Comment) item, position);
         } else if (holder instanceof ViewMoreViewHolder && item instanceof ViewMoreItem) {
             ((ViewMoreViewHolder) holder).bind((ViewMoreItem) item);
         }
+        FrameMonitor.recordBind(System.nanoTime() - start);
     }
 
     @Override
@@ -244,13 +249,14 @@ public class CommentsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
     /**
      * ViewHolder for comment items
      */
-    public class CommentViewHolder extends RecyclerView.ViewHolder {
+    public class CommentViewHolder extends RecyclerView.ViewHolder implements TimeAgoTicker.Target {
         CircleImageView ivAuthorAvatar;
         TextView tvAuthorName, tvTimeAgo, tvCommentText, tvLikeText, tvLikesCount;
         LinearLayout btnLike, btnReply;
         ImageView ivLike;
         ImageButton btnMoreOptions;
         View rootView;
+        private Comment boundComment;
 
         public CommentViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -267,7 +273,16 @@ public class CommentsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             btnMoreOptions = itemView.findViewById(R.id.btnMoreOptions);
         }
 
+        @Override
+        public void onTimeTick(long now) {
+            if (boundComment != null) {
+                tvTimeAgo.setText(boundComment.getFormattedTime());
+            }
+        }
+
         public void bind(Comment comment, int position) {
+            boundComment = comment;
+
             // Apply indentation for replies
             int basePadding = (int) (16 * context.getResources().getDisplayMetrics().density);
             int replyIndent = (int) (40 * context.getResources().getDisplayMetrics().density);
@@ -310,10 +325,7 @@ public class CommentsAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolde
             String avatarUrl = comment.getAuthorAvatar();
             if (avatarUrl != null && !avatarUrl.isEmpty()) {
                 String fullUrl = ApiClient.getFullStorageUrl(avatarUrl);
-                Glide.with(context)
-                        .load(fullUrl)
-                        .placeholder(R.drawable.ic_person)
-                        .error(R.drawable.ic_person)
+                AvatarLoader.forView(Glide.with(context), fullUrl, ivAuthorAvatar, R.drawable.ic_person)
                         .into(ivAuthorAvatar);
             } else {
                 ivAuthorAvatar.setImageResource(R.drawable.ic_person);
@@ -34,8 +34,10 @@ import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.data.model.Comment;
 import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.repository.CommentRepository;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * Bottom sheet fragment for displaying and adding comments
@@ -75,6 +77,7 @@ public class CommentsBottomSheet extends BottomSheetDialogFragment implements Co
     private CommentsAdapter adapter;
     private SessionManager sessionManager;
     private CommentRepository commentRepository;
+    private FrameMonitor.Session frameSession;
 
     // Track reply state
     private String replyToCommentId = null;
@@ -172,6 +175,12 @@ public class CommentsBottomSheet extends BottomSheetDialogFragment implements Co
         }
         rvComments.setLayoutManager(new LinearLayoutManager(requireContext()));
         rvComments.setAdapter(adapter);
+        TimeAgoTicker.getInstance().attach(getViewLifecycleOwner(), rvComments);
+
+        // The sheet draws in its own dialog window
+        frameSession = FrameMonitor.getInstance(requireContext())
+                .track("Comments", requireDialog().getWindow(), getViewLifecycleOwner());
+        frameSession.trackScrolling(rvComments);
     }
 
     private void setupUserAvatar() {
@@ -204,7 +213,11 @@ public class CommentsBottomSheet extends BottomSheetDialogFragment implements Co
     }
 
     private void loadComments() {
+        frameSession.setLoading(true);
         commentRepository.getComments(snippetId, 50).observe(getViewLifecycleOwner(), resource -> {
+            if (resource.status != Resource.Status.LOADING) {
+                frameSession.setLoading(false);
+            }
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
                 adapter.setComments(resource.data);
                 // Count includes all comments (root + replies)
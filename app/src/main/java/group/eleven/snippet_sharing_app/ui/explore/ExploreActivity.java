@@ -21,6 +21,7 @@ import group.eleven.snippet_sharing_app.databinding.ActivityExploreBinding;
 import group.eleven.snippet_sharing_app.ui.home.SnippetCardAdapter;
 import group.eleven.snippet_sharing_app.ui.search.SearchActivity;
 import group.eleven.snippet_sharing_app.ui.snippet.CreateSnippetActivity;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
 
@@ -37,6 +38,7 @@ public class ExploreActivity extends AppCompatActivity {
     private SnippetCardAdapter snippetAdapter;
     private List<SnippetCard> allSnippets = new ArrayList<>();
     private String currentLanguageFilter = null; // null means "All"
+    private FrameMonitor.Session frameSession;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -254,14 +256,19 @@ public class ExploreActivity extends AppCompatActivity {
             Toast.makeText(this, "Clicked: " + snippet.getTitle(), Toast.LENGTH_SHORT).show();
         });
         binding.rvSnippets.setAdapter(snippetAdapter);
+
+        frameSession = FrameMonitor.getInstance(this).track("Explore", getWindow(), this);
+        frameSession.trackScrolling(binding.rvSnippets);
     }
 
     private void loadTrendingSnippets() {
         binding.swipeRefresh.setRefreshing(true);
+        frameSession.setLoading(true);
 
         dashboardRepository.getTrendingSnippets(30).observe(this, resource -> {
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
                 binding.swipeRefresh.setRefreshing(false);
+                frameSession.setLoading(false);
                 allSnippets.clear();
                 allSnippets.addAll(resource.data);
                 filterAndShowSnippets();
@@ -279,6 +286,7 @@ public class ExploreActivity extends AppCompatActivity {
     private void loadPublicSnippetsFallback() {
         dashboardRepository.getPublicSnippets(30).observe(this, resource -> {
             binding.swipeRefresh.setRefreshing(false);
+            frameSession.setLoading(false);
 
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
                 allSnippets.clear();
@@ -0,0 +1,347 @@
+package group.eleven.snippet_sharing_app.ui.home;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.MutableContextWrapper;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.CacheBudget;
+import group.eleven.snippet_sharing_app.data.cache.ManagedCache;
+
+/**
+ * Process-wide pool of pre-inflated snippet card views.
+ *
+ * The card layouts are the heaviest rows in the app, and every screen that lists snippets
+ * used to inflate its first screenful on the way to its first frame. After startup a few
+ * cards of each layout are inflated during main-thread idle time, one per idle slot so no
+ * frame is held up. Adapters take them in onCreateViewHolder and point them at their own
+ * activity; only a miss inflates on the spot. A pool drained by use, or emptied by a trim
+ * or a theme change, is topped up the next time the main thread goes idle, ready for the
+ * next screen.
+ *
+ * Detached views are pooled rather than ViewHolders: holders capture their adapter and its
+ * listeners, so a holder from one screen cannot serve another. Each pooled view is built on
+ * its own {@link MutableContextWrapper}, kept next to it because the view's own context may
+ * be a theme overlay on top of it. The wrapper holds the application context while the view
+ * waits, so the pool never keeps an activity alive. Main thread only.
+ *
+ * Pooled views carry the theme and night mode of the activity that inflated them, so they
+ * only serve activities with the same manifest theme and night mode. Any other activity
+ * inflates its own and the pool refills for it. Hosts that are not an activity always
+ * inflate their own.
+ *
+ * Registered with {@link CacheBudget} at low priority: halved when the app is hidden and
+ * emptied under moderate pressure, then topped up on the next miss.
+ */
+public final class CardViewPool implements ManagedCache {
+
+    private static final String TAG = "CardViewPool";
+
+    private static final int[] PREWARM_LAYOUTS = {R.layout.item_feed_snippet, R.layout.item_snippet_card};
+    // About one screenful of cards per layout
+    private static final int PREWARM_COUNT = 3;
+    // Rough heap cost of one inflated card: view objects, drawables and text layouts
+    private static final long ESTIMATED_VIEW_BYTES = 32 * 1024;
+
+    private static final CardViewPool instance = new CardViewPool();
+
+    private final SparseArray<ArrayDeque<PooledView>> views = new SparseArray<>();
+    private final SparseArray<LayoutStats> stats = new SparseArray<>();
+    // Manifest theme by activity class; looking it up is a binder call
+    private final Map<Class<?>, Integer> activityThemes = new HashMap<>();
+    // Theme and night mode the pooled views were inflated under; their colors are baked in
+    private int pooledTheme;
+    private int pooledNightMode = -1;
+    private boolean prewarmScheduled;
+    // Bumped by clear() so a fill already in progress stops instead of refilling
+    private int generation;
+    private long lastUsedAt;
+
+    /**
+     * A pooled card and the context wrapper it was inflated on
+     */
+    private static final class PooledView {
+        final View view;
+        final MutableContextWrapper context;
+
+        PooledView(View view, MutableContextWrapper context) {
+            this.view = view;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Inflation counters for one layout
+     */
+    private static final class LayoutStats {
+        int inflations;
+        long inflateNanos;
+        int hits;
+        int misses;
+        long savedNanos;
+
+        long averageInflateNanos() {
+            return inflations == 0 ? 0 : inflateNanos / inflations;
+        }
+    }
+
+    private CardViewPool() {
+    }
+
+    public static CardViewPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Fill the pool in main-thread idle time, using host's inflater so AppCompat and
+     * Material widgets inflate exactly as they would in the host. Does nothing while a
+     * fill is already scheduled.
+     */
+    public void prewarmWhenIdle(AppCompatActivity host) {
+        if (prewarmScheduled) {
+            return;
+        }
+        prewarmScheduled = true;
+        int scheduledGeneration = generation;
+        WeakReference<AppCompatActivity> hostRef = new WeakReference<>(host);
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (scheduledGeneration != generation) {
+                    // Cleared meanwhile; clear() already let the next screen schedule a fill
+                    return false;
+                }
+                AppCompatActivity activity = hostRef.get();
+                // When the host is gone the next screen that asks finishes the job
+                boolean more = activity != null && !activity.isFinishing() && !activity.isDestroyed()
+                        && prewarmOne(activity);
+                if (!more) {
+                    prewarmScheduled = false;
+                }
+                return more;
+            }
+        });
+    }
+
+    /**
+     * Inflate one card for the emptiest layout. Returns true while more are needed.
+     */
+    private boolean prewarmOne(AppCompatActivity host) {
+        int theme = themeOf(host);
+        int nightMode = nightMode(host);
+        if (pooledTheme != theme || pooledNightMode != nightMode) {
+            views.clear();
+            pooledTheme = theme;
+            pooledNightMode = nightMode;
+        }
+        for (int layout : PREWARM_LAYOUTS) {
+            ArrayDeque<PooledView> pooled = pooled(layout);
+            if (pooled.size() < PREWARM_COUNT) {
+                MutableContextWrapper wrapper = new MutableContextWrapper(host);
+                LayoutInflater inflater = LayoutInflater.from(host).cloneInContext(wrapper);
+                // A throwaway parent so the root keeps its XML layout params
+                View view = inflate(inflater, layout, new FrameLayout(wrapper));
+                wrapper.setBaseContext(host.getApplicationContext());
+                pooled.add(new PooledView(view, wrapper));
+                lastUsedAt = System.currentTimeMillis();
+                return true;
+            }
+        }
+        LayoutStats feed = stats(R.layout.item_feed_snippet);
+        Log.d(TAG, "Prewarmed " + PREWARM_COUNT + " of each card layout, ~"
+                + feed.averageInflateNanos() / 1000 + "us per feed card");
+        return false;
+    }
+
+    /**
+     * A card view for parent, from the pool if one is ready, otherwise freshly inflated
+     */
+    @NonNull
+    public View obtain(@NonNull ViewGroup parent, @LayoutRes int layout) {
+        Context context = parent.getContext();
+        AppCompatActivity host = hostActivity(context);
+        ArrayDeque<PooledView> pooled = views.get(layout);
+        LayoutStats layoutStats = stats(layout);
+        if (host != null && pooled != null && !pooled.isEmpty()) {
+            if (themeOf(host) == pooledTheme && nightMode(context) == pooledNightMode) {
+                PooledView pooledView = pooled.poll();
+                View view = pooledView.view;
+                lastUsedAt = System.currentTimeMillis();
+                pooledView.context.setBaseContext(context);
+                layoutStats.hits++;
+                layoutStats.savedNanos += layoutStats.averageInflateNanos();
+                if (pooled.isEmpty()) {
+                    logStats(layout);
+                    // Top up for the next screen once this one goes idle
+                    prewarmWhenIdle(host);
+                }
+                return view;
+            }
+            // Another theme or night mode than the pool was filled for; wrong colors
+            clear();
+        }
+        layoutStats.misses++;
+        // Empty after a trim or a theme change: refill once this screen goes idle
+        if (host != null) {
+            prewarmWhenIdle(host);
+        }
+        return inflate(LayoutInflater.from(context), layout, parent);
+    }
+
+    @Nullable
+    private static AppCompatActivity hostActivity(Context context) {
+        while (context instanceof ContextWrapper && !(context instanceof AppCompatActivity)) {
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return context instanceof AppCompatActivity ? (AppCompatActivity) context : null;
+    }
+
+    /**
+     * The activity's manifest theme, or the application's if it sets none
+     */
+    private int themeOf(AppCompatActivity activity) {
+        Integer theme = activityThemes.get(activity.getClass());
+        if (theme == null) {
+            try {
+                theme = activity.getPackageManager().getActivityInfo(activity.getComponentName(), 0)
+                        .getThemeResource();
+            } catch (PackageManager.NameNotFoundException e) {
+                theme = 0;
+            }
+            activityThemes.put(activity.getClass(), theme);
+        }
+        return theme;
+    }
+
+    /**
+     * Estimated inflation time saved by pool hits so far, in milliseconds
+     */
+    public long getSavedMillis() {
+        long nanos = 0;
+        for (int i = 0; i < stats.size(); i++) {
+            nanos += stats.valueAt(i).savedNanos;
+        }
+        return nanos / 1_000_000;
+    }
+
+    @Override
+    public String getName() {
+        return "Prepared snippet cards";
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.MEMORY;
+    }
+
+    @Override
+    public int getPriority() {
+        return CacheBudget.PRIORITY_LOW;
+    }
+
+    @Override
+    public long estimateSizeBytes() {
+        int count = 0;
+        for (int i = 0; i < views.size(); i++) {
+            count += views.valueAt(i).size();
+        }
+        return count * ESTIMATED_VIEW_BYTES;
+    }
+
+    @Override
+    public long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    /**
+     * Drop pooled views, oldest first, until at most maxBytes worth are left. Any fill in
+     * progress stops; the next miss schedules a new one.
+     */
+    @Override
+    public void trimToSize(long maxBytes) {
+        long size = estimateSizeBytes();
+        if (size <= maxBytes) {
+            return;
+        }
+        for (int i = 0; i < views.size() && size > maxBytes; i++) {
+            ArrayDeque<PooledView> pooled = views.valueAt(i);
+            while (!pooled.isEmpty() && size > maxBytes) {
+                pooled.poll();
+                size -= ESTIMATED_VIEW_BYTES;
+            }
+        }
+        cancelPrewarm();
+    }
+
+    /**
+     * Drop every pooled view, e.g. when memory is low. The next miss refills the pool.
+     */
+    @Override
+    public void clear() {
+        views.clear();
+        cancelPrewarm();
+    }
+
+    private void cancelPrewarm() {
+        generation++;
+        prewarmScheduled = false;
+    }
+
+    private View inflate(LayoutInflater inflater, @LayoutRes int layout, ViewGroup parent) {
+        long start = System.nanoTime();
+        View view = inflater.inflate(layout, parent, false);
+        LayoutStats layoutStats = stats(layout);
+        layoutStats.inflations++;
+        layoutStats.inflateNanos += System.nanoTime() - start;
+        return view;
+    }
+
+    private ArrayDeque<PooledView> pooled(@LayoutRes int layout) {
+        ArrayDeque<PooledView> pooled = views.get(layout);
+        if (pooled == null) {
+            pooled = new ArrayDeque<>(PREWARM_COUNT);
+            views.put(layout, pooled);
+        }
+        return pooled;
+    }
+
+    private LayoutStats stats(@LayoutRes int layout) {
+        LayoutStats layoutStats = stats.get(layout);
+        if (layoutStats == null) {
+            layoutStats = new LayoutStats();
+            stats.put(layout, layoutStats);
+        }
+        return layoutStats;
+    }
+
+    private void logStats(@LayoutRes int layout) {
+        LayoutStats layoutStats = stats(layout);
+        Log.d(TAG, "Pool for layout 0x" + Integer.toHexString(layout) + " drained: "
+                + layoutStats.hits + " hits, " + layoutStats.misses + " misses, saved ~"
+                + layoutStats.savedNanos / 1_000_000 + "ms of inflation (" + getSavedMillis() + "ms total)");
+    }
+
+    private static int nightMode(Context context) {
+        return context.getResources().getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
+    }
+}
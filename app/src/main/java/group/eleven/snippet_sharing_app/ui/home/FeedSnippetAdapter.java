@@ -1,9 +1,11 @@
 package group.eleven.snippet_sharing_app.ui.home;
 
 import android.content.Context;
+import android.graphics.ColorFilter;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
 import android.graphics.drawable.GradientDrawable;
-import android.text.SpannableString;
-import android.view.LayoutInflater;
+import android.util.SparseArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
@@ -11,18 +13,30 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+import group.eleven.snippet_sharing_app.utils.AvatarLoader;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
+import group.eleven.snippet_sharing_app.utils.ViewIcons;
 
 /**
  * Adapter for Facebook-style feed snippet cards
@@ -44,20 +58,94 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
     }
 
     public FeedSnippetAdapter(List<SnippetCard> snippets) {
-        this.snippets = snippets != null ? snippets : new ArrayList<>();
+        this.snippets = snippets != null ? new ArrayList<>(snippets) : new ArrayList<>();
     }
 
     public void setOnFeedItemClickListener(OnFeedItemClickListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Scroll listener that fetches author avatars for the next maxPreload items,
+     * at the same size the cards request, so they are cached before being bound
+     */
+    public RecyclerViewPreloader<String> createAvatarPreloader(Context context, RequestManager glide, int maxPreload) {
+        int sizePx = getAvatarSizePx(context);
+        ListPreloader.PreloadModelProvider<String> provider = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                if (position >= snippets.size()) {
+                    return Collections.emptyList();
+                }
+                String avatarUrl = snippets.get(position).getAuthorAvatar();
+                return avatarUrl == null || avatarUrl.isEmpty()
+                        ? Collections.emptyList()
+                        : Collections.singletonList(avatarUrl);
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String avatarUrl) {
+                return AvatarLoader.request(glide, avatarUrl, sizePx, R.drawable.ic_person);
+            }
+        };
+        return new RecyclerViewPreloader<>(glide, provider, new FixedPreloadSizeProvider<>(sizePx, sizePx), maxPreload);
+    }
+
+    private static int getAvatarSizePx(Context context) {
+        return context.getResources().getDimensionPixelSize(R.dimen.avatar_lg);
+    }
+
     public void setSnippets(List<SnippetCard> snippets) {
-        this.snippets = snippets != null ? snippets : new ArrayList<>();
+        this.snippets = snippets != null ? new ArrayList<>(snippets) : new ArrayList<>();
         notifyDataSetChanged();
     }
 
+    /**
+     * Replace the list with a diff so new items animate in at the top and the
+     * current scroll position is kept (used when revalidating a cached feed)
+     */
+    public void submitSnippets(List<SnippetCard> newSnippets) {
+        List<SnippetCard> oldSnippets = this.snippets;
+        List<SnippetCard> updated = newSnippets != null ? new ArrayList<>(newSnippets) : new ArrayList<>();
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldSnippets.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return updated.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                String oldId = oldSnippets.get(oldPosition).getId();
+                return oldId != null && oldId.equals(updated.get(newPosition).getId());
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                SnippetCard a = oldSnippets.get(oldPosition);
+                SnippetCard b = updated.get(newPosition);
+                return a.getLikesCount() == b.getLikesCount()
+                        && a.getCommentsCount() == b.getCommentsCount()
+                        && a.isLiked() == b.isLiked()
+                        && java.util.Objects.equals(a.getTitle(), b.getTitle())
+                        && java.util.Objects.equals(a.getDescription(), b.getDescription())
+                        && java.util.Objects.equals(a.getUpdatedTime(), b.getUpdatedTime())
+                        && java.util.Objects.equals(a.getCodePreview(), b.getCodePreview())
+                        && java.util.Objects.equals(a.getAuthorAvatar(), b.getAuthorAvatar());
+            }
+        });
+        this.snippets = updated;
+        diff.dispatchUpdatesTo(this);
+    }
+
     public void filterList(List<SnippetCard> filteredList) {
-        this.snippets = filteredList != null ? filteredList : new ArrayList<>();
+        this.snippets = filteredList != null ? new ArrayList<>(filteredList) : new ArrayList<>();
         notifyDataSetChanged();
     }
 
@@ -65,14 +153,16 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         context = parent.getContext();
-        View view = LayoutInflater.from(context).inflate(R.layout.item_feed_snippet, parent, false);
+        View view = CardViewPool.getInstance().obtain(parent, R.layout.item_feed_snippet);
         return new ViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long start = System.nanoTime();
         SnippetCard snippet = snippets.get(position);
         holder.bind(snippet, position);
+        FrameMonitor.recordBind(System.nanoTime() - start);
     }
 
     @Override
@@ -80,7 +170,7 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
         return snippets.size();
     }
 
-    public class ViewHolder extends RecyclerView.ViewHolder {
+    public class ViewHolder extends RecyclerView.ViewHolder implements TimeAgoTicker.Target {
         CircleImageView ivAuthorAvatar;
         TextView tvAuthorName, tvTimeAgo;
         ImageView ivVisibility, ivMoreOptions;
@@ -94,9 +184,35 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
         TextView tvLike, tvSave;
         SyntaxHighlighter syntaxHighlighter;
 
+        // Resolved once per holder so bind() does not allocate
+        private final int avatarSizePx;
+        private final int primaryColor;
+        private final int likedColor;
+        private final int savedColor;
+        private final int unsavedColor;
+        private final ColorFilter likedFilter;
+        private final ColorFilter savedFilter;
+        // Badge backgrounds by color; a recycled holder mostly sees the same few languages
+        private final SparseArray<GradientDrawable> badgeBackgrounds = new SparseArray<>();
+        private final float badgeCornerRadius = 8f;
+        // Icons inflated once per view; setImageResource inflates a new drawable on every call
+        private final ViewIcons avatarIcons;
+        private final ViewIcons visibilityIcons;
+        private final ViewIcons likeIcons;
+        private final ViewIcons saveIcons;
+        private SnippetCard boundSnippet;
+
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
-            syntaxHighlighter = new SyntaxHighlighter(itemView.getContext());
+            Context itemContext = itemView.getContext();
+            syntaxHighlighter = new SyntaxHighlighter(itemContext);
+            avatarSizePx = getAvatarSizePx(itemContext);
+            primaryColor = ContextCompat.getColor(itemContext, R.color.primary);
+            likedColor = ContextCompat.getColor(itemContext, R.color.error);
+            savedColor = ContextCompat.getColor(itemContext, R.color.selective_yellow);
+            unsavedColor = ContextCompat.getColor(itemContext, android.R.color.darker_gray);
+            likedFilter = new PorterDuffColorFilter(likedColor, PorterDuff.Mode.SRC_ATOP);
+            savedFilter = new PorterDuffColorFilter(savedColor, PorterDuff.Mode.SRC_ATOP);
 
             // Author header
             ivAuthorAvatar = itemView.findViewById(R.id.ivAuthorAvatar);
@@ -131,29 +247,60 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
             tvLike = itemView.findViewById(R.id.tvLike);
             ivSave = itemView.findViewById(R.id.ivSave);
             tvSave = itemView.findViewById(R.id.tvSave);
+            avatarIcons = new ViewIcons(ivAuthorAvatar);
+            visibilityIcons = new ViewIcons(ivVisibility);
+            likeIcons = new ViewIcons(ivLike);
+            saveIcons = ivSave != null ? new ViewIcons(ivSave) : null;
+
+            // Click listeners act on whichever snippet is bound, so they are set once here
+            itemView.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) listener.onSnippetClick(boundSnippet);
+            });
+
+            View.OnClickListener authorClick = v -> {
+                if (listener != null && boundSnippet != null) listener.onAuthorClick(boundSnippet);
+            };
+            ivAuthorAvatar.setOnClickListener(authorClick);
+            tvAuthorName.setOnClickListener(authorClick);
+
+            ivMoreOptions.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) listener.onMoreOptionsClick(boundSnippet, v);
+            });
+
+            btnLike.setOnClickListener(v -> {
+                int position = getAdapterPosition();
+                if (listener != null && boundSnippet != null && position != RecyclerView.NO_POSITION) {
+                    listener.onLikeClick(boundSnippet, position);
+                }
+            });
+
+            btnComment.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) listener.onCommentClick(boundSnippet);
+            });
+
+            btnShare.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) listener.onShareClick(boundSnippet);
+            });
+
+            // Save (favorite) button
+            btnSave.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) listener.onSaveClick(boundSnippet, getAdapterPosition());
+            });
         }
 
         public void bind(SnippetCard snippet, int position) {
+            boundSnippet = snippet;
+
             // Author info
-            String authorName = snippet.getAuthorName();
-            if (authorName == null || authorName.isEmpty()) {
-                authorName = snippet.getAuthorUsername();
-            }
-            if (authorName == null || authorName.isEmpty()) {
-                authorName = "Anonymous";
-            }
-            tvAuthorName.setText(authorName);
+            tvAuthorName.setText(snippet.getDisplayAuthorName());
 
             // Author avatar
             String avatarUrl = snippet.getAuthorAvatar();
             if (avatarUrl != null && !avatarUrl.isEmpty()) {
-                Glide.with(context)
-                        .load(avatarUrl)
-                        .placeholder(R.drawable.ic_person)
-                        .error(R.drawable.ic_person)
+                AvatarLoader.request(Glide.with(context), avatarUrl, avatarSizePx, R.drawable.ic_person)
                         .into(ivAuthorAvatar);
             } else {
-                ivAuthorAvatar.setImageResource(R.drawable.ic_person);
+                avatarIcons.show(R.drawable.ic_person);
             }
 
             // Time ago
@@ -161,13 +308,15 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
 
             // Visibility icon
             String visibility = snippet.getVisibility();
+            int iconRes;
             if ("private".equals(visibility)) {
-                ivVisibility.setImageResource(R.drawable.ic_lock);
+                iconRes = R.drawable.ic_lock;
             } else if ("team".equals(visibility)) {
-                ivVisibility.setImageResource(R.drawable.ic_users);
+                iconRes = R.drawable.ic_users;
             } else {
-                ivVisibility.setImageResource(R.drawable.ic_globe);
+                iconRes = R.drawable.ic_globe;
             }
+            visibilityIcons.show(iconRes);
 
             // Snippet title
             tvSnippetTitle.setText(snippet.getTitle());
@@ -182,39 +331,23 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
 
             // Language badge with color
             tvLanguageBadge.setText(snippet.getLanguageBadge());
-            try {
-                GradientDrawable badgeBg = new GradientDrawable();
-                badgeBg.setCornerRadius(8f);
-                int langColor = snippet.getLanguageColor();
-                if (langColor != 0) {
-                    badgeBg.setColor(langColor);
-                } else {
-                    badgeBg.setColor(ContextCompat.getColor(context, R.color.primary));
-                }
-                tvLanguageBadge.setBackground(badgeBg);
-            } catch (Exception e) {
-                // Use default background
-            }
+            int langColor = snippet.getLanguageColor();
+            tvLanguageBadge.setBackground(badgeBackground(langColor != 0 ? langColor : primaryColor));
 
             // Code preview with syntax highlighting
-            String code = snippet.getCodePreview();
-            if (code != null && !code.isEmpty()) {
-                SpannableString highlightedCode = syntaxHighlighter.highlightForLanguage(
-                        code, snippet.getLanguageBadge());
-                tvCodePreview.setText(highlightedCode);
-            } else {
-                tvCodePreview.setText("// No code preview available");
-            }
+            CharSequence highlightedCode = snippet.getHighlightedPreview(syntaxHighlighter);
+            tvCodePreview.setText(highlightedCode != null ? highlightedCode : "// No code preview available");
 
             // Tags
-            String[] tags = snippet.getTags();
-            if (tags != null && tags.length > 0) {
+            String tag1 = snippet.getDisplayTag(0);
+            if (tag1 != null) {
                 tagsContainer.setVisibility(View.VISIBLE);
-                tvTag1.setText("#" + tags[0].replace("#", ""));
+                tvTag1.setText(tag1);
                 tvTag1.setVisibility(View.VISIBLE);
 
-                if (tags.length > 1) {
-                    tvTag2.setText("#" + tags[1].replace("#", ""));
+                String tag2 = snippet.getDisplayTag(1);
+                if (tag2 != null) {
+                    tvTag2.setText(tag2);
                     tvTag2.setVisibility(View.VISIBLE);
                 } else {
                     tvTag2.setVisibility(View.GONE);
@@ -236,67 +369,50 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
             // Like button state
             updateLikeState(snippet.isLiked());
 
-            // Click listeners
-            itemView.setOnClickListener(v -> {
-                if (listener != null) listener.onSnippetClick(snippet);
-            });
-
-            ivAuthorAvatar.setOnClickListener(v -> {
-                if (listener != null) listener.onAuthorClick(snippet);
-            });
-
-            tvAuthorName.setOnClickListener(v -> {
-                if (listener != null) listener.onAuthorClick(snippet);
-            });
-
-            ivMoreOptions.setOnClickListener(v -> {
-                if (listener != null) listener.onMoreOptionsClick(snippet, v);
-            });
-
-            btnLike.setOnClickListener(v -> {
-                if (listener != null) listener.onLikeClick(snippet, position);
-            });
-
-            btnComment.setOnClickListener(v -> {
-                if (listener != null) listener.onCommentClick(snippet);
-            });
-
-            btnShare.setOnClickListener(v -> {
-                if (listener != null) listener.onShareClick(snippet);
-            });
-
             // Save (favorite) button
             updateSaveState(snippet.isLiked());
-            btnSave.setOnClickListener(v -> {
-                if (listener != null) listener.onSaveClick(snippet, getAdapterPosition());
-            });
+        }
+
+        @Override
+        public void onTimeTick(long now) {
+            if (boundSnippet != null) {
+                tvTimeAgo.setText(boundSnippet.getUpdatedTime());
+            }
+        }
+
+        private GradientDrawable badgeBackground(int color) {
+            GradientDrawable background = badgeBackgrounds.get(color);
+            if (background == null) {
+                background = new GradientDrawable();
+                background.setCornerRadius(badgeCornerRadius);
+                background.setColor(color);
+                badgeBackgrounds.put(color, background);
+            }
+            return background;
         }
 
         private void updateSaveState(boolean isSaved) {
             if (ivSave != null) {
-                ivSave.setImageResource(isSaved ? R.drawable.ic_star_filled : R.drawable.ic_star_outline);
+                saveIcons.show(isSaved ? R.drawable.ic_star_filled : R.drawable.ic_star_outline);
                 if (isSaved) {
-                    ivSave.setColorFilter(ContextCompat.getColor(context, R.color.selective_yellow));
+                    ivSave.setColorFilter(savedFilter);
                 } else {
                     ivSave.clearColorFilter();
                 }
             }
             if (tvSave != null) {
                 tvSave.setText(isSaved ? "Saved" : "Save");
-                tvSave.setTextColor(isSaved
-                        ? ContextCompat.getColor(context, R.color.selective_yellow)
-                        : ContextCompat.getColor(context, android.R.color.darker_gray));
+                tvSave.setTextColor(isSaved ? savedColor : unsavedColor);
             }
         }
 
         private void updateLikeState(boolean isLiked) {
+            likeIcons.show(isLiked ? R.drawable.ic_heart_filled : R.drawable.ic_heart);
             if (isLiked) {
-                ivLike.setImageResource(R.drawable.ic_heart_filled);
-                ivLike.setColorFilter(ContextCompat.getColor(context, R.color.error));
-                tvLike.setTextColor(ContextCompat.getColor(context, R.color.error));
+                ivLike.setColorFilter(likedFilter);
+                tvLike.setTextColor(likedColor);
                 tvLike.setText("Liked");
             } else {
-                ivLike.setImageResource(R.drawable.ic_heart);
                 ivLike.setColorFilter(null);
                 tvLike.setText("Like");
             }
@@ -305,7 +421,7 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
 
     public void updateSaveState(int position, boolean isSaved) {
         if (position >= 0 && position < snippets.size()) {
-            snippets.get(position).setLiked(isSaved);
+            snippets.set(position, snippets.get(position).withLiked(isSaved));
             notifyItemChanged(position);
         }
     }
@@ -313,9 +429,7 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
     // Update single item like state
     public void updateLikeState(int position, boolean isLiked, int newLikesCount) {
         if (position >= 0 && position < snippets.size()) {
-            SnippetCard snippet = snippets.get(position);
-            snippet.setLiked(isLiked);
-            snippet.setLikesCount(newLikesCount);
+            snippets.set(position, snippets.get(position).withLike(isLiked, newLikesCount));
             notifyItemChanged(position);
         }
     }
@@ -327,7 +441,7 @@ public class FeedSnippetAdapter extends RecyclerView.Adapter<FeedSnippetAdapter.
         for (int i = 0; i < snippets.size(); i++) {
             SnippetCard snippet = snippets.get(i);
             if (snippet.getId() != null && snippet.getId().equals(snippetId)) {
-                snippet.setCommentsCount(newCount);
+                snippets.set(i, snippet.withCommentsCount(newCount));
                 notifyItemChanged(i);
                 break;
             }
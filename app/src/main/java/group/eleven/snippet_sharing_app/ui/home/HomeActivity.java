@@ -25,13 +25,18 @@ import com.bumptech.glide.Glide;
 import com.google.android.material.navigation.NavigationView;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.data.cache.FeedSnapshotStore;
+import group.eleven.snippet_sharing_app.data.model.DashboardStats;
 import group.eleven.snippet_sharing_app.data.model.SnippetCard;
 import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.repository.DashboardRepository;
 import group.eleven.snippet_sharing_app.databinding.ActivityHomeBinding;
+import group.eleven.snippet_sharing_app.startup.AppStartup;
 import group.eleven.snippet_sharing_app.ui.auth.LoginActivity;
 import group.eleven.snippet_sharing_app.ui.team.TeamsListActivity;
 import group.eleven.snippet_sharing_app.ui.snippet.CreateSnippetActivity;
@@ -42,9 +47,12 @@ import group.eleven.snippet_sharing_app.ui.search.SearchActivity;
 import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
 import group.eleven.snippet_sharing_app.utils.BottomNavHelper;
 import group.eleven.snippet_sharing_app.data.repository.FavoritesRepository;
+import group.eleven.snippet_sharing_app.utils.AvatarLoader;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.KeyboardUtils;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * Home Activity - Social feed with Facebook-style layout
@@ -53,6 +61,11 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
 
     private static final String TAG = "HomeActivity";
 
+    // Feed shown on return is refreshed only if older than this
+    private static final long FEED_FRESHNESS_TTL_MS = 2 * 60 * 1000;
+    // Feed items ahead of the visible ones whose avatars are fetched early
+    private static final int AVATAR_PRELOAD_AHEAD = 6;
+
     private ActivityHomeBinding binding;
     private SessionManager sessionManager;
     private DashboardRepository dashboardRepository;
@@ -62,6 +75,10 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
     private FeedSnippetAdapter feedAdapter;
     private FavoritesRepository favoritesRepository;
     private List<SnippetCard> snippetList = new ArrayList<>();
+    private FeedSnapshotStore feedSnapshotStore;
+    private long lastFeedLoadedAt = 0;
+    private DashboardRepository.DashboardLoad dashboardLoad;
+    private FrameMonitor.Session frameSession;
 
     // Drawer header views
     private ImageView ivDrawerUserProfile;
@@ -80,16 +97,17 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
             // Setup theme-aware status bar
             setupStatusBar();
 
-            // Initialize session manager and repositories
+            // Session first, waiting for its background initializer if it is still running;
+            // auth and favorites repositories are created on first use
+            AppStartup startup = AppStartup.getInstance();
+            startup.ensure("session");
             sessionManager = new SessionManager(this);
-            dashboardRepository = new DashboardRepository(this);
-            authRepository = new AuthRepository(this);
-            favoritesRepository = new FavoritesRepository(this);
-
             if (!sessionManager.isLoggedIn()) {
                 navigateToLogin();
                 return;
             }
+            startup.ensure("api-client");
+            dashboardRepository = new DashboardRepository(this);
 
             // Setup toolbar
             setSupportActionBar(binding.toolbar);
@@ -97,20 +115,26 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
                 getSupportActionBar().setDisplayShowTitleEnabled(false);
             }
 
-            // Setup keyboard dismiss on outside touch
-            KeyboardUtils.setupKeyboardDismissOnOutsideTouch(this, binding.getRoot());
-
-            // Setup navigation drawer
-            setupNavigationDrawer();
+            // Start the feed first: the snapshot read and the request run while the rest is set up
+            setupFeed();
+            feedSnapshotStore = FeedSnapshotStore.getInstance(this);
+            restoreFeedSnapshot();
+            loadFeed();
 
             // Setup UI components
+            setupNavigationDrawer();
             setupUserInfo();
-            setupFeed();
             setupSwipeRefresh();
             setupClickListeners();
 
-            // Load initial data
-            loadFeed();
+            // Nothing in the first frame needs these
+            AppStartup.runAfterFirstFrame(this, () -> {
+                KeyboardUtils.setupKeyboardDismissOnOutsideTouch(this, binding.getRoot());
+                populateDrawerHeader();
+            });
+
+            // Inflate spare cards for the next snippet screen once Home has settled
+            CardViewPool.getInstance().prewarmWhenIdle(this);
 
             Log.d(TAG, "onCreate: Setup completed successfully");
 
@@ -123,8 +147,10 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
     @Override
     protected void onRestart() {
         super.onRestart();
-        Log.d(TAG, "onRestart: Refreshing feed");
-        loadFeed();
+        if (System.currentTimeMillis() - lastFeedLoadedAt > FEED_FRESHNESS_TTL_MS) {
+            Log.d(TAG, "onRestart: Feed is stale, refreshing");
+            loadFeed();
+        }
     }
 
     /**
@@ -178,8 +204,13 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
 
         // Setup navigation view
         binding.navigationView.setNavigationItemSelectedListener(this);
+    }
 
-        // Setup drawer header
+    /**
+     * Fill the drawer header from the session, then refresh its stats from the API. The
+     * drawer is closed at launch, so this runs after the first frame.
+     */
+    private void populateDrawerHeader() {
         View headerView = binding.navigationView.getHeaderView(0);
         TextView tvUserName = headerView.findViewById(R.id.tvUserName);
         TextView tvUserEmail = headerView.findViewById(R.id.tvUserEmail);
@@ -204,10 +235,7 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
             // Load avatar image
             String drawerAvatarUrl = user.getEffectiveAvatarUrl();
             if (ivDrawerUserProfile != null && drawerAvatarUrl != null && !drawerAvatarUrl.isEmpty()) {
-                Glide.with(this)
-                        .load(drawerAvatarUrl)
-                        .placeholder(R.drawable.ic_user_avatar)
-                        .error(R.drawable.ic_user_avatar)
+                AvatarLoader.forView(Glide.with(this), drawerAvatarUrl, ivDrawerUserProfile, R.drawable.ic_user_avatar)
                         .circleCrop()
                         .into(ivDrawerUserProfile);
             }
@@ -241,11 +269,26 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
         }
     }
 
+    /**
+     * Update drawer header stats from dashboard stats
+     */
+    private void updateDrawerStats(DashboardStats stats) {
+        if (tvDrawerSnippetsCount != null) {
+            tvDrawerSnippetsCount.setText(String.valueOf(stats.getSnippetCount()));
+        }
+        if (tvDrawerFollowersCount != null) {
+            tvDrawerFollowersCount.setText(String.valueOf(stats.getFollowers()));
+        }
+        if (tvDrawerFollowingCount != null) {
+            tvDrawerFollowingCount.setText(String.valueOf(stats.getFollowing()));
+        }
+    }
+
     /**
      * Refresh user profile from API to get latest stats
      */
     private void refreshUserProfile() {
-        authRepository.getCurrentUser().observe(this, resource -> {
+        getAuthRepository().getCurrentUser().observe(this, resource -> {
             if (resource.isSuccess() && resource.getData() != null) {
                 User freshUser = resource.getData().getUser();
                 if (freshUser != null) {
@@ -268,10 +311,7 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
         if (user != null) {
             String avatarUrl = user.getEffectiveAvatarUrl();
             if (avatarUrl != null && !avatarUrl.isEmpty()) {
-                Glide.with(this)
-                        .load(avatarUrl)
-                        .placeholder(R.drawable.ic_person)
-                        .error(R.drawable.ic_person)
+                AvatarLoader.forView(Glide.with(this), avatarUrl, binding.ivUserAvatar, R.drawable.ic_person)
                         .into(binding.ivUserAvatar);
             }
         }
@@ -335,14 +375,14 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
             public void onSaveClick(SnippetCard snippet, int position) {
                 boolean wasSaved = snippet.isLiked();
                 if (wasSaved) {
-                    favoritesRepository.removeFromFavorites(snippet.getId()).observe(HomeActivity.this, r -> {
+                    getFavoritesRepository().removeFromFavorites(snippet.getId()).observe(HomeActivity.this, r -> {
                         if (r.status == Resource.Status.SUCCESS) {
                             feedAdapter.updateSaveState(position, false);
                             Toast.makeText(HomeActivity.this, "Removed from favorites", Toast.LENGTH_SHORT).show();
                         }
                     });
                 } else {
-                    favoritesRepository.addToFavorites(snippet.getId()).observe(HomeActivity.this, r -> {
+                    getFavoritesRepository().addToFavorites(snippet.getId()).observe(HomeActivity.this, r -> {
                         if (r.status == Resource.Status.SUCCESS) {
                             feedAdapter.updateSaveState(position, true);
                             Toast.makeText(HomeActivity.this, "Saved to favorites", Toast.LENGTH_SHORT).show();
@@ -352,6 +392,26 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
             }
         });
         binding.rvRecentSnippets.setAdapter(feedAdapter);
+        binding.rvRecentSnippets.addOnScrollListener(
+                feedAdapter.createAvatarPreloader(this, Glide.with(this), AVATAR_PRELOAD_AHEAD));
+        TimeAgoTicker.getInstance().attach(this, binding.rvRecentSnippets);
+
+        frameSession = FrameMonitor.getInstance(this).track("Home", getWindow(), this);
+        frameSession.trackScrolling(binding.rvRecentSnippets);
+    }
+
+    private AuthRepository getAuthRepository() {
+        if (authRepository == null) {
+            authRepository = new AuthRepository(this);
+        }
+        return authRepository;
+    }
+
+    private FavoritesRepository getFavoritesRepository() {
+        if (favoritesRepository == null) {
+            favoritesRepository = new FavoritesRepository(this);
+        }
+        return favoritesRepository;
     }
 
     private void setupSwipeRefresh() {
@@ -369,20 +429,76 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
     }
 
     /**
-     * Load public snippets for social feed
+     * Show the feed saved by the previous session until fresh data arrives
+     */
+    private void restoreFeedSnapshot() {
+        User user = sessionManager.getUser();
+        if (user == null || user.getId() == null) return;
+
+        feedSnapshotStore.load(user.getId(), snapshot -> {
+            // Network may have answered first, or the activity may be gone
+            if (binding == null || snapshot == null || !snippetList.isEmpty()) return;
+
+            Log.d(TAG, "Restored " + snapshot.cards.size() + " feed items from snapshot");
+            snippetList.addAll(snapshot.cards);
+            feedAdapter.submitSnippets(new ArrayList<>(snippetList));
+            updateEmptyState(snippetList.isEmpty());
+            AppStartup.getInstance().reportFirstContent("feed snapshot");
+            binding.swipeRefresh.setRefreshing(false);
+            lastFeedLoadedAt = snapshot.savedAt;
+        });
+    }
+
+    /**
+     * Replace the feed with fresh data, keeping scroll position, and save it as the snapshot
+     */
+    private void showFreshFeed(List<SnippetCard> cards) {
+        snippetList.clear();
+        snippetList.addAll(cards);
+        feedAdapter.submitSnippets(new ArrayList<>(snippetList));
+        updateEmptyState(snippetList.isEmpty());
+        lastFeedLoadedAt = System.currentTimeMillis();
+        frameSession.setLoading(false);
+        AppStartup.getInstance().reportFirstContent("feed from network");
+
+        User user = sessionManager.getUser();
+        if (user != null && user.getId() != null) {
+            feedSnapshotStore.save(user.getId(), snippetList);
+        }
+    }
+
+    /**
+     * Load the feed and drawer stats concurrently; each renders as soon as it arrives
      */
     private void loadFeed() {
-        dashboardRepository.getPublicSnippets(20).observe(this, resource -> {
+        if (dashboardLoad != null) {
+            dashboardLoad.cancel();
+        }
+        dashboardLoad = dashboardRepository.loadDashboard(
+                EnumSet.of(DashboardRepository.Section.PUBLIC_SNIPPETS, DashboardRepository.Section.STATS), 20);
+        frameSession.setLoading(true);
+
+        dashboardLoad.getStats().observe(this, resource -> {
+            if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
+                updateDrawerStats(resource.data);
+            }
+        });
+
+        dashboardLoad.getPublicSnippets().observe(this, resource -> {
             binding.swipeRefresh.setRefreshing(false);
 
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
-                snippetList.clear();
-                snippetList.addAll(resource.data);
-                feedAdapter.setSnippets(snippetList);
-                updateEmptyState(snippetList.isEmpty());
+                showFreshFeed(resource.data);
             } else if (resource.status == Resource.Status.ERROR) {
                 Log.e(TAG, "Failed to load feed: " + resource.message);
-                loadTrendingFallback();
+                if (ApiClient.getCircuitBreaker().isOpen()) {
+                    // Backend is down, the fallback would fail fast too; keep cached feed
+                    frameSession.setLoading(false);
+                    updateEmptyState(snippetList.isEmpty());
+                    Toast.makeText(this, "Server unavailable, showing saved feed", Toast.LENGTH_SHORT).show();
+                } else {
+                    loadTrendingFallback();
+                }
             } else if (resource.status == Resource.Status.LOADING) {
                 // Show loading state
                 if (snippetList.isEmpty()) {
@@ -397,14 +513,12 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
             binding.swipeRefresh.setRefreshing(false);
 
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
-                snippetList.clear();
-                snippetList.addAll(resource.data);
-                feedAdapter.setSnippets(snippetList);
-                updateEmptyState(snippetList.isEmpty());
+                showFreshFeed(resource.data);
             } else if (resource.status == Resource.Status.ERROR) {
                 Log.e(TAG, "Failed to load trending: " + resource.message);
-                // Show empty state when no data is available
-                updateEmptyState(true);
+                frameSession.setLoading(false);
+                // Keep showing the snapshot if we have one
+                updateEmptyState(snippetList.isEmpty());
                 Toast.makeText(this, "Unable to load snippets. Please check your connection.", Toast.LENGTH_SHORT).show();
             }
         });
@@ -432,7 +546,7 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
         popup.setOnMenuItemClickListener(item -> {
             int id = item.getItemId();
             if (id == R.id.action_copy_code) {
-                copyToClipboard(snippet.getCodePreview());
+                copyFullCode(snippet);
                 return true;
             } else if (id == R.id.action_save) {
                 Toast.makeText(this, "Saved to favorites", Toast.LENGTH_SHORT).show();
@@ -446,6 +560,25 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
         popup.show();
     }
 
+    /**
+     * Cards only hold a preview, so fetch the full snippet before copying
+     */
+    private void copyFullCode(SnippetCard snippet) {
+        if (snippet.getSlug() == null) {
+            copyToClipboard(snippet.getCodePreview());
+            return;
+        }
+        dashboardRepository.getSnippetBySlug(snippet.getSlug()).observe(this, resource -> {
+            if (resource.status == Resource.Status.SUCCESS && resource.data != null
+                    && resource.data.getCode() != null) {
+                copyToClipboard(resource.data.getCode());
+            } else if (resource.status == Resource.Status.ERROR) {
+                Log.e(TAG, "Failed to load snippet: " + resource.message);
+                copyToClipboard(snippet.getCodePreview());
+            }
+        });
+    }
+
     private void copyToClipboard(String text) {
         android.content.ClipboardManager clipboard =
                 (android.content.ClipboardManager) getSystemService(CLIPBOARD_SERVICE);
@@ -591,6 +724,7 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
 
     private void logout() {
         sessionManager.logout();
+        FeedSnapshotStore.getInstance(this).clear();
         Toast.makeText(this, getString(R.string.profile_logout_success), Toast.LENGTH_SHORT).show();
         navigateToLogin();
     }
@@ -624,6 +758,9 @@ public class HomeActivity extends AppCompatActivity implements NavigationView.On
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        if (dashboardLoad != null) {
+            dashboardLoad.cancel();
+        }
         binding = null;
     }
 }
\ No newline at end of file
@@ -3,8 +3,6 @@ package group.eleven.snippet_sharing_app.ui.home;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.ColorStateList;
-import android.text.SpannableString;
-import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageButton;
@@ -16,13 +14,15 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
 import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+import group.eleven.snippet_sharing_app.utils.ViewIcons;
 
 /**
  * Adapter for snippet cards RecyclerView
@@ -32,64 +32,6 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
     private List<SnippetCard> snippets;
     private OnSnippetClickListener listener;
 
-    // Map of language names to their abbreviations
-    private static final Map<String, String> LANGUAGE_ABBREVIATIONS = new HashMap<>();
-    // Map of language names to file extensions
-    private static final Map<String, String> LANGUAGE_EXTENSIONS = new HashMap<>();
-
-    static {
-        LANGUAGE_ABBREVIATIONS.put("javascript", "JS");
-        LANGUAGE_ABBREVIATIONS.put("typescript", "TS");
-        LANGUAGE_ABBREVIATIONS.put("python", "Py");
-        LANGUAGE_ABBREVIATIONS.put("java", "Java");
-        LANGUAGE_ABBREVIATIONS.put("kotlin", "Kt");
-        LANGUAGE_ABBREVIATIONS.put("swift", "Swft");
-        LANGUAGE_ABBREVIATIONS.put("go", "Go");
-        LANGUAGE_ABBREVIATIONS.put("rust", "Rs");
-        LANGUAGE_ABBREVIATIONS.put("ruby", "Rb");
-        LANGUAGE_ABBREVIATIONS.put("php", "PHP");
-        LANGUAGE_ABBREVIATIONS.put("c#", "C#");
-        LANGUAGE_ABBREVIATIONS.put("csharp", "C#");
-        LANGUAGE_ABBREVIATIONS.put("c++", "C++");
-        LANGUAGE_ABBREVIATIONS.put("cpp", "C++");
-        LANGUAGE_ABBREVIATIONS.put("c", "C");
-        LANGUAGE_ABBREVIATIONS.put("html", "HTML");
-        LANGUAGE_ABBREVIATIONS.put("html/css", "HC");
-        LANGUAGE_ABBREVIATIONS.put("css", "CSS");
-        LANGUAGE_ABBREVIATIONS.put("sql", "SQL");
-        LANGUAGE_ABBREVIATIONS.put("shell", "Sh");
-        LANGUAGE_ABBREVIATIONS.put("bash", "Sh");
-        LANGUAGE_ABBREVIATIONS.put("dart", "Dart");
-        LANGUAGE_ABBREVIATIONS.put("react", "Rct");
-        LANGUAGE_ABBREVIATIONS.put("vue", "Vue");
-
-        // File extensions
-        LANGUAGE_EXTENSIONS.put("javascript", ".js");
-        LANGUAGE_EXTENSIONS.put("typescript", ".ts");
-        LANGUAGE_EXTENSIONS.put("python", ".py");
-        LANGUAGE_EXTENSIONS.put("java", ".java");
-        LANGUAGE_EXTENSIONS.put("kotlin", ".kt");
-        LANGUAGE_EXTENSIONS.put("swift", ".swift");
-        LANGUAGE_EXTENSIONS.put("go", ".go");
-        LANGUAGE_EXTENSIONS.put("rust", ".rs");
-        LANGUAGE_EXTENSIONS.put("ruby", ".rb");
-        LANGUAGE_EXTENSIONS.put("php", ".php");
-        LANGUAGE_EXTENSIONS.put("c#", ".cs");
-        LANGUAGE_EXTENSIONS.put("csharp", ".cs");
-        LANGUAGE_EXTENSIONS.put("c++", ".cpp");
-        LANGUAGE_EXTENSIONS.put("cpp", ".cpp");
-        LANGUAGE_EXTENSIONS.put("c", ".c");
-        LANGUAGE_EXTENSIONS.put("html", ".html");
-        LANGUAGE_EXTENSIONS.put("html/css", ".html");
-        LANGUAGE_EXTENSIONS.put("css", ".css");
-        LANGUAGE_EXTENSIONS.put("sql", ".sql");
-        LANGUAGE_EXTENSIONS.put("shell", ".sh");
-        LANGUAGE_EXTENSIONS.put("bash", ".sh");
-        LANGUAGE_EXTENSIONS.put("dart", ".dart");
-        LANGUAGE_EXTENSIONS.put("react", ".jsx");
-        LANGUAGE_EXTENSIONS.put("vue", ".vue");
-    }
-
     public interface OnSnippetClickListener {
         void onSnippetClick(SnippetCard snippet);
     }
@@ -106,17 +48,18 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
 
     public void updateFavoriteState(int position, boolean isFavorited) {
         if (position >= 0 && position < snippets.size()) {
-            snippets.get(position).setLiked(isFavorited);
+            snippets.set(position, snippets.get(position).withLiked(isFavorited));
             notifyItemChanged(position, "favorite");
         }
     }
 
+    // Cards are immutable and replaced on change, so the adapter keeps its own list
     public SnippetCardAdapter(List<SnippetCard> snippets) {
-        this.snippets = snippets;
+        this.snippets = new ArrayList<>(snippets);
     }
 
     public void filterList(List<SnippetCard> filteredList) {
-        this.snippets = filteredList;
+        this.snippets = new ArrayList<>(filteredList);
         notifyDataSetChanged();
     }
 
@@ -127,7 +70,7 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
         for (int i = 0; i < snippets.size(); i++) {
             SnippetCard snippet = snippets.get(i);
             if (snippet.getId() != null && snippet.getId().equals(snippetId)) {
-                snippet.setCommentsCount(newCount);
+                snippets.set(i, snippet.withCommentsCount(newCount));
                 notifyItemChanged(i);
                 break;
             }
@@ -141,15 +84,16 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext())
-                .inflate(R.layout.item_snippet_card, parent, false);
+        View view = CardViewPool.getInstance().obtain(parent, R.layout.item_snippet_card);
         return new ViewHolder(view);
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long start = System.nanoTime();
         SnippetCard snippet = snippets.get(position);
-        holder.bind(snippet, listener, favoriteListener);
+        holder.bind(snippet);
+        FrameMonitor.recordBind(System.nanoTime() - start);
     }
 
     @Override
@@ -164,51 +108,10 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
         if (language == null || language.isEmpty()) {
             return "?";
         }
-        String lowerLang = language.toLowerCase().trim();
-        String abbrev = LANGUAGE_ABBREVIATIONS.get(lowerLang);
-        if (abbrev != null) {
-            return abbrev;
-        }
-        // Return first 2-4 characters if not found in map
-        if (language.length() <= 4) {
-            return language;
-        }
-        return language.substring(0, Math.min(4, language.length()));
-    }
-
-    /**
-     * Get file extension for language
-     */
-    private static String getFileExtension(String language) {
-        if (language == null || language.isEmpty()) {
-            return ".txt";
-        }
-        String lowerLang = language.toLowerCase().trim();
-        String ext = LANGUAGE_EXTENSIONS.get(lowerLang);
-        return ext != null ? ext : ".txt";
+        return LanguageRegistry.getInstance().badgeFor(language);
     }
 
-    /**
-     * Generate a filename from snippet title and language
-     */
-    private static String generateFilename(String title, String language) {
-        if (title == null || title.isEmpty()) {
-            return "snippet" + getFileExtension(language);
-        }
-        // Convert title to filename-safe format
-        String filename = title.toLowerCase()
-                .replaceAll("[^a-z0-9]+", "_")
-                .replaceAll("^_+|_+$", "");
-        if (filename.length() > 20) {
-            filename = filename.substring(0, 20);
-        }
-        if (filename.isEmpty()) {
-            filename = "snippet";
-        }
-        return filename + getFileExtension(language);
-    }
-
-    static class ViewHolder extends RecyclerView.ViewHolder {
+    class ViewHolder extends RecyclerView.ViewHolder {
         private final TextView tvLanguageBadge;
         private final TextView tvSnippetTitle;
         private final TextView tvSnippetTime;
@@ -220,6 +123,11 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
         private final ImageButton btnShare;
         private final ImageButton btnFavorite;
         private final SyntaxHighlighter syntaxHighlighter;
+        // Favorite tints, built once instead of a ColorStateList per bind
+        private final ColorStateList favoritedTint;
+        private final ColorStateList unfavoritedTint;
+        private final ViewIcons favoriteIcons;
+        private SnippetCard boundSnippet;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -234,9 +142,39 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
             btnShare = itemView.findViewById(R.id.btnShare);
             btnFavorite = itemView.findViewById(R.id.btnFavorite);
             syntaxHighlighter = new SyntaxHighlighter(itemView.getContext());
+            favoritedTint = ColorStateList.valueOf(
+                    ContextCompat.getColor(itemView.getContext(), R.color.selective_yellow));
+            unfavoritedTint = ColorStateList.valueOf(
+                    ContextCompat.getColor(itemView.getContext(), android.R.color.darker_gray));
+            favoriteIcons = btnFavorite != null ? new ViewIcons(btnFavorite) : null;
+
+            // Click listeners act on whichever snippet is bound, so they are set once here
+            if (btnFavorite != null) {
+                btnFavorite.setOnClickListener(v -> {
+                    if (favoriteListener != null && boundSnippet != null) {
+                        favoriteListener.onFavoriteClick(boundSnippet, getAdapterPosition());
+                    }
+                });
+            }
+
+            if (btnShare != null) {
+                btnShare.setOnClickListener(v -> {
+                    if (boundSnippet != null) {
+                        shareSnippet(v.getContext(), boundSnippet);
+                    }
+                });
+            }
+
+            cardView.setOnClickListener(v -> {
+                if (listener != null && boundSnippet != null) {
+                    listener.onSnippetClick(boundSnippet);
+                }
+            });
         }
 
-        public void bind(SnippetCard snippet, OnSnippetClickListener listener, OnFavoriteClickListener favoriteListener) {
+        public void bind(SnippetCard snippet) {
+            boundSnippet = snippet;
+
             // Show abbreviated language name in badge
             tvLanguageBadge.setText(getLanguageAbbreviation(snippet.getLanguageBadge()));
             tvSnippetTitle.setText(snippet.getTitle());
@@ -244,19 +182,13 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
 
             // Set filename in code header
             if (tvCodeFilename != null) {
-                tvCodeFilename.setText(generateFilename(snippet.getTitle(), snippet.getLanguageBadge()));
+                tvCodeFilename.setText(snippet.getCodeFilename());
             }
 
             // Display code preview with syntax highlighting
             if (tvCode != null) {
-                String code = snippet.getCodePreview();
-                if (code != null && !code.isEmpty()) {
-                    SpannableString highlightedCode = syntaxHighlighter.highlightForLanguage(
-                            code, snippet.getLanguageBadge());
-                    tvCode.setText(highlightedCode);
-                } else {
-                    tvCode.setText("// No code preview");
-                }
+                CharSequence highlightedCode = snippet.getHighlightedPreview(syntaxHighlighter);
+                tvCode.setText(highlightedCode != null ? highlightedCode : "// No code preview");
             }
 
             // Set tags
@@ -280,34 +212,19 @@ public class SnippetCardAdapter extends RecyclerView.Adapter<SnippetCardAdapter.
             // Favorite button state
             if (btnFavorite != null) {
                 boolean favorited = snippet.isLiked();
-                btnFavorite.setImageResource(favorited ? R.drawable.ic_star_filled : R.drawable.ic_star_outline);
-                int tintColor = favorited
-                        ? ContextCompat.getColor(btnFavorite.getContext(), R.color.selective_yellow)
-                        : ContextCompat.getColor(btnFavorite.getContext(), android.R.color.darker_gray);
-                btnFavorite.setImageTintList(ColorStateList.valueOf(tintColor));
-
-                btnFavorite.setOnClickListener(v -> {
-                    if (favoriteListener != null) {
-                        favoriteListener.onFavoriteClick(snippet, getAdapterPosition());
-                    }
-                });
-            }
-
-            if (btnShare != null) {
-                btnShare.setOnClickListener(v -> {
-                    Intent intent = new Intent(Intent.ACTION_SEND);
-                    intent.setType("text/plain");
-                    intent.putExtra(Intent.EXTRA_SUBJECT, snippet.getTitle());
-                    String shareText = "Check out this " + snippet.getLanguageBadge() + " code snippet: "
-                            + snippet.getTitle() + "\n\n" + snippet.getCodePreview();
-                    intent.putExtra(Intent.EXTRA_TEXT, shareText);
-                    v.getContext().startActivity(Intent.createChooser(intent, "Share Snippet via"));
-                });
-            }
-
-            if (listener != null) {
-                cardView.setOnClickListener(v -> listener.onSnippetClick(snippet));
+                favoriteIcons.show(favorited ? R.drawable.ic_star_filled : R.drawable.ic_star_outline);
+                btnFavorite.setImageTintList(favorited ? favoritedTint : unfavoritedTint);
             }
         }
     }
+
+    private static void shareSnippet(Context context, SnippetCard snippet) {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("text/plain");
+        intent.putExtra(Intent.EXTRA_SUBJECT, snippet.getTitle());
+        String shareText = "Check out this " + snippet.getLanguageBadge() + " code snippet: "
+                + snippet.getTitle() + "\n\n" + snippet.getCodePreview();
+        intent.putExtra(Intent.EXTRA_TEXT, shareText);
+        context.startActivity(Intent.createChooser(intent, "Share Snippet via"));
+    }
 }
@@ -21,6 +21,7 @@ import java.util.Comparator;
 import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
 import group.eleven.snippet_sharing_app.data.model.Language;
 import group.eleven.snippet_sharing_app.data.repository.LanguageRepository;
 import group.eleven.snippet_sharing_app.ui.home.HomeActivity;
@@ -29,6 +30,7 @@ import group.eleven.snippet_sharing_app.ui.mysnippets.MySnippetsActivity;
 import group.eleven.snippet_sharing_app.ui.snippet.CreateSnippetActivity;
 import group.eleven.snippet_sharing_app.ui.profile.AccountSettingsActivity;
 import group.eleven.snippet_sharing_app.ui.profile.NotificationSettingsActivity;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
 
 public class BrowseLanguagesActivity extends AppCompatActivity {
 
@@ -68,10 +70,10 @@ public class BrowseLanguagesActivity extends AppCompatActivity {
                 int count = 0;
                 for (Language lang : resource.data) {
                     if (count >= 4) break;
-                    String initial = getLanguageInitial(lang.getName());
-                    String color = lang.getColor() != null ? lang.getColor() : "#6B7280";
+                    LanguageRegistry.Entry entry = LanguageRegistry.getInstance().resolve(lang.getSlug());
+                    String color = lang.getColor() != null ? lang.getColor() : entry.getColorHex();
                     String snippetCount = formatCount(lang.getSnippetCount()) + " snippets";
-                    addPopularCard(gridPopular, initial, lang.getDisplayName(), snippetCount, color);
+                    addPopularCard(gridPopular, entry.getBadge(), lang.getDisplayName(), snippetCount, color);
                     count++;
                 }
             } else if (resource.status == Resource.Status.ERROR) {
@@ -108,36 +110,15 @@ public class BrowseLanguagesActivity extends AppCompatActivity {
                 items.add(new LanguageItem(firstLetter)); // Header
                 currentLetter = firstLetter;
             }
-            String initial = getLanguageInitial(lang.getName());
-            String color = lang.getColor() != null ? lang.getColor() : "#6B7280";
+            LanguageRegistry.Entry entry = LanguageRegistry.getInstance().resolve(lang.getSlug());
+            String color = lang.getColor() != null ? lang.getColor() : entry.getColorHex();
             String count = formatCount(lang.getSnippetCount());
-            items.add(new LanguageItem(initial, lang.getDisplayName(), count, color));
+            items.add(new LanguageItem(entry.getBadge(), lang.getDisplayName(), count, color));
         }
 
         return items;
     }
 
-    private String getLanguageInitial(String name) {
-        if (name == null || name.isEmpty()) return "?";
-        if (name.length() <= 2) return name;
-        // Handle special cases
-        switch (name.toLowerCase()) {
-            case "javascript": return "JS";
-            case "typescript": return "TS";
-            case "python": return "Py";
-            case "c++": case "cpp": return "C++";
-            case "c#": case "csharp": return "C#";
-            case "golang": case "go": return "Go";
-            case "rust": return "Rs";
-            case "swift": return "Sw";
-            case "kotlin": return "Kt";
-            case "shell": case "bash": return "Sh";
-            case "html": return "Ht";
-            case "css": case "scss": return "Cs";
-            default: return name.substring(0, 2);
-        }
-    }
-
     private String formatCount(int count) {
         if (count >= 1000) {
             return String.format("%.1fk", count / 1000.0);
@@ -170,7 +151,7 @@ public class BrowseLanguagesActivity extends AppCompatActivity {
         TextView tvCount = card.findViewById(R.id.tvPopSnippetCount);
 
         tvInitial.setText(initial);
-        tvInitial.setTextColor(android.graphics.Color.parseColor(colorHex));
+        tvInitial.setTextColor(ColorCache.parse(colorHex, LanguageRegistry.DEFAULT_COLOR));
         tvName.setText(name);
         tvCount.setText(count);
 
@@ -309,7 +290,7 @@ public class BrowseLanguagesActivity extends AppCompatActivity {
             } else if (holder instanceof ItemViewHolder) {
                 ItemViewHolder h = (ItemViewHolder) holder;
                 h.tvInitial.setText(item.initial);
-                h.tvInitial.setTextColor(android.graphics.Color.parseColor(item.color));
+                h.tvInitial.setTextColor(ColorCache.parse(item.color, LanguageRegistry.DEFAULT_COLOR));
                 h.tvName.setText(item.name);
                 h.tvCount.setText(item.count);
             }
@@ -1,7 +1,9 @@
 package group.eleven.snippet_sharing_app.ui.mysnippets;
 
 import android.content.Context;
-import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
 import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -18,6 +20,8 @@ import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.model.SnippetModel;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
+import group.eleven.snippet_sharing_app.utils.ViewIcons;
 
 public class MySnippetAdapter extends RecyclerView.Adapter<MySnippetAdapter.SnippetViewHolder> {
 
@@ -63,9 +67,24 @@ public class MySnippetAdapter extends RecyclerView.Adapter<MySnippetAdapter.Snip
         ImageView ivPrivacy, btnEdit, btnDelete, btnShare, btnFavorite;
         Context context;
 
+        // Theme colors and tint filters, resolved once per holder so bind() does not allocate
+        private final int primaryTextColor;
+        private final ColorFilter accentFilter;
+        private final ColorFilter secondaryFilter;
+        private final ColorFilter infoFilter;
+        private final ColorFilter warningFilter;
+        // Icons inflated once per view; setImageResource inflates a new drawable on every call
+        private final ViewIcons privacyIcons;
+        private final ViewIcons favoriteIcons;
+
         public SnippetViewHolder(@NonNull View itemView) {
             super(itemView);
             context = itemView.getContext();
+            primaryTextColor = getThemeColor(context, R.attr.textPrimaryColor);
+            accentFilter = tint(getThemeColor(context, R.attr.accentColor));
+            secondaryFilter = tint(getThemeColor(context, R.attr.textSecondaryColor));
+            infoFilter = tint(ContextCompat.getColor(context, R.color.info));
+            warningFilter = tint(ContextCompat.getColor(context, R.color.warning));
             tvTitle = itemView.findViewById(R.id.tvSnippetTitle);
             tvTime = itemView.findViewById(R.id.tvTime);
             tvLanguage = itemView.findViewById(R.id.tvLanguageTag);
@@ -75,6 +94,8 @@ public class MySnippetAdapter extends RecyclerView.Adapter<MySnippetAdapter.Snip
             btnDelete = itemView.findViewById(R.id.btnDelete);
             btnShare = itemView.findViewById(R.id.btnShare);
             btnFavorite = itemView.findViewById(R.id.btnFavorite);
+            privacyIcons = new ViewIcons(ivPrivacy);
+            favoriteIcons = new ViewIcons(btnFavorite);
 
             // Item click
             itemView.setOnClickListener(v -> {
@@ -115,47 +136,43 @@ public class MySnippetAdapter extends RecyclerView.Adapter<MySnippetAdapter.Snip
             tvVersion.setText(snippet.getVersion());
 
             // Language Tag Color
-            try {
-                tvLanguage.setTextColor(Color.parseColor(snippet.getLanguageColor()));
-            } catch (Exception e) {
-                tvLanguage.setTextColor(getThemeColor(context, R.attr.textPrimaryColor));
-            }
+            tvLanguage.setTextColor(ColorCache.parse(snippet.getLanguageColor(), primaryTextColor));
 
             // Privacy Icon - use theme-aware accent color
-            int accentColor = getThemeColor(context, R.attr.accentColor);
-            int secondaryColor = getThemeColor(context, R.attr.textSecondaryColor);
-            int infoColor = ContextCompat.getColor(context, R.color.info);
-
             switch (snippet.getPrivacy()) {
                 case "Public":
-                    ivPrivacy.setImageResource(R.drawable.ic_globe);
-                    ivPrivacy.setColorFilter(accentColor);
+                    privacyIcons.show(R.drawable.ic_globe);
+                    ivPrivacy.setColorFilter(accentFilter);
                     break;
                 case "Private":
-                    ivPrivacy.setImageResource(R.drawable.ic_lock);
-                    ivPrivacy.setColorFilter(secondaryColor);
+                    privacyIcons.show(R.drawable.ic_lock);
+                    ivPrivacy.setColorFilter(secondaryFilter);
                     break;
                 case "Team":
-                    ivPrivacy.setImageResource(R.drawable.ic_users);
-                    ivPrivacy.setColorFilter(infoColor);
+                    privacyIcons.show(R.drawable.ic_users);
+                    ivPrivacy.setColorFilter(infoFilter);
                     break;
                 default:
-                    ivPrivacy.setImageResource(R.drawable.ic_globe);
-                    ivPrivacy.setColorFilter(accentColor);
+                    privacyIcons.show(R.drawable.ic_globe);
+                    ivPrivacy.setColorFilter(accentFilter);
                     break;
             }
 
             // Favorite State
-            int warningColor = ContextCompat.getColor(context, R.color.warning);
             if (snippet.isFavorite()) {
-                btnFavorite.setImageResource(R.drawable.ic_star_filled);
-                btnFavorite.setColorFilter(warningColor);
+                favoriteIcons.show(R.drawable.ic_star_filled);
+                btnFavorite.setColorFilter(warningFilter);
             } else {
-                btnFavorite.setImageResource(R.drawable.ic_star_outline);
-                btnFavorite.setColorFilter(secondaryColor);
+                favoriteIcons.show(R.drawable.ic_star_outline);
+                btnFavorite.setColorFilter(secondaryFilter);
             }
         }
 
+        private ColorFilter tint(int color) {
+            // Same filter ImageView.setColorFilter(int) would create
+            return new PorterDuffColorFilter(color, PorterDuff.Mode.SRC_ATOP);
+        }
+
         private int getThemeColor(Context context, int attr) {
             TypedValue typedValue = new TypedValue();
             context.getTheme().resolveAttribute(attr, typedValue, true);
@@ -16,6 +16,7 @@ import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.data.model.NotificationItem;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapter.ViewHolder> {
 
@@ -64,13 +65,14 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
         return notifications;
     }
 
-    class ViewHolder extends RecyclerView.ViewHolder {
+    class ViewHolder extends RecyclerView.ViewHolder implements TimeAgoTicker.Target {
         private final MaterialCardView cardNotification;
         private final ImageView ivNotificationIcon;
         private final TextView tvNotificationTitle;
         private final TextView tvNotificationMessage;
         private final TextView tvNotificationTime;
         private final View viewUnreadIndicator;
+        private NotificationItem boundNotification;
 
         ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -82,7 +84,15 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
             viewUnreadIndicator = itemView.findViewById(R.id.viewUnreadIndicator);
         }
 
+        @Override
+        public void onTimeTick(long now) {
+            if (boundNotification != null) {
+                tvNotificationTime.setText(boundNotification.getTimestamp());
+            }
+        }
+
         void bind(NotificationItem notification) {
+            boundNotification = notification;
             tvNotificationTitle.setText(notification.getTitle());
             tvNotificationMessage.setText(notification.getMessage());
             tvNotificationTime.setText(notification.getTimestamp());
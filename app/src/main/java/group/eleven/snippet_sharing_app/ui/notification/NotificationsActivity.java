@@ -24,6 +24,7 @@ import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.data.model.NotificationItem;
 import group.eleven.snippet_sharing_app.data.repository.NotificationRepository;
 import group.eleven.snippet_sharing_app.utils.Resource;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 public class NotificationsActivity extends AppCompatActivity implements NotificationAdapter.OnNotificationClickListener {
 
@@ -105,6 +106,7 @@ public class NotificationsActivity extends AppCompatActivity implements Notifica
         adapter = new NotificationAdapter(this);
         rvNotifications.setLayoutManager(new LinearLayoutManager(this));
         rvNotifications.setAdapter(adapter);
+        TimeAgoTicker.getInstance().attach(this, rvNotifications);
     }
 
     private void setupTabs() {
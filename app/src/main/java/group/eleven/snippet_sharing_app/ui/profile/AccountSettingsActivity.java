@@ -19,9 +19,9 @@ import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import java.io.File;
-
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.CacheBudget;
+import group.eleven.snippet_sharing_app.data.cache.ManagedCache;
 import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
 import group.eleven.snippet_sharing_app.databinding.ActivityAccountSettingsBinding;
@@ -197,11 +197,7 @@ public class AccountSettingsActivity extends AppCompatActivity {
             new MaterialAlertDialogBuilder(this)
                     .setTitle("Clear Cache")
                     .setMessage("This will clear all cached data. Continue?")
-                    .setPositiveButton("Clear", (dialog, which) -> {
-                        clearAppCache();
-                        Toast.makeText(this, "Cache cleared", Toast.LENGTH_SHORT).show();
-                        calculateCacheSize();
-                    })
+                    .setPositiveButton("Clear", (dialog, which) -> clearAppCache())
                     .setNegativeButton(R.string.cancel, null)
                     .show();
         });
@@ -234,33 +230,37 @@ public class AccountSettingsActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Measure every registered cache in the background and show disk and memory totals,
+     * which are separate budgets, and a per-cache breakdown
+     */
     private void calculateCacheSize() {
-        long cacheSize = getDirSize(getCacheDir());
-        if (getExternalCacheDir() != null) {
-            cacheSize += getDirSize(getExternalCacheDir());
-        }
-        String formattedSize = formatFileSize(cacheSize);
-        binding.tvCacheSize.setText(formattedSize);
-    }
-
-    private long getDirSize(File dir) {
-        long size = 0;
-        if (dir != null && dir.isDirectory()) {
-            File[] files = dir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isFile()) {
-                        size += file.length();
-                    } else {
-                        size += getDirSize(file);
-                    }
+        CacheBudget.getInstance(this).computeBreakdown(usages -> {
+            if (isDestroyed()) {
+                return;
+            }
+            long diskTotal = 0;
+            long memoryTotal = 0;
+            StringBuilder breakdown = new StringBuilder();
+            for (CacheBudget.Usage usage : usages) {
+                if (usage.getKind() == ManagedCache.Kind.DISK) {
+                    diskTotal += usage.getBytes();
+                } else {
+                    memoryTotal += usage.getBytes();
+                }
+                if (breakdown.length() > 0) {
+                    breakdown.append('\n');
                 }
+                breakdown.append(usage.getName()).append(": ").append(formatFileSize(usage.getBytes()));
             }
-        }
-        return size;
+            binding.tvCacheSize.setText(formatFileSize(diskTotal) + " on disk, "
+                    + formatFileSize(memoryTotal) + " in memory");
+            binding.tvCacheBreakdown.setText(breakdown);
+            binding.tvCacheBreakdown.setVisibility(usages.isEmpty() ? View.GONE : View.VISIBLE);
+        });
     }
 
-    private String formatFileSize(long size) {
+    private static String formatFileSize(long size) {
         if (size < 1024) {
             return size + " B";
         } else if (size < 1024 * 1024) {
@@ -271,27 +271,12 @@ public class AccountSettingsActivity extends AppCompatActivity {
     }
 
     private void clearAppCache() {
-        try {
-            deleteDir(getCacheDir());
-            if (getExternalCacheDir() != null) {
-                deleteDir(getExternalCacheDir());
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    private boolean deleteDir(File dir) {
-        if (dir != null && dir.isDirectory()) {
-            String[] children = dir.list();
-            if (children != null) {
-                for (String child : children) {
-                    boolean success = deleteDir(new File(dir, child));
-                    if (!success) return false;
-                }
+        CacheBudget.getInstance(this).clearAll(() -> {
+            if (!isDestroyed()) {
+                Toast.makeText(this, "Cache cleared", Toast.LENGTH_SHORT).show();
+                calculateCacheSize();
             }
-        }
-        return dir != null && dir.delete();
+        });
     }
 
     private void updateSocialUI() {
@@ -9,6 +9,7 @@ import android.text.TextWatcher;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.FrameLayout;
+import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -47,9 +48,10 @@ public class EditProfileActivity extends AppCompatActivity {
     private FrameLayout flChangePhoto;
     private TextInputEditText etFullName, etUsername, etEmail, etBio;
     private TextInputEditText etWebsite, etLocation, etGithub, etTwitter;
-    private TextView tvBioCharCount, tvEmailStatus;
+    private TextView tvBioCharCount, tvEmailStatus, tvUploadProgress;
     private MaterialButton btnSaveChanges, btnCancel;
     private FrameLayout layoutLoading;
+    private ProgressBar pbUploadProgress;
 
     // Data
     private SessionManager sessionManager;
@@ -75,6 +77,7 @@ public class EditProfileActivity extends AppCompatActivity {
         setupImagePicker();
         setupClickListeners();
         setupBioCharCounter();
+        observeUploadProgress();
         loadUserData();
     }
 
@@ -95,6 +98,8 @@ public class EditProfileActivity extends AppCompatActivity {
         btnSaveChanges = findViewById(R.id.btnSaveChanges);
         btnCancel = findViewById(R.id.btnCancel);
         layoutLoading = findViewById(R.id.layoutLoading);
+        pbUploadProgress = findViewById(R.id.pbUploadProgress);
+        tvUploadProgress = findViewById(R.id.tvUploadProgress);
     }
 
     private void setupToolbar() {
@@ -301,6 +306,26 @@ public class EditProfileActivity extends AppCompatActivity {
             layoutLoading.setVisibility(show ? View.VISIBLE : View.GONE);
         }
         btnSaveChanges.setEnabled(!show);
+        if (!show) {
+            pbUploadProgress.setProgress(0);
+            pbUploadProgress.setVisibility(View.GONE);
+            tvUploadProgress.setVisibility(View.GONE);
+        }
+    }
+
+    /**
+     * Show avatar upload progress under the loading spinner while a new photo is sent
+     */
+    private void observeUploadProgress() {
+        profileRepository.getUploadProgress().observe(this, percent -> {
+            if (percent == null || layoutLoading.getVisibility() != View.VISIBLE) {
+                return;
+            }
+            pbUploadProgress.setVisibility(View.VISIBLE);
+            pbUploadProgress.setProgress(percent);
+            tvUploadProgress.setVisibility(View.VISIBLE);
+            tvUploadProgress.setText("Uploading photo... " + percent + "%");
+        });
     }
 
     private String saveImageToInternalStorage(Uri uri) {
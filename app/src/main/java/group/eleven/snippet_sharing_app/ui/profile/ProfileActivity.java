@@ -34,8 +34,10 @@ import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.repository.DashboardRepository;
 import group.eleven.snippet_sharing_app.ui.home.FeedSnippetAdapter;
 import group.eleven.snippet_sharing_app.ui.notification.NotificationsActivity;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * Profile Activity - Displays user profile with stats and snippets
@@ -68,6 +70,8 @@ public class ProfileActivity extends AppCompatActivity {
     private DashboardRepository dashboardRepository;
     private FeedSnippetAdapter adapter;
     private String currentTab = "snippets";
+    // Reused for the joined date; only touched on the main thread
+    private SimpleDateFormat joinDateFormat;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -299,6 +303,7 @@ public class ProfileActivity extends AppCompatActivity {
         });
         rvContent.setLayoutManager(new LinearLayoutManager(this));
         rvContent.setAdapter(adapter);
+        TimeAgoTicker.getInstance().attach(this, rvContent);
         rvContent.setNestedScrollingEnabled(false);
     }
 
@@ -585,14 +590,14 @@ public class ProfileActivity extends AppCompatActivity {
     }
 
     private String formatJoinDate(String dateString) {
-        try {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.getDefault());
-            Date date = inputFormat.parse(dateString);
-            SimpleDateFormat outputFormat = new SimpleDateFormat("MMM yyyy", Locale.getDefault());
-            return outputFormat.format(date);
-        } catch (Exception e) {
+        long millis = Iso8601.parse(dateString);
+        if (millis == Iso8601.INVALID) {
             return "recently";
         }
+        if (joinDateFormat == null) {
+            joinDateFormat = new SimpleDateFormat("MMM yyyy", Locale.getDefault());
+        }
+        return joinDateFormat.format(new Date(millis));
     }
 
     private String formatWebsiteDisplay(String url) {
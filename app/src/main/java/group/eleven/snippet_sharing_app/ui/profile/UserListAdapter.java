@@ -17,6 +17,7 @@ import java.util.List;
 import de.hdodenhof.circleimageview.CircleImageView;
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.data.model.User;
+import group.eleven.snippet_sharing_app.utils.AvatarLoader;
 
 /**
  * Adapter for displaying users in followers/following lists
@@ -100,10 +101,7 @@ public class UserListAdapter extends RecyclerView.Adapter<UserListAdapter.UserVi
             // Load avatar
             String avatarUrl = user.getEffectiveAvatarUrl();
             if (avatarUrl != null && !avatarUrl.isEmpty()) {
-                Glide.with(itemView.getContext())
-                        .load(avatarUrl)
-                        .placeholder(R.drawable.ic_person)
-                        .error(R.drawable.ic_person)
+                AvatarLoader.forView(Glide.with(itemView.getContext()), avatarUrl, ivUserAvatar, R.drawable.ic_person)
                         .into(ivUserAvatar);
             } else {
                 ivUserAvatar.setImageResource(R.drawable.ic_person);
@@ -25,13 +25,20 @@ import java.util.List;
 
 import de.hdodenhof.circleimageview.CircleImageView;
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage.Stage;
 import group.eleven.snippet_sharing_app.data.model.Snippet;
+import group.eleven.snippet_sharing_app.data.model.SnippetCard;
 import group.eleven.snippet_sharing_app.data.model.User;
 import group.eleven.snippet_sharing_app.data.repository.DashboardRepository;
 import group.eleven.snippet_sharing_app.data.repository.SearchRepository;
 import group.eleven.snippet_sharing_app.model.SearchResult;
 import group.eleven.snippet_sharing_app.ui.profile.ProfileActivity;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
+import group.eleven.snippet_sharing_app.utils.Iso8601;
 import group.eleven.snippet_sharing_app.utils.KeyboardUtils;
+import group.eleven.snippet_sharing_app.utils.RelativeTime;
 import group.eleven.snippet_sharing_app.utils.Resource;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
 
@@ -51,6 +58,9 @@ public class SearchActivity extends AppCompatActivity {
     private DashboardRepository dashboardRepository;
     private Handler searchHandler;
     private Runnable searchRunnable;
+    private FrameMonitor.Session frameSession;
+    // Bumped per request so late mapped results from an older query are dropped
+    private int resultGeneration;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -80,6 +90,9 @@ public class SearchActivity extends AppCompatActivity {
         adapter = new SearchResultAdapter();
         rvSearchResults.setAdapter(adapter);
 
+        frameSession = FrameMonitor.getInstance(this).track("Search", getWindow(), this);
+        frameSession.trackScrolling(rvSearchResults);
+
         etSearch = findViewById(R.id.etSearch);
         ivProfile = findViewById(R.id.ivProfile);
         tvResultCount = findViewById(R.id.tvResultCount);
@@ -106,16 +119,12 @@ public class SearchActivity extends AppCompatActivity {
     private void loadInitialSnippets() {
         showLoading(true);
 
+        int generation = ++resultGeneration;
         dashboardRepository.getTrendingSnippets(20).observe(this, resource -> {
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
-                allResults.clear();
-                for (group.eleven.snippet_sharing_app.data.model.SnippetCard card : resource.data) {
-                    allResults.add(mapSnippetCardToSearchResult(card));
-                }
-                adapter.setItems(allResults);
-                updateHeaderCount(allResults.size());
-                showLoading(false);
-                showEmptyState(allResults.isEmpty());
+                MappingStage.mapList(Stage.SEARCH_RESULTS, resource.data,
+                        SearchActivity::mapSnippetCardToSearchResult,
+                        results -> showResults(generation, results));
             } else if (resource.status == Resource.Status.ERROR) {
                 Log.e(TAG, "Failed to load initial snippets: " + resource.message);
                 showLoading(false);
@@ -135,16 +144,12 @@ public class SearchActivity extends AppCompatActivity {
 
         showLoading(true);
 
+        int generation = ++resultGeneration;
         searchRepository.searchSnippets(query, 30).observe(this, resource -> {
             if (resource.status == Resource.Status.SUCCESS && resource.data != null) {
-                allResults.clear();
-                for (Snippet snippet : resource.data) {
-                    allResults.add(mapSnippetToSearchResult(snippet));
-                }
-                adapter.setItems(allResults);
-                updateHeaderCount(allResults.size());
-                showLoading(false);
-                showEmptyState(allResults.isEmpty());
+                MappingStage.mapList(Stage.SEARCH_RESULTS, resource.data,
+                        SearchActivity::mapSnippetToSearchResult,
+                        results -> showResults(generation, results));
             } else if (resource.status == Resource.Status.ERROR) {
                 Log.e(TAG, "Search failed: " + resource.message);
                 showLoading(false);
@@ -155,15 +160,30 @@ public class SearchActivity extends AppCompatActivity {
     }
 
     /**
-     * Map Snippet model to SearchResult UI model
+     * Show mapped results unless a newer search has started since they were requested
      */
-    private SearchResult mapSnippetToSearchResult(Snippet snippet) {
+    private void showResults(int generation, List<SearchResult> results) {
+        if (generation != resultGeneration || isDestroyed()) {
+            return;
+        }
+        allResults.clear();
+        allResults.addAll(results);
+        adapter.setItems(allResults);
+        updateHeaderCount(allResults.size());
+        showLoading(false);
+        showEmptyState(allResults.isEmpty());
+    }
+
+    /**
+     * Map Snippet model to SearchResult UI model. Runs on the mapping stage.
+     */
+    private static SearchResult mapSnippetToSearchResult(Snippet snippet) {
         String languageName = snippet.getLanguageName();
         String languageColor = getLanguageColor(languageName);
         String subtitle = snippet.getDescription() != null ? snippet.getDescription() : "";
         String authorUsername = snippet.getUser() != null ? snippet.getUser().getUsername() : "user";
         String authorName = "@" + authorUsername;
-        String code = snippet.getCode() != null ? snippet.getCode() : "";
+        String code = snippet.getCode() != null ? snippet.getCodePreview() : "";
         String timeAgo = formatTimeAgo(snippet.getCreatedAt());
 
         return new SearchResult(
@@ -182,9 +202,9 @@ public class SearchActivity extends AppCompatActivity {
     }
 
     /**
-     * Map SnippetCard model to SearchResult UI model
+     * Map SnippetCard model to SearchResult UI model. Runs on the mapping stage.
      */
-    private SearchResult mapSnippetCardToSearchResult(group.eleven.snippet_sharing_app.data.model.SnippetCard card) {
+    private static SearchResult mapSnippetCardToSearchResult(SnippetCard card) {
         String languageBadge = card.getLanguageBadge() != null ? card.getLanguageBadge() : "Code";
         String languageColor = getLanguageColor(languageBadge);
         String code = card.getCodePreview() != null ? card.getCodePreview() : "";
@@ -207,40 +227,15 @@ public class SearchActivity extends AppCompatActivity {
     /**
      * Get color for programming language
      */
-    private String getLanguageColor(String language) {
-        if (language == null) return "#6B7280";
-        switch (language.toLowerCase()) {
-            case "javascript": return "#F7DF1E";
-            case "typescript": return "#3178C6";
-            case "python": return "#3776AB";
-            case "java": return "#B07219";
-            case "kotlin": return "#A97BFF";
-            case "swift": return "#FA7343";
-            case "go": return "#00ADD8";
-            case "rust": return "#DEA584";
-            case "c++": case "cpp": return "#00599C";
-            case "c#": case "csharp": return "#239120";
-            case "php": return "#777BB4";
-            case "ruby": return "#CC342D";
-            case "html": return "#E34F26";
-            case "css": return "#1572B6";
-            case "sql": return "#336791";
-            default: return "#6B7280";
-        }
+    private static String getLanguageColor(String language) {
+        return LanguageRegistry.getInstance().resolve(language).getColorHex();
     }
 
     /**
      * Format timestamp to relative time
      */
-    private String formatTimeAgo(String timestamp) {
-        if (timestamp == null) return "";
-        // Simple formatting - in production use a proper library
-        try {
-            // Just return a simple format for now
-            return "recently";
-        } catch (Exception e) {
-            return "";
-        }
+    private static String formatTimeAgo(String timestamp) {
+        return RelativeTime.DEFAULT.format(Iso8601.parse(timestamp));
     }
 
     private void setupListeners() {
@@ -353,6 +348,7 @@ public class SearchActivity extends AppCompatActivity {
 
     private void showLoading(boolean show) {
         // No progress bar in layout - could add one later if needed
+        frameSession.setLoading(show);
     }
 
     private void showEmptyState(boolean show) {
@@ -1,7 +1,6 @@
 package group.eleven.snippet_sharing_app.ui.search;
 
 import android.graphics.Color;
-import android.text.SpannableString;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,6 +16,8 @@ import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.model.SearchResult;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
 
 public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapter.ViewHolder> {
@@ -37,7 +38,9 @@ public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapte
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long start = System.nanoTime();
         holder.bind(items.get(position));
+        FrameMonitor.recordBind(System.nanoTime() - start);
     }
 
     @Override
@@ -66,45 +69,23 @@ public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapte
         }
 
         public void bind(SearchResult item) {
-            tvLanguageInitial
-                    .setText(item.getLanguage().substring(0, Math.min(2, item.getLanguage().length())).toUpperCase());
-            try {
-                cvLanguage.setCardBackgroundColor(Color.parseColor(item.getLanguageColor()));
-            } catch (Exception e) {
-                cvLanguage.setCardBackgroundColor(Color.GRAY);
-            }
+            tvLanguageInitial.setText(item.getLanguageInitial());
+            cvLanguage.setCardBackgroundColor(ColorCache.parse(item.getLanguageColor(), Color.GRAY));
 
             tvTitle.setText(item.getTitle());
-            tvSubtitle.setText(item.getSubtitle());
+            // Private snippets get a lock marker appended to the subtitle
+            tvSubtitle.setText(item.getDisplaySubtitle());
 
             // Apply syntax highlighting to code
-            String code = item.getCodeSnippet();
-            if (code != null && !code.isEmpty()) {
-                SpannableString highlightedCode = syntaxHighlighter.highlightForLanguage(
-                        code, item.getLanguage());
-                tvCode.setText(highlightedCode);
-            } else {
-                tvCode.setText("// No code preview");
-            }
-
-            tvUsername.setText(item.getUsername() + " • " + item.getTimestamp());
-            tvStars.setText(String.valueOf(item.getStars()));
-            tvForks.setText(String.valueOf(item.getForks()));
+            CharSequence highlightedCode = item.getHighlightedCode(syntaxHighlighter);
+            tvCode.setText(highlightedCode != null ? highlightedCode : "// No code preview");
+
+            tvUsername.setText(item.getUserLine());
+            tvStars.setText(item.getStarsText());
+            tvForks.setText(item.getForksText());
 
             // Bookmark tint is handled by XML layout using ?attr/iconSecondaryColor
             // The layout already applies the correct theme-adaptive color
-
-            // Private lock logic?
-            if (item.isPrivate()) {
-                // Add lock icon or similar. The prompt mentioned "Lock icon" for OAuth2.
-                // Maybe add to subtitle or replace Bookmark?
-                // The prompt 2nd Mock Item: "User: @alex_code, Private Lock icon".
-                // Assuming next to user or subtitle.
-                // I'll append "🔒" to subtitle or title if private.
-                if (!item.getSubtitle().contains("Private")) {
-                    tvSubtitle.setText(item.getSubtitle() + " • Private 🔒");
-                }
-            }
         }
     }
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
 import group.eleven.snippet_sharing_app.data.model.Language;
 import group.eleven.snippet_sharing_app.data.repository.SnippetCreationRepository;
 import group.eleven.snippet_sharing_app.databinding.ActivityCreateSnippetBinding;
@@ -142,12 +143,13 @@ public class CreateSnippetActivity extends AppCompatActivity {
     private void convertToLocalLanguages() {
         localLanguages.clear();
         for (Language lang : apiLanguages) {
+            LanguageRegistry.Entry entry = LanguageRegistry.getInstance().resolve(lang.getSlug());
             group.eleven.snippet_sharing_app.model.Language local =
                     new group.eleven.snippet_sharing_app.model.Language(
                             lang.getDisplayName(),
                             lang.getSlug(),
-                            getLanguageAbbr(lang.getName()),
-                            lang.getColor() != null ? lang.getColor() : "#666666"
+                            entry.getBadge(),
+                            lang.getColor() != null ? lang.getColor() : entry.getColorHex()
                     );
             localLanguages.add(local);
         }
@@ -157,26 +159,20 @@ public class CreateSnippetActivity extends AppCompatActivity {
         apiLanguages = new ArrayList<>();
         localLanguages = new ArrayList<>();
 
-        String[][] fallbackData = {
-                {"1", "JavaScript", "javascript", "JS", "#F7DF1E", "js"},
-                {"2", "Python", "python", "Py", "#3776AB", "py"},
-                {"3", "Java", "java", "Ja", "#007396", "java"},
-                {"4", "TypeScript", "typescript", "TS", "#3178C6", "ts"},
-                {"5", "Kotlin", "kotlin", "Kt", "#7F52FF", "kt"},
-                {"6", "Swift", "swift", "Sw", "#F05138", "swift"}
-        };
-
-        for (String[] data : fallbackData) {
+        // Offline: offer the languages the app ships with
+        int id = 1;
+        for (LanguageRegistry.Entry entry : LanguageRegistry.getInstance().getEntries()) {
             Language apiLang = new Language();
-            apiLang.setId(data[0]);
-            apiLang.setName(data[1]);
-            apiLang.setSlug(data[2]);
-            apiLang.setColor(data[4]);
-            apiLang.setFileExtensions(new String[]{data[5]});
+            apiLang.setId(String.valueOf(id++));
+            apiLang.setName(entry.getDisplayName());
+            apiLang.setSlug(entry.getSlug());
+            apiLang.setColor(entry.getColorHex());
+            apiLang.setFileExtensions(new String[]{entry.getExtension()});
             apiLanguages.add(apiLang);
 
             group.eleven.snippet_sharing_app.model.Language local =
-                    new group.eleven.snippet_sharing_app.model.Language(data[1], data[2], data[3], data[4]);
+                    new group.eleven.snippet_sharing_app.model.Language(entry.getDisplayName(),
+                            entry.getSlug(), entry.getBadge(), entry.getColorHex());
             localLanguages.add(local);
         }
 
@@ -187,31 +183,6 @@ public class CreateSnippetActivity extends AppCompatActivity {
         }
     }
 
-    private String getLanguageAbbr(String name) {
-        if (name == null) return "??";
-        switch (name.toLowerCase()) {
-            case "javascript": return "JS";
-            case "typescript": return "TS";
-            case "python": return "Py";
-            case "java": return "Ja";
-            case "kotlin": return "Kt";
-            case "swift": return "Sw";
-            case "html": return "HT";
-            case "css": return "CS";
-            case "php": return "PH";
-            case "ruby": return "Rb";
-            case "go": return "Go";
-            case "rust": return "Rs";
-            case "c#":
-            case "csharp": return "C#";
-            case "c++":
-            case "cpp": return "C+";
-            case "c": return "C";
-            default:
-                return name.length() >= 2 ? name.substring(0, 2) : name;
-        }
-    }
-
     private void updateFilename() {
         if (selectedApiLanguage != null && selectedApiLanguage.getFileExtensions() != null
                 && selectedApiLanguage.getFileExtensions().length > 0) {
@@ -16,6 +16,7 @@ import java.util.List;
 
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.model.Language;
+import group.eleven.snippet_sharing_app.utils.ColorCache;
 
 public class LanguageAdapter extends BaseAdapter {
 
@@ -74,11 +75,7 @@ public class LanguageAdapter extends BaseAdapter {
         ImageView ivCheck = convertView.findViewById(R.id.ivCheck);
 
         tvIcon.setText(language.getShortCode());
-        try {
-            tvIcon.setTextColor(Color.parseColor(language.getColorHex()));
-        } catch (IllegalArgumentException e) {
-            tvIcon.setTextColor(Color.WHITE); // Default fallback
-        }
+        tvIcon.setTextColor(ColorCache.parse(language.getColorHex(), Color.WHITE));
         tvName.setText(language.getName());
         tvMime.setText(language.getMime());
 
@@ -6,8 +6,10 @@ import android.os.Bundle;
 import android.view.View;
 import android.widget.EditText;
 import android.widget.ImageView;
+import android.widget.ProgressBar;
 import android.widget.RadioButton;
 import android.widget.RadioGroup;
+import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.result.ActivityResultLauncher;
@@ -45,6 +47,8 @@ public class CreateTeamActivity extends AppCompatActivity {
     private RadioButton rbInviteOnly;
     private MaterialButton btnCreateTeam;
     private MaterialButton btnCancel;
+    private ProgressBar pbUploadProgress;
+    private TextView tvUploadProgress;
 
     private Uri selectedImageUri;
     private TeamViewModel teamViewModel;
@@ -78,6 +82,8 @@ public class CreateTeamActivity extends AppCompatActivity {
         rbInviteOnly = findViewById(R.id.rb_invite_only);
         btnCreateTeam = findViewById(R.id.btn_create_team);
         btnCancel = findViewById(R.id.btn_cancel);
+        pbUploadProgress = findViewById(R.id.pb_upload_progress);
+        tvUploadProgress = findViewById(R.id.tv_upload_progress);
 
         // Set default privacy selection
         rbPublic.setChecked(true);
@@ -108,8 +114,26 @@ public class CreateTeamActivity extends AppCompatActivity {
                 Toast.makeText(this, "Error creating team: " + resource.getMessage(), Toast.LENGTH_LONG).show();
                 btnCreateTeam.setEnabled(true);
                 btnCancel.setEnabled(true);
+                hideUploadProgress();
             }
         });
+
+        teamViewModel.getUploadProgress().observe(this, percent -> {
+            // Only while a create request is in flight
+            if (percent == null || btnCreateTeam.isEnabled()) {
+                return;
+            }
+            pbUploadProgress.setVisibility(View.VISIBLE);
+            pbUploadProgress.setProgress(percent);
+            tvUploadProgress.setVisibility(View.VISIBLE);
+            tvUploadProgress.setText("Uploading avatar... " + percent + "%");
+        });
+    }
+
+    private void hideUploadProgress() {
+        pbUploadProgress.setProgress(0);
+        pbUploadProgress.setVisibility(View.GONE);
+        tvUploadProgress.setVisibility(View.GONE);
     }
 
     private void setupListeners() {
@@ -30,6 +30,8 @@ import group.eleven.snippet_sharing_app.data.model.Team;
 import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
 import group.eleven.snippet_sharing_app.ui.snippet.CreateSnippetActivity;
 import group.eleven.snippet_sharing_app.ui.team.viewmodel.TeamViewModel;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * TeamChatActivity - Main team screen showing shared snippets (like Telegram chat)
@@ -55,6 +57,7 @@ public class TeamChatActivity extends AppCompatActivity {
     private TeamSnippetAdapter teamSnippetAdapter;
     private String teamId;
     private Team currentTeam;
+    private FrameMonitor.Session frameSession;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -149,6 +152,10 @@ public class TeamChatActivity extends AppCompatActivity {
         layoutManager.setStackFromEnd(true);
         rvTeamMessages.setLayoutManager(layoutManager);
         rvTeamMessages.setAdapter(teamSnippetAdapter);
+        TimeAgoTicker.getInstance().attach(this, rvTeamMessages);
+
+        frameSession = FrameMonitor.getInstance(this).track("TeamChat", getWindow(), this);
+        frameSession.trackScrolling(rvTeamMessages);
     }
 
     private void setupViewModel() {
@@ -168,11 +175,9 @@ public class TeamChatActivity extends AppCompatActivity {
 
         // Observe team snippets
         teamViewModel.getTeamSnippetsResult().observe(this, resource -> {
-            if (resource.getStatus() == AuthRepository.Resource.Status.LOADING) {
-                progressBar.setVisibility(View.VISIBLE);
-            } else {
-                progressBar.setVisibility(View.GONE);
-            }
+            boolean loading = resource.getStatus() == AuthRepository.Resource.Status.LOADING;
+            progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
+            frameSession.setLoading(loading);
 
             if (resource.getStatus() == AuthRepository.Resource.Status.SUCCESS) {
                 if (resource.getData() != null && !resource.getData().isEmpty()) {
@@ -35,6 +35,7 @@ import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
 import group.eleven.snippet_sharing_app.ui.team.settings.JoinRequestAdapter;
 import group.eleven.snippet_sharing_app.ui.team.viewmodel.TeamViewModel;
 import group.eleven.snippet_sharing_app.utils.SessionManager;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 /**
  * TeamDashboardActivity - Team Info page (like Telegram group info)
@@ -276,17 +277,21 @@ public class TeamDashboardActivity extends AppCompatActivity
             public void onTabSelected(TabLayout.Tab tab) {
                 switch (tab.getPosition()) {
                     case 0:
+                        // Only the snippets tab shows times, so the list ticks only while it is on
+                        TimeAgoTicker.getInstance().detach(rvTeamMembers);
                         rvTeamMembers.setAdapter(teamMemberAdapter);
                         fetchTeamMembers();
                         break;
                     case 1:
                         rvTeamMembers.setAdapter(teamSnippetAdapter);
+                        TimeAgoTicker.getInstance().attach(TeamDashboardActivity.this, rvTeamMembers);
                         fetchTeamSnippets();
                         break;
                     case 2:
                         Toast.makeText(TeamDashboardActivity.this, "Files coming soon", Toast.LENGTH_SHORT).show();
                         break;
                     case 3:
+                        TimeAgoTicker.getInstance().detach(rvTeamMembers);
                         rvTeamMembers.setAdapter(joinRequestAdapter);
                         teamViewModel.loadJoinRequests(teamId);
                         break;
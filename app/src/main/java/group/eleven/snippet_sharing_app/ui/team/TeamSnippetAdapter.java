@@ -19,7 +19,9 @@ import de.hdodenhof.circleimageview.CircleImageView;
 import group.eleven.snippet_sharing_app.R;
 import group.eleven.snippet_sharing_app.api.ApiClient;
 import group.eleven.snippet_sharing_app.data.model.TeamSnippet;
+import group.eleven.snippet_sharing_app.utils.FrameMonitor;
 import group.eleven.snippet_sharing_app.utils.SyntaxHighlighter;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 public class TeamSnippetAdapter extends RecyclerView.Adapter<TeamSnippetAdapter.ViewHolder> {
 
@@ -50,8 +52,10 @@ public class TeamSnippetAdapter extends RecyclerView.Adapter<TeamSnippetAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        long start = System.nanoTime();
         TeamSnippet teamSnippet = teamSnippets.get(position);
         holder.bind(teamSnippet, listener);
+        FrameMonitor.recordBind(System.nanoTime() - start);
     }
 
     @Override
@@ -59,7 +63,7 @@ public class TeamSnippetAdapter extends RecyclerView.Adapter<TeamSnippetAdapter.
         return teamSnippets.size();
     }
 
-    static class ViewHolder extends RecyclerView.ViewHolder {
+    static class ViewHolder extends RecyclerView.ViewHolder implements TimeAgoTicker.Target {
         private final CircleImageView ivAuthorAvatar;
         private final TextView tvAuthorName;
         private final TextView tvLanguageBadge;
@@ -68,6 +72,7 @@ public class TeamSnippetAdapter extends RecyclerView.Adapter<TeamSnippetAdapter.
         private final TextView tvCodePreview;
         private final MaterialCardView cardSnippet;
         private final SyntaxHighlighter syntaxHighlighter;
+        private TeamSnippet boundSnippet;
 
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
@@ -81,7 +86,16 @@ public class TeamSnippetAdapter extends RecyclerView.Adapter<TeamSnippetAdapter.
             syntaxHighlighter = new SyntaxHighlighter(itemView.getContext());
         }
 
+        @Override
+        public void onTimeTick(long now) {
+            if (boundSnippet != null) {
+                tvSnippetTime.setText(boundSnippet.getTimeAgo());
+            }
+        }
+
         public void bind(TeamSnippet teamSnippet, OnTeamSnippetClickListener listener) {
+            boundSnippet = teamSnippet;
+
             // Set author avatar
             String avatarUrl = teamSnippet.getAuthorAvatarUrl();
             if (avatarUrl != null && !avatarUrl.isEmpty()) {
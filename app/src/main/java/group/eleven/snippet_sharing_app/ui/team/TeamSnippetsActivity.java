@@ -26,6 +26,7 @@ import group.eleven.snippet_sharing_app.data.model.TeamSnippet;
 import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
 import static group.eleven.snippet_sharing_app.data.repository.AuthRepository.Resource; // Static import for Resource
 import group.eleven.snippet_sharing_app.ui.team.viewmodel.TeamViewModel;
+import group.eleven.snippet_sharing_app.utils.TimeAgoTicker;
 
 public class TeamSnippetsActivity extends AppCompatActivity implements TeamSnippetAdapter.OnTeamSnippetClickListener {
 
@@ -116,6 +117,7 @@ public class TeamSnippetsActivity extends AppCompatActivity implements TeamSnipp
         teamSnippetAdapter = new TeamSnippetAdapter(this);
         rvTeamSnippetsList.setLayoutManager(new LinearLayoutManager(this));
         rvTeamSnippetsList.setAdapter(teamSnippetAdapter);
+        TimeAgoTicker.getInstance().attach(this, rvTeamSnippetsList);
     }
 
     private void setupViewModel() {
@@ -113,6 +113,13 @@ public class TeamViewModel extends AndroidViewModel {
         return _createTeamSnippetResult;
     }
 
+    /**
+     * Team avatar upload progress in percent while createTeamWithAvatar runs
+     */
+    public LiveData<Integer> getUploadProgress() {
+        return teamRepository.getUploadProgress();
+    }
+
     //endregion
 
     //region Public methods to trigger actions in repository
@@ -0,0 +1,335 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The app's threads, in one place.
+ *
+ * <ul>
+ *   <li>{@link #io()} - network calls made outside Retrofit's own dispatcher, file reads</li>
+ *   <li>{@link #compute()} - parsing and mapping, at background priority</li>
+ *   <li>{@link #diskWriter()} - one thread, so writes to the same file never interleave</li>
+ *   <li>{@link #main()} - posts to the main thread</li>
+ * </ul>
+ *
+ * The io and compute queues are bounded. A task submitted to a full queue is not queued:
+ * it is counted as rejected, logged, and run by the submitting thread, or by a short-lived
+ * thread of its own when submitted from the main thread. Submitters never see an exception
+ * and the caller slows down instead of piling up work. The disk writer's queue is unbounded:
+ * running a write anywhere but its one thread would let two writes to the same file overlap.
+ * Every executor reports queue depth, wait time and run time through {@link #getMetrics()}.
+ */
+public final class AppExecutors {
+
+    private static final String TAG = "AppExecutors";
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int IO_THREADS = 4;
+    private static final int IO_QUEUE = 128;
+    private static final int COMPUTE_THREADS = Math.max(1, Math.min(2, CPU_COUNT - 1));
+    private static final int COMPUTE_QUEUE = 64;
+    // Writes must stay on the one thread, in order, so they are never rejected
+    private static final int DISK_QUEUE = MeteredExecutor.UNBOUNDED;
+
+    private static final AppExecutors instance = new AppExecutors();
+
+    private final MeteredExecutor io;
+    private final MeteredExecutor compute;
+    private final MeteredExecutor diskWriter;
+    private final MainExecutor main;
+
+    /**
+     * Point-in-time counters for one executor. Times are in milliseconds.
+     */
+    public static final class Metrics {
+        private final String name;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+        private final long completed;
+        private final long rejected;
+        private final long totalWaitMs;
+        private final long totalRunMs;
+        private final long maxWaitMs;
+
+        Metrics(String name, int queueDepth, int maxQueueDepth, long completed, long rejected,
+                long totalWaitMs, long totalRunMs, long maxWaitMs) {
+            this.name = name;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.totalWaitMs = totalWaitMs;
+            this.totalRunMs = totalRunMs;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Tasks waiting for a thread right now
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        /**
+         * Tasks that found the queue full and ran outside the pool
+         */
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getAverageWaitMs() {
+            return completed == 0 ? 0 : totalWaitMs / completed;
+        }
+
+        public long getAverageRunMs() {
+            return completed == 0 ? 0 : totalRunMs / completed;
+        }
+
+        public long getMaxWaitMs() {
+            return maxWaitMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return name + ": queued=" + queueDepth + " (max " + maxQueueDepth + ")"
+                    + ", done=" + completed + ", rejected=" + rejected
+                    + ", avgWait=" + getAverageWaitMs() + "ms (max " + maxWaitMs + "ms)"
+                    + ", avgRun=" + getAverageRunMs() + "ms";
+        }
+    }
+
+    private AppExecutors() {
+        io = new MeteredExecutor("io", IO_THREADS, IO_QUEUE, Process.THREAD_PRIORITY_DEFAULT);
+        compute = new MeteredExecutor("compute", COMPUTE_THREADS, COMPUTE_QUEUE, Process.THREAD_PRIORITY_BACKGROUND);
+        diskWriter = new MeteredExecutor("disk", 1, DISK_QUEUE, Process.THREAD_PRIORITY_BACKGROUND);
+        main = new MainExecutor();
+    }
+
+    public static AppExecutors getInstance() {
+        return instance;
+    }
+
+    public ExecutorService io() {
+        return io;
+    }
+
+    public ExecutorService compute() {
+        return compute;
+    }
+
+    /**
+     * Single thread for file writes (and reads that must see them), run in submission order
+     */
+    public ExecutorService diskWriter() {
+        return diskWriter;
+    }
+
+    public Executor main() {
+        return main;
+    }
+
+    public List<Metrics> getMetrics() {
+        List<Metrics> metrics = new ArrayList<>(4);
+        metrics.add(io.stats.snapshot(io.getQueue().size()));
+        metrics.add(compute.stats.snapshot(compute.getQueue().size()));
+        metrics.add(diskWriter.stats.snapshot(diskWriter.getQueue().size()));
+        metrics.add(main.stats.snapshot(main.pending.get()));
+        return Collections.unmodifiableList(metrics);
+    }
+
+    /**
+     * Write every executor's metrics to logcat
+     */
+    public void logMetrics() {
+        for (Metrics metrics : getMetrics()) {
+            Log.d(TAG, metrics.toString());
+        }
+    }
+
+    /**
+     * Counters shared by every executor kind
+     */
+    private static final class Stats {
+        private final String name;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong totalWaitMs = new AtomicLong();
+        private final AtomicLong totalRunMs = new AtomicLong();
+        private final AtomicLong maxWaitMs = new AtomicLong();
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+        Stats(String name) {
+            this.name = name;
+        }
+
+        void onQueued(int depth) {
+            maxQueueDepth.accumulateAndGet(depth, Math::max);
+        }
+
+        void onFinished(long waitMs, long runMs) {
+            completed.incrementAndGet();
+            totalWaitMs.addAndGet(waitMs);
+            totalRunMs.addAndGet(runMs);
+            maxWaitMs.accumulateAndGet(waitMs, Math::max);
+        }
+
+        Metrics snapshot(int queueDepth) {
+            return new Metrics(name, queueDepth, maxQueueDepth.get(), completed.get(), rejected.get(),
+                    totalWaitMs.get(), totalRunMs.get(), maxWaitMs.get());
+        }
+    }
+
+    /**
+     * Runnable stamped with the time it was queued
+     */
+    private static final class TimedTask implements Runnable {
+        final Runnable task;
+        final long queuedAt = SystemClock.elapsedRealtime();
+        long startedAt;
+
+        TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * Fixed-size pool that times every task, over a bounded queue unless created with
+     * {@link #UNBOUNDED}
+     */
+    private static final class MeteredExecutor extends ThreadPoolExecutor {
+        static final int UNBOUNDED = -1;
+
+        private final Stats stats;
+
+        MeteredExecutor(String name, int threads, int queueCapacity, int priority) {
+            super(threads, threads, 30, TimeUnit.SECONDS, newQueue(queueCapacity),
+                    new NamedThreadFactory(name, priority), new CountingRejection());
+            this.stats = new Stats(name);
+            allowCoreThreadTimeOut(true);
+        }
+
+        private static BlockingQueue<Runnable> newQueue(int capacity) {
+            return capacity == UNBOUNDED ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(new TimedTask(command));
+            stats.onQueued(getQueue().size());
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            ((TimedTask) runnable).startedAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable throwable) {
+            TimedTask timed = (TimedTask) runnable;
+            long now = SystemClock.elapsedRealtime();
+            stats.onFinished(timed.startedAt - timed.queuedAt, now - timed.startedAt);
+        }
+    }
+
+    /**
+     * Counts and logs a rejection, then runs the task on the submitting thread. The main
+     * thread must not block on disk or network work, so from there the task gets a thread
+     * of its own from the executor's factory.
+     */
+    private static final class CountingRejection implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            Stats stats = ((MeteredExecutor) executor).stats;
+            stats.rejected.incrementAndGet();
+            boolean onMain = Looper.myLooper() == Looper.getMainLooper();
+            Log.w(TAG, stats.name + " queue full (" + executor.getQueue().size() + "), running task on "
+                    + (onMain ? "overflow thread" : Thread.currentThread().getName()));
+            if (onMain) {
+                executor.getThreadFactory().newThread(runnable).start();
+            } else {
+                runnable.run();
+            }
+        }
+    }
+
+    private static final class MainExecutor implements Executor {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        private final Stats stats = new Stats("main");
+        private final AtomicInteger pending = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable command) {
+            long queuedAt = SystemClock.elapsedRealtime();
+            stats.onQueued(pending.incrementAndGet());
+            handler.post(() -> {
+                pending.decrementAndGet();
+                long startedAt = SystemClock.elapsedRealtime();
+                try {
+                    command.run();
+                } finally {
+                    stats.onFinished(startedAt - queuedAt, SystemClock.elapsedRealtime() - startedAt);
+                }
+            });
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+        private final int priority;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String name, int priority) {
+            this.name = name;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(() -> {
+                Process.setThreadPriority(priority);
+                runnable.run();
+            }, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
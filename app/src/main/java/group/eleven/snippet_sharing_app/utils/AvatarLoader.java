@@ -0,0 +1,53 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.graphics.drawable.Drawable;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+
+import group.eleven.snippet_sharing_app.api.NetworkQualityEstimator;
+
+/**
+ * Loads avatars at the exact pixel size of their view, scaled down on slow networks.
+ * Preloaders build requests through {@link #request} so the preloaded image is the
+ * same cache entry the view asks for.
+ */
+public final class AvatarLoader {
+
+    private AvatarLoader() {
+        // Utility class
+    }
+
+    /**
+     * Avatar request decoded at sizePx x sizePx
+     */
+    public static RequestBuilder<Drawable> request(RequestManager glide, String url, int sizePx,
+                                                   @DrawableRes int placeholder) {
+        return glide.load(url)
+                .override(sizePx)
+                .sizeMultiplier(NetworkQualityEstimator.getInstance().getAvatarScale())
+                .placeholder(placeholder)
+                .error(placeholder);
+    }
+
+    /**
+     * Avatar request sized for a view, using its fixed layout size when it has one.
+     * Call into(view) on the result, adding transforms such as circleCrop() if needed.
+     */
+    public static RequestBuilder<Drawable> forView(RequestManager glide, String url, ImageView view,
+                                                   @DrawableRes int placeholder) {
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params != null && params.width > 0) {
+            return request(glide, url, params.width, placeholder);
+        }
+        // Let Glide measure the view
+        return glide.load(url)
+                .sizeMultiplier(NetworkQualityEstimator.getInstance().getAvatarScale())
+                .placeholder(placeholder)
+                .error(placeholder);
+    }
+}
@@ -0,0 +1,45 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.graphics.Color;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed "#RRGGBB" colors, keyed by their hex string. Language colors repeat across every
+ * card in a list, so after the first bind a lookup costs a hash probe instead of a parse
+ * (and, for bad values, a thrown exception).
+ */
+public final class ColorCache {
+
+    // Marks a string Color.parseColor rejected; not a valid 32-bit color
+    private static final long INVALID = Long.MIN_VALUE;
+
+    private static final Map<String, Long> colors = new ConcurrentHashMap<>();
+
+    private ColorCache() {
+        // Utility class
+    }
+
+    /**
+     * Parse a color string, or return fallback if it is null or malformed
+     */
+    public static int parse(String hex, int fallback) {
+        if (hex == null) {
+            return fallback;
+        }
+        Long cached = colors.get(hex);
+        if (cached == null) {
+            long value;
+            try {
+                value = Color.parseColor(hex);
+            } catch (RuntimeException e) {
+                // Unknown name, or an empty string
+                value = INVALID;
+            }
+            cached = value;
+            colors.put(hex, cached);
+        }
+        return cached == INVALID ? fallback : (int) (long) cached;
+    }
+}
@@ -0,0 +1,452 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.FrameMetrics;
+import android.view.ViewTreeObserver;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import group.eleven.snippet_sharing_app.BuildConfig;
+
+/**
+ * Per-screen frame timing, written to a rotating log under files/perf.
+ *
+ * A tracked screen records the total duration of every frame its window renders, tagged
+ * with what the screen was doing at the time: scrolling, loading, or binding rows. While
+ * the screen is started, durations go into per-state histograms; when it stops, the
+ * percentiles, jank rate and the slowest frames are appended to frames.log. Adapter bind
+ * and syntax highlight time reported through {@link #recordBind} and
+ * {@link #recordHighlight} is attached to the next frame of the most recently started
+ * screen, which is the one in front.
+ *
+ * Only debug builds record. In release builds {@link #track} returns a session that does
+ * nothing, so screens and adapters need no checks of their own.
+ *
+ * Pull the logs from a bug report, or with
+ * {@code adb shell run-as group.eleven.snippet_sharing_app cat files/perf/frames.log}.
+ */
+public final class FrameMonitor {
+
+    private static final String TAG = "FrameMonitor";
+
+    private static final String DIR_NAME = "perf";
+    private static final String FILE_NAME = "frames.log";
+    private static final long MAX_FILE_BYTES = 256 * 1024;
+    private static final int MAX_BACKUPS = 2;
+
+    private static final long FROZEN_FRAME_NANOS = 700_000_000L;
+    private static final int WORST_FRAMES = 5;
+
+    // UI state flags attached to each frame
+    private static final int STATE_SCROLLING = 1;
+    private static final int STATE_LOADING = 1 << 1;
+    private static final int STATE_BINDING = 1 << 2;
+
+    // The draw listener and per-frame bookkeeping are not free; release builds skip them
+    private static final boolean ENABLED = BuildConfig.DEBUG;
+
+    private static FrameMonitor instance;
+
+    // Started sessions, front screen first; adapter work is charged to it. Main thread only.
+    private static final ArrayDeque<Session> startedSessions = new ArrayDeque<>();
+
+    private final File dir;
+    private final Handler metricsHandler;
+
+    private FrameMonitor(Context context) {
+        this.dir = new File(context.getFilesDir(), DIR_NAME);
+        if (ENABLED) {
+            HandlerThread thread = new HandlerThread("frame-metrics");
+            thread.start();
+            this.metricsHandler = new Handler(thread.getLooper());
+        } else {
+            this.metricsHandler = null;
+        }
+    }
+
+    public static synchronized FrameMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new FrameMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Record frames of window while owner is started, and log a summary each time it stops.
+     * In release builds the session records nothing.
+     */
+    public Session track(String screen, Window window, LifecycleOwner owner) {
+        Session session = new Session(screen, window);
+        if (ENABLED) {
+            owner.getLifecycle().addObserver(session);
+        }
+        return session;
+    }
+
+    /**
+     * Time spent binding one row; attached to the next frame drawn
+     */
+    public static void recordBind(long nanos) {
+        Session session = frontSession();
+        if (session != null) {
+            session.pendingBindNanos += nanos;
+            session.pendingBinds++;
+        }
+    }
+
+    /**
+     * Time spent building highlighted code; attached to the next frame drawn
+     */
+    public static void recordHighlight(long nanos) {
+        Session session = frontSession();
+        if (session != null) {
+            session.pendingHighlightNanos += nanos;
+        }
+    }
+
+    private static Session frontSession() {
+        if (!ENABLED || Looper.myLooper() != Looper.getMainLooper()) {
+            return null;
+        }
+        return startedSessions.peekFirst();
+    }
+
+    /**
+     * Main-thread work done for one drawn frame
+     */
+    private static final class FrameWork {
+        final int state;
+        final long bindNanos;
+        final long highlightNanos;
+        final int binds;
+
+        FrameWork(int state, long bindNanos, long highlightNanos, int binds) {
+            this.state = state;
+            this.bindNanos = bindNanos;
+            this.highlightNanos = highlightNanos;
+            this.binds = binds;
+        }
+    }
+
+    /**
+     * Frame durations in 1ms buckets up to 250ms, with one overflow bucket
+     */
+    private static final class Histogram {
+        private static final int BUCKETS = 251;
+
+        final int[] counts = new int[BUCKETS];
+        int total;
+        int janky;
+        int frozen;
+
+        void add(long nanos, long budgetNanos) {
+            int bucket = (int) Math.min(BUCKETS - 1, nanos / 1_000_000);
+            counts[bucket]++;
+            total++;
+            if (nanos > budgetNanos) janky++;
+            if (nanos > FROZEN_FRAME_NANOS) frozen++;
+        }
+
+        /**
+         * Upper bound in ms of the bucket holding the given percentile
+         */
+        int percentile(double p) {
+            int target = (int) Math.ceil(total * p);
+            int seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return i + 1;
+                }
+            }
+            return BUCKETS;
+        }
+
+        String summary(String label) {
+            if (total == 0) {
+                return null;
+            }
+            return String.format(Locale.US, "  %-9s n=%d p50=%dms p90=%dms p95=%dms p99=%dms janky=%.1f%% frozen=%d",
+                    label, total, percentile(0.50), percentile(0.90), percentile(0.95), percentile(0.99),
+                    janky * 100.0 / total, frozen);
+        }
+    }
+
+    /**
+     * One slow frame and the work attached to it
+     */
+    private static final class SlowFrame {
+        final long totalNanos;
+        final FrameWork work;
+
+        SlowFrame(long totalNanos, FrameWork work) {
+            this.totalNanos = totalNanos;
+            this.work = work;
+        }
+    }
+
+    /**
+     * Frame recording for one screen. Create with {@link #track}.
+     */
+    public final class Session implements DefaultLifecycleObserver {
+        private final String screen;
+        private final Window window;
+        private final List<RecyclerView> scrollingLists = new ArrayList<>();
+        // Sealed on the main thread at each draw, consumed in order by the metrics thread
+        private final ConcurrentLinkedQueue<FrameWork> drawnFrames = new ConcurrentLinkedQueue<>();
+        private final ViewTreeObserver.OnDrawListener drawListener = this::onDraw;
+        private final Window.OnFrameMetricsAvailableListener metricsListener = this::onFrameMetrics;
+
+        // Guarded by this; written on the metrics thread, read when the session stops
+        private final Histogram all = new Histogram();
+        private final Histogram scrolling = new Histogram();
+        private final Histogram loading = new Histogram();
+        private final Histogram binding = new Histogram();
+        private final Histogram idle = new Histogram();
+        private final List<SlowFrame> worst = new ArrayList<>();
+
+        // Work reported from adapters since this window last drew. Main thread only.
+        private long pendingBindNanos;
+        private long pendingHighlightNanos;
+        private int pendingBinds;
+
+        private int scrollingCount;
+        private boolean loadingState;
+        private long budgetNanos;
+        private long startedAt;
+        private boolean listening;
+
+        Session(String screen, Window window) {
+            this.screen = screen;
+            this.window = window;
+        }
+
+        /**
+         * Tag frames as scrolling while list is being dragged or flung
+         */
+        public void trackScrolling(RecyclerView list) {
+            if (!ENABLED || scrollingLists.contains(list)) {
+                return;
+            }
+            scrollingLists.add(list);
+            list.addOnScrollListener(new RecyclerView.OnScrollListener() {
+                private boolean moving;
+
+                @Override
+                public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+                    boolean nowMoving = newState != RecyclerView.SCROLL_STATE_IDLE;
+                    if (nowMoving != moving) {
+                        moving = nowMoving;
+                        scrollingCount += nowMoving ? 1 : -1;
+                    }
+                }
+            });
+        }
+
+        /**
+         * Tag frames as loading while the screen waits for data
+         */
+        public void setLoading(boolean loading) {
+            loadingState = loading;
+        }
+
+        @Override
+        public void onStart(@NonNull LifecycleOwner owner) {
+            float refreshRate = window.getWindowManager().getDefaultDisplay().getRefreshRate();
+            budgetNanos = (long) (1_000_000_000L / (refreshRate > 0 ? refreshRate : 60f));
+            startedAt = SystemClock.elapsedRealtime();
+            drawnFrames.clear();
+            try {
+                window.addOnFrameMetricsAvailableListener(metricsListener, metricsHandler);
+                window.getDecorView().getViewTreeObserver().addOnDrawListener(drawListener);
+                listening = true;
+                startedSessions.remove(this);
+                startedSessions.addFirst(this);
+            } catch (IllegalStateException e) {
+                // Frame metrics need hardware acceleration
+                Log.w(TAG, "Frame metrics unavailable for " + screen, e);
+            }
+        }
+
+        @Override
+        public void onStop(@NonNull LifecycleOwner owner) {
+            if (!listening) {
+                return;
+            }
+            listening = false;
+            startedSessions.remove(this);
+            window.removeOnFrameMetricsAvailableListener(metricsListener);
+            window.getDecorView().getViewTreeObserver().removeOnDrawListener(drawListener);
+            pendingBindNanos = 0;
+            pendingHighlightNanos = 0;
+            pendingBinds = 0;
+            String report = drainReport(SystemClock.elapsedRealtime() - startedAt);
+            if (report != null) {
+                AppExecutors.getInstance().diskWriter().execute(() -> append(report));
+            }
+        }
+
+        private void onDraw() {
+            int state = 0;
+            if (scrollingCount > 0) state |= STATE_SCROLLING;
+            if (loadingState) state |= STATE_LOADING;
+            if (pendingBinds > 0) state |= STATE_BINDING;
+            drawnFrames.add(new FrameWork(state, pendingBindNanos, pendingHighlightNanos, pendingBinds));
+            pendingBindNanos = 0;
+            pendingHighlightNanos = 0;
+            pendingBinds = 0;
+        }
+
+        private void onFrameMetrics(Window window, FrameMetrics metrics, int dropCountSinceLastInvocation) {
+            // Reports dropped by the platform still had draws; skip their work to stay aligned
+            for (int i = 0; i < dropCountSinceLastInvocation; i++) {
+                drawnFrames.poll();
+            }
+            FrameWork work = drawnFrames.poll();
+            if (work == null) {
+                work = new FrameWork(0, 0, 0, 0);
+            }
+            long total = metrics.getMetric(FrameMetrics.TOTAL_DURATION);
+            synchronized (this) {
+                all.add(total, budgetNanos);
+                if ((work.state & STATE_SCROLLING) != 0) scrolling.add(total, budgetNanos);
+                if ((work.state & STATE_LOADING) != 0) loading.add(total, budgetNanos);
+                if ((work.state & STATE_BINDING) != 0) binding.add(total, budgetNanos);
+                if (work.state == 0) idle.add(total, budgetNanos);
+                if (total > budgetNanos) {
+                    addWorst(new SlowFrame(total, work));
+                }
+            }
+        }
+
+        private void addWorst(SlowFrame frame) {
+            if (worst.size() < WORST_FRAMES) {
+                worst.add(frame);
+            } else {
+                int smallest = 0;
+                for (int i = 1; i < worst.size(); i++) {
+                    if (worst.get(i).totalNanos < worst.get(smallest).totalNanos) smallest = i;
+                }
+                if (frame.totalNanos <= worst.get(smallest).totalNanos) return;
+                worst.set(smallest, frame);
+            }
+        }
+
+        /**
+         * Summary of the frames since the last call, or null if none were drawn. Resets.
+         */
+        private synchronized String drainReport(long sessionMs) {
+            if (all.total == 0) {
+                return null;
+            }
+            StringBuilder report = new StringBuilder();
+            report.append(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date()))
+                    .append(' ').append(screen)
+                    .append(String.format(Locale.US, " %.1fs, %d frames, budget %.1fms%n",
+                            sessionMs / 1000.0, all.total, budgetNanos / 1_000_000.0));
+            appendLine(report, all.summary("all"));
+            appendLine(report, idle.summary("idle"));
+            appendLine(report, scrolling.summary("scrolling"));
+            appendLine(report, loading.summary("loading"));
+            appendLine(report, binding.summary("binding"));
+            if (!worst.isEmpty()) {
+                Collections.sort(worst, (a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+                report.append("  slowest:");
+                for (SlowFrame frame : worst) {
+                    report.append(String.format(Locale.US, " %.1fms[%s binds=%d bind=%.1fms highlight=%.1fms]",
+                            frame.totalNanos / 1_000_000.0, describe(frame.work.state), frame.work.binds,
+                            frame.work.bindNanos / 1_000_000.0, frame.work.highlightNanos / 1_000_000.0));
+                }
+                report.append('\n');
+            }
+            resetHistograms();
+            return report.toString();
+        }
+
+        private void resetHistograms() {
+            for (Histogram histogram : new Histogram[] {all, idle, scrolling, loading, binding}) {
+                Arrays.fill(histogram.counts, 0);
+                histogram.total = 0;
+                histogram.janky = 0;
+                histogram.frozen = 0;
+            }
+            worst.clear();
+        }
+    }
+
+    private static void appendLine(StringBuilder report, String line) {
+        if (line != null) {
+            report.append(line).append('\n');
+        }
+    }
+
+    private static String describe(int state) {
+        if (state == 0) {
+            return "idle";
+        }
+        StringBuilder names = new StringBuilder();
+        if ((state & STATE_SCROLLING) != 0) names.append("scrolling,");
+        if ((state & STATE_LOADING) != 0) names.append("loading,");
+        if ((state & STATE_BINDING) != 0) names.append("binding,");
+        names.setLength(names.length() - 1);
+        return names.toString();
+    }
+
+    /**
+     * Append a report, rotating frames.log to frames.1.log (and so on) when it gets large.
+     * Runs on the disk writer thread.
+     */
+    private void append(String report) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "Could not create " + dir);
+            return;
+        }
+        File file = new File(dir, FILE_NAME);
+        if (file.length() + report.length() > MAX_FILE_BYTES) {
+            rotate();
+        }
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write(report);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write frame report", e);
+        }
+        Log.d(TAG, report);
+    }
+
+    private void rotate() {
+        new File(dir, backupName(MAX_BACKUPS)).delete();
+        for (int i = MAX_BACKUPS - 1; i >= 0; i--) {
+            File from = new File(dir, i == 0 ? FILE_NAME : backupName(i));
+            if (from.exists()) {
+                from.renameTo(new File(dir, backupName(i + 1)));
+            }
+        }
+    }
+
+    private static String backupName(int index) {
+        return "frames." + index + ".log";
+    }
+}
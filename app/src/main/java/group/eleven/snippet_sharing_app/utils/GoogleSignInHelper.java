@@ -17,8 +17,6 @@ import com.google.android.libraries.identity.googleid.GetGoogleIdOption;
 import com.google.android.libraries.identity.googleid.GetSignInWithGoogleOption;
 import com.google.android.libraries.identity.googleid.GoogleIdTokenCredential;
 
-import java.util.concurrent.Executors;
-
 import group.eleven.snippet_sharing_app.BuildConfig;
 
 /**
@@ -62,7 +60,7 @@ public class GoogleSignInHelper {
                 activity,
                 oneTapRequest,
                 null,
-                Executors.newSingleThreadExecutor(),
+                AppExecutors.getInstance().io(),
                 new CredentialManagerCallback<GetCredentialResponse, GetCredentialException>() {
                     @Override
                     public void onResult(GetCredentialResponse result) {
@@ -96,7 +94,7 @@ public class GoogleSignInHelper {
                 activity,
                 request,
                 null,
-                Executors.newSingleThreadExecutor(),
+                AppExecutors.getInstance().io(),
                 new CredentialManagerCallback<GetCredentialResponse, GetCredentialException>() {
                     @Override
                     public void onResult(GetCredentialResponse result) {
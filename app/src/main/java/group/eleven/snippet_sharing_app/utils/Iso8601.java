@@ -0,0 +1,153 @@
+package group.eleven.snippet_sharing_app.utils;
+
+/**
+ * Parses the API's ISO-8601 timestamps ("2026-02-20T07:52:12.000000Z") to epoch millis
+ * without SimpleDateFormat, Date or Calendar. Accepts a date alone, "T" or space before the
+ * time, optional seconds and fraction, and a "Z" or +HH:MM / +HHMM offset. A timestamp
+ * without an offset is taken as UTC, which is what the backend sends. Dates that do not
+ * exist, such as April 31 or February 29 outside a leap year, are rejected.
+ */
+public final class Iso8601 {
+
+    /**
+     * Returned for null or malformed input
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private Iso8601() {
+        // Utility class
+    }
+
+    public static long parse(String value) {
+        if (value == null) {
+            return INVALID;
+        }
+        int length = value.length();
+        if (length < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return INVALID;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        long offsetMinutes = 0;
+        int pos = 10;
+        if (pos < length && (value.charAt(pos) == 'T' || value.charAt(pos) == ' ')) {
+            if (length < pos + 6 || value.charAt(pos + 3) != ':') {
+                return INVALID;
+            }
+            hour = digits(value, pos + 1, 2);
+            minute = digits(value, pos + 4, 2);
+            pos += 6;
+            if (pos < length && value.charAt(pos) == ':') {
+                second = digits(value, pos + 1, 2);
+                pos += 3;
+                if (pos < length && value.charAt(pos) == '.') {
+                    // Keep milliseconds; microseconds and beyond are dropped
+                    pos++;
+                    if (pos >= length || !isDigit(value.charAt(pos))) {
+                        return INVALID;
+                    }
+                    int scale = 100;
+                    while (pos < length && isDigit(value.charAt(pos))) {
+                        millis += (value.charAt(pos) - '0') * scale;
+                        scale /= 10;
+                        pos++;
+                    }
+                }
+            }
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+                return INVALID;
+            }
+
+            if (pos < length) {
+                char zone = value.charAt(pos);
+                if (zone == 'Z' || zone == 'z') {
+                    pos++;
+                } else if (zone == '+' || zone == '-') {
+                    int offsetHours = digits(value, pos + 1, 2);
+                    int offsetStart = pos + 3;
+                    if (offsetStart < length && value.charAt(offsetStart) == ':') {
+                        offsetStart++;
+                    }
+                    int offsetMins = offsetStart < length ? digits(value, offsetStart, 2) : 0;
+                    if (offsetHours < 0 || offsetHours > 18 || offsetMins < 0 || offsetMins > 59) {
+                        return INVALID;
+                    }
+                    offsetMinutes = offsetHours * 60L + offsetMins;
+                    if (zone == '-') {
+                        offsetMinutes = -offsetMinutes;
+                    }
+                    pos = offsetStart < length ? offsetStart + 2 : offsetStart;
+                }
+            }
+        }
+        if (pos != length) {
+            return INVALID;
+        }
+
+        long days = daysFromCivil(year, month, day);
+        return days * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60L + second) * 1000L + millis
+                - offsetMinutes * MILLIS_PER_MINUTE;
+    }
+
+    static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Parse count ASCII digits at start, or -1 if any is missing or not a digit
+     */
+    private static int digits(String value, int start, int count) {
+        if (start + count > value.length()) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,80 @@
+package group.eleven.snippet_sharing_app.utils;
+
+/**
+ * Formats epoch millis as "5 min ago", "3h ago", "2d ago", "1w ago", "4mo ago" or "2y ago".
+ *
+ * Each label is built the first time its bucket is needed and then reused, so refreshing
+ * a screen full of timestamps every minute does not create new strings. Use {@link #DEFAULT}
+ * for plain labels and {@link #UPDATED} for "Updated 5 min ago".
+ */
+public final class RelativeTime {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final long WEEK = 7 * DAY;
+    private static final long MONTH = 30 * DAY;
+    private static final long YEAR = 365 * DAY;
+    private static final int MAX_YEARS = 99;
+
+    public static final RelativeTime DEFAULT = new RelativeTime("", "Just now");
+    public static final RelativeTime UPDATED = new RelativeTime("Updated ", "Updated just now");
+
+    private final String prefix;
+    private final String justNow;
+    // Labels by count, filled in lazily. A race only builds the same string twice.
+    private final String[] minutes = new String[60];
+    private final String[] hours = new String[24];
+    private final String[] days = new String[7];
+    private final String[] weeks = new String[5];
+    private final String[] months = new String[13];
+    private final String[] years = new String[MAX_YEARS + 1];
+
+    private RelativeTime(String prefix, String justNow) {
+        this.prefix = prefix;
+        this.justNow = justNow;
+    }
+
+    public String format(long epochMillis) {
+        return format(epochMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Label for epochMillis as seen at now, or "" for {@link Iso8601#INVALID}
+     */
+    public String format(long epochMillis, long now) {
+        if (epochMillis == Iso8601.INVALID) {
+            return "";
+        }
+        // Clock skew can put server times slightly in the future
+        long diff = Math.max(0, now - epochMillis);
+        if (diff < MINUTE) {
+            return justNow;
+        }
+        if (diff < HOUR) {
+            return label(minutes, (int) (diff / MINUTE), " min ago");
+        }
+        if (diff < DAY) {
+            return label(hours, (int) (diff / HOUR), "h ago");
+        }
+        if (diff < WEEK) {
+            return label(days, (int) (diff / DAY), "d ago");
+        }
+        if (diff < MONTH) {
+            return label(weeks, (int) (diff / WEEK), "w ago");
+        }
+        if (diff < YEAR) {
+            return label(months, (int) (diff / MONTH), "mo ago");
+        }
+        return label(years, (int) Math.min(MAX_YEARS, diff / YEAR), "y ago");
+    }
+
+    private String label(String[] cache, int count, String suffix) {
+        String label = cache[count];
+        if (label == null) {
+            label = prefix + count + suffix;
+            cache[count] = label;
+        }
+        return label;
+    }
+}
@@ -0,0 +1,295 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.security.crypto.MasterKey;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypted key/value store for session credentials.
+ *
+ * EncryptedSharedPreferences goes through the Android Keystore on every read and write,
+ * which is what made it too slow for the session path. This store uses envelope encryption
+ * instead: a random AES-256 data key is wrapped by a Keystore master key and saved next to
+ * the data. The data key is unwrapped once per process (a single Keystore call), every value
+ * is decrypted once into memory, and reads after that are plain map lookups.
+ * Writes are grouped through {@link Editor} so a login or logout is one preferences transaction.
+ */
+public final class SecureSessionStore {
+
+    private static final String TAG = "SecureSessionStore";
+    private static final String PREF_NAME = "SnippetAppSecureSession";
+    private static final String KEY_WRAPPED_DATA_KEY = "__wrapped_data_key";
+    private static final String VALUE_PREFIX = "v_";
+
+    private static final String ANDROID_KEYSTORE = "AndroidKeyStore";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int DATA_KEY_LENGTH = 32;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static volatile SecureSessionStore instance;
+
+    private final SharedPreferences prefs;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, String> values = new HashMap<>();
+    private SecretKey dataKey;
+
+    @VisibleForTesting
+    SecureSessionStore(Context context) {
+        this.prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        long start = System.nanoTime();
+        this.dataKey = loadOrCreateDataKey(context);
+        loadValues();
+        Log.d(TAG, "Loaded " + values.size() + " values in "
+                + (System.nanoTime() - start) / 1_000_000 + "ms");
+    }
+
+    /**
+     * Store using the given data key instead of one wrapped by the Keystore, which local
+     * tests do not have. A null key gives a memory-only store, as on a broken Keystore.
+     */
+    @VisibleForTesting
+    SecureSessionStore(Context context, @Nullable SecretKey dataKey) {
+        this.prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.dataKey = dataKey;
+        loadValues();
+    }
+
+    /**
+     * Get singleton instance. The first call unwraps the data key and decrypts all values.
+     */
+    public static SecureSessionStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SecureSessionStore.class) {
+                if (instance == null) {
+                    instance = new SecureSessionStore(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    static void setInstanceForTesting(@Nullable SecureSessionStore store) {
+        synchronized (SecureSessionStore.class) {
+            instance = store;
+        }
+    }
+
+    /**
+     * Whether values reach disk. False when the Keystore is unusable and the session only
+     * lasts as long as the process.
+     */
+    public synchronized boolean isPersistent() {
+        return dataKey != null;
+    }
+
+    /**
+     * Get a decrypted value from memory
+     */
+    public synchronized String getString(String key, String defaultValue) {
+        String value = values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public synchronized boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    /**
+     * Start a batch of changes. Nothing is encrypted or written until apply() or commit().
+     */
+    public Editor edit() {
+        return new Editor();
+    }
+
+    /**
+     * Batch of pending changes applied to memory and disk in one transaction
+     */
+    public final class Editor {
+        // null value means "remove"
+        private final Map<String, String> pending = new LinkedHashMap<>();
+        private boolean clear;
+
+        private Editor() {
+        }
+
+        public Editor putString(String key, String value) {
+            pending.put(key, value);
+            return this;
+        }
+
+        public Editor remove(String key) {
+            pending.put(key, null);
+            return this;
+        }
+
+        public Editor clear() {
+            clear = true;
+            pending.clear();
+            return this;
+        }
+
+        /**
+         * Apply changes to memory immediately and write to disk asynchronously
+         */
+        public void apply() {
+            SharedPreferences.Editor editor = writeTo(this);
+            if (editor != null) {
+                editor.apply();
+            }
+        }
+
+        /**
+         * Apply changes to memory and write to disk synchronously
+         * @return true if the disk write succeeded, false if it failed or the store is
+         * memory-only and nothing was written
+         */
+        public boolean commit() {
+            SharedPreferences.Editor editor = writeTo(this);
+            return editor != null && editor.commit();
+        }
+    }
+
+    private synchronized SharedPreferences.Editor writeTo(Editor batch) {
+        SharedPreferences.Editor editor = prefs.edit();
+        if (batch.clear) {
+            values.clear();
+            editor.clear();
+            if (dataKey != null) {
+                // Keep the wrapped key so the next process does not need to create a new one
+                editor.putString(KEY_WRAPPED_DATA_KEY, prefs.getString(KEY_WRAPPED_DATA_KEY, null));
+            }
+        }
+
+        for (Map.Entry<String, String> entry : batch.pending.entrySet()) {
+            String key = entry.getKey();
+            String value = entry.getValue();
+            if (value == null) {
+                values.remove(key);
+                editor.remove(VALUE_PREFIX + key);
+                continue;
+            }
+            if (value.equals(values.get(key))) {
+                continue;
+            }
+            values.put(key, value);
+            if (dataKey != null) {
+                try {
+                    editor.putString(VALUE_PREFIX + key, encrypt(key, value));
+                } catch (Exception e) {
+                    Log.e(TAG, "Failed to encrypt " + key + ", keeping it in memory only", e);
+                    editor.remove(VALUE_PREFIX + key);
+                }
+            }
+        }
+
+        // Without a data key values live in memory only, never on disk in plaintext
+        return dataKey != null ? editor : null;
+    }
+
+    private void loadValues() {
+        if (dataKey == null) return;
+
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            String prefKey = entry.getKey();
+            if (!prefKey.startsWith(VALUE_PREFIX) || !(entry.getValue() instanceof String)) {
+                continue;
+            }
+            String key = prefKey.substring(VALUE_PREFIX.length());
+            try {
+                values.put(key, decrypt(key, (String) entry.getValue()));
+            } catch (Exception e) {
+                Log.w(TAG, "Dropping undecryptable value for " + key, e);
+                prefs.edit().remove(prefKey).apply();
+            }
+        }
+    }
+
+    /**
+     * Unwrap the data key with the Keystore master key, or create and wrap a new one.
+     * Returns null if the Keystore is unusable on this device.
+     */
+    private SecretKey loadOrCreateDataKey(Context context) {
+        try {
+            MasterKey masterKey = new MasterKey.Builder(context)
+                    .setKeyScheme(MasterKey.KeyScheme.AES256_GCM)
+                    .build();
+            KeyStore keyStore = KeyStore.getInstance(ANDROID_KEYSTORE);
+            keyStore.load(null);
+            Key wrappingKey = keyStore.getKey(masterKey.getKeyAlias(), null);
+
+            String wrapped = prefs.getString(KEY_WRAPPED_DATA_KEY, null);
+            if (wrapped != null) {
+                try {
+                    byte[] blob = Base64.decode(wrapped, Base64.NO_WRAP);
+                    Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+                    cipher.init(Cipher.DECRYPT_MODE, wrappingKey,
+                            new GCMParameterSpec(TAG_LENGTH_BITS, blob, 0, IV_LENGTH));
+                    byte[] raw = cipher.doFinal(blob, IV_LENGTH, blob.length - IV_LENGTH);
+                    return new SecretKeySpec(raw, "AES");
+                } catch (Exception e) {
+                    // Master key was rotated or wiped (e.g. restored backup); old values are unreadable
+                    Log.w(TAG, "Could not unwrap data key, resetting secure store", e);
+                    prefs.edit().clear().commit();
+                }
+            }
+
+            byte[] raw = new byte[DATA_KEY_LENGTH];
+            random.nextBytes(raw);
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, wrappingKey);
+            byte[] iv = cipher.getIV();
+            byte[] sealed = cipher.doFinal(raw);
+            byte[] blob = new byte[iv.length + sealed.length];
+            System.arraycopy(iv, 0, blob, 0, iv.length);
+            System.arraycopy(sealed, 0, blob, iv.length, sealed.length);
+            prefs.edit().putString(KEY_WRAPPED_DATA_KEY, Base64.encodeToString(blob, Base64.NO_WRAP)).commit();
+            return new SecretKeySpec(raw, "AES");
+        } catch (Exception e) {
+            Log.e(TAG, "Keystore unavailable, session will not be persisted", e);
+            return null;
+        }
+    }
+
+    private String encrypt(String key, String value) throws Exception {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, dataKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+        // Bind the ciphertext to its key so values cannot be swapped on disk
+        cipher.updateAAD(key.getBytes(StandardCharsets.UTF_8));
+        byte[] sealed = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        byte[] blob = new byte[IV_LENGTH + sealed.length];
+        System.arraycopy(iv, 0, blob, 0, IV_LENGTH);
+        System.arraycopy(sealed, 0, blob, IV_LENGTH, sealed.length);
+        return Base64.encodeToString(blob, Base64.NO_WRAP);
+    }
+
+    private String decrypt(String key, String encoded) throws Exception {
+        byte[] blob = Base64.decode(encoded, Base64.NO_WRAP);
+        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+        cipher.init(Cipher.DECRYPT_MODE, dataKey, new GCMParameterSpec(TAG_LENGTH_BITS, blob, 0, IV_LENGTH));
+        cipher.updateAAD(key.getBytes(StandardCharsets.UTF_8));
+        byte[] plain = cipher.doFinal(blob, IV_LENGTH, blob.length - IV_LENGTH);
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+}
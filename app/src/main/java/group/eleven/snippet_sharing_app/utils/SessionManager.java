@@ -4,13 +4,16 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
 import group.eleven.snippet_sharing_app.data.model.User;
 
 import com.google.gson.Gson;
 
 /**
- * Session manager for storing and retrieving user session data securely
- * NOTE: Temporarily using regular SharedPreferences for debugging
+ * Session manager for storing and retrieving user session data securely.
+ * Credentials (auth token, user, password reset data) live in {@link SecureSessionStore};
+ * non-sensitive flags stay in regular SharedPreferences.
  */
 public class SessionManager {
     private static final String TAG = "SessionManager";
@@ -22,15 +25,68 @@ public class SessionManager {
     private static final String KEY_PASSWORD_RESET_TOKEN = "password_reset_token";
     private static final String KEY_PASSWORD_RESET_EMAIL = "password_reset_email";
 
+    private static final String[] SECURE_KEYS = {
+            KEY_AUTH_TOKEN, KEY_USER, KEY_PASSWORD_RESET_TOKEN, KEY_PASSWORD_RESET_EMAIL
+    };
+
+    private static boolean legacyDataMigrated = false;
+
     private final SharedPreferences sharedPreferences;
+    private final SecureSessionStore secureStore;
     private final Gson gson;
 
     public SessionManager(Context context) {
-        Log.d(TAG, "Initializing SessionManager");
-        // Using regular SharedPreferences for debugging (temporarily disabled encryption)
         this.sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.secureStore = SecureSessionStore.getInstance(context);
         this.gson = new Gson();
-        Log.d(TAG, "SessionManager initialized successfully");
+        migrateLegacyPlaintextData();
+    }
+
+    /**
+     * Move credentials written by older builds (plain SharedPreferences) into the secure store.
+     * Runs once per process. The lock is held until the copy is done, so a SessionManager
+     * built on another thread meanwhile waits instead of reading an empty store.
+     */
+    private void migrateLegacyPlaintextData() {
+        synchronized (SessionManager.class) {
+            if (legacyDataMigrated) return;
+
+            SecureSessionStore.Editor secureEditor = null;
+            SharedPreferences.Editor plainEditor = null;
+            for (String key : SECURE_KEYS) {
+                String value = sharedPreferences.getString(key, null);
+                if (value == null) continue;
+
+                if (secureEditor == null) {
+                    secureEditor = secureStore.edit();
+                    plainEditor = sharedPreferences.edit();
+                }
+                if (!secureStore.contains(key)) {
+                    secureEditor.putString(key, value);
+                }
+                plainEditor.remove(key);
+            }
+
+            if (secureEditor != null && !secureEditor.commit()) {
+                // The plaintext copy stays until the secure store has it on disk. A memory-only
+                // store cannot get there in this process; a failed disk write is tried again.
+                if (secureStore.isPersistent()) {
+                    Log.w(TAG, "Could not write migrated session data, will retry");
+                    return;
+                }
+            } else if (plainEditor != null) {
+                plainEditor.apply();
+                Log.d(TAG, "Migrated plaintext session data to secure store");
+            }
+            legacyDataMigrated = true;
+        }
+    }
+
+    @VisibleForTesting
+    static void resetLegacyMigrationForTesting() {
+        synchronized (SessionManager.class) {
+            legacyDataMigrated = false;
+        }
     }
 
     /**
@@ -54,11 +110,16 @@ public class SessionManager {
         Log.d(TAG, "createLoginSession: Token length = " + token.length());
         Log.d(TAG, "createLoginSession: User = " + user.getUsername());
 
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_AUTH_TOKEN, token);
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        boolean success = editor.commit();
+        boolean success = secureStore.edit()
+                .putString(KEY_AUTH_TOKEN, token)
+                .putString(KEY_USER, gson.toJson(user))
+                .commit();
+        if (!success && !secureStore.isPersistent()) {
+            // No usable Keystore: the session is kept in memory for this process only
+            Log.w(TAG, "createLoginSession: Secure store is memory-only");
+            success = true;
+        }
+        success = success && sharedPreferences.edit().putBoolean(KEY_IS_LOGGED_IN, true).commit();
 
         Log.d(TAG, "createLoginSession: Commit result = " + success);
 
@@ -82,14 +143,23 @@ public class SessionManager {
      * Get auth token
      */
     public String getAuthToken() {
-        return sharedPreferences.getString(KEY_AUTH_TOKEN, null);
+        return secureStore.getString(KEY_AUTH_TOKEN, null);
+    }
+
+    /**
+     * Replace the auth token after a refresh, keeping the rest of the session
+     */
+    public void updateAuthToken(String token) {
+        secureStore.edit()
+                .putString(KEY_AUTH_TOKEN, token)
+                .apply();
     }
 
     /**
      * Get logged in user
      */
     public User getUser() {
-        String userJson = sharedPreferences.getString(KEY_USER, null);
+        String userJson = secureStore.getString(KEY_USER, null);
         if (userJson != null) {
             return gson.fromJson(userJson, User.class);
         }
@@ -100,26 +170,33 @@ public class SessionManager {
      * Update user data
      */
     public void updateUser(User user) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_USER, gson.toJson(user));
-        editor.apply();
+        secureStore.edit()
+                .putString(KEY_USER, gson.toJson(user))
+                .apply();
     }
 
     /**
-     * Check if user is logged in
+     * Check if user is logged in. The flag alone is not enough: a session kept in a
+     * memory-only secure store leaves the flag set but has no token after a restart.
      */
     public boolean isLoggedIn() {
-        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false);
+        return sharedPreferences.getBoolean(KEY_IS_LOGGED_IN, false) && getAuthToken() != null;
     }
 
     /**
      * Clear session (logout)
      */
     public void logout() {
+        secureStore.edit()
+                .remove(KEY_AUTH_TOKEN)
+                .remove(KEY_USER)
+                .apply();
         SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.remove(KEY_AUTH_TOKEN);
-        editor.remove(KEY_USER);
         editor.putBoolean(KEY_IS_LOGGED_IN, false);
+        // Plaintext copies an unfinished migration left behind would come back next start
+        for (String key : SECURE_KEYS) {
+            editor.remove(key);
+        }
         editor.apply();
     }
 
@@ -152,40 +229,41 @@ public class SessionManager {
      * Save password reset token and email
      */
     public void savePasswordResetData(String token, String email) {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString(KEY_PASSWORD_RESET_TOKEN, token);
-        editor.putString(KEY_PASSWORD_RESET_EMAIL, email);
-        editor.apply();
+        secureStore.edit()
+                .putString(KEY_PASSWORD_RESET_TOKEN, token)
+                .putString(KEY_PASSWORD_RESET_EMAIL, email)
+                .apply();
     }
 
     /**
      * Get password reset token
      */
     public String getPasswordResetToken() {
-        return sharedPreferences.getString(KEY_PASSWORD_RESET_TOKEN, null);
+        return secureStore.getString(KEY_PASSWORD_RESET_TOKEN, null);
     }
 
     /**
      * Get password reset email
      */
     public String getPasswordResetEmail() {
-        return sharedPreferences.getString(KEY_PASSWORD_RESET_EMAIL, null);
+        return secureStore.getString(KEY_PASSWORD_RESET_EMAIL, null);
     }
 
     /**
      * Clear password reset data
      */
     public void clearPasswordResetData() {
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.remove(KEY_PASSWORD_RESET_TOKEN);
-        editor.remove(KEY_PASSWORD_RESET_EMAIL);
-        editor.apply();
+        secureStore.edit()
+                .remove(KEY_PASSWORD_RESET_TOKEN)
+                .remove(KEY_PASSWORD_RESET_EMAIL)
+                .apply();
     }
 
     /**
      * Clear all data
      */
     public void clearAll() {
+        secureStore.edit().clear().apply();
         SharedPreferences.Editor editor = sharedPreferences.edit();
         editor.clear();
         editor.apply();
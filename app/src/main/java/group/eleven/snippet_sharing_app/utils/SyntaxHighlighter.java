@@ -4,11 +4,13 @@ import android.content.Context;
 import android.content.res.Resources;
 import android.text.SpannableString;
 import android.text.Spanned;
+import android.text.SpannedString;
 import android.text.style.ForegroundColorSpan;
 import android.util.TypedValue;
 
 import androidx.core.content.ContextCompat;
 
+import java.util.Arrays;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +31,8 @@ public class SyntaxHighlighter {
     private final int typeColor;
     private final int operatorColor;
     private final int variableColor;
+    // Identifies the color set, so cached highlighted text can detect a theme change
+    private final int paletteId;
 
     // Common keywords across languages
     private static final String KEYWORDS_PATTERN =
@@ -87,6 +91,8 @@ public class SyntaxHighlighter {
                 ContextCompat.getColor(context, R.color.syntax_operator));
         variableColor = resolveThemeColor(theme, R.attr.syntaxVariableColor,
                 ContextCompat.getColor(context, R.color.syntax_variable));
+        paletteId = Arrays.hashCode(new int[]{keywordColor, stringColor, numberColor, commentColor,
+                functionColor, typeColor, operatorColor, variableColor});
     }
 
     /**
@@ -100,6 +106,24 @@ public class SyntaxHighlighter {
         return defaultColor;
     }
 
+    // Token kinds, in the order they are applied (later kinds override earlier ones)
+    public static final int TOKEN_NUMBER = 0;
+    public static final int TOKEN_TYPE = 1;
+    public static final int TOKEN_KEYWORD = 2;
+    public static final int TOKEN_FUNCTION = 3;
+    public static final int TOKEN_OPERATOR = 4;
+    public static final int TOKEN_STRING = 5;
+    public static final int TOKEN_COMMENT = 6;
+
+    private static final Pattern NUMBER_REGEX = Pattern.compile(NUMBER_PATTERN, Pattern.MULTILINE);
+    private static final Pattern TYPE_REGEX = Pattern.compile(TYPE_PATTERN, Pattern.MULTILINE);
+    private static final Pattern KEYWORDS_REGEX = Pattern.compile(KEYWORDS_PATTERN,
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+    private static final Pattern FUNCTION_REGEX = Pattern.compile(FUNCTION_PATTERN);
+    private static final Pattern OPERATOR_REGEX = Pattern.compile(OPERATOR_PATTERN, Pattern.MULTILINE);
+    private static final Pattern STRING_REGEX = Pattern.compile(STRING_PATTERN, Pattern.MULTILINE);
+    private static final Pattern COMMENT_REGEX = Pattern.compile(COMMENT_PATTERN, Pattern.MULTILINE);
+
     /**
      * Apply syntax highlighting to code
      */
@@ -107,68 +131,131 @@ public class SyntaxHighlighter {
         if (code == null || code.isEmpty()) {
             return new SpannableString("");
         }
+        return applyTokens(code, tokenize(code));
+    }
+
+    /**
+     * Build a highlighted string from tokens produced earlier by {@link #tokenize(String)}.
+     * Lets callers cache or persist tokens and skip the regex pass on bind.
+     */
+    public SpannableString applyTokens(String code, int[] tokens) {
+        SpannableString spannable = new SpannableString(code != null ? code : "");
+        if (tokens == null) {
+            return spannable;
+        }
+        int length = spannable.length();
+        for (int i = 0; i + 2 < tokens.length; i += 3) {
+            int start = tokens[i];
+            int end = tokens[i + 1];
+            if (start < 0 || end > length || start >= end) continue;
+            spannable.setSpan(
+                    new ForegroundColorSpan(colorFor(tokens[i + 2])),
+                    start,
+                    end,
+                    Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
+            );
+        }
+        return spannable;
+    }
 
-        SpannableString spannable = new SpannableString(code);
+    /**
+     * Highlighted code as an immutable {@link SpannedString}. TextView keeps a SpannedString
+     * as is rather than copying it, so a cached result can be bound again without allocating.
+     * Uses tokens from {@link #tokenize(String)} when given, otherwise runs the regex pass.
+     */
+    public SpannedString highlightImmutable(String code, int[] tokens) {
+        long start = System.nanoTime();
+        SpannedString result = new SpannedString(tokens != null ? applyTokens(code, tokens) : highlight(code));
+        FrameMonitor.recordHighlight(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Changes when the resolved colors change (e.g. light to dark theme)
+     */
+    public int getPaletteId() {
+        return paletteId;
+    }
+
+    /**
+     * Find highlight tokens in code without touching any theme state.
+     * Safe to call off the main thread.
+     *
+     * @return flat array of (start, end, kind) triples in application order
+     */
+    public static int[] tokenize(String code) {
+        if (code == null || code.isEmpty()) {
+            return new int[0];
+        }
+        TokenBuffer buffer = new TokenBuffer();
 
         // Apply highlighting in order (later ones override earlier)
         // 1. Numbers first (lowest priority)
-        applyPattern(spannable, NUMBER_PATTERN, numberColor, 0);
+        collect(buffer, NUMBER_REGEX, code, TOKEN_NUMBER, 0);
 
         // 2. Types (capitalized words)
-        applyPattern(spannable, TYPE_PATTERN, typeColor, 0);
+        collect(buffer, TYPE_REGEX, code, TOKEN_TYPE, 0);
 
         // 3. Keywords (higher priority than types)
-        applyPattern(spannable, KEYWORDS_PATTERN, keywordColor, Pattern.CASE_INSENSITIVE);
+        collect(buffer, KEYWORDS_REGEX, code, TOKEN_KEYWORD, 0);
 
-        // 4. Function calls
-        applyFunctionPattern(spannable);
+        // 4. Function calls (only the name, not the parenthesis)
+        collect(buffer, FUNCTION_REGEX, code, TOKEN_FUNCTION, 1);
 
         // 5. Operators
-        applyPattern(spannable, OPERATOR_PATTERN, operatorColor, 0);
+        collect(buffer, OPERATOR_REGEX, code, TOKEN_OPERATOR, 0);
 
         // 6. Strings (higher priority - don't highlight inside strings)
-        applyPattern(spannable, STRING_PATTERN, stringColor, Pattern.MULTILINE);
+        collect(buffer, STRING_REGEX, code, TOKEN_STRING, 0);
 
         // 7. Comments (highest priority - override everything)
-        applyPattern(spannable, COMMENT_PATTERN, commentColor, Pattern.MULTILINE);
+        collect(buffer, COMMENT_REGEX, code, TOKEN_COMMENT, 0);
 
-        return spannable;
+        return buffer.toArray();
     }
 
-    private void applyPattern(SpannableString spannable, String pattern, int color, int flags) {
+    private static void collect(TokenBuffer buffer, Pattern pattern, String code, int kind, int group) {
         try {
-            Pattern p = Pattern.compile(pattern, flags | Pattern.MULTILINE);
-            Matcher m = p.matcher(spannable);
+            Matcher m = pattern.matcher(code);
             while (m.find()) {
-                spannable.setSpan(
-                        new ForegroundColorSpan(color),
-                        m.start(),
-                        m.end(),
-                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
-                );
+                buffer.add(m.start(group), m.end(group), kind);
             }
         } catch (Exception e) {
             // Ignore pattern errors
         }
     }
 
-    private void applyFunctionPattern(SpannableString spannable) {
-        try {
-            Pattern p = Pattern.compile(FUNCTION_PATTERN);
-            Matcher m = p.matcher(spannable);
-            while (m.find()) {
-                // Only color the function name, not the parenthesis
-                int start = m.start(1);
-                int end = m.end(1);
-                spannable.setSpan(
-                        new ForegroundColorSpan(functionColor),
-                        start,
-                        end,
-                        Spanned.SPAN_EXCLUSIVE_EXCLUSIVE
-                );
+    private int colorFor(int kind) {
+        switch (kind) {
+            case TOKEN_NUMBER: return numberColor;
+            case TOKEN_TYPE: return typeColor;
+            case TOKEN_KEYWORD: return keywordColor;
+            case TOKEN_FUNCTION: return functionColor;
+            case TOKEN_OPERATOR: return operatorColor;
+            case TOKEN_STRING: return stringColor;
+            case TOKEN_COMMENT: return commentColor;
+            default: return variableColor;
+        }
+    }
+
+    /**
+     * Growable int buffer for token triples
+     */
+    private static final class TokenBuffer {
+        private int[] data = new int[48];
+        private int size;
+
+        void add(int start, int end, int kind) {
+            if (size + 3 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
             }
-        } catch (Exception e) {
-            // Ignore pattern errors
+            data[size++] = start;
+            data[size++] = end;
+            data[size++] = kind;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
         }
     }
 
@@ -178,6 +265,9 @@ public class SyntaxHighlighter {
     public SpannableString highlightForLanguage(String code, String language) {
         // For now, use generic highlighting
         // Can be extended for language-specific rules
-        return highlight(code);
+        long start = System.nanoTime();
+        SpannableString result = highlight(code);
+        FrameMonitor.recordHighlight(System.nanoTime() - start);
+        return result;
     }
 }
@@ -0,0 +1,139 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One process-wide minute tick that keeps "time ago" labels current.
+ *
+ * Screens attach their lists; while a screen is started, each tick visits only the rows
+ * currently on screen and lets ViewHolders implementing {@link Target} redraw their label.
+ * Nothing is rebound and nothing runs while no attached screen is visible.
+ */
+public final class TimeAgoTicker {
+
+    private static final long TICK_MS = 60_000L;
+
+    private static final TimeAgoTicker instance = new TimeAgoTicker();
+
+    /**
+     * Implemented by ViewHolders that show a relative time
+     */
+    public interface Target {
+        void onTimeTick(long now);
+    }
+
+    private static final class Attachment {
+        final LifecycleOwner owner;
+        final DefaultLifecycleObserver observer;
+
+        Attachment(LifecycleOwner owner, DefaultLifecycleObserver observer) {
+            this.owner = owner;
+            this.observer = observer;
+        }
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<RecyclerView, Attachment> attachments = new HashMap<>();
+    private final List<RecyclerView> lists = new ArrayList<>();
+    private final Runnable tick = this::tick;
+
+    private TimeAgoTicker() {
+    }
+
+    public static TimeAgoTicker getInstance() {
+        return instance;
+    }
+
+    /**
+     * Refresh list's visible rows every minute while owner is started
+     */
+    public void attach(LifecycleOwner owner, RecyclerView list) {
+        if (attachments.containsKey(list)) {
+            return;
+        }
+        DefaultLifecycleObserver observer = new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(@NonNull LifecycleOwner source) {
+                add(list);
+            }
+
+            @Override
+            public void onStop(@NonNull LifecycleOwner source) {
+                remove(list);
+            }
+
+            @Override
+            public void onDestroy(@NonNull LifecycleOwner source) {
+                attachments.remove(list);
+            }
+        };
+        attachments.put(list, new Attachment(owner, observer));
+        owner.getLifecycle().addObserver(observer);
+    }
+
+    /**
+     * Stop refreshing list, e.g. when it switches to an adapter whose rows show no times
+     */
+    public void detach(RecyclerView list) {
+        Attachment attachment = attachments.remove(list);
+        if (attachment != null) {
+            attachment.owner.getLifecycle().removeObserver(attachment.observer);
+            remove(list);
+        }
+    }
+
+    private void add(RecyclerView list) {
+        if (lists.contains(list)) {
+            return;
+        }
+        lists.add(list);
+        // Labels may have gone stale while the screen was in the background
+        refresh(list, System.currentTimeMillis());
+        if (lists.size() == 1) {
+            schedule();
+        }
+    }
+
+    private void remove(RecyclerView list) {
+        lists.remove(list);
+        if (lists.isEmpty()) {
+            handler.removeCallbacks(tick);
+        }
+    }
+
+    private void schedule() {
+        // Fire on the minute so labels change together
+        long now = System.currentTimeMillis();
+        handler.postDelayed(tick, TICK_MS - now % TICK_MS);
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < lists.size(); i++) {
+            refresh(lists.get(i), now);
+        }
+        if (!lists.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private static void refresh(RecyclerView list, long now) {
+        for (int i = 0; i < list.getChildCount(); i++) {
+            RecyclerView.ViewHolder holder = list.getChildViewHolder(list.getChildAt(i));
+            if (holder instanceof Target) {
+                ((Target) holder).onTimeTick(now);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.graphics.drawable.Drawable;
+import android.util.SparseArray;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+import androidx.core.content.ContextCompat;
+
+/**
+ * The icons one ImageView switches between, each inflated once. setImageResource inflates a
+ * new drawable on every call, even for the id already shown, so a recycled holder that sets
+ * an icon per bind allocates on every rebind; swapping cached instances does not.
+ *
+ * One per view: a drawable draws into a single view, so instances are not shared.
+ */
+public final class ViewIcons {
+
+    private final ImageView view;
+    private final SparseArray<Drawable> drawables = new SparseArray<>(4);
+
+    public ViewIcons(ImageView view) {
+        this.view = view;
+    }
+
+    /**
+     * Show the icon for resId, inflating it the first time it is asked for
+     */
+    public void show(@DrawableRes int resId) {
+        Drawable drawable = drawables.get(resId);
+        if (drawable == null) {
+            drawable = ContextCompat.getDrawable(view.getContext(), resId);
+            drawables.put(resId, drawable);
+        }
+        // Glide or another caller may have replaced it since the last bind
+        if (view.getDrawable() != drawable) {
+            view.setImageDrawable(drawable);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Query parameters {@link FieldProjectionInterceptor} adds to the calls the app makes.
+ * Card lists ask for {@code code}, which is only a preview because {@code preview_lines}
+ * always goes with it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class FieldProjectionInterceptorTest {
+
+    private static final String EMPTY_LIST = "{\"success\":true,\"message\":\"OK\",\"data\":[]}";
+
+    private final MockWebServer server = new MockWebServer();
+    private ApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        api = ApiClient.getApiService(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void cardListsAskForPreviewLengthCode() throws Exception {
+        HttpUrl url = sent(api.getPublicSnippets(params()));
+
+        String fields = url.queryParameter(FieldProjectionInterceptor.PARAM_FIELDS);
+        assertEquals(ListProjection.SNIPPET_CARD_FIELDS, fields);
+        assertTrue(Arrays.asList(fields.split(",")).contains("code"));
+        assertEquals(String.valueOf(NetworkQualityEstimator.getInstance().getPreviewLines()),
+                url.queryParameter(FieldProjectionInterceptor.PARAM_PREVIEW_LINES));
+    }
+
+    @Test
+    public void callerParametersAreKept() throws Exception {
+        Map<String, String> params = params();
+        params.put(FieldProjectionInterceptor.PARAM_FIELDS, "id,title");
+        params.put(FieldProjectionInterceptor.PARAM_PREVIEW_LINES, "3");
+        HttpUrl url = sent(api.getTrendingSnippets(params));
+
+        assertEquals("id,title", url.queryParameter(FieldProjectionInterceptor.PARAM_FIELDS));
+        assertEquals("3", url.queryParameter(FieldProjectionInterceptor.PARAM_PREVIEW_LINES));
+    }
+
+    @Test
+    public void unannotatedCallsGetFullCode() throws Exception {
+        HttpUrl url = sent(api.getMySnippets(params()));
+
+        assertNull(url.queryParameter(FieldProjectionInterceptor.PARAM_FIELDS));
+        assertNull(url.queryParameter(FieldProjectionInterceptor.PARAM_PREVIEW_LINES));
+    }
+
+    private HttpUrl sent(Call<?> call) throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(EMPTY_LIST));
+        call.execute();
+        return server.takeRequest().getRequestUrl();
+    }
+
+    private static Map<String, String> params() {
+        Map<String, String> params = new HashMap<>();
+        params.put("per_page", "20");
+        return params;
+    }
+}
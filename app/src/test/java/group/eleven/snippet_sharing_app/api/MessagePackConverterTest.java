@@ -0,0 +1,272 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import group.eleven.snippet_sharing_app.data.model.ApiResponse;
+import group.eleven.snippet_sharing_app.data.model.ErrorResponse;
+import group.eleven.snippet_sharing_app.data.model.Snippet;
+import group.eleven.snippet_sharing_app.fixtures.RealTimeClock;
+import group.eleven.snippet_sharing_app.fixtures.SyntheticDataset;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The same feed page served as JSON and as MessagePack through the app's Retrofit stack:
+ * payload size and call time are compared, and error bodies decode in either format.
+ * Timings are printed to stdout rather than asserted, since they depend on the machine.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class MessagePackConverterTest {
+
+    private static final int SNIPPETS = 500;
+    private static final int RUNS = 7;
+    private static final String JSON = "application/json";
+
+    @Rule
+    public RealTimeClock clock = new RealTimeClock();
+
+    private final MockWebServer server = new MockWebServer();
+    private ApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        ApiClient.getRateLimiter().reset();
+        api = ApiClient.getApiService(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ApiClient.getRateLimiter().reset();
+        server.shutdown();
+    }
+
+    @Test
+    public void feedPageIsSmallerAndDecodesTheSame() throws Exception {
+        JsonElement page = JsonParser.parseString(
+                SyntheticDataset.envelope(new SyntheticDataset(11).snippetsJson(SNIPPETS)));
+        byte[] json = page.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] msgpack = encode(page);
+
+        long[] jsonNanos = new long[RUNS];
+        long[] msgpackNanos = new long[RUNS];
+        List<Snippet> fromJson = null;
+        List<Snippet> fromMsgpack = null;
+        for (int i = 0; i < RUNS; i++) {
+            server.enqueue(body(json, JSON));
+            long start = System.nanoTime();
+            fromJson = fetch();
+            jsonNanos[i] = System.nanoTime() - start;
+
+            server.enqueue(body(msgpack, MessagePackConverterFactory.MEDIA_TYPE));
+            start = System.nanoTime();
+            fromMsgpack = fetch();
+            msgpackNanos[i] = System.nanoTime() - start;
+        }
+
+        assertEquals(MessagePackConverterFactory.ACCEPT_HEADER, server.takeRequest().getHeader("Accept"));
+        assertEquals(SNIPPETS, fromMsgpack.size());
+        for (int i = 0; i < SNIPPETS; i++) {
+            Snippet expected = fromJson.get(i);
+            Snippet actual = fromMsgpack.get(i);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.getTitle(), actual.getTitle());
+            assertEquals(expected.getCode(), actual.getCode());
+            assertEquals(expected.getUpdatedAtMillis(), actual.getUpdatedAtMillis());
+            assertEquals(expected.getFavoriteCount(), actual.getFavoriteCount());
+        }
+
+        // Timings only mean something on a quiet machine, so they print with the load tests
+        if (Boolean.getBoolean("load.run")) {
+            System.out.println(String.format(Locale.US,
+                    "%d snippets: json %d bytes, %.1f ms; msgpack %d bytes (%.0f%%), %.1f ms (median of %d)",
+                    SNIPPETS, json.length, median(jsonNanos) / 1e6, msgpack.length,
+                    100.0 * msgpack.length / json.length, median(msgpackNanos) / 1e6, RUNS));
+        }
+        assertTrue("MessagePack should be smaller: " + msgpack.length + " vs " + json.length,
+                msgpack.length < json.length);
+    }
+
+    @Test
+    public void errorBodiesDecodeByContentType() throws Exception {
+        JsonElement error = JsonParser.parseString(
+                "{\"message\":\"The given data was invalid.\",\"errors\":{\"name\":[\"Name is taken\"]}}");
+        server.enqueue(body(encode(error), MessagePackConverterFactory.MEDIA_TYPE).setResponseCode(422));
+        server.enqueue(body(error.toString().getBytes(StandardCharsets.UTF_8), JSON).setResponseCode(422));
+        server.enqueue(new MockResponse().setResponseCode(500).setHeader("Content-Type", JSON));
+
+        Gson gson = new Gson();
+        assertEquals("Name is taken", decodeError(gson).getFirstError());
+        assertEquals("Name is taken", decodeError(gson).getFirstError());
+        assertEquals(null, decodeError(gson));
+    }
+
+    @Test
+    public void hostileLengthsFailAsIOException() throws Exception {
+        byte[][] bodies = {
+                // array32 and map32 claiming 2^31 - 1 entries, with nothing after them
+                {(byte) 0xdd, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+                {(byte) 0xdf, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+                // str32 of the same length
+                {(byte) 0xdb, 0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff},
+        };
+        for (byte[] bytes : bodies) {
+            server.enqueue(body(bytes, MessagePackConverterFactory.MEDIA_TYPE));
+            try {
+                api.getPublicSnippets(new HashMap<>()).execute();
+                fail("Expected 0x" + Integer.toHexString(bytes[0] & 0xff) + " body to fail");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage(), expected.getMessage().contains("MessagePack"));
+            }
+        }
+    }
+
+    private List<Snippet> fetch() throws Exception {
+        Response<ApiResponse<List<Snippet>>> response = api.getPublicSnippets(new HashMap<>()).execute();
+        assertTrue(response.isSuccessful());
+        return response.body().getData();
+    }
+
+    private ErrorResponse decodeError(Gson gson) throws Exception {
+        Response<ApiResponse<List<Snippet>>> response = api.getPublicSnippets(new HashMap<>()).execute();
+        return MessagePackConverterFactory.decodeErrorBody(gson, response.errorBody(), ErrorResponse.class);
+    }
+
+    private static MockResponse body(byte[] bytes, String contentType) {
+        return new MockResponse()
+                .setHeader("Content-Type", contentType)
+                .setBody(new Buffer().write(bytes));
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // ---- Minimal MessagePack encoder, the inverse of MessagePackConverterFactory.Reader ----
+
+    static byte[] encode(JsonElement value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(out, value);
+        return out.toByteArray();
+    }
+
+    private static void write(ByteArrayOutputStream out, JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            out.write(0xc0);
+        } else if (value.isJsonObject()) {
+            List<Map.Entry<String, JsonElement>> entries = new ArrayList<>(((JsonObject) value).entrySet());
+            header(out, entries.size(), 0x80, 0xde);
+            for (Map.Entry<String, JsonElement> entry : entries) {
+                writeString(out, entry.getKey());
+                write(out, entry.getValue());
+            }
+        } else if (value.isJsonArray()) {
+            header(out, value.getAsJsonArray().size(), 0x90, 0xdc);
+            for (JsonElement element : value.getAsJsonArray()) {
+                write(out, element);
+            }
+        } else {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.write(primitive.getAsBoolean() ? 0xc3 : 0xc2);
+            } else if (primitive.isNumber()) {
+                writeNumber(out, primitive);
+            } else {
+                writeString(out, primitive.getAsString());
+            }
+        }
+    }
+
+    private static void writeNumber(ByteArrayOutputStream out, JsonPrimitive number) {
+        double asDouble = number.getAsDouble();
+        long asLong = number.getAsLong();
+        if (asDouble != asLong) {
+            out.write(0xcb);
+            writeBytes(out, Double.doubleToLongBits(asDouble), 8);
+        } else if (asLong >= 0 && asLong <= 0x7f) {
+            out.write((int) asLong);
+        } else if (asLong >= -32 && asLong < 0) {
+            out.write((int) asLong & 0xff);
+        } else if (asLong >= Integer.MIN_VALUE && asLong <= Integer.MAX_VALUE) {
+            out.write(0xd2);
+            writeBytes(out, asLong, 4);
+        } else {
+            out.write(0xd3);
+            writeBytes(out, asLong, 8);
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < 32) {
+            out.write(0xa0 | bytes.length);
+        } else if (bytes.length < 0x100) {
+            out.write(0xd9);
+            out.write(bytes.length);
+        } else if (bytes.length < 0x10000) {
+            out.write(0xda);
+            writeBytes(out, bytes.length, 2);
+        } else {
+            out.write(0xdb);
+            writeBytes(out, bytes.length, 4);
+        }
+        out.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * fixmap/fixarray header for up to 15 entries, else the 16-bit form (the 32-bit form
+     * immediately follows it in the spec)
+     */
+    private static void header(ByteArrayOutputStream out, int size, int fixPrefix, int prefix16) {
+        if (size < 16) {
+            out.write(fixPrefix | size);
+        } else if (size < 0x10000) {
+            out.write(prefix16);
+            writeBytes(out, size, 2);
+        } else {
+            out.write(prefix16 + 1);
+            writeBytes(out, size, 4);
+        }
+    }
+
+    private static void writeBytes(ByteArrayOutputStream out, long value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            out.write((int) (value >>> (8 * i)) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import group.eleven.snippet_sharing_app.fixtures.RealTimeClock;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Scrolls a feed while the link degrades under a throttled server. Page sizes may only
+ * change when a list starts over, and lists that are loaded whole are never cut down.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class NetworkQualityEstimatorTest {
+
+    private static final int PER_PAGE = 20;
+    // Large enough to count as a bandwidth sample, throttled to well under the POOR cut-off
+    private static final int PADDING_BYTES = 8 * 1024;
+
+    @Rule
+    public RealTimeClock clock = new RealTimeClock();
+
+    private final MockWebServer server = new MockWebServer();
+    private final NetworkQualityEstimator estimator = NetworkQualityEstimator.getInstance();
+    private ApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setHeader("Content-Type", "application/json")
+                        .setBody(listBody())
+                        .throttleBody(1024, 125, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        Context context = RuntimeEnvironment.getApplication();
+        api = ApiClient.getApiService(context);
+        estimator.reset();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        estimator.reset();
+        server.shutdown();
+    }
+
+    @Test
+    public void pageSizeHoldsForTheWholeList() throws Exception {
+        assertEquals(NetworkQualityEstimator.Quality.GOOD, estimator.getQuality());
+
+        // The first page is sized while the link still looks good, then drags the estimate down
+        assertEquals(PER_PAGE, feedPage(1));
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+
+        // Same list: keeps the size it started with, so page 2 starts right after page 1
+        assertEquals(PER_PAGE, feedPage(2));
+        assertEquals(PER_PAGE, feedPage(3));
+
+        // Pull to refresh starts a new list, sized for the poor link from the first page on
+        int adapted = estimator.adaptPageSize(PER_PAGE);
+        assertTrue(adapted < PER_PAGE);
+        assertEquals(adapted, feedPage(1));
+        assertEquals(adapted, feedPage(2));
+    }
+
+    @Test
+    public void listsLoadedWholeKeepTheirSize() throws Exception {
+        feedPage(1);
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+
+        Map<String, String> followers = new HashMap<>();
+        followers.put("per_page", "50");
+        assertEquals(50, perPageSent(api.getUserFollowers("octocat", followers)));
+
+        Map<String, String> notifications = new HashMap<>();
+        notifications.put("per_page", "30");
+        assertEquals(30, perPageSent(api.getNotifications(notifications)));
+    }
+
+    @Test
+    public void separateListsHaveSeparateSessions() throws Exception {
+        assertEquals(PER_PAGE, feedPage(1));
+
+        // Trending starts after the link turned poor; the public list it interleaves with does not change
+        Map<String, String> trending = new HashMap<>();
+        trending.put("per_page", String.valueOf(PER_PAGE));
+        trending.put("page", "1");
+        assertEquals(estimator.adaptPageSize(PER_PAGE), perPageSent(api.getTrendingSnippets(trending)));
+        assertEquals(PER_PAGE, feedPage(2));
+    }
+
+    private int feedPage(int page) throws Exception {
+        Map<String, String> params = new HashMap<>();
+        params.put("per_page", String.valueOf(PER_PAGE));
+        params.put("sort", "recent");
+        if (page > 1) {
+            params.put("page", String.valueOf(page));
+        }
+        return perPageSent(api.getPublicSnippets(params));
+    }
+
+    private int perPageSent(Call<?> call) throws IOException, InterruptedException {
+        assertTrue(call.execute().isSuccessful());
+        RecordedRequest recorded = server.takeRequest(5, TimeUnit.SECONDS);
+        return Integer.parseInt(recorded.getRequestUrl().queryParameter("per_page"));
+    }
+
+    private static String listBody() {
+        StringBuilder padding = new StringBuilder(PADDING_BYTES);
+        for (int i = 0; i < PADDING_BYTES; i++) {
+            padding.append('x');
+        }
+        return "{\"success\":true,\"message\":\"" + padding + "\",\"data\":[]}";
+    }
+}
@@ -0,0 +1,174 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import group.eleven.snippet_sharing_app.fixtures.RealTimeClock;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link RateLimitInterceptor} against a server that answers 429 with Retry-After
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class RateLimitInterceptorTest {
+
+    private static final String OK_BODY = "{\"success\":true,\"message\":\"OK\",\"data\":null}";
+
+    @Rule
+    public RealTimeClock clock = new RealTimeClock();
+
+    private final MockWebServer server = new MockWebServer();
+    private RateLimitInterceptor limiter;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        limiter = new RateLimitInterceptor();
+        // Same order as ApiClient: retries outside, the limiter on every attempt
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor())
+                .addInterceptor(limiter)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void getWaitsOutShortRetryAfterAndRetries() throws Exception {
+        server.enqueue(tooManyRequests("1"));
+        server.enqueue(ok());
+
+        long start = System.nanoTime();
+        try (Response response = get("/api/v1/snippets/public")) {
+            assertEquals(200, response.code());
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, server.getRequestCount());
+        assertTrue("Retried after " + elapsedMs + "ms", elapsedMs >= 900);
+        RateLimitInterceptor.Metrics metrics = limiter.getMetrics(RateLimitInterceptor.Group.FEED);
+        assertEquals(1, metrics.serverThrottled.get());
+        assertEquals(1, metrics.delayed.get());
+    }
+
+    @Test
+    public void longRetryAfterReturnsTheServers429() throws Exception {
+        server.enqueue(tooManyRequests("60"));
+
+        try (Response response = get("/api/v1/snippets/public")) {
+            assertEquals(429, response.code());
+            assertEquals("60", response.header("Retry-After"));
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void callsDuringAPauseQueueThenReachTheServer() throws Exception {
+        server.enqueue(tooManyRequests("60"));
+        server.enqueue(tooManyRequests("60"));
+        get("/api/v1/snippets/public").close();
+
+        // The group is paused far longer than a normal call waits: it is sent anyway and the
+        // server's answer is returned, not one made up locally
+        long start = System.nanoTime();
+        try (Response response = get("/api/v1/snippets/public")) {
+            assertEquals(429, response.code());
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(2, server.getRequestCount());
+        assertTrue("Sent after " + elapsedMs + "ms", elapsedMs >= 1_900);
+        assertEquals(1, limiter.getMetrics(RateLimitInterceptor.Group.FEED).overdue.get());
+    }
+
+    @Test
+    public void cancelStopsTheWait() throws Exception {
+        server.enqueue(tooManyRequests("60"));
+        get("/api/v1/snippets/public").close();
+
+        Call call = client.newCall(new Request.Builder()
+                .url(server.url("/api/v1/snippets/public"))
+                .header(RateLimitInterceptor.HEADER_PRIORITY, RateLimitInterceptor.PRIORITY_LOW)
+                .build());
+        CompletableFuture<Object> outcome = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                outcome.complete(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                outcome.complete(response);
+            }
+        });
+
+        Thread.sleep(300);
+        long cancelledAt = System.nanoTime();
+        call.cancel();
+        Object result = outcome.get(5, TimeUnit.SECONDS);
+        long stoppedMs = (System.nanoTime() - cancelledAt) / 1_000_000;
+
+        if (!(result instanceof IOException)) {
+            fail("Expected the cancelled call to fail, got " + result);
+        }
+        assertTrue("Stopped " + stoppedMs + "ms after cancel", stoppedMs < 1_000);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void everyRetryAttemptTakesAToken() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(ok());
+
+        try (Response response = get("/api/v1/users/me")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, limiter.getMetrics(RateLimitInterceptor.Group.DEFAULT).allowed.get());
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+
+    private static MockResponse tooManyRequests(String retryAfterSeconds) {
+        return new MockResponse()
+                .setResponseCode(429)
+                .setHeader("Retry-After", retryAfterSeconds)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"success\":false,\"message\":\"Too Many Attempts.\"}");
+    }
+
+    private static MockResponse ok() {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(OK_BODY);
+    }
+}
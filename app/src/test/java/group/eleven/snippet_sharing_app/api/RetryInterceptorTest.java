@@ -0,0 +1,186 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Which responses {@link RetryInterceptor} reports to the host's {@link CircuitBreaker}:
+ * only 2xx and 304 count as healthy, any 5xx as a failure, and 4xx or calls that never
+ * left the device as neither
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class RetryInterceptorTest {
+
+    // CircuitBreaker opens after this many failures in a row
+    private static final int FAILURE_THRESHOLD = 5;
+
+    private final MockWebServer server = new MockWebServer();
+    private OkHttpClient client;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor())
+                .build();
+        breaker = CircuitBreaker.forHost(server.url("/").host());
+        CircuitBreaker.resetAll();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        CircuitBreaker.resetAll();
+        server.shutdown();
+    }
+
+    @Test
+    public void internalServerErrorsOpenTheCircuit() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertEquals(500, status(500));
+        }
+        assertTrue(breaker.isOpen());
+
+        try {
+            get().close();
+            fail("Expected the open circuit to fail fast");
+        } catch (CircuitBreaker.CircuitOpenException expected) {
+        }
+        assertEquals(FAILURE_THRESHOLD, server.getRequestCount());
+    }
+
+    @Test
+    public void clientErrorsDoNotResetFailures() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            status(500);
+        }
+        assertEquals(404, status(404));
+        assertFalse(breaker.isOpen());
+
+        status(500);
+        assertTrue(breaker.isOpen());
+    }
+
+    @Test
+    public void successAndNotModifiedResetFailures() throws Exception {
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            status(500);
+        }
+        status(200);
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            status(500);
+        }
+        status(304);
+        for (int i = 0; i < FAILURE_THRESHOLD - 1; i++) {
+            status(500);
+        }
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    public void dispatcherQueueTimeoutsLeaveTheCircuitClosed() throws Exception {
+        // Visible-priority GETs run four at a time; the server holds those four
+        int held = RequestPriority.VISIBLE.concurrencyLimit;
+        int queued = FAILURE_THRESHOLD + 1;
+        CountDownLatch release = new CountDownLatch(1);
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await(30, TimeUnit.SECONDS);
+                return new MockResponse();
+            }
+        });
+        OkHttpClient scheduled = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor())
+                .dispatcher(PriorityDispatcher.createPassThroughDispatcher())
+                .addInterceptor(new PriorityDispatcher())
+                .build();
+
+        try {
+            enqueue(scheduled, held);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (server.getRequestCount() < held && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(held, server.getRequestCount());
+
+            List<CompletableFuture<Object>> waiting = enqueue(scheduled, queued);
+            Thread.sleep(300);
+            // Past the dispatcher's queue limit; waiters notice on their next wait slice
+            ShadowSystemClock.advanceBy(Duration.ofSeconds(31));
+            for (CompletableFuture<Object> outcome : waiting) {
+                Object result = outcome.get(5, TimeUnit.SECONDS);
+                assertTrue("Expected a local failure, got " + result, result instanceof LocalCallException);
+            }
+
+            assertFalse(breaker.isOpen());
+            // Not retried: nothing beyond the held calls reached the server
+            assertEquals(held, server.getRequestCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private List<CompletableFuture<Object>> enqueue(OkHttpClient client, int count) {
+        List<CompletableFuture<Object>> outcomes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<Object> outcome = new CompletableFuture<>();
+            outcomes.add(outcome);
+            client.newCall(new Request.Builder().url(server.url("/api/v1/snippets/s" + i)).build())
+                    .enqueue(new Callback() {
+                        @Override
+                        public void onFailure(Call call, IOException e) {
+                            outcome.complete(e);
+                        }
+
+                        @Override
+                        public void onResponse(Call call, Response response) {
+                            response.close();
+                            outcome.complete(response);
+                        }
+                    });
+        }
+        return outcomes;
+    }
+
+    private int status(int code) throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(code));
+        try (Response response = get()) {
+            return response.code();
+        }
+    }
+
+    private Response get() throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/api/v1/snippets/s1")).build()).execute();
+    }
+}
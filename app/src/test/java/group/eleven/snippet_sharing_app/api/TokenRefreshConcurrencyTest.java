@@ -0,0 +1,115 @@
+package group.eleven.snippet_sharing_app.api;
+
+import android.app.Application;
+import android.content.Context;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import group.eleven.snippet_sharing_app.utils.SessionManager;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Many calls failing with 401 at once, e.g. the home screen fanning out just after the
+ * token expired. Each keeps its {@link PriorityDispatcher} slot while the single-flight
+ * refresh runs, so the refresh must not need a slot of its own.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class TokenRefreshConcurrencyTest {
+
+    private static final String STALE_TOKEN = "stale-token";
+    private static final String FRESH_TOKEN = "fresh-token";
+    private static final String OK_BODY = "{\"success\":true,\"message\":\"OK\",\"data\":null}";
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().endsWith("auth/refresh")) {
+                    refreshes.incrementAndGet();
+                    return json(200, "{\"success\":true,\"message\":\"OK\",\"data\":{\"token\":\""
+                            + FRESH_TOKEN + "\"}}");
+                }
+                if (("Bearer " + FRESH_TOKEN).equals(request.getHeader("Authorization"))) {
+                    return json(200, OK_BODY);
+                }
+                // Held back so every call is in flight, holding a slot, before the first 401 lands
+                return json(401, "{\"success\":false,\"message\":\"Unauthenticated.\"}")
+                        .setHeadersDelay(300, TimeUnit.MILLISECONDS);
+            }
+        });
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        context = RuntimeEnvironment.getApplication();
+        new SessionManager(context).updateAuthToken(STALE_TOKEN);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        new SessionManager(context).logout();
+        server.shutdown();
+    }
+
+    @Test
+    public void parallel401sAllCompleteAfterOneRefresh() throws Exception {
+        ApiService api = ApiClient.getApiService(context);
+        // Visible (limit 4) plus prefetch (limit 2) calls fill all six slots
+        List<Call<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(api.getMyTeams());
+        }
+        for (int i = 0; i < 2; i++) {
+            calls.add(api.getDashboardStats());
+        }
+        for (int i = 0; i < 2; i++) {
+            calls.add(api.getTeamMembers("team" + i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(calls.size());
+        List<Future<Integer>> codes = new ArrayList<>();
+        for (Call<?> call : calls) {
+            codes.add(pool.submit(() -> call.execute().code()));
+        }
+        pool.shutdown();
+        assertTrue("Calls deadlocked waiting for the token refresh",
+                pool.awaitTermination(20, TimeUnit.SECONDS));
+
+        for (Future<Integer> code : codes) {
+            assertEquals(200, (int) code.get());
+        }
+        assertEquals(1, refreshes.get());
+    }
+
+    private static MockResponse json(int code, String body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body);
+    }
+}
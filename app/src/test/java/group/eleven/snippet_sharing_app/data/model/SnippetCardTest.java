@@ -0,0 +1,96 @@
+package group.eleven.snippet_sharing_app.data.model;
+
+import android.app.Application;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import group.eleven.snippet_sharing_app.utils.Iso8601;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Copy-on-change of {@link SnippetCard}: the original card is never touched
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class SnippetCardTest {
+
+    @Test
+    public void likeProducesANewCard() {
+        SnippetCard card = card(0, 2, false);
+
+        SnippetCard liked = card.withLike(true, 1);
+
+        assertNotSame(card, liked);
+        assertFalse(card.isLiked());
+        assertEquals(0, card.getLikesCount());
+        assertEquals("Be first to like", card.getFormattedLikes());
+
+        assertTrue(liked.isLiked());
+        assertEquals(1, liked.getLikesCount());
+        assertEquals("1 like", liked.getFormattedLikes());
+        assertEquals("2 comments", liked.getFormattedComments());
+    }
+
+    @Test
+    public void copySharesWhatDidNotChange() {
+        SnippetCard card = card(3, 0, true);
+
+        SnippetCard commented = card.withCommentsCount(1);
+
+        assertEquals("1 comment", commented.getFormattedComments());
+        assertEquals("", card.getFormattedComments());
+        assertEquals(card.getSlug(), commented.getSlug());
+        assertSame(card.getHighlightTokens(), commented.getHighlightTokens());
+        assertSame(card.getFormattedLikes(), commented.getFormattedLikes());
+        assertSame(card.getCodeFilename(), commented.getCodeFilename());
+        assertTrue(commented.isLiked());
+    }
+
+    @Test
+    public void displayStringsAreBuiltUpFront() {
+        SnippetCard card = card(0, 0, false);
+
+        assertNotNull(card.getHighlightTokens());
+        assertEquals("#csv", card.getDisplayTag(0));
+        assertEquals("#data", card.getDisplayTag(1));
+        assertEquals("octocat", card.getDisplayAuthorName());
+        assertEquals("csv_parser.py", card.getCodeFilename());
+    }
+
+    @Test
+    public void tagsWithoutANameAreSkipped() {
+        SnippetCard card = new SnippetCard("1", "csv-parser", "CSV Parser", null, "python", "", Iso8601.INVALID,
+                "import csv", new String[]{null, "csv", "#", "data"}, 0, null, null, "octocat", 0, 0, false,
+                "public", null);
+
+        assertEquals("#csv", card.getDisplayTag(0));
+        assertEquals("#data", card.getDisplayTag(1));
+        assertNull(card.getDisplayTag(2));
+    }
+
+    @Test
+    public void givenTokensAreKept() {
+        int[] tokens = {0, 6, 1};
+        SnippetCard card = new SnippetCard("1", "csv-parser", "CSV Parser", null, "python", "", Iso8601.INVALID,
+                "import csv", null, 0, null, null, "octocat", 0, 0, false, "public", tokens);
+
+        assertArrayEquals(tokens, card.getHighlightTokens());
+    }
+
+    private static SnippetCard card(int likes, int comments, boolean liked) {
+        return new SnippetCard("1", "csv-parser", "CSV Parser", "Reads rows", "python", "", Iso8601.INVALID,
+                "import csv\nprint(1)", new String[]{"csv", "#data"}, 0, null, null, "octocat",
+                likes, comments, liked, "public", null);
+    }
+}
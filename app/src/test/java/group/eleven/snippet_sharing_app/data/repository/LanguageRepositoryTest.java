@@ -0,0 +1,174 @@
+package group.eleven.snippet_sharing_app.data.repository;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.data.cache.LanguageRegistry;
+import group.eleven.snippet_sharing_app.data.model.Language;
+import group.eleven.snippet_sharing_app.utils.Resource;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * The language list is served from memory, and revalidated with its ETag once the TTL
+ * has passed.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class LanguageRepositoryTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final MockWebServer server = new MockWebServer();
+    private LanguageRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        LanguageRegistry.getInstance().reset();
+        repository = new LanguageRepository(RuntimeEnvironment.getApplication());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        LanguageRegistry.getInstance().reset();
+        server.shutdown();
+    }
+
+    @Test
+    public void freshListIsServedWithoutARequest() throws Exception {
+        server.enqueue(languages("v1", "#F7DF1E"));
+        List<Resource<List<Language>>> first = collect(repository.getLanguages(), 2);
+        assertEquals(Resource.Status.SUCCESS, first.get(1).status);
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+
+        List<Resource<List<Language>>> second = collect(repository.getLanguages(), 1);
+        assertEquals(Resource.Status.SUCCESS, second.get(0).status);
+        assertEquals(1, second.get(0).data.size());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void staleListRevalidatesWithItsEtag() throws Exception {
+        server.enqueue(languages("v1", "#F7DF1E"));
+        collect(repository.getLanguages(), 2);
+        server.takeRequest();
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(LanguageRepository.LANGUAGES_TTL_MS + 1));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        // Cached list first, no loading state; a 304 posts nothing more
+        List<Resource<List<Language>>> values = collect(repository.getLanguages(), 1);
+        RecordedRequest revalidation = server.takeRequest(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+        pumpUntil(() -> !LanguageRegistry.getInstance().isLanguagesStale(LanguageRepository.LANGUAGES_TTL_MS));
+        assertEquals(1, values.size());
+        assertEquals(Resource.Status.SUCCESS, values.get(0).status);
+
+        // Confirmed current, so the TTL starts over
+        collect(repository.getLanguages(), 1);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void changedListReplacesTheCacheAndRegistry() throws Exception {
+        server.enqueue(languages("v1", "#F7DF1E"));
+        collect(repository.getLanguages(), 2);
+        server.takeRequest();
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(LanguageRepository.LANGUAGES_TTL_MS + 1));
+        server.enqueue(languages("v2", "#111111"));
+
+        List<Resource<List<Language>>> values = collect(repository.getLanguages(), 2);
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(Resource.Status.SUCCESS, values.get(1).status);
+        assertEquals("#111111", values.get(1).data.get(0).getColor());
+
+        LanguageRegistry registry = LanguageRegistry.getInstance();
+        assertEquals("#111111", registry.resolve("javascript").getColorHex());
+        assertEquals("\"v2\"", registry.getLanguagesEtag());
+    }
+
+    @Test
+    public void failedRevalidationKeepsTheCachedList() throws Exception {
+        server.enqueue(languages("v1", "#F7DF1E"));
+        collect(repository.getLanguages(), 2);
+        server.takeRequest();
+
+        ShadowSystemClock.advanceBy(Duration.ofMillis(LanguageRepository.LANGUAGES_TTL_MS + 1));
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        List<Resource<List<Language>>> values = collect(repository.getLanguages(), 1);
+        server.takeRequest(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        pumpFor(300);
+        assertEquals(1, values.size());
+        assertEquals("#F7DF1E", values.get(0).data.get(0).getColor());
+        // Still stale, so the next caller tries again
+        assertTrue(LanguageRegistry.getInstance().isLanguagesStale(LanguageRepository.LANGUAGES_TTL_MS));
+    }
+
+    private static MockResponse languages(String etag, String color) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setHeader("ETag", "\"" + etag + "\"")
+                .setBody("{\"success\":true,\"message\":\"OK\",\"data\":[{\"id\":\"1\",\"name\":\"javascript\","
+                        + "\"slug\":\"javascript\",\"display_name\":\"JavaScript\",\"color\":\"" + color + "\"}]}");
+    }
+
+    /**
+     * Observe data until it has produced at least count values. Responses are delivered
+     * on the main looper, which only runs when the test idles it.
+     */
+    private static List<Resource<List<Language>>> collect(LiveData<Resource<List<Language>>> data, int count)
+            throws InterruptedException {
+        List<Resource<List<Language>>> values = new CopyOnWriteArrayList<>();
+        data.observeForever(values::add);
+        pumpUntil(() -> values.size() >= count);
+        return values;
+    }
+
+    private interface Condition {
+        boolean met();
+    }
+
+    private static void pumpUntil(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.met()) {
+            assertTrue("Timed out waiting on the main looper", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+
+    private static void pumpFor(long millis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package group.eleven.snippet_sharing_app.data.upload;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.fixtures.RealTimeClock;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * An avatar-sized upload against a stand-in for the /uploads API that drops the connection
+ * on one chunk. The next attempt must resume the same session and send only what the
+ * server says it is missing.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class ResumableUploaderTest {
+
+    private static final String UPLOAD_ID = "up_1";
+    private static final int CHUNK_SIZE = 32 * 1024;
+    private static final int FILE_SIZE = 150 * 1024;
+    private static final int TOTAL_CHUNKS = (FILE_SIZE + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    private static final int DROPPED_CHUNK = 2;
+    // Every attempt the client makes at the chunk in the first run
+    private static final int DROPS = 3;
+    private static final long TIMEOUT_MS = 20_000;
+
+    private static final Pattern CHUNK_PATH = Pattern.compile(".*/uploads/" + UPLOAD_ID + "/chunks/(\\d+)$");
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    @Rule
+    public RealTimeClock clock = new RealTimeClock();
+
+    private final MockWebServer server = new MockWebServer();
+    private final TreeMap<Long, byte[]> stored = new TreeMap<>();
+    private final List<Integer> chunkPuts = new CopyOnWriteArrayList<>();
+    private final AtomicInteger dropsLeft = new AtomicInteger(DROPS);
+    private final AtomicInteger creates = new AtomicInteger();
+    private Context context;
+    private File file;
+    private byte[] contents;
+
+    @Before
+    public void setUp() throws Exception {
+        server.setDispatcher(new UploadServer());
+        server.start();
+        ApiClient.setBaseUrlForTesting(server.url("/api/v1/").toString());
+        context = RuntimeEnvironment.getApplication();
+
+        contents = new byte[FILE_SIZE];
+        new Random(7).nextBytes(contents);
+        file = new File(context.getCacheDir(), "avatar_upload_test.jpg");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(contents);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        file.delete();
+    }
+
+    @Test
+    public void avatarIsLargeEnoughToResume() {
+        assertTrue(FILE_SIZE > ResumableUploader.MIN_RESUMABLE_BYTES);
+    }
+
+    @Test
+    public void droppedConnectionResumesFromServerState() throws Exception {
+        ResumableUploader uploader = ResumableUploader.getInstance(context);
+
+        Outcome first = upload(uploader);
+        assertNotNull("First run should fail on the dropped chunk", first.error);
+        assertEquals(0, dropsLeft.get());
+        assertTrue(stored.size() < TOTAL_CHUNKS);
+
+        chunkPuts.clear();
+        Outcome second = upload(uploader);
+        assertEquals("token-" + UPLOAD_ID, second.token);
+
+        // Same session, and only the chunk the server was missing went up again
+        assertEquals(1, creates.get());
+        assertEquals(Arrays.asList(DROPPED_CHUNK), chunkPuts);
+        assertArrayEquals(contents, assembled());
+    }
+
+    @Test
+    public void unreadableSavedSessionStartsOver() throws Exception {
+        // Its own instance, so it reads the preferences this test edits
+        ResumableUploader uploader = new ResumableUploader(context);
+        assertNotNull(upload(uploader).error);
+
+        // A saved session whose timestamp cannot be read is dropped, not thrown on
+        SharedPreferences prefs = context.getSharedPreferences("SnippetAppUploads", Context.MODE_PRIVATE);
+        SharedPreferences.Editor editor = prefs.edit();
+        for (String key : prefs.getAll().keySet()) {
+            editor.putString(key, UPLOAD_ID + "|not-a-time");
+        }
+        editor.commit();
+
+        Outcome second = upload(uploader);
+        assertEquals("token-" + UPLOAD_ID, second.token);
+        assertEquals(2, creates.get());
+    }
+
+    private Outcome upload(ResumableUploader uploader) throws InterruptedException {
+        AtomicReference<Outcome> result = new AtomicReference<>();
+        uploader.upload(file, "image/jpeg", new ResumableUploader.Callback() {
+            @Override
+            public void onProgress(long bytesSent, long totalBytes) {
+            }
+
+            @Override
+            public void onComplete(String uploadToken) {
+                result.set(new Outcome(uploadToken, null));
+            }
+
+            @Override
+            public void onUnsupported() {
+                result.set(new Outcome(null, "unsupported"));
+            }
+
+            @Override
+            public void onError(String message) {
+                result.set(new Outcome(null, message));
+            }
+        });
+        // Callbacks are posted to the main looper, which only runs when the test idles it
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (result.get() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        assertNotNull("Upload did not finish", result.get());
+        return result.get();
+    }
+
+    private byte[] assembled() {
+        synchronized (stored) {
+            byte[] out = new byte[FILE_SIZE];
+            for (Map.Entry<Long, byte[]> entry : stored.entrySet()) {
+                System.arraycopy(entry.getValue(), 0, out, entry.getKey().intValue(), entry.getValue().length);
+            }
+            return out;
+        }
+    }
+
+    private static final class Outcome {
+        final String token;
+        final String error;
+
+        Outcome(String token, String error) {
+            this.token = token;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Minimal /uploads server: remembers chunks by offset and reports which it has
+     */
+    private final class UploadServer extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            String method = request.getMethod();
+            if ("POST".equals(method) && path.endsWith("/uploads")) {
+                creates.incrementAndGet();
+                return session(null);
+            }
+            if ("GET".equals(method) && path.endsWith("/uploads/" + UPLOAD_ID)) {
+                return session(null);
+            }
+            if ("POST".equals(method) && path.endsWith("/uploads/" + UPLOAD_ID + "/complete")) {
+                return session("token-" + UPLOAD_ID);
+            }
+            Matcher chunk = CHUNK_PATH.matcher(path);
+            if ("PUT".equals(method) && chunk.matches()) {
+                int index = Integer.parseInt(chunk.group(1));
+                if (index == DROPPED_CHUNK && dropsLeft.getAndDecrement() > 0) {
+                    return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_DURING_REQUEST_BODY);
+                }
+                chunkPuts.add(index);
+                Matcher range = CONTENT_RANGE.matcher(request.getHeader("Content-Range"));
+                if (!range.matches()) {
+                    return new MockResponse().setResponseCode(400);
+                }
+                synchronized (stored) {
+                    stored.put(Long.parseLong(range.group(1)), request.getBody().readByteArray());
+                }
+                return session(null);
+            }
+            return new MockResponse().setResponseCode(404);
+        }
+
+        private MockResponse session(String uploadToken) {
+            List<Integer> received = new ArrayList<>();
+            synchronized (stored) {
+                for (long offset : stored.keySet()) {
+                    received.add((int) (offset / CHUNK_SIZE));
+                }
+            }
+            String body = "{\"success\":true,\"message\":\"OK\",\"data\":{"
+                    + "\"id\":\"" + UPLOAD_ID + "\",\"chunk_size\":" + CHUNK_SIZE
+                    + ",\"total_chunks\":" + TOTAL_CHUNKS + ",\"received_chunks\":" + received
+                    + (uploadToken != null ? ",\"upload_token\":\"" + uploadToken + "\"" : "")
+                    + "}}";
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package group.eleven.snippet_sharing_app.fixtures;
+
+import org.junit.rules.ExternalResource;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.time.Duration;
+
+/**
+ * Moves Robolectric's {@link android.os.SystemClock} forward in step with the wall clock.
+ *
+ * Robolectric freezes SystemClock unless a test advances it, so code that sleeps until an
+ * elapsedRealtime() deadline, such as the rate limiter's token wait, would never wake.
+ * With this rule it sees time pass as it would on a device.
+ */
+public class RealTimeClock extends ExternalResource {
+
+    private static final long TICK_MS = 5;
+
+    private volatile boolean running;
+    private Thread ticker;
+
+    @Override
+    protected void before() {
+        running = true;
+        ticker = new Thread(() -> {
+            long last = System.nanoTime();
+            while (running) {
+                try {
+                    Thread.sleep(TICK_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // The shadow clock counts whole milliseconds; carry the remainder
+                long elapsedMs = (System.nanoTime() - last) / 1_000_000;
+                if (elapsedMs > 0) {
+                    ShadowSystemClock.advanceBy(Duration.ofMillis(elapsedMs));
+                    last += elapsedMs * 1_000_000;
+                }
+            }
+        }, "real-time-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    protected void after() {
+        running = false;
+        ticker.interrupt();
+    }
+}
@@ -0,0 +1,637 @@
+package group.eleven.snippet_sharing_app.fixtures;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import group.eleven.snippet_sharing_app.data.model.Category;
+import group.eleven.snippet_sharing_app.data.model.Comment;
+import group.eleven.snippet_sharing_app.data.model.FeedActivity;
+import group.eleven.snippet_sharing_app.data.model.Notification;
+import group.eleven.snippet_sharing_app.data.model.Snippet;
+import group.eleven.snippet_sharing_app.data.model.TeamMember;
+import group.eleven.snippet_sharing_app.replay.ReplayServer;
+
+/**
+ * Deterministic generator of large, realistic API payloads for scaling tests.
+ *
+ * Everything is derived from the seed: the same seed and size always produce byte-identical
+ * JSON, and each kind of payload uses its own random stream, so asking for comments does
+ * not change the snippets. Shapes follow the API: snake_case fields, Laravel-style
+ * timestamps, replies nested under their root comment. Distributions are skewed the way
+ * real data is: a few languages dominate, most snippets are short with a long tail of
+ * large files, and a few comment threads hold most of the replies.
+ *
+ * Payloads come out as JSON (for {@link ReplayServer} routes or fixture files) or as
+ * model lists parsed with the app's Gson setup (for adapter and filter tests). Sizes from
+ * 10^2 to 10^5 items are practical; see {@link #SCALES}.
+ */
+public final class SyntheticDataset {
+
+    public static final int[] SCALES = {100, 1_000, 10_000, 100_000};
+
+    // 2025-01-01T00:00:00Z; timestamps count back from here so they do not depend on the clock
+    private static final long EPOCH_SECONDS = 1_735_689_600L;
+    private static final long ONE_YEAR_SECONDS = 365L * 24 * 3600;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", Locale.US).withZone(ZoneOffset.UTC);
+
+    // Stream salts, one per payload kind
+    private static final int USERS = 1;
+    private static final int SNIPPETS = 2;
+    private static final int COMMENTS = 3;
+    private static final int NOTIFICATIONS = 4;
+    private static final int MEMBERS = 5;
+    private static final int FEED = 6;
+    private static final int CATEGORIES = 7;
+
+    private static final int USER_POOL = 5_000;
+
+    private final long seed;
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Snippet.SnippetLanguage.class, new Snippet.SnippetLanguageDeserializer())
+            .create();
+
+    public SyntheticDataset(long seed) {
+        this.seed = seed;
+    }
+
+    // ---- JSON payloads ----
+
+    public JsonArray snippetsJson(int count) {
+        Random random = stream(SNIPPETS);
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            array.add(snippet(random, i));
+        }
+        return array;
+    }
+
+    /**
+     * count comments on one snippet: root comments with replies nested under them.
+     * About a third are roots; replies follow a power law, so a few threads are huge.
+     */
+    public JsonArray commentsJson(String snippetId, int count) {
+        Random random = stream(COMMENTS);
+        int roots = Math.max(1, count / 3);
+        int[] replies = new int[roots];
+        for (int i = roots; i < count; i++) {
+            replies[zipf(random, roots, 1.1)]++;
+        }
+        JsonArray array = new JsonArray();
+        int id = 0;
+        for (int r = 0; r < roots; r++) {
+            String rootId = "c" + (++id);
+            long rootTime = pastSeconds(random, ONE_YEAR_SECONDS);
+            JsonObject root = comment(random, rootId, snippetId, null, rootTime);
+            JsonArray nested = new JsonArray();
+            for (int k = 0; k < replies[r]; k++) {
+                long replyTime = Math.min(EPOCH_SECONDS, rootTime + (long) (random.nextDouble() * 30 * 24 * 3600));
+                nested.add(comment(random, "c" + (++id), snippetId, rootId, replyTime));
+            }
+            root.add("replies", nested);
+            array.add(root);
+        }
+        return array;
+    }
+
+    public JsonArray notificationsJson(int count) {
+        Random random = stream(NOTIFICATIONS);
+        String[][] kinds = {
+                {"comment", "New comment", "%s commented on your snippet"},
+                {"reply", "New reply", "%s replied to your comment"},
+                {"favorite", "Snippet favorited", "%s favorited your snippet"},
+                {"follow", "New follower", "%s started following you"},
+                {"team_invite", "Team invitation", "%s invited you to a team"},
+                {"mention", "You were mentioned", "%s mentioned you in a comment"},
+        };
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            String[] kind = kinds[zipf(random, kinds.length, 1.0)];
+            JsonObject actor = userRef(random);
+            long created = pastSeconds(random, 90L * 24 * 3600);
+            boolean read = random.nextDouble() < 0.6;
+            JsonObject notification = new JsonObject();
+            notification.addProperty("id", "n" + (i + 1));
+            notification.addProperty("user_id", "u1");
+            notification.addProperty("type", kind[0]);
+            notification.addProperty("title", kind[1]);
+            notification.addProperty("message", String.format(Locale.US, kind[2], actor.get("username").getAsString()));
+            notification.addProperty("actor_id", actor.get("id").getAsString());
+            notification.add("actor", actor);
+            notification.addProperty("related_resource_type", kind[0].equals("follow") ? "user" : "snippet");
+            notification.addProperty("related_resource_id", "s" + (1 + random.nextInt(Math.max(1, count))));
+            notification.addProperty("is_read", read);
+            notification.addProperty("read_at", read ? timestamp(created + 3600) : null);
+            notification.addProperty("created_at", timestamp(created));
+            notification.addProperty("updated_at", timestamp(created));
+            array.add(notification);
+        }
+        return array;
+    }
+
+    /**
+     * One owner, about 5% admins, the rest members
+     */
+    public JsonArray teamMembersJson(int count) {
+        Random random = stream(MEMBERS);
+        JsonArray array = new JsonArray();
+        for (int i = 0; i < count; i++) {
+            int user = i + 1;
+            JsonObject member = new JsonObject();
+            member.addProperty("user_id", "u" + user);
+            member.addProperty("username", username(user));
+            member.addProperty("email", username(user) + "@example.com");
+            member.addProperty("avatar_url", random.nextDouble() < 0.7 ? avatarUrl(user) : null);
+            member.addProperty("role", i == 0 ? "owner" : random.nextDouble() < 0.05 ? "admin" : "member");
+            array.add(member);
+        }
+        return array;
+    }
+
+    public JsonArray feedJson(int count) {
+        Random random = stream(FEED);
+        String[][] kinds = {
+                {"snippet_created", "created"},
+                {"snippet_updated", "updated"},
+                {"comment_created", "commented on"},
+                {"snippet_favorited", "favorited"},
+                {"snippet_forked", "forked"},
+        };
+        JsonArray array = new JsonArray();
+        long time = EPOCH_SECONDS;
+        for (int i = 0; i < count; i++) {
+            // Newest first, with bursty gaps
+            time -= (long) (-Math.log(1 - random.nextDouble()) * 1800);
+            String[] kind = kinds[zipf(random, kinds.length, 1.2)];
+            JsonObject user = userRef(random);
+            Language language = Language.pick(random);
+            int snippet = 1 + random.nextInt(Math.max(1, count));
+            JsonObject resource = new JsonObject();
+            resource.addProperty("id", "s" + snippet);
+            resource.addProperty("title", title(random, language));
+            resource.addProperty("slug", "snippet-" + snippet);
+            resource.addProperty("description", random.nextDouble() < 0.6 ? sentence(random, 6, 18) : null);
+            JsonObject lang = new JsonObject();
+            lang.addProperty("id", String.valueOf(language.ordinal() + 1));
+            lang.addProperty("name", language.slug);
+            lang.addProperty("slug", language.slug);
+            resource.add("language", lang);
+
+            JsonObject activity = new JsonObject();
+            activity.addProperty("id", "a" + (i + 1));
+            activity.addProperty("type", kind[0]);
+            activity.add("user", user);
+            activity.addProperty("resource_type", "snippet");
+            activity.addProperty("resource_id", resource.get("id").getAsString());
+            activity.add("resource", resource);
+            activity.addProperty("message", user.get("username").getAsString() + " " + kind[1] + " a snippet");
+            activity.addProperty("created_at", timestamp(time));
+            array.add(activity);
+        }
+        return array;
+    }
+
+    /**
+     * Category tree of count nodes, at most three levels deep, filled breadth first with
+     * uneven fan-out
+     */
+    public JsonArray categoryTreeJson(int count) {
+        Random random = stream(CATEGORIES);
+        JsonArray roots = new JsonArray();
+        Deque<JsonObject> open = new ArrayDeque<>();
+        int rootCount = Math.max(1, Math.min(count, 8 + (int) Math.sqrt(count) / 4));
+        int made = 0;
+        for (; made < rootCount; made++) {
+            JsonObject root = category(random, made + 1, null, 0);
+            roots.add(root);
+            open.add(root);
+        }
+        while (made < count && !open.isEmpty()) {
+            JsonObject parent = open.poll();
+            int depth = parent.get("depth").getAsInt();
+            int fanout = 1 + zipf(random, 12, 0.8);
+            for (int k = 0; k < fanout && made < count; k++) {
+                made++;
+                JsonObject child = category(random, made, parent.get("id").getAsString(), depth + 1);
+                parent.getAsJsonArray("children").add(child);
+                if (depth + 1 < 2) {
+                    open.add(child);
+                }
+            }
+            if (open.isEmpty() && made < count) {
+                // Tree is full at this depth; widen the roots
+                JsonObject root = category(random, ++made, null, 0);
+                roots.add(root);
+                open.add(root);
+            }
+        }
+        stripDepth(roots);
+        return roots;
+    }
+
+    // ---- Models ----
+
+    public List<Snippet> snippets(int count) {
+        return gson.fromJson(snippetsJson(count), new TypeToken<List<Snippet>>() {}.getType());
+    }
+
+    public List<Comment> comments(String snippetId, int count) {
+        return gson.fromJson(commentsJson(snippetId, count), new TypeToken<List<Comment>>() {}.getType());
+    }
+
+    public List<Notification> notifications(int count) {
+        return gson.fromJson(notificationsJson(count), new TypeToken<List<Notification>>() {}.getType());
+    }
+
+    public List<TeamMember> teamMembers(int count) {
+        return gson.fromJson(teamMembersJson(count), new TypeToken<List<TeamMember>>() {}.getType());
+    }
+
+    public List<FeedActivity> feed(int count) {
+        return gson.fromJson(feedJson(count), new TypeToken<List<FeedActivity>>() {}.getType());
+    }
+
+    public List<Category> categoryTree(int count) {
+        return gson.fromJson(categoryTreeJson(count), new TypeToken<List<Category>>() {}.getType());
+    }
+
+    // ---- Replay and fixtures ----
+
+    /**
+     * Wrap data in the API's {@code {success, message, data}} envelope
+     */
+    public static String envelope(JsonElement data) {
+        JsonObject body = new JsonObject();
+        body.addProperty("success", true);
+        body.addProperty("message", "OK");
+        body.add("data", data);
+        return body.toString();
+    }
+
+    /**
+     * Serve generated payloads of the given size from server, overriding its default routes
+     */
+    public void install(ReplayServer server, int size) {
+        String snippets = envelope(snippetsJson(size));
+        server.route("GET", "snippets/public", snippets)
+                .route("GET", "snippets/trending", snippets)
+                .route("GET", "search/snippets", snippets)
+                .route("GET", "snippets/[^/]+/comments", envelope(commentsJson("s1", size)))
+                .route("GET", "notifications", envelope(notificationsJson(size)))
+                .route("GET", "teams/[^/]+/members", envelope(teamMembersJson(size)))
+                .route("GET", "feed", envelope(feedJson(size)))
+                .route("GET", "feed/public", envelope(feedJson(size)))
+                .route("GET", "categories/tree", envelope(categoryTreeJson(size)));
+    }
+
+    /**
+     * Write every payload of the given size as replay fixtures into dir
+     */
+    public void writeFixtures(File dir, int size) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        String suffix = "_" + size;
+        write(new File(dir, "snippets" + suffix + ".json"), envelope(snippetsJson(size)));
+        write(new File(dir, "comments" + suffix + ".json"), envelope(commentsJson("s1", size)));
+        write(new File(dir, "notifications" + suffix + ".json"), envelope(notificationsJson(size)));
+        write(new File(dir, "team_members" + suffix + ".json"), envelope(teamMembersJson(size)));
+        write(new File(dir, "feed" + suffix + ".json"), envelope(feedJson(size)));
+        write(new File(dir, "categories" + suffix + ".json"), envelope(categoryTreeJson(size)));
+    }
+
+    /**
+     * Regenerate fixture files: {@code <dir> [size] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args.length > 0 ? args[0] : "app/src/test/resources/replay");
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        new SyntheticDataset(seed).writeFixtures(dir, size);
+        System.out.println("Wrote size " + size + " fixtures to " + dir);
+    }
+
+    private static void write(File file, String json) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(json);
+        }
+    }
+
+    // ---- Building blocks ----
+
+    private Random stream(int salt) {
+        return new Random(seed * 1_000_003L + salt);
+    }
+
+    private JsonObject snippet(Random random, int index) {
+        Language language = Language.pick(random);
+        int id = index + 1;
+        long created = pastSeconds(random, 2 * ONE_YEAR_SECONDS);
+        long updated = random.nextDouble() < 0.4
+                ? Math.min(EPOCH_SECONDS, created + (long) (random.nextDouble() * 60 * 24 * 3600)) : created;
+        // Views and favorites are heavy-tailed too
+        int views = (int) Math.min(1_000_000, Math.exp(random.nextGaussian() * 1.6 + 4));
+        JsonObject user = userRef(random);
+
+        JsonObject snippet = new JsonObject();
+        snippet.addProperty("id", "s" + id);
+        snippet.addProperty("user_id", user.get("id").getAsString());
+        snippet.addProperty("title", title(random, language));
+        snippet.addProperty("slug", "snippet-" + id);
+        snippet.addProperty("description", random.nextDouble() < 0.7 ? sentence(random, 5, 30) : null);
+        snippet.addProperty("code", code(random, language));
+        snippet.addProperty("privacy", random.nextDouble() < 0.85 ? "public" : "private");
+        snippet.addProperty("view_count", views);
+        snippet.addProperty("favorite_count", (int) (views * random.nextDouble() * 0.05));
+        snippet.addProperty("comment_count", (int) (views * random.nextDouble() * 0.02));
+        snippet.addProperty("fork_count", (int) (views * random.nextDouble() * 0.01));
+        snippet.addProperty("is_fork", random.nextDouble() < 0.05);
+        snippet.addProperty("version_number", 1 + zipf(random, 10, 1.5));
+        snippet.addProperty("is_featured", random.nextDouble() < 0.02);
+        JsonObject lang = new JsonObject();
+        lang.addProperty("id", String.valueOf(language.ordinal() + 1));
+        lang.addProperty("name", language.slug);
+        lang.addProperty("slug", language.slug);
+        lang.addProperty("display_name", language.displayName);
+        lang.addProperty("color", language.color);
+        snippet.add("language", lang);
+        snippet.addProperty("created_at", timestamp(created));
+        snippet.addProperty("updated_at", timestamp(updated));
+        JsonArray tags = new JsonArray();
+        int tagCount = zipf(random, 6, 1.0);
+        for (int t = 0; t < tagCount; t++) {
+            String name = TAGS[zipf(random, TAGS.length, 1.0)];
+            JsonObject tag = new JsonObject();
+            tag.addProperty("id", "t" + name.hashCode());
+            tag.addProperty("name", name);
+            tag.addProperty("slug", name);
+            tag.addProperty("color", "#6B7280");
+            tags.add(tag);
+        }
+        snippet.add("tags", tags);
+        snippet.add("user", user);
+        snippet.addProperty("is_favorited", random.nextDouble() < 0.1);
+        snippet.addProperty("is_owner", false);
+        return snippet;
+    }
+
+    private JsonObject comment(Random random, String id, String snippetId, String parentId, long created) {
+        JsonObject author = userRef(random);
+        boolean edited = random.nextDouble() < 0.08;
+        JsonObject comment = new JsonObject();
+        comment.addProperty("id", id);
+        comment.addProperty("snippet_id", snippetId);
+        comment.addProperty("user_id", author.get("id").getAsString());
+        comment.addProperty("parent_comment_id", parentId);
+        comment.addProperty("content", sentence(random, 2, random.nextDouble() < 0.1 ? 120 : 25));
+        comment.addProperty("created_at", timestamp(created));
+        comment.addProperty("updated_at", timestamp(edited ? Math.min(EPOCH_SECONDS, created + 600) : created));
+        comment.addProperty("likes_count", (int) Math.exp(random.nextGaussian() * 1.2));
+        comment.addProperty("is_liked", random.nextDouble() < 0.1);
+        comment.addProperty("is_edited", edited);
+        comment.add("user", author);
+        if (parentId == null) {
+            comment.add("replies", new JsonArray());
+        }
+        return comment;
+    }
+
+    private JsonObject category(Random random, int id, String parentId, int depth) {
+        String name = CATEGORY_WORDS[random.nextInt(CATEGORY_WORDS.length)] + " " + id;
+        JsonObject category = new JsonObject();
+        category.addProperty("id", "cat" + id);
+        category.addProperty("name", name);
+        category.addProperty("slug", name.toLowerCase(Locale.US).replace(' ', '-'));
+        category.addProperty("description", sentence(random, 4, 12));
+        category.addProperty("parent_category_id", parentId);
+        category.addProperty("color", Language.values()[random.nextInt(Language.values().length)].color);
+        category.addProperty("order", id);
+        category.addProperty("snippets_count", (int) Math.exp(random.nextGaussian() * 1.5 + 3));
+        category.addProperty("is_active", random.nextDouble() < 0.95);
+        category.add("children", new JsonArray());
+        // Working field, removed before the tree is returned
+        category.addProperty("depth", depth);
+        return category;
+    }
+
+    private static void stripDepth(JsonArray categories) {
+        for (JsonElement element : categories) {
+            JsonObject category = element.getAsJsonObject();
+            category.remove("depth");
+            stripDepth(category.getAsJsonArray("children"));
+        }
+    }
+
+    /**
+     * A user from a fixed pool, popular users appearing far more often
+     */
+    private static JsonObject userRef(Random random) {
+        int user = 1 + zipf(random, USER_POOL, 1.05);
+        JsonObject ref = new JsonObject();
+        ref.addProperty("id", "u" + user);
+        ref.addProperty("username", username(user));
+        ref.addProperty("full_name", FIRST_NAMES[user % FIRST_NAMES.length] + " "
+                + LAST_NAMES[(user / FIRST_NAMES.length) % LAST_NAMES.length]);
+        ref.addProperty("avatar_url", user % 3 != 0 ? avatarUrl(user) : null);
+        return ref;
+    }
+
+    private static String username(int user) {
+        return FIRST_NAMES[user % FIRST_NAMES.length].toLowerCase(Locale.US) + user;
+    }
+
+    private static String avatarUrl(int user) {
+        return "https://avatars.example.com/u/" + user + ".png";
+    }
+
+    /**
+     * Code body with a log-normal line count: median about 14 lines, rarely several hundred
+     */
+    private static String code(Random random, Language language) {
+        int lines = (int) Math.max(1, Math.min(800, Math.round(Math.exp(random.nextGaussian() * 0.9 + 2.65))));
+        StringBuilder code = new StringBuilder(lines * 32);
+        int indent = 0;
+        for (int i = 0; i < lines; i++) {
+            String template = language.lines[random.nextInt(language.lines.length)];
+            String line = template
+                    .replace("$a", IDENTIFIERS[random.nextInt(IDENTIFIERS.length)])
+                    .replace("$b", IDENTIFIERS[random.nextInt(IDENTIFIERS.length)])
+                    .replace("$T", TYPES[random.nextInt(TYPES.length)])
+                    .replace("$n", String.valueOf(random.nextInt(1000)));
+            if (i > 0) {
+                code.append('\n');
+            }
+            for (int s = 0; s < indent; s++) {
+                code.append("    ");
+            }
+            code.append(line);
+            indent = Math.max(0, Math.min(4, indent + (random.nextInt(3) - 1)));
+        }
+        return code.toString();
+    }
+
+    private static String title(Random random, Language language) {
+        return VERBS[random.nextInt(VERBS.length)] + " " + IDENTIFIERS[random.nextInt(IDENTIFIERS.length)]
+                + " in " + language.displayName;
+    }
+
+    private static String sentence(Random random, int minWords, int maxWords) {
+        int words = minWords + random.nextInt(Math.max(1, maxWords - minWords + 1));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) text.append(' ');
+            text.append(WORDS[zipf(random, WORDS.length, 0.9)]);
+        }
+        text.setCharAt(0, Character.toUpperCase(text.charAt(0)));
+        return text.append('.').toString();
+    }
+
+    private static long pastSeconds(Random random, long range) {
+        return EPOCH_SECONDS - (long) (random.nextDouble() * range);
+    }
+
+    private static String timestamp(long epochSeconds) {
+        return TIMESTAMP.format(Instant.ofEpochSecond(epochSeconds));
+    }
+
+    /**
+     * Zipf-like rank in [0, n): rank 0 most likely, weight 1 / (rank + 1)^exponent.
+     * Sampled by inverting the continuous approximation, so it is O(1) for any n.
+     */
+    private static int zipf(Random random, int n, double exponent) {
+        if (n <= 1) {
+            return 0;
+        }
+        double u = random.nextDouble();
+        double rank;
+        if (Math.abs(exponent - 1.0) < 1e-9) {
+            rank = Math.pow(n + 1, u) - 1;
+        } else {
+            double a = 1 - exponent;
+            rank = Math.pow(u * (Math.pow(n + 1, a) - 1) + 1, 1 / a) - 1;
+        }
+        return (int) Math.min(n - 1, Math.max(0, Math.floor(rank)));
+    }
+
+    /**
+     * Languages in rough order of popularity, with a few line templates each
+     */
+    private enum Language {
+        JAVASCRIPT("javascript", "JavaScript", "#F7DF1E",
+                "const $a = await fetch(`/api/$b`);", "function $a($b) {", "return $a.map(x => x * $n);",
+                "}", "if (!$a) throw new Error('$b missing');", "// TODO: cache $a", "export default $a;"),
+        PYTHON("python", "Python", "#3776AB",
+                "def $a($b):", "return [x for x in $a if x > $n]", "import $a", "class $T:",
+                "# $a is cached per request", "with open($a) as f:", "$a = $b.get('$a', $n)"),
+        JAVA("java", "Java", "#ED8B00",
+                "public $T $a($T $b) {", "return $b.stream().filter(x -> x > $n).count();", "}",
+                "private final $T $a = new $T();", "// Guarded by this", "if ($a == null) return;",
+                "for (int i = 0; i < $n; i++) {"),
+        TYPESCRIPT("typescript", "TypeScript", "#3178C6",
+                "interface $T { $a: number; }", "export const $a = ($b: $T): void => {", "};",
+                "type $T = Record<string, number>;", "let $a: $T | null = null;"),
+        PHP("php", "PHP", "#777BB4",
+                "public function $a($b) {", "return $this->$a->where('$b', $n)->get();", "}",
+                "$$a = new $T();", "// Eager load to avoid N+1"),
+        CSHARP("csharp", "C#", "#239120",
+                "public async Task<$T> $a(int $b) {", "var $a = await _db.$T.FindAsync($b);", "}",
+                "return $a ?? throw new ArgumentNullException(nameof($b));"),
+        CPP("cpp", "C++", "#00599C",
+                "std::vector<int> $a;", "for (auto& $a : $b) {", "}", "return std::move($a);",
+                "template <typename $T>", "$a.reserve($n);"),
+        GO("go", "Go", "#00ADD8",
+                "func $a($b int) ($T, error) {", "if err != nil { return nil, err }", "}",
+                "$a := make([]int, 0, $n)", "defer $a.Close()"),
+        KOTLIN("kotlin", "Kotlin", "#7F52FF",
+                "fun $a($b: Int): $T {", "val $a = $b.filter { it > $n }", "}",
+                "data class $T(val $a: String)", "return $a ?: error(\"$b\")"),
+        RUST("rust", "Rust", "#DEA584",
+                "fn $a($b: &str) -> Result<$T, Error> {", "let $a = $b.iter().map(|x| x * $n).collect();",
+                "}", "impl $T {", "Ok($a)"),
+        SQL("sql", "SQL", "#4479A1",
+                "SELECT $a, COUNT(*) FROM $b", "WHERE $a > $n", "GROUP BY $a", "ORDER BY $b DESC;",
+                "CREATE INDEX idx_$a ON $b ($a);"),
+        SHELL("shell", "Shell", "#4EAA25",
+                "for f in $a/*; do", "done", "$a=$(cat $b | wc -l)", "if [ -z \"$$a\" ]; then", "fi"),
+        RUBY("ruby", "Ruby", "#CC342D",
+                "def $a($b)", "end", "$a.each { |x| puts x * $n }", "class $T < Base"),
+        SWIFT("swift", "Swift", "#FA7343",
+                "func $a(_ $b: Int) -> $T {", "}", "guard let $a = $b else { return }", "let $a = [$n]"),
+        DART("dart", "Dart", "#0175C2",
+                "Future<$T> $a(int $b) async {", "}", "final $a = <int>[];", "return $a.where((x) => x > $n);"),
+        HTML("html", "HTML", "#E34F26",
+                "<div class=\"$a\">", "</div>", "<span id=\"$b\">$n</span>", "<ul><li>$a</li></ul>"),
+        CSS("css", "CSS", "#1572B6",
+                ".$a {", "}", "  margin: $npx;", "  display: flex;", "@media (max-width: $npx) {");
+
+        final String slug;
+        final String displayName;
+        final String color;
+        final String[] lines;
+
+        Language(String slug, String displayName, String color, String... lines) {
+            this.slug = slug;
+            this.displayName = displayName;
+            this.color = color;
+            this.lines = lines;
+        }
+
+        static Language pick(Random random) {
+            return values()[zipf(random, values().length, 1.1)];
+        }
+    }
+
+    private static final String[] IDENTIFIERS = {
+            "items", "user", "cache", "result", "config", "request", "response", "buffer", "index",
+            "session", "token", "payload", "count", "handler", "queue", "node", "path", "value"
+    };
+
+    private static final String[] TYPES = {"User", "Order", "Snippet", "Result", "Config", "Node", "Item"};
+
+    private static final String[] VERBS = {
+            "Parse", "Cache", "Debounce", "Paginate", "Retry", "Validate", "Flatten", "Sort", "Merge", "Stream"
+    };
+
+    private static final String[] TAGS = {
+            "utils", "async", "performance", "testing", "database", "api", "security", "algorithms",
+            "ui", "networking", "cli", "parsing", "concurrency", "caching", "regex", "devops"
+    };
+
+    private static final String[] WORDS = {
+            "the", "this", "to", "a", "is", "it", "and", "of", "works", "nice", "thanks", "but",
+            "why", "could", "use", "faster", "cache", "null", "here", "great", "edge", "case",
+            "should", "list", "loop", "instead", "better", "bug", "fix", "version", "memory", "check"
+    };
+
+    private static final String[] CATEGORY_WORDS = {
+            "Web", "Mobile", "Backend", "Data", "DevOps", "Testing", "Security", "Algorithms", "UI", "Tools"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Linus", "Grace", "Alan", "Barbara", "Ken", "Margaret", "Dennis", "Radia", "Guido",
+            "Frances", "Bjarne", "Katherine", "James", "Hedy", "Tim", "Sophie", "Yukihiro", "Anders", "Joan"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Okafor", "Nguyen", "Garcia", "Kowalski", "Haddad", "Tanaka", "Silva", "Muller", "Ivanova"
+    };
+}
@@ -0,0 +1,123 @@
+package group.eleven.snippet_sharing_app.fixtures;
+
+import android.app.Application;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import group.eleven.snippet_sharing_app.data.mapping.MappingStage;
+import group.eleven.snippet_sharing_app.data.model.Category;
+import group.eleven.snippet_sharing_app.data.model.Comment;
+import group.eleven.snippet_sharing_app.data.model.Snippet;
+import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the generator is deterministic and well-formed, and times card mapping and
+ * language filtering across {@link SyntheticDataset#SCALES}.
+ *
+ * The scaling run stops at 10^4 by default; pass {@code -Dload.maxScale=100000} for the
+ * full range. Timings are printed to stdout.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class SyntheticDatasetTest {
+
+    private static final int MAX_SCALE = Integer.getInteger("load.maxScale", 10_000);
+
+    @Test
+    public void sameSeedSameData() {
+        assertEquals(new SyntheticDataset(7).snippetsJson(200).toString(),
+                new SyntheticDataset(7).snippetsJson(200).toString());
+        assertNotEquals(new SyntheticDataset(7).snippetsJson(200).toString(),
+                new SyntheticDataset(8).snippetsJson(200).toString());
+    }
+
+    @Test
+    public void payloadsAreIndependentOfCallOrder() {
+        SyntheticDataset first = new SyntheticDataset(7);
+        first.commentsJson("s1", 50);
+        SyntheticDataset second = new SyntheticDataset(7);
+        assertEquals(first.snippetsJson(50).toString(), second.snippetsJson(50).toString());
+    }
+
+    @Test
+    public void producesRequestedCounts() {
+        SyntheticDataset dataset = new SyntheticDataset(42);
+        assertEquals(500, dataset.snippets(500).size());
+        assertEquals(500, dataset.notifications(500).size());
+        assertEquals(500, dataset.teamMembers(500).size());
+        assertEquals(500, dataset.feed(500).size());
+
+        int comments = 0;
+        for (Comment root : dataset.comments("s1", 500)) {
+            comments += 1 + root.getReplies().size();
+        }
+        assertEquals(500, comments);
+
+        assertEquals(500, countCategories(dataset.categoryTree(500)));
+    }
+
+    @Test
+    public void snippetsParseLikeTheApp() {
+        for (Snippet snippet : new SyntheticDataset(42).snippets(300)) {
+            assertNotNull(snippet.getLanguage());
+            assertNotNull(snippet.getLanguageName());
+            assertTrue(snippet.getCode().length() > 0);
+        }
+    }
+
+    @Test
+    public void mappingAndFilteringScale() {
+        SyntheticDataset dataset = new SyntheticDataset(42);
+        for (int size : SyntheticDataset.SCALES) {
+            if (size > MAX_SCALE) {
+                break;
+            }
+            long start = System.nanoTime();
+            List<Snippet> snippets = dataset.snippets(size);
+            long parsed = System.nanoTime();
+
+            List<SnippetCard> cards = new ArrayList<>(snippets.size());
+            for (Snippet snippet : snippets) {
+                cards.add(MappingStage.toSnippetCard(snippet));
+            }
+            long mapped = System.nanoTime();
+
+            List<Snippet> python = new ArrayList<>();
+            for (Snippet snippet : snippets) {
+                if ("python".equals(snippet.getLanguageString())) {
+                    python.add(snippet);
+                }
+            }
+            long filtered = System.nanoTime();
+
+            assertEquals(size, cards.size());
+            // Printed with the load tests (-Dload.run=true) only
+            if (Boolean.getBoolean("load.run")) {
+                System.out.println(String.format(Locale.US,
+                        "n=%-6d generate+parse=%7.1fms map=%7.1fms (%5.1fus/card) filter=%6.2fms (%d python)",
+                        size, (parsed - start) / 1e6, (mapped - parsed) / 1e6,
+                        (mapped - parsed) / 1e3 / size, (filtered - mapped) / 1e6, python.size()));
+            }
+        }
+    }
+
+    private static int countCategories(List<Category> categories) {
+        int count = 0;
+        for (Category category : categories) {
+            count += 1 + countCategories(category.getChildren());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,168 @@
+package group.eleven.snippet_sharing_app.replay;
+
+import android.os.Looper;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+
+import org.robolectric.Shadows;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Drives repository calls at a fixed concurrency and reports throughput and latency.
+ *
+ * Runs on the Robolectric main thread. Calls are started there, as the screens start them;
+ * between completions the main looper is idled so callbacks the repositories post to it
+ * (section deadlines, mapped results) are delivered. Latency is measured from the start of
+ * a call to its first terminal result.
+ */
+public final class LoadHarness {
+
+    private static final long POLL_MS = 2;
+
+    /**
+     * Outcome of one finished call
+     */
+    public enum Outcome {
+        SUCCESS,
+        ERROR
+    }
+
+    /**
+     * One repository call. Start it and report its outcome, from any thread, exactly once.
+     */
+    public interface Call {
+        void start(Consumer<Outcome> done);
+    }
+
+    /**
+     * Results of one run. Latencies are in milliseconds.
+     */
+    public static final class Report {
+        public final String name;
+        public final int calls;
+        public final int errors;
+        public final int concurrency;
+        public final long elapsedMs;
+        public final double p50;
+        public final double p90;
+        public final double p95;
+        public final double p99;
+        public final double max;
+
+        Report(String name, int concurrency, long elapsedMs, int errors, long[] latenciesNanos) {
+            this.name = name;
+            this.calls = latenciesNanos.length;
+            this.errors = errors;
+            this.concurrency = concurrency;
+            this.elapsedMs = elapsedMs;
+            long[] sorted = latenciesNanos.clone();
+            Arrays.sort(sorted);
+            this.p50 = percentileMs(sorted, 0.50);
+            this.p90 = percentileMs(sorted, 0.90);
+            this.p95 = percentileMs(sorted, 0.95);
+            this.p99 = percentileMs(sorted, 0.99);
+            this.max = sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0;
+        }
+
+        public double getErrorRate() {
+            return calls > 0 ? (double) errors / calls : 0;
+        }
+
+        public double getThroughputPerSecond() {
+            return elapsedMs > 0 ? calls * 1000.0 / elapsedMs : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%-24s c=%-3d n=%-5d err=%-4d %7.1f req/s  p50=%6.1fms p90=%6.1fms p95=%6.1fms p99=%6.1fms max=%6.1fms",
+                    name, concurrency, calls, errors, getThroughputPerSecond(), p50, p90, p95, p99, max);
+        }
+
+        private static double percentileMs(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+
+    private LoadHarness() {
+        // Utility class
+    }
+
+    /**
+     * Run calls in total, keeping concurrency of them in flight, and fail if they have not
+     * all finished within timeoutMs
+     */
+    public static Report run(String name, int concurrency, int calls, long timeoutMs, Call call) {
+        LinkedBlockingQueue<long[]> finished = new LinkedBlockingQueue<>();
+        long[] latencies = new long[calls];
+        int started = 0;
+        int completed = 0;
+        int errors = 0;
+        long runStart = System.nanoTime();
+        long deadline = runStart + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (completed < calls) {
+            while (started - completed < concurrency && started < calls) {
+                long callStart = System.nanoTime();
+                boolean[] reported = new boolean[1];
+                call.start(outcome -> {
+                    synchronized (reported) {
+                        if (reported[0]) return;
+                        reported[0] = true;
+                    }
+                    finished.add(new long[] {System.nanoTime() - callStart, outcome == Outcome.SUCCESS ? 0 : 1});
+                });
+                started++;
+            }
+
+            Shadows.shadowOf(Looper.getMainLooper()).idle();
+            long[] result;
+            try {
+                result = finished.poll(POLL_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during " + name, e);
+            }
+            while (result != null) {
+                latencies[completed++] = result[0];
+                errors += (int) result[1];
+                result = finished.poll();
+            }
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(name + ": only " + completed + " of " + calls
+                        + " calls finished within " + timeoutMs + "ms");
+            }
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - runStart);
+        return new Report(name, concurrency, elapsedMs, errors, latencies);
+    }
+
+    /**
+     * Watch a repository LiveData until outcomeOf returns non-null for a value, then report
+     * that outcome and stop watching
+     */
+    public static <T> void awaitOutcome(LiveData<T> data, Function<T, Outcome> outcomeOf, Consumer<Outcome> done) {
+        data.observeForever(new Observer<T>() {
+            @Override
+            public void onChanged(T value) {
+                Outcome outcome = outcomeOf.apply(value);
+                if (outcome != null) {
+                    data.removeObserver(this);
+                    done.accept(outcome);
+                }
+            }
+        });
+    }
+}
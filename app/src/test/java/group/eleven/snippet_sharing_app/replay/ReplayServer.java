@@ -0,0 +1,246 @@
+package group.eleven.snippet_sharing_app.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Local stand-in for the API that replays recorded {@code ApiService} responses.
+ *
+ * Bodies are JSON files under {@code src/test/resources/replay/}, or strings registered
+ * directly. Routes match the request path below {@code /api/v1/} by regular expression; the
+ * query string is ignored. The most recently registered matching route wins, so a test can
+ * override one of the defaults. Latency, bandwidth and failures can be injected; failures
+ * are drawn from a seeded random so a run is repeatable.
+ */
+public final class ReplayServer implements Closeable {
+
+    private static final String API_PREFIX = "/api/v1/";
+    private static final String FIXTURE_DIR = "replay/";
+
+    /**
+     * What an injected failure looks like to the client
+     */
+    public enum Failure {
+        /** A 500 with an error body */
+        SERVER_ERROR,
+        /** The connection is closed after the request is read */
+        DISCONNECT,
+        /** The request is read and never answered, so the client times out */
+        TIMEOUT
+    }
+
+    private static final class Route {
+        final String method;
+        final Pattern path;
+        final String body;
+
+        Route(String method, Pattern path, String body) {
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private final List<Route> routes = new CopyOnWriteArrayList<>();
+    private final Random random;
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile long bytesPerSecond;
+    private volatile double failureRate;
+    private volatile Failure failure = Failure.SERVER_ERROR;
+
+    private final AtomicInteger served = new AtomicInteger();
+    private final AtomicInteger injectedFailures = new AtomicInteger();
+    private final AtomicInteger unmatched = new AtomicInteger();
+
+    public ReplayServer(long seed) {
+        this.random = new Random(seed);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    /**
+     * Routes for the feeds, search, teams, comments and notifications screens
+     */
+    public ReplayServer withDefaultRoutes() {
+        routeFixture("GET", "feed", "feed");
+        routeFixture("GET", "feed/public", "feed");
+        routeFixture("GET", "feed/stats", "feed_stats");
+        routeFixture("GET", "snippets/public", "snippets");
+        routeFixture("GET", "snippets/trending", "snippets");
+        routeFixture("GET", "snippets/[^/]+/comments", "comments");
+        routeFixture("GET", "search", "search");
+        routeFixture("GET", "search/snippets", "search_snippets");
+        routeFixture("GET", "teams", "teams");
+        routeFixture("GET", "teams/[^/]+/snippets", "team_snippets");
+        routeFixture("GET", "notifications", "notifications");
+        route("GET", "notifications/unread-count", "{\"success\":true,\"message\":\"OK\",\"data\":2}");
+        return this;
+    }
+
+    /**
+     * Answer method requests whose path matches pathRegex with body
+     */
+    public ReplayServer route(String method, String pathRegex, String body) {
+        routes.add(0, new Route(method, Pattern.compile(pathRegex), body));
+        return this;
+    }
+
+    /**
+     * Answer with the fixture {@code replay/<fixture>.json} from the test classpath.
+     * Routes to fixtures that do not exist are skipped.
+     */
+    public ReplayServer routeFixture(String method, String pathRegex, String fixture) {
+        String body = loadFixture(fixture);
+        if (body != null) {
+            route(method, pathRegex, body);
+        }
+        return this;
+    }
+
+    /**
+     * Delay before the response headers: latencyMs plus up to jitterMs
+     */
+    public ReplayServer latency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        return this;
+    }
+
+    /**
+     * Throttle response bodies to this rate; 0 for unlimited
+     */
+    public ReplayServer bandwidth(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Fail this share of requests (0 to 1) in the given way
+     */
+    public ReplayServer failures(double rate, Failure failure) {
+        this.failureRate = rate;
+        this.failure = failure;
+        return this;
+    }
+
+    /**
+     * Start listening and return the base URL to hand to the API client
+     */
+    public String start() throws IOException {
+        server.start();
+        return server.url(API_PREFIX).toString();
+    }
+
+    public int getServedCount() {
+        return served.get();
+    }
+
+    public int getInjectedFailureCount() {
+        return injectedFailures.get();
+    }
+
+    /**
+     * Requests no route matched; a non-zero count usually means a fixture is missing
+     */
+    public int getUnmatchedCount() {
+        return unmatched.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        served.incrementAndGet();
+        long delay;
+        boolean fail;
+        synchronized (random) {
+            delay = latencyMs + (jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0);
+            fail = failureRate > 0 && random.nextDouble() < failureRate;
+        }
+
+        MockResponse response = new MockResponse().setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        if (fail) {
+            injectedFailures.incrementAndGet();
+            switch (failure) {
+                case DISCONNECT:
+                    return response.setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+                case TIMEOUT:
+                    return response.setSocketPolicy(SocketPolicy.NO_RESPONSE);
+                default:
+                    return json(response.setResponseCode(500),
+                            "{\"success\":false,\"message\":\"Injected failure\"}");
+            }
+        }
+
+        String path = relativePath(request);
+        for (Route route : routes) {
+            if (route.method.equals(request.getMethod()) && route.path.matcher(path).matches()) {
+                return json(response, route.body);
+            }
+        }
+        unmatched.incrementAndGet();
+        return json(response.setResponseCode(404),
+                "{\"success\":false,\"message\":\"No replay for " + request.getMethod() + " " + path + "\"}");
+    }
+
+    private MockResponse json(MockResponse response, String body) {
+        response.setHeader("Content-Type", "application/json").setBody(body);
+        long rate = bytesPerSecond;
+        if (rate > 0) {
+            // Release the body in 100ms slices
+            response.throttleBody(Math.max(1, rate / 10), 100, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private static String relativePath(RecordedRequest request) {
+        String path = request.getPath() != null ? request.getPath() : "";
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        return path.startsWith(API_PREFIX) ? path.substring(API_PREFIX.length()) : path;
+    }
+
+    private static String loadFixture(String name) {
+        try (InputStream in = ReplayServer.class.getClassLoader()
+                .getResourceAsStream(FIXTURE_DIR + name + ".json")) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable fixture " + name, e);
+        }
+    }
+}
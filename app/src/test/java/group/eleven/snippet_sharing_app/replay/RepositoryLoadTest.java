@@ -0,0 +1,173 @@
+package group.eleven.snippet_sharing_app.replay;
+
+import android.app.Application;
+import android.content.Context;
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.Collections;
+
+import group.eleven.snippet_sharing_app.api.ApiClient;
+import group.eleven.snippet_sharing_app.api.CircuitBreaker;
+import group.eleven.snippet_sharing_app.data.repository.AuthRepository;
+import group.eleven.snippet_sharing_app.data.repository.CommentRepository;
+import group.eleven.snippet_sharing_app.data.repository.DashboardRepository;
+import group.eleven.snippet_sharing_app.data.repository.SearchRepository;
+import group.eleven.snippet_sharing_app.data.repository.TeamRepository;
+import group.eleven.snippet_sharing_app.fixtures.RealTimeClock;
+import group.eleven.snippet_sharing_app.replay.LoadHarness.Outcome;
+import group.eleven.snippet_sharing_app.utils.Resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Load tests for the repositories against {@link ReplayServer}, through the real OkHttp
+ * stack (rate limiter, retries, circuit breaker, converters) and the real mapping stage.
+ *
+ * Skipped unless -Dload.run=true, so the default unit test run stays fast. Each run must
+ * stay within an error rate and a p95 latency; reports are printed to stdout. Defaults keep
+ * the run short; tune with system properties:
+ * <pre>
+ * ./gradlew testDebugUnitTest --tests '*RepositoryLoadTest' -Dload.run=true \
+ *     -Dload.maxErrorRate=0.01 -Dload.maxP95Ms=2500 -Dload.concurrency=16 -Dload.calls=2000 -Dload.latencyMs=80 -Dload.jitterMs=40 \
+ *     -Dload.bytesPerSecond=250000 -Dload.failureRate=0.05 -Dload.failure=DISCONNECT
+ * </pre>
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class RepositoryLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+    private static final int CALLS = Integer.getInteger("load.calls", 100);
+    private static final long LATENCY_MS = Long.getLong("load.latencyMs", 20);
+    private static final long JITTER_MS = Long.getLong("load.jitterMs", 10);
+    private static final long BYTES_PER_SECOND = Long.getLong("load.bytesPerSecond", 0);
+    private static final double FAILURE_RATE = Double.parseDouble(System.getProperty("load.failureRate", "0"));
+    private static final ReplayServer.Failure FAILURE =
+            ReplayServer.Failure.valueOf(System.getProperty("load.failure", "SERVER_ERROR"));
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final long TIMEOUT_MS = Long.getLong("load.timeoutMs", 120_000);
+    // Retries should absorb injected failures, so by default no more may surface than were injected
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("load.maxErrorRate", String.valueOf(FAILURE_RATE)));
+    // Room for the rate limiter's longest normal wait on top of the replayed latency
+    private static final long MAX_P95_MS = Long.getLong("load.maxP95Ms", 2_500);
+
+    // The rate limiter and circuit breaker time out against SystemClock
+    @Rule
+    public RealTimeClock clock = new RealTimeClock();
+
+    // Repository callbacks arrive on OkHttp threads here rather than the main thread
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutor = new InstantTaskExecutorRule();
+
+    private ReplayServer server;
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeTrue("Load tests run with -Dload.run=true", Boolean.getBoolean("load.run"));
+        server = new ReplayServer(SEED)
+                .withDefaultRoutes()
+                .latency(LATENCY_MS, JITTER_MS)
+                .bandwidth(BYTES_PER_SECOND)
+                .failures(FAILURE_RATE, FAILURE);
+        ApiClient.setBaseUrlForTesting(server.start());
+        context = RuntimeEnvironment.getApplication();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        // The limiter and breakers are static; leave them as the next test class expects
+        ApiClient.getRateLimiter().reset();
+        CircuitBreaker.resetAll();
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    public void dashboardPublicSnippets() {
+        DashboardRepository repository = new DashboardRepository(context);
+        report(LoadHarness.run("dashboard.publicSnippets", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.getPublicSnippets(20),
+                        RepositoryLoadTest::outcomeOf, done)));
+    }
+
+    @Test
+    public void dashboardActivityFeed() {
+        DashboardRepository repository = new DashboardRepository(context);
+        report(LoadHarness.run("dashboard.activityFeed", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.getActivityFeed(20),
+                        RepositoryLoadTest::outcomeOf, done)));
+    }
+
+    @Test
+    public void search() {
+        SearchRepository repository = new SearchRepository(context);
+        report(LoadHarness.run("search.search", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.search("sort", 20),
+                        RepositoryLoadTest::outcomeOf, done)));
+    }
+
+    @Test
+    public void teams() {
+        TeamRepository repository = new TeamRepository(context);
+        report(LoadHarness.run("team.myTeams", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.getMyTeams(),
+                        RepositoryLoadTest::teamOutcomeOf, done)));
+        report(LoadHarness.run("team.snippets", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.getTeamSnippets("team1", Collections.emptyMap()),
+                        RepositoryLoadTest::teamOutcomeOf, done)));
+    }
+
+    @Test
+    public void comments() {
+        CommentRepository repository = new CommentRepository(context);
+        report(LoadHarness.run("comment.comments", CONCURRENCY, CALLS, TIMEOUT_MS,
+                done -> LoadHarness.awaitOutcome(repository.getComments("s1", 50),
+                        RepositoryLoadTest::outcomeOf, done)));
+    }
+
+    private void report(LoadHarness.Report report) {
+        System.out.println(report);
+        assertEquals("Requests without a replay route", 0, server.getUnmatchedCount());
+        assertTrue(report.name + " error rate " + report.getErrorRate() + " above " + MAX_ERROR_RATE,
+                report.getErrorRate() <= MAX_ERROR_RATE);
+        assertTrue(report.name + " p95 " + report.p95 + "ms above " + MAX_P95_MS + "ms",
+                report.p95 <= MAX_P95_MS);
+    }
+
+    private static Outcome outcomeOf(Resource<?> resource) {
+        switch (resource.status) {
+            case SUCCESS:
+                return Outcome.SUCCESS;
+            case ERROR:
+                return Outcome.ERROR;
+            default:
+                return null;
+        }
+    }
+
+    private static Outcome teamOutcomeOf(AuthRepository.Resource<?> resource) {
+        switch (resource.getStatus()) {
+            case SUCCESS:
+                return Outcome.SUCCESS;
+            case ERROR:
+                return Outcome.ERROR;
+            default:
+                return null;
+        }
+    }
+}
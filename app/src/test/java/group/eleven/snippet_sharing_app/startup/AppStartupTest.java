@@ -0,0 +1,175 @@
+package group.eleven.snippet_sharing_app.startup;
+
+import android.app.Application;
+import android.os.Looper;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Dependency ordering, graph validation and phase scheduling of {@link AppStartup}
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class AppStartupTest {
+
+    private Application application;
+    private AppStartup startup;
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() {
+        application = RuntimeEnvironment.getApplication();
+        startup = new AppStartup();
+    }
+
+    @Test
+    public void dependenciesRunBeforeDependents() {
+        // Registered out of order on purpose
+        startup.register(record("ui", Initializer.Phase.CRITICAL, "theme", "session"));
+        startup.register(record("session", Initializer.Phase.CRITICAL, "storage"));
+        startup.register(record("theme", Initializer.Phase.CRITICAL));
+        startup.register(record("storage", Initializer.Phase.CRITICAL));
+
+        startup.start(application);
+
+        assertEquals(4, ran.size());
+        assertBefore("storage", "session");
+        assertBefore("session", "ui");
+        assertBefore("theme", "ui");
+    }
+
+    @Test
+    public void unknownDependencyFailsStart() {
+        startup.register(record("api-client", Initializer.Phase.BACKGROUND, "session"));
+        try {
+            startup.start(application);
+            fail("Expected an unknown dependency to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("session"));
+        }
+        assertTrue(ran.isEmpty());
+    }
+
+    @Test
+    public void dependencyCycleFailsStart() {
+        startup.register(record("a", Initializer.Phase.CRITICAL, "c"));
+        startup.register(record("b", Initializer.Phase.CRITICAL, "a"));
+        startup.register(record("c", Initializer.Phase.CRITICAL, "b"));
+        try {
+            startup.start(application);
+            fail("Expected a cycle to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("cycle"));
+        }
+        assertTrue(ran.isEmpty());
+    }
+
+    @Test
+    public void duplicateNameFailsRegister() {
+        startup.register(record("theme", Initializer.Phase.CRITICAL));
+        try {
+            startup.register(record("theme", Initializer.Phase.IDLE));
+            fail("Expected a duplicate name to fail");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void eachPhaseRunsWhenScheduled() throws InterruptedException {
+        CountDownLatch backgroundDone = new CountDownLatch(1);
+        AtomicReference<Thread> backgroundThread = new AtomicReference<>();
+        AtomicReference<Thread> idleThread = new AtomicReference<>();
+
+        startup.register(record("critical", Initializer.Phase.CRITICAL));
+        startup.register(new Initializer("background", Initializer.Phase.BACKGROUND, context -> {
+            backgroundThread.set(Thread.currentThread());
+            ran.add("background");
+            backgroundDone.countDown();
+        }, "critical"));
+        startup.register(new Initializer("idle", Initializer.Phase.IDLE, context -> {
+            idleThread.set(Thread.currentThread());
+            ran.add("idle");
+        }));
+        startup.register(record("on-demand", Initializer.Phase.ON_DEMAND, "critical"));
+
+        startup.start(application);
+        assertEquals("critical", ran.get(0));
+
+        assertTrue(backgroundDone.await(5, TimeUnit.SECONDS));
+        assertNotSame(Looper.getMainLooper().getThread(), backgroundThread.get());
+
+        // No activity draws in this test, so idle initializers wait for the fallback delay
+        assertFalse(ran.contains("idle"));
+        shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(6));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertTrue(ran.contains("idle"));
+        assertSame(Looper.getMainLooper().getThread(), idleThread.get());
+
+        assertFalse(ran.contains("on-demand"));
+        startup.ensure("on-demand");
+        startup.ensure("on-demand");
+        assertEquals(1, count("on-demand"));
+        assertEquals(1, count("critical"));
+    }
+
+    @Test
+    public void failedDeferredInitializerIsNotRetried() {
+        startup.register(new Initializer("flaky", Initializer.Phase.ON_DEMAND, context -> {
+            ran.add("flaky");
+            throw new IllegalStateException("boom");
+        }));
+        startup.start(application);
+
+        startup.ensure("flaky");
+        startup.ensure("flaky");
+        assertEquals(1, count("flaky"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failedCriticalInitializerFailsStart() {
+        startup.register(new Initializer("theme", Initializer.Phase.CRITICAL, context -> {
+            throw new IllegalStateException("boom");
+        }));
+        startup.start(application);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ensureUnknownNameFails() {
+        startup.start(application);
+        startup.ensure("missing");
+    }
+
+    private Initializer record(String name, Initializer.Phase phase, String... dependencies) {
+        return new Initializer(name, phase, context -> ran.add(name), dependencies);
+    }
+
+    private void assertBefore(String first, String second) {
+        assertTrue(first + " should run before " + second + " in " + ran,
+                ran.indexOf(first) < ran.indexOf(second));
+    }
+
+    private int count(String name) {
+        return Collections.frequency(ran, name);
+    }
+}
@@ -0,0 +1,294 @@
+package group.eleven.snippet_sharing_app.ui;
+
+import android.app.Application;
+import android.graphics.Color;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import group.eleven.snippet_sharing_app.R;
+import group.eleven.snippet_sharing_app.data.model.SnippetCard;
+import group.eleven.snippet_sharing_app.model.SearchResult;
+import group.eleven.snippet_sharing_app.model.SnippetModel;
+import group.eleven.snippet_sharing_app.ui.home.FeedSnippetAdapter;
+import group.eleven.snippet_sharing_app.ui.home.SnippetCardAdapter;
+import group.eleven.snippet_sharing_app.ui.mysnippets.MySnippetAdapter;
+import group.eleven.snippet_sharing_app.ui.search.SearchResultAdapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bytes allocated by each list adapter's onBindViewHolder while a laid-out list is scrolled
+ * down and back up, so holders are recycled and rebound to rows seen before.
+ *
+ * The first bind of a row may highlight its code; a rebind should only copy cached values
+ * into the views, so it must stay under a small fixed ceiling and must not grow with the
+ * row's content. Rows have no avatar URL so Glide stays out of the numbers.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class BindAllocationTest {
+
+    private static final int ROWS = 200;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int SCROLL_STEP_PX = 240;
+    private static final int SHORT_PREVIEW_LINES = 4;
+    private static final int LONG_PREVIEW_LINES = 40;
+    // Median bytes per rebind; room for measurement noise, not for a per-bind object
+    private static final long MAX_REBIND_BYTES = 512;
+    private static final String[] LANGUAGE_COLORS = {"#F7DF1E", "#3776AB", "#B07219", "#00ADD8", "#DEA584"};
+    private static final String[] PRIVACY = {"Public", "Private", "Team"};
+
+    private com.sun.management.ThreadMXBean threads;
+    private ContextThemeWrapper context;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        context = new ContextThemeWrapper(RuntimeEnvironment.getApplication(), R.style.Theme_Snippet_Sharing_App);
+    }
+
+    @Test
+    public void feedSnippetRebindsDoNotAllocate() {
+        MeteredAdapter<?> adapter = scrollThrough(new FeedSnippetAdapter(cards()));
+
+        assertSteadyState("FeedSnippetAdapter", adapter);
+        assertFlatInContent("FeedSnippetAdapter", adapter);
+    }
+
+    @Test
+    public void snippetCardRebindsDoNotAllocate() {
+        MeteredAdapter<?> adapter = scrollThrough(new SnippetCardAdapter(cards()));
+
+        assertSteadyState("SnippetCardAdapter", adapter);
+        assertFlatInContent("SnippetCardAdapter", adapter);
+    }
+
+    @Test
+    public void searchResultRebindsDoNotAllocate() {
+        SearchResultAdapter results = new SearchResultAdapter();
+        results.setItems(searchResults());
+        MeteredAdapter<?> adapter = scrollThrough(results);
+
+        assertSteadyState("SearchResultAdapter", adapter);
+        assertFlatInContent("SearchResultAdapter", adapter);
+    }
+
+    @Test
+    public void mySnippetRebindsDoNotAllocate() {
+        MySnippetAdapter snippets = new MySnippetAdapter(null);
+        snippets.setSnippets(mySnippets());
+        MeteredAdapter<?> adapter = scrollThrough(snippets);
+
+        assertSteadyState("MySnippetAdapter", adapter);
+    }
+
+    private void assertSteadyState(String name, MeteredAdapter<?> adapter) {
+        long[] warm = toArray(adapter.warmBytes);
+        assertTrue(name + ": scroll should rebind recycled holders", warm.length > ROWS / 2);
+        assertTrue(name + " rebinds allocate " + median(warm) + " B median (p95 " + percentile(warm, 95)
+                        + " B; first binds " + median(toArray(adapter.coldBytes)) + " B), above "
+                        + MAX_REBIND_BYTES + " B",
+                median(warm) <= MAX_REBIND_BYTES);
+    }
+
+    /**
+     * Rows alternate short and long code; ten times the code must not mean more work per rebind
+     */
+    private void assertFlatInContent(String name, MeteredAdapter<?> adapter) {
+        long shortMedian = median(toArray(adapter.warmShortBytes));
+        long longMedian = median(toArray(adapter.warmLongBytes));
+        // Allow for measurement noise
+        assertTrue(name + " rebinds of long rows allocate " + longMedian + " B vs " + shortMedian + " B",
+                longMedian <= shortMedian + Math.max(256, shortMedian / 4));
+    }
+
+    /**
+     * Lay the adapter out in a list, then scroll to the end and back to the top in small
+     * steps, as a fling would
+     */
+    private MeteredAdapter<?> scrollThrough(RecyclerView.Adapter<?> adapter) {
+        MeteredAdapter<?> metered = meter(adapter);
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        recyclerView.setAdapter(metered);
+        layout(recyclerView);
+
+        int guard = ROWS * 20;
+        while (recyclerView.canScrollVertically(1) && guard-- > 0) {
+            recyclerView.scrollBy(0, SCROLL_STEP_PX);
+            layout(recyclerView);
+        }
+        while (recyclerView.canScrollVertically(-1) && guard-- > 0) {
+            recyclerView.scrollBy(0, -SCROLL_STEP_PX);
+            layout(recyclerView);
+        }
+        assertEquals("Scroll did not cover the list", ROWS, metered.seen.size());
+        return metered;
+    }
+
+    private <VH extends RecyclerView.ViewHolder> MeteredAdapter<VH> meter(RecyclerView.Adapter<VH> adapter) {
+        return new MeteredAdapter<>(adapter);
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static List<SnippetCard> cards() {
+        List<SnippetCard> cards = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            cards.add(new SnippetCard("s" + i, "snippet-" + i, "Snippet " + i,
+                    i % 3 == 0 ? null : "Helper number " + i + " for the feed",
+                    "JavaScript", "2h ago", System.currentTimeMillis() - i * 60_000L, preview(i),
+                    new String[]{"util", "tag" + (i % 7)},
+                    Color.parseColor(LANGUAGE_COLORS[i % LANGUAGE_COLORS.length]),
+                    "Author " + (i % 10), null, "author" + (i % 10), i * 3, i % 5, i % 4 == 0,
+                    i % 6 == 0 ? "private" : "public", null));
+        }
+        return cards;
+    }
+
+    private static List<SearchResult> searchResults() {
+        List<SearchResult> results = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            results.add(new SearchResult("s" + i, "Snippet " + i, "Utilities • Helpers", "JavaScript",
+                    LANGUAGE_COLORS[i % LANGUAGE_COLORS.length], preview(i), "@author" + (i % 10),
+                    i * 3, i % 5, i % 6 == 0, "2h ago"));
+        }
+        return results;
+    }
+
+    private static List<SnippetModel> mySnippets() {
+        List<SnippetModel> snippets = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            snippets.add(new SnippetModel("s" + i, "Snippet " + i, "JavaScript",
+                    LANGUAGE_COLORS[i % LANGUAGE_COLORS.length], PRIVACY[i % PRIVACY.length], "v1." + (i % 4) + ".0",
+                    "Modified 2h ago", i % 4 == 0, preview(i)));
+        }
+        return snippets;
+    }
+
+    /**
+     * Code for row i: short for even rows, long for odd ones
+     */
+    private static String preview(int i) {
+        int lines = i % 2 == 0 ? SHORT_PREVIEW_LINES : LONG_PREVIEW_LINES;
+        StringBuilder code = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            code.append("const value").append(line).append(" = compute(\"item\", ")
+                    .append(i + line).append("); // step ").append(line).append('\n');
+        }
+        return code.toString();
+    }
+
+    private static long[] toArray(List<Long> values) {
+        long[] array = new long[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static long median(long[] sorted) {
+        return percentile(sorted, 50);
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * Wraps an adapter and counts bytes allocated on the main thread by each of its binds,
+     * split by first bind and rebind
+     */
+    private final class MeteredAdapter<VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+        final Set<Integer> seen = new HashSet<>();
+        final List<Long> coldBytes = new ArrayList<>();
+        final List<Long> warmBytes = new ArrayList<>();
+        final List<Long> warmShortBytes = new ArrayList<>();
+        final List<Long> warmLongBytes = new ArrayList<>();
+        private final RecyclerView.Adapter<VH> adapter;
+        private final long threadId = Thread.currentThread().getId();
+
+        MeteredAdapter(RecyclerView.Adapter<VH> adapter) {
+            this.adapter = adapter;
+        }
+
+        @NonNull
+        @Override
+        public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return adapter.onCreateViewHolder(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull VH holder, int position) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            adapter.onBindViewHolder(holder, position);
+            long bytes = threads.getThreadAllocatedBytes(threadId) - before;
+            if (seen.add(position)) {
+                coldBytes.add(bytes);
+            } else {
+                warmBytes.add(bytes);
+                (position % 2 == 0 ? warmShortBytes : warmLongBytes).add(bytes);
+            }
+        }
+
+        @Override
+        public int getItemCount() {
+            return adapter.getItemCount();
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return adapter.getItemViewType(position);
+        }
+
+        @Override
+        public void onViewRecycled(@NonNull VH holder) {
+            adapter.onViewRecycled(holder);
+        }
+
+        @Override
+        public void onViewAttachedToWindow(@NonNull VH holder) {
+            adapter.onViewAttachedToWindow(holder);
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(@NonNull VH holder) {
+            adapter.onViewDetachedFromWindow(holder);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link Iso8601} against java.time for the forms the API sends, and rejection of
+ * malformed or impossible timestamps
+ */
+public class Iso8601Test {
+
+    @Test
+    public void zuluWithMicroseconds() {
+        assertEquals(Instant.parse("2026-02-20T07:52:12.000Z").toEpochMilli(),
+                Iso8601.parse("2026-02-20T07:52:12.000000Z"));
+    }
+
+    @Test
+    public void fractionKeepsMillisecondsOnly() {
+        assertEquals(epoch("2026-02-20T07:52:12.100Z"), Iso8601.parse("2026-02-20T07:52:12.1Z"));
+        assertEquals(epoch("2026-02-20T07:52:12.123Z"), Iso8601.parse("2026-02-20T07:52:12.123Z"));
+        assertEquals(epoch("2026-02-20T07:52:12.123Z"), Iso8601.parse("2026-02-20T07:52:12.123999Z"));
+        assertEquals(epoch("2026-02-20T07:52:12.045Z"), Iso8601.parse("2026-02-20T07:52:12.045Z"));
+    }
+
+    @Test
+    public void offsets() {
+        assertEquals(OffsetDateTime.parse("2026-02-20T07:52:12+05:30").toInstant().toEpochMilli(),
+                Iso8601.parse("2026-02-20T07:52:12+05:30"));
+        assertEquals(OffsetDateTime.parse("2026-02-20T07:52:12-08:00").toInstant().toEpochMilli(),
+                Iso8601.parse("2026-02-20T07:52:12-0800"));
+        assertEquals(OffsetDateTime.parse("2026-02-20T07:52:12.250+01:00").toInstant().toEpochMilli(),
+                Iso8601.parse("2026-02-20T07:52:12.250+01:00"));
+        assertEquals(epoch("2026-02-20T07:52:12Z"), Iso8601.parse("2026-02-20T07:52:12z"));
+    }
+
+    @Test
+    public void shortForms() {
+        assertEquals(epoch("2026-02-20T00:00:00Z"), Iso8601.parse("2026-02-20"));
+        assertEquals(epoch("2026-02-20T07:52:00Z"), Iso8601.parse("2026-02-20T07:52"));
+        assertEquals(epoch("2026-02-20T07:52:12Z"), Iso8601.parse("2026-02-20 07:52:12"));
+        // No offset is taken as UTC
+        assertEquals(epoch("2026-02-20T07:52:12Z"), Iso8601.parse("2026-02-20T07:52:12"));
+    }
+
+    @Test
+    public void leapDays() {
+        assertEquals(epoch("2024-02-29T12:00:00Z"), Iso8601.parse("2024-02-29T12:00:00Z"));
+        assertEquals(epoch("2000-02-29T12:00:00Z"), Iso8601.parse("2000-02-29T12:00:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-29T12:00:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("1900-02-29T12:00:00Z"));
+    }
+
+    @Test
+    public void impossibleDatesAreRejected() {
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-30T00:00:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-04-31T00:00:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-11-31"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-13-01"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-00-10"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-01-00"));
+        assertEquals(epoch("2026-01-31T00:00:00Z"), Iso8601.parse("2026-01-31"));
+    }
+
+    @Test
+    public void malformedInputIsRejected() {
+        assertEquals(Iso8601.INVALID, Iso8601.parse(null));
+        assertEquals(Iso8601.INVALID, Iso8601.parse(""));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("20-02-2026"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T24:00:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T07:60:00Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T07:52:12.Z"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T07:52:12+25:00"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T07:52:12+05:75"));
+        assertEquals(Iso8601.INVALID, Iso8601.parse("2026-02-20T07:52:12Zjunk"));
+    }
+
+    private static long epoch(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+}
@@ -0,0 +1,62 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Bucket boundaries of {@link RelativeTime}
+ */
+public class RelativeTimeTest {
+
+    private static final long NOW = 1_770_000_000_000L;
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    @Test
+    public void eachBucketStartsAtItsBoundary() {
+        assertEquals("Just now", ago(0));
+        assertEquals("Just now", ago(MINUTE - 1));
+        assertEquals("1 min ago", ago(MINUTE));
+        assertEquals("59 min ago", ago(HOUR - 1));
+        assertEquals("1h ago", ago(HOUR));
+        assertEquals("23h ago", ago(DAY - 1));
+        assertEquals("1d ago", ago(DAY));
+        assertEquals("6d ago", ago(7 * DAY - 1));
+        assertEquals("1w ago", ago(7 * DAY));
+        assertEquals("4w ago", ago(30 * DAY - 1));
+        assertEquals("1mo ago", ago(30 * DAY));
+        assertEquals("12mo ago", ago(365 * DAY - 1));
+        assertEquals("1y ago", ago(365 * DAY));
+    }
+
+    @Test
+    public void yearsAreCapped() {
+        assertEquals("99y ago", ago(500 * 365 * DAY));
+    }
+
+    @Test
+    public void futureTimesReadAsJustNow() {
+        assertEquals("Just now", RelativeTime.DEFAULT.format(NOW + 5 * MINUTE, NOW));
+    }
+
+    @Test
+    public void invalidIsEmpty() {
+        assertEquals("", RelativeTime.DEFAULT.format(Iso8601.INVALID, NOW));
+    }
+
+    @Test
+    public void updatedPrefixAndReuse() {
+        assertEquals("Updated just now", RelativeTime.UPDATED.format(NOW, NOW));
+        assertEquals("Updated 3h ago", RelativeTime.UPDATED.format(NOW - 3 * HOUR, NOW));
+        // Labels are built once per bucket and reused
+        assertSame(RelativeTime.UPDATED.format(NOW - 3 * HOUR, NOW),
+                RelativeTime.UPDATED.format(NOW - 3 * HOUR - MINUTE, NOW));
+    }
+
+    private static String ago(long millis) {
+        return RelativeTime.DEFAULT.format(NOW - millis, NOW);
+    }
+}
@@ -0,0 +1,152 @@
+package group.eleven.snippet_sharing_app.utils;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import com.google.gson.Gson;
+
+import group.eleven.snippet_sharing_app.data.model.User;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Moving credentials written by older builds out of plain SharedPreferences. Robolectric
+ * has no Android Keystore, so the store gets a software data key, or none to stand in for
+ * a device whose Keystore is broken.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34, application = Application.class)
+public class SessionMigrationTest {
+
+    private static final String LEGACY_PREFS = "SnippetAppSession";
+    private static final String SECURE_PREFS = "SnippetAppSecureSession";
+    private static final String TOKEN = "legacy-token";
+    private static final String USER_JSON = "{\"id\":\"7\",\"username\":\"octocat\"}";
+
+    private Context context;
+    private SharedPreferences legacy;
+
+    @Before
+    public void setUp() {
+        context = RuntimeEnvironment.getApplication();
+        legacy = context.getSharedPreferences(LEGACY_PREFS, Context.MODE_PRIVATE);
+        legacy.edit()
+                .putString("auth_token", TOKEN)
+                .putString("user", USER_JSON)
+                .putBoolean("is_logged_in", true)
+                .commit();
+        SessionManager.resetLegacyMigrationForTesting();
+    }
+
+    @After
+    public void tearDown() {
+        SecureSessionStore.setInstanceForTesting(null);
+        SessionManager.resetLegacyMigrationForTesting();
+        legacy.edit().clear().commit();
+        context.getSharedPreferences(SECURE_PREFS, Context.MODE_PRIVATE).edit().clear().commit();
+    }
+
+    @Test
+    public void migratesAndRemovesPlaintext() throws Exception {
+        SecretKey key = newDataKey();
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, key));
+
+        SessionManager session = new SessionManager(context);
+
+        assertEquals(TOKEN, session.getAuthToken());
+        assertNotNull(session.getUser());
+        assertFalse(legacy.contains("auth_token"));
+        assertFalse(legacy.contains("user"));
+        // Non-sensitive flags stay where they were
+        assertTrue(legacy.getBoolean("is_logged_in", false));
+
+        // On disk only as ciphertext, and readable by the next process
+        String stored = context.getSharedPreferences(SECURE_PREFS, Context.MODE_PRIVATE)
+                .getString("v_auth_token", null);
+        assertNotNull(stored);
+        assertFalse(stored.contains(TOKEN));
+        assertEquals(TOKEN, new SecureSessionStore(context, key).getString("auth_token", null));
+    }
+
+    @Test
+    public void keepsPlaintextWhenStoreCannotPersist() throws Exception {
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, null));
+
+        SessionManager session = new SessionManager(context);
+
+        // Usable for this process, but nothing was written, so the old copy must survive
+        assertEquals(TOKEN, session.getAuthToken());
+        assertEquals(TOKEN, legacy.getString("auth_token", null));
+        assertEquals(USER_JSON, legacy.getString("user", null));
+
+        // A later process with a working Keystore finishes the job
+        SessionManager.resetLegacyMigrationForTesting();
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, newDataKey()));
+        assertEquals(TOKEN, new SessionManager(context).getAuthToken());
+        assertNull(legacy.getString("auth_token", null));
+    }
+
+    @Test
+    public void logoutRemovesPlaintextLeftByUnfinishedMigration() {
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, null));
+        SessionManager session = new SessionManager(context);
+        assertEquals(TOKEN, legacy.getString("auth_token", null));
+
+        session.logout();
+
+        assertNull(legacy.getString("auth_token", null));
+        assertNull(legacy.getString("user", null));
+        // Nothing left for the next process to migrate back
+        SessionManager.resetLegacyMigrationForTesting();
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, null));
+        assertFalse(new SessionManager(context).isLoggedIn());
+    }
+
+    @Test
+    public void memoryOnlyLoginDoesNotSurviveRestart() {
+        legacy.edit().clear().commit();
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, null));
+        SessionManager session = new SessionManager(context);
+
+        assertTrue(session.createLoginSession("fresh-token", new Gson().fromJson(USER_JSON, User.class)));
+        assertTrue(session.isLoggedIn());
+
+        // Next process: the flag is still on disk, the token was never written
+        SessionManager.resetLegacyMigrationForTesting();
+        SecureSessionStore.setInstanceForTesting(new SecureSessionStore(context, null));
+        SessionManager restarted = new SessionManager(context);
+        assertNull(restarted.getAuthToken());
+        assertFalse(restarted.isLoggedIn());
+    }
+
+    @Test
+    public void memoryOnlyCommitReportsFailure() {
+        SecureSessionStore store = new SecureSessionStore(context, null);
+
+        assertFalse(store.isPersistent());
+        assertFalse(store.edit().putString("auth_token", TOKEN).commit());
+        assertEquals(TOKEN, store.getString("auth_token", null));
+    }
+
+    private static SecretKey newDataKey() throws Exception {
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        return generator.generateKey();
+    }
+}